@@ -0,0 +1,70 @@
+package fi.unfinitas.bookora;
+
+import fi.unfinitas.bookora.domain.enums.BookingStatus;
+import fi.unfinitas.bookora.domain.model.Booking;
+import fi.unfinitas.bookora.domain.model.GuestAccessToken;
+import fi.unfinitas.bookora.domain.model.Provider;
+import fi.unfinitas.bookora.domain.model.ServiceOffering;
+import fi.unfinitas.bookora.domain.model.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Representative entities shared by the benchmarks.
+ */
+public final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    public static ServiceOffering serviceOffering() {
+        final Provider provider = Provider.builder()
+                .id(UUID.randomUUID())
+                .businessName("Helsinki Hair Studio")
+                .build();
+        return ServiceOffering.builder()
+                .id(7L)
+                .provider(provider)
+                .name("Haircut")
+                .description("Wash, cut and style")
+                .durationMinutes(45)
+                .price(new BigDecimal("39.90"))
+                .build();
+    }
+
+    public static Booking booking() {
+        final ServiceOffering serviceOffering = serviceOffering();
+        final User customer = User.builder()
+                .id(UUID.randomUUID())
+                .username("guest_matti_1a2b3c4d")
+                .firstName("Matti")
+                .lastName("Meikäläinen")
+                .email("matti.meikalainen@example.com")
+                .phoneNumber("+358401234567")
+                .isGuest(true)
+                .build();
+        final LocalDateTime start = LocalDateTime.of(2026, 3, 2, 10, 0);
+        final Booking booking = Booking.builder()
+                .id(42L)
+                .customer(customer)
+                .provider(serviceOffering.getProvider())
+                .serviceOffering(serviceOffering)
+                .startTime(start)
+                .endTime(start.plusMinutes(serviceOffering.getDurationMinutes()))
+                .status(BookingStatus.PENDING)
+                .notes("Please use the side entrance")
+                .build();
+        booking.setCreatedAt(start.minusDays(3));
+        return booking;
+    }
+
+    public static GuestAccessToken token(final Booking booking) {
+        return GuestAccessToken.builder()
+                .token(UUID.randomUUID())
+                .booking(booking)
+                .expiresAt(booking.getEndTime().plusDays(1))
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package fi.unfinitas.bookora.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Platform-thread pool versus virtual threads for I/O-bound requests. Each request waits on a remote call
+ * (e.g. SMTP or a webhook partner) and then on a database call behind a semaphore the size of the
+ * connection pool, like {@link fi.unfinitas.bookora.config.database.BulkheadDataSource}. The platform pool
+ * has Tomcat's default 200 threads; virtual threads get one thread per request. With short remote calls both
+ * are bound by the database semaphore; with long ones the platform pool runs out of threads first.
+ * Scores are milliseconds per burst of {@code requests} concurrent requests, so lower is better.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VirtualThreadBenchmark {
+
+    private static final int PLATFORM_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"1000"})
+    private int requests;
+
+    @Param({"5", "50"})
+    private int remoteMillis;
+
+    @Param({"1"})
+    private int databaseMillis;
+
+    @Param({"20"})
+    private int connections;
+
+    private ExecutorService executor;
+    private Semaphore bulkhead;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = "virtual".equals(threads)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+        bulkhead = new Semaphore(connections, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int ioBoundBurst() throws Exception {
+        final List<Future<Integer>> futures = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            futures.add(executor.submit(this::handleRequest));
+        }
+        int completed = 0;
+        for (final Future<Integer> future : futures) {
+            completed += future.get();
+        }
+        return completed;
+    }
+
+    private int handleRequest() throws InterruptedException {
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(remoteMillis));
+        bulkhead.acquire();
+        try {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(databaseMillis));
+        } finally {
+            bulkhead.release();
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,97 @@
+package fi.unfinitas.bookora.config.mail;
+
+import fi.unfinitas.bookora.testutil.SmtpSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emails per second from the email executor's five threads to a loopback SMTP server, sending with a plain
+ * {@link JavaMailSenderImpl} (one connection per message) versus {@link BatchingMailSender} with the default
+ * two pooled connections. {@code connectMillis} delays each new connection's greeting to stand in for the TCP
+ * and TLS handshakes of a remote server such as smtp.gmail.com:587.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SmtpDeliveryBenchmark {
+
+    private static final int EMAILS = 100;
+    private static final int SENDER_THREADS = 5;
+
+    @Param({"direct", "pooled"})
+    private String delivery;
+
+    @Param({"0", "30"})
+    private int connectMillis;
+
+    private SmtpSink smtpSink;
+    private JavaMailSenderImpl mailSender;
+    private ExecutorService senders;
+    private SimpleMailMessage message;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        smtpSink = new SmtpSink(Duration.ofMillis(connectMillis));
+        final JavaMailSenderImpl direct = new JavaMailSenderImpl();
+        direct.setHost("localhost");
+        direct.setPort(smtpSink.port());
+        direct.setDefaultEncoding("UTF-8");
+        mailSender = "pooled".equals(delivery)
+                ? new BatchingMailSender(direct, 2, 20, 100, Duration.ofSeconds(1), Duration.ofSeconds(30))
+                : direct;
+        senders = Executors.newFixedThreadPool(SENDER_THREADS);
+
+        message = new SimpleMailMessage();
+        message.setFrom("noreply@bookora.fi");
+        message.setTo("matti.meikalainen@example.com");
+        message.setSubject("Booking Confirmation - Haircut");
+        message.setText("Your booking on 20.10.2026 at 10:00 is confirmed.");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        senders.shutdownNow();
+        if (mailSender instanceof BatchingMailSender batchingMailSender) {
+            batchingMailSender.destroy();
+        }
+        smtpSink.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EMAILS)
+    public int sendBurst() throws Exception {
+        final List<Future<?>> sent = new ArrayList<>(EMAILS);
+        for (int i = 0; i < EMAILS; i++) {
+            sent.add(senders.submit(() -> mailSender.send(message)));
+        }
+        for (final Future<?> future : sent) {
+            future.get();
+        }
+        return sent.size();
+    }
+}
@@ -0,0 +1,80 @@
+package fi.unfinitas.bookora.dto.response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import fi.unfinitas.bookora.BenchmarkData;
+import fi.unfinitas.bookora.domain.model.Booking;
+import fi.unfinitas.bookora.domain.model.GuestAccessToken;
+import fi.unfinitas.bookora.mapper.BookingMapper;
+import fi.unfinitas.bookora.mapper.BookingMapperImpl;
+import fi.unfinitas.bookora.mapper.ServiceOfferingMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of {@link ApiResponse} envelopes as written by the controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<GuestBookingResponse> guestBooking;
+    private ApiResponse<List<BookingResponse>> bookingPage;
+    private ApiResponse<Void> error;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the ObjectMapper Spring Boot configures
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        final BookingMapper bookingMapper = new BookingMapperImpl();
+        ReflectionTestUtils.setField(bookingMapper, "serviceOfferingMapper", new ServiceOfferingMapperImpl());
+        final Booking booking = BenchmarkData.booking();
+
+        final GuestAccessToken token = BenchmarkData.token(booking);
+        guestBooking = ApiResponse.success("Booking created successfully",
+                bookingMapper.toGuestResponse(booking, token, token.getToken().toString()));
+        bookingPage = ApiResponse.success("Bookings retrieved successfully",
+                Collections.nCopies(PAGE_SIZE, bookingMapper.toResponse(booking)));
+        error = ApiResponse.error("Booking not found");
+    }
+
+    @Benchmark
+    public byte[] guestBooking() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(guestBooking);
+    }
+
+    @Benchmark
+    public byte[] bookingPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookingPage);
+    }
+
+    @Benchmark
+    public byte[] error() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(error);
+    }
+}
@@ -0,0 +1,66 @@
+package fi.unfinitas.bookora.mapper;
+
+import fi.unfinitas.bookora.BenchmarkData;
+import fi.unfinitas.bookora.domain.model.Booking;
+import fi.unfinitas.bookora.domain.model.GuestAccessToken;
+import fi.unfinitas.bookora.domain.model.ServiceOffering;
+import fi.unfinitas.bookora.dto.response.BookingResponse;
+import fi.unfinitas.bookora.dto.response.GuestBookingResponse;
+import fi.unfinitas.bookora.dto.response.ServiceOfferingResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct entity to DTO conversions used by every booking response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private BookingMapper bookingMapper;
+    private ServiceOfferingMapper serviceOfferingMapper;
+    private Booking booking;
+    private GuestAccessToken token;
+    private ServiceOffering serviceOffering;
+
+    @Setup
+    public void setUp() {
+        serviceOfferingMapper = new ServiceOfferingMapperImpl();
+        bookingMapper = new BookingMapperImpl();
+        ReflectionTestUtils.setField(bookingMapper, "serviceOfferingMapper", serviceOfferingMapper);
+
+        booking = BenchmarkData.booking();
+        token = BenchmarkData.token(booking);
+        serviceOffering = booking.getServiceOffering();
+    }
+
+    @Benchmark
+    public BookingResponse bookingToResponse() {
+        return bookingMapper.toResponse(booking);
+    }
+
+    @Benchmark
+    public GuestBookingResponse bookingToGuestResponse() {
+        return bookingMapper.toGuestResponse(booking, token, token.getToken().toString());
+    }
+
+    @Benchmark
+    public ServiceOfferingResponse serviceOfferingToResponse() {
+        return serviceOfferingMapper.toResponse(serviceOffering);
+    }
+}
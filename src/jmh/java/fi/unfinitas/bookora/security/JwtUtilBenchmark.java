@@ -0,0 +1,80 @@
+package fi.unfinitas.bookora.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token creation and the validation done by {@code JwtAuthenticationFilter} on every request,
+ * including the denylist check against {@value #REVOKED_ENTRIES} revoked tokens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final int REVOKED_ENTRIES = 10_000;
+
+    private JwtUtil jwtUtil;
+    private JwtDenylist denylist;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "ThisIsAVerySecureSecretKeyForJWTBenchmarks123456789");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 604800000L);
+        jwtUtil.init();
+
+        userDetails = User.withUsername("benchmark-user").password("unused").roles("USER").build();
+        token = jwtUtil.generateAccessToken(userDetails, UUID.randomUUID());
+
+        denylist = new JwtDenylist(new SimpleMeterRegistry());
+        final LocalDateTime expiresAt = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < REVOKED_ENTRIES; i++) {
+            denylist.add(UUID.randomUUID(), expiresAt);
+        }
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtUtil.generateAccessToken(userDetails);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token, userDetails);
+    }
+
+    @Benchmark
+    public boolean parseAndCheckRevoked() {
+        final Claims claims = jwtUtil.parseClaims(token);
+        return denylist.isRevoked(JwtUtil.tokenId(claims), JwtUtil.sessionId(claims));
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+}
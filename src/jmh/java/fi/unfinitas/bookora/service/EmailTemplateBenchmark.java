@@ -0,0 +1,127 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.BenchmarkData;
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.domain.event.SendMailEvent;
+import fi.unfinitas.bookora.domain.model.Booking;
+import fi.unfinitas.bookora.domain.model.GuestAccessToken;
+import fi.unfinitas.bookora.mapper.BookingMapper;
+import fi.unfinitas.bookora.mapper.BookingMapperImpl;
+import fi.unfinitas.bookora.mapper.ServiceOfferingMapperImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thymeleaf rendering of each email template: a full render, the {@link EmailTemplateRenderer} that renders
+ * only the content fragment into a pre-rendered layout, and {@link EmailTemplateService#send} with a mail
+ * sender that discards the message, so SMTP is not measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    @Param({"email/booking-created", "email/booking-cancelled", "email/email-verification"})
+    private String template;
+
+    private SpringTemplateEngine templateEngine;
+    private EmailTemplateRenderer emailTemplateRenderer;
+    private EmailTemplateService emailTemplateService;
+    private Map<String, Object> variables;
+    private SendMailEvent event;
+
+    @Setup
+    public void setUp() {
+        // Same resolution as Spring Boot's Thymeleaf auto-configuration, with caching and the SpEL compiler on
+        final ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding("UTF-8");
+        templateResolver.setCacheable(true);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setEnableSpringELCompiler(true);
+
+        final JavaMailSenderImpl discardingSender = new JavaMailSenderImpl() {
+            @Override
+            public void send(final MimeMessage... mimeMessages) {
+            }
+        };
+        final BookoraProperties bookoraProperties = new BookoraProperties();
+        bookoraProperties.getEmail().setFrom("noreply@bookora.fi");
+        emailTemplateRenderer = new EmailTemplateRenderer(templateEngine, new SimpleMeterRegistry());
+        emailTemplateRenderer.afterSingletonsInstantiated();
+        emailTemplateService = new EmailTemplateService(emailTemplateRenderer, discardingSender, bookoraProperties);
+
+        variables = variables(template);
+        event = new SendMailEvent("matti.meikalainen@example.com", "Benchmark", template, variables);
+    }
+
+    @Benchmark
+    public String render() {
+        final Context context = new Context();
+        context.setVariables(variables);
+        return templateEngine.process(template, context);
+    }
+
+    @Benchmark
+    public String renderContentIntoLayout() {
+        return emailTemplateRenderer.render(template, variables);
+    }
+
+    @Benchmark
+    public void renderAndSend() {
+        emailTemplateService.send(event);
+    }
+
+    /**
+     * Template variables as the services that publish each email build them.
+     */
+    private static Map<String, Object> variables(final String template) {
+        final BookingMapper bookingMapper = new BookingMapperImpl();
+        ReflectionTestUtils.setField(bookingMapper, "serviceOfferingMapper", new ServiceOfferingMapperImpl());
+        final Booking booking = BenchmarkData.booking();
+        final GuestAccessToken token = BenchmarkData.token(booking);
+        final String frontendUrl = "https://bookora.example.com";
+
+        return switch (template) {
+            case "email/booking-created" -> Map.of(
+                    "booking", bookingMapper.toGuestResponse(booking, token, token.getToken().toString()),
+                    "frontendUrl", frontendUrl);
+            case "email/booking-cancelled" -> Map.of(
+                    "booking", bookingMapper.toResponse(booking),
+                    "frontendUrl", frontendUrl);
+            case "email/email-verification" -> Map.of(
+                    "firstName", "Matti",
+                    "verificationLink", frontendUrl + "/auth/verify/" + UUID.randomUUID(),
+                    "expirationDays", 7,
+                    "frontendUrl", frontendUrl);
+            default -> throw new IllegalArgumentException("No variables for template " + template);
+        };
+    }
+}
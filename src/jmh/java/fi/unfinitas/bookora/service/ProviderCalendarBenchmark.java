@@ -0,0 +1,92 @@
+package fi.unfinitas.bookora.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Free start times of one provider day: bitmap scans of a {@link ProviderCalendar} against checking every
+ * candidate start against the day's bookings, the in-memory equivalent of an overlap query per candidate.
+ * Neither side touches the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProviderCalendarBenchmark {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+    private static final LocalTime OPEN = LocalTime.of(8, 0);
+    private static final LocalTime CLOSE = LocalTime.of(18, 0);
+    private static final int GRANULARITY_MINUTES = 5;
+
+    @Param({"2", "8"})
+    private int bookings;
+
+    @Param({"30", "90"})
+    private int durationMinutes;
+
+    private final int bufferMinutes = 10;
+
+    private ProviderCalendar calendar;
+    private List<LocalDateTime[]> bookedRanges;
+
+    @Setup
+    public void setUp() {
+        final ProviderCalendar.Builder builder = ProviderCalendar.builder(DAY, 7, GRANULARITY_MINUTES)
+                .availability(DAY, OPEN, CLOSE, true);
+        bookedRanges = new ArrayList<>();
+        // Spread 10-minute bookings evenly over the opening hours
+        final int step = (CLOSE.toSecondOfDay() - OPEN.toSecondOfDay()) / 60 / bookings;
+        for (int i = 0; i < bookings; i++) {
+            final LocalDateTime start = DAY.atTime(OPEN).plusMinutes((long) i * step);
+            final LocalDateTime end = start.plusMinutes(10);
+            builder.booking(start, end);
+            bookedRanges.add(new LocalDateTime[]{start, end});
+        }
+        calendar = builder.build();
+    }
+
+    @Benchmark
+    public List<LocalTime> bitmap() {
+        return calendar.freeStarts(DAY, durationMinutes, bufferMinutes);
+    }
+
+    @Benchmark
+    public List<LocalTime> intervalScan() {
+        final List<LocalTime> result = new ArrayList<>();
+        for (LocalTime start = OPEN; !start.plusMinutes(durationMinutes).isAfter(CLOSE)
+                && !start.plusMinutes(durationMinutes).isBefore(start); start = start.plusMinutes(GRANULARITY_MINUTES)) {
+            final LocalDateTime from = DAY.atTime(start).minusMinutes(bufferMinutes);
+            final LocalDateTime to = DAY.atTime(start).plusMinutes(durationMinutes + bufferMinutes);
+            boolean free = true;
+            for (final LocalDateTime[] booked : bookedRanges) {
+                if (booked[0].isBefore(to) && booked[1].isAfter(from)) {
+                    free = false;
+                    break;
+                }
+            }
+            if (free) {
+                result.add(start);
+            }
+        }
+        return result;
+    }
+}
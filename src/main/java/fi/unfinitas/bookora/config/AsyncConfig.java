@@ -1,12 +1,17 @@
 package fi.unfinitas.bookora.config;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 
 /**
  * Configuration for asynchronous processing.
@@ -19,11 +24,14 @@ public class AsyncConfig {
 
     /**
      * Configure thread pool for async email sending.
+     * The MDC (correlation ID) of the publishing request is carried over to the email thread.
      *
+     * @param mdcTaskDecorator the task decorator copying the MDC
      * @return the configured executor
      */
     @Bean(name = "emailTaskExecutor")
-    public Executor emailTaskExecutor() {
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Executor emailTaskExecutor(final TaskDecorator mdcTaskDecorator) {
         log.debug("Configuring email task executor");
 
         final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
@@ -31,6 +39,7 @@ public class AsyncConfig {
         executor.setMaxPoolSize(5);
         executor.setQueueCapacity(100);
         executor.setThreadNamePrefix("email-async-");
+        executor.setTaskDecorator(mdcTaskDecorator);
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(60);
         executor.initialize();
@@ -40,4 +49,40 @@ public class AsyncConfig {
 
         return executor;
     }
-}
\ No newline at end of file
+
+    /**
+     * Email executor for virtual-thread mode: one virtual thread per email, so publishers never wait
+     * for a queue slot. At most {@code bookora.virtual-threads.email-concurrency} emails are sent at once;
+     * the rest wait on their own virtual thread, not on the publishing request.
+     *
+     * @param mdcTaskDecorator  the task decorator copying the MDC
+     * @param bookoraProperties the application properties
+     * @return the configured executor
+     */
+    @Bean(name = "emailTaskExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualEmailTaskExecutor(final TaskDecorator mdcTaskDecorator,
+                                             final BookoraProperties bookoraProperties) {
+        final int concurrency = bookoraProperties.getVirtualThreads().getEmailConcurrency();
+        final Semaphore permits = new Semaphore(concurrency);
+
+        final SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("email-virtual-");
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(runnable -> {
+            final Runnable decorated = mdcTaskDecorator.decorate(runnable);
+            return () -> {
+                permits.acquireUninterruptibly();
+                try {
+                    decorated.run();
+                } finally {
+                    permits.release();
+                }
+            };
+        });
+        executor.setTaskTerminationTimeout(60_000);
+
+        log.info("Email task executor configured with virtual threads, concurrency: {}", concurrency);
+
+        return executor;
+    }
+}
@@ -1,5 +1,6 @@
 package fi.unfinitas.bookora.config;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
@@ -10,6 +11,10 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.annotation.Validated;
 
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Type-safe configuration properties for Bookora application.
  * Binds to 'bookora' prefix in application.yml.
@@ -56,6 +61,76 @@ public class BookoraProperties {
          * Enable/disable email sending (useful for testing).
          */
         private boolean enabled = true;
+
+        /**
+         * SMTP delivery configuration.
+         */
+        private Delivery delivery = new Delivery();
+
+        /**
+         * Per-recipient coalescing of notification emails.
+         */
+        private Coalescing coalescing = new Coalescing();
+
+        @Getter
+        @Setter
+        public static class Coalescing {
+            /**
+             * Hold notification emails per recipient and send what is left after merging as one email.
+             */
+            private boolean enabled = false;
+
+            /**
+             * How long the first email for a recipient is held for others to join it.
+             */
+            @Min(value = 1, message = "Coalescing window must be at least 1 ms")
+            private long windowMillis = 30000;
+
+            /**
+             * Held emails per recipient at which they are sent without waiting for the window to end.
+             */
+            @Min(value = 1, message = "Max pending emails per recipient must be at least 1")
+            private int maxPendingPerRecipient = 20;
+        }
+
+        @Getter
+        @Setter
+        public static class Delivery {
+            /**
+             * Send over pooled, reused SMTP connections instead of one connection per message.
+             */
+            private boolean pooled = true;
+
+            /**
+             * Number of SMTP connections, each drained by its own delivery thread.
+             */
+            @Min(value = 1, message = "SMTP connections must be at least 1")
+            private int connections = 2;
+
+            /**
+             * Maximum number of queued messages sent in one go over a single connection.
+             */
+            @Min(value = 1, message = "Batch size must be at least 1")
+            private int batchSize = 20;
+
+            /**
+             * Messages sent over a connection before it is closed and replaced.
+             */
+            @Min(value = 1, message = "Max messages per connection must be at least 1")
+            private int maxMessagesPerConnection = 100;
+
+            /**
+             * Idle time after which a pooled connection is checked with NOOP before it is reused.
+             */
+            @Min(value = 0, message = "Validate after idle must be at least 0 ms")
+            private long validateAfterIdleMillis = 1000;
+
+            /**
+             * How long a sender waits for its message to be delivered.
+             */
+            @Min(value = 1, message = "Send timeout must be at least 1 ms")
+            private long sendTimeoutMillis = 30000;
+        }
     }
 
     @Getter
@@ -76,6 +151,32 @@ public class BookoraProperties {
         public static class Token {
             @Min(value = 0, message = "Token expiration extension days must be at least 0")
             private int expirationExtensionDays = 30;
+
+            /**
+             * Stateless HMAC-signed tokens, see {@code GuestTokenSigner}.
+             */
+            private Signing signing = new Signing();
+
+            @Getter
+            @Setter
+            public static class Signing {
+                /**
+                 * Issue signed tokens to new guest bookings. Signed tokens are accepted whenever their
+                 * key is configured, and UUID tokens always, so disabling this only affects new bookings.
+                 */
+                private boolean enabled = false;
+
+                /**
+                 * Key id new tokens are signed with; at most 16 ASCII characters.
+                 */
+                private String activeKeyId = "k1";
+
+                /**
+                 * HMAC-SHA256 keys by key id, Base64 encoded, at least 32 bytes each. Rotate by adding a key,
+                 * making it active and removing the old one once its tokens have expired. Blank keys are ignored.
+                 */
+                private Map<String, String> keys = new HashMap<>();
+            }
         }
 
         @Getter
@@ -110,4 +211,516 @@ public class BookoraProperties {
     }
 
     private Verification verification = new Verification();
+
+    /**
+     * Adaptive concurrency limiter configuration.
+     */
+    private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+    @Getter
+    @Setter
+    public static class ConcurrencyLimit {
+        /**
+         * Enable/disable load shedding in front of the connection pool.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Value of the Retry-After header (seconds) sent with 503 responses.
+         */
+        @Min(value = 1, message = "Retry-After must be at least 1 second")
+        private int retryAfterSeconds = 1;
+
+        /**
+         * Requests slower than this are treated as a congestion signal.
+         */
+        @Min(value = 1, message = "Latency threshold must be at least 1 ms")
+        private long latencyThresholdMs = 250;
+
+        /**
+         * Factor the limit is multiplied with when congestion is detected.
+         */
+        private double backoffRatio = 0.9;
+
+        /**
+         * Lane for guest booking writes (create, confirm, cancel).
+         */
+        private Lane write = new Lane(10, 2, 20);
+
+        /**
+         * Lane for all other requests.
+         */
+        private Lane read = new Lane(40, 5, 200);
+
+        @Getter
+        @Setter
+        public static class Lane {
+            @Min(value = 1, message = "Initial limit must be at least 1")
+            private int initialLimit;
+
+            @Min(value = 1, message = "Minimum limit must be at least 1")
+            private int minLimit;
+
+            @Min(value = 1, message = "Maximum limit must be at least 1")
+            private int maxLimit;
+
+            public Lane() {
+            }
+
+            public Lane(final int initialLimit, final int minLimit, final int maxLimit) {
+                this.initialLimit = initialLimit;
+                this.minLimit = minLimit;
+                this.maxLimit = maxLimit;
+            }
+        }
+    }
+
+    /**
+     * Idempotency-Key handling for guest booking creation.
+     */
+    private Idempotency idempotency = new Idempotency();
+
+    @Getter
+    @Setter
+    public static class Idempotency {
+        /**
+         * How long a stored response is replayed for the same key.
+         */
+        @Min(value = 1, message = "Idempotency key TTL must be at least 1 hour")
+        private int ttlHours = 24;
+
+        /**
+         * Maximum number of responses kept in the in-memory cache in front of the table.
+         */
+        @Min(value = 0, message = "Idempotency cache size must be at least 0")
+        private int cacheMaxEntries = 10_000;
+
+        /**
+         * Interval between purges of expired keys.
+         */
+        @Min(value = 1, message = "Idempotency purge interval must be at least 1 minute")
+        private int purgeIntervalMinutes = 60;
+    }
+
+    /**
+     * Server-Sent Events stream of booking changes for provider dashboards.
+     */
+    private BookingStream bookingStream = new BookingStream();
+
+    @Getter
+    @Setter
+    public static class BookingStream {
+        /**
+         * Events buffered per connection; a client that falls further behind is disconnected.
+         */
+        @Min(value = 1, message = "Booking stream buffer size must be at least 1")
+        private int bufferSize = 256;
+
+        /**
+         * Interval of heartbeat comments sent on idle connections.
+         */
+        @Min(value = 1, message = "Booking stream heartbeat interval must be at least 1 second")
+        private int heartbeatSeconds = 15;
+
+        /**
+         * Lifetime of a single connection before the client has to reconnect.
+         */
+        @Min(value = 1, message = "Booking stream timeout must be at least 1 minute")
+        private int timeoutMinutes = 30;
+
+        /**
+         * Maximum concurrent connections per provider.
+         */
+        @Min(value = 1, message = "Booking stream connection limit must be at least 1")
+        private int maxConnectionsPerProvider = 20;
+    }
+
+    /**
+     * Incremental booking change feed configuration.
+     */
+    private ChangeFeed changeFeed = new ChangeFeed();
+
+    @Getter
+    @Setter
+    public static class ChangeFeed {
+        /**
+         * Page size when the client does not pass a limit.
+         */
+        @Min(value = 1, message = "Change feed default limit must be at least 1")
+        private int defaultLimit = 100;
+
+        /**
+         * Upper bound for the page size.
+         */
+        @Min(value = 1, message = "Change feed max limit must be at least 1")
+        private int maxLimit = 500;
+
+        /**
+         * Margin kept behind both the current time and the start of the oldest open write transaction,
+         * covering the gap between stamping updated_at and the transaction's first statement and clock skew
+         * between the application and the database.
+         */
+        @Min(value = 0, message = "Change feed settle delay must be at least 0 seconds")
+        private int settleSeconds = 5;
+    }
+
+    /**
+     * Webhook delivery configuration.
+     */
+    private Webhook webhook = new Webhook();
+
+    @Getter
+    @Setter
+    public static class Webhook {
+        /**
+         * Delay between dispatcher polls of the delivery table.
+         */
+        @Min(value = 100, message = "Webhook poll interval must be at least 100 ms")
+        private long pollIntervalMillis = 1000;
+
+        /**
+         * Maximum number of deliveries claimed per poll.
+         */
+        @Min(value = 1, message = "Webhook claim size must be at least 1")
+        private int claimSize = 200;
+
+        /**
+         * Maximum number of events sent to one endpoint in a single request.
+         */
+        @Min(value = 1, message = "Webhook batch size must be at least 1")
+        private int batchSize = 50;
+
+        /**
+         * Number of threads sending requests in parallel.
+         */
+        @Min(value = 1, message = "Webhook worker count must be at least 1")
+        private int workers = 4;
+
+        /**
+         * Attempts after which a delivery is given up and marked FAILED.
+         */
+        @Min(value = 1, message = "Webhook max attempts must be at least 1")
+        private int maxAttempts = 10;
+
+        /**
+         * Delay before the first retry; doubled for every further attempt.
+         */
+        @Min(value = 1, message = "Webhook initial backoff must be at least 1 second")
+        private int initialBackoffSeconds = 10;
+
+        /**
+         * Upper bound for the retry delay.
+         */
+        @Min(value = 1, message = "Webhook max backoff must be at least 1 second")
+        private int maxBackoffSeconds = 3600;
+
+        /**
+         * Claimed deliveries are hidden from other dispatchers for this long while in flight.
+         */
+        @Min(value = 1, message = "Webhook lease must be at least 1 second")
+        private int leaseSeconds = 60;
+
+        /**
+         * HTTP connect timeout.
+         */
+        @Min(value = 1, message = "Webhook connect timeout must be at least 1 ms")
+        private int connectTimeoutMillis = 2000;
+
+        /**
+         * HTTP request timeout.
+         */
+        @Min(value = 1, message = "Webhook request timeout must be at least 1 ms")
+        private int requestTimeoutMillis = 5000;
+
+        /**
+         * Delivered rows are purged after this many days.
+         */
+        @Min(value = 1, message = "Webhook retention must be at least 1 day")
+        private int retentionDays = 7;
+
+        /**
+         * Only accept https endpoint URLs. Loopback, private and link-local addresses are refused either way.
+         */
+        private boolean requireHttps = true;
+    }
+
+    /**
+     * Application metrics configuration.
+     */
+    private Metrics metrics = new Metrics();
+
+    @Getter
+    @Setter
+    public static class Metrics {
+        /**
+         * Number of providers that get their own provider tag value; further providers are tagged "other".
+         */
+        @Min(value = 0, message = "Max provider tags must be at least 0")
+        private int maxProviderTags = 100;
+    }
+
+    /**
+     * Per-request database statement accounting.
+     */
+    private QueryStats queryStats = new QueryStats();
+
+    @Getter
+    @Setter
+    public static class QueryStats {
+        /**
+         * Return statement count and database time as response headers (development aid).
+         */
+        private boolean headersEnabled = false;
+
+        /**
+         * Record statement count and database time per request as metrics.
+         */
+        private boolean metricsEnabled = true;
+    }
+
+    /**
+     * Runtime Hibernate statistics and slow query log (actuator endpoint {@code hibernatestats}).
+     */
+    private HibernateStats hibernateStats = new HibernateStats();
+
+    @Getter
+    @Setter
+    public static class HibernateStats {
+        /**
+         * Number of queries and slow queries reported.
+         */
+        @Min(value = 1, message = "Top N must be at least 1")
+        private int topN = 20;
+
+        /**
+         * Statements faster than this are not recorded in the slow query log.
+         */
+        @Min(value = 0, message = "Slow query threshold must be at least 0")
+        private long slowQueryThresholdMillis = 10;
+
+        /**
+         * Maximum number of distinct statements held in the slow query log.
+         */
+        @Min(value = 1, message = "Slow query max tracked must be at least 1")
+        private int slowQueryMaxTracked = 500;
+
+        /**
+         * Statements not seen for this long drop out of the slow query log.
+         */
+        @Min(value = 1, message = "Slow query window must be at least 1 minute")
+        private int slowQueryWindowMinutes = 15;
+    }
+
+    /**
+     * On-demand Java Flight Recorder recordings (actuator endpoint {@code jfr}).
+     */
+    private Jfr jfr = new Jfr();
+
+    @Getter
+    @Setter
+    public static class Jfr {
+        /**
+         * Directory recordings are written to.
+         */
+        @NotBlank(message = "JFR directory is required")
+        private String directory = Path.of(System.getProperty("java.io.tmpdir"), "bookora-jfr").toString();
+
+        /**
+         * JFR settings used when the request names none: "default" (low overhead) or "profile".
+         */
+        @NotBlank(message = "JFR settings are required")
+        private String settings = "profile";
+
+        /**
+         * Recording duration when the request names none.
+         */
+        @Min(value = 1, message = "JFR default duration must be at least 1 second")
+        private int defaultDurationSeconds = 60;
+
+        /**
+         * Upper bound for the requested duration.
+         */
+        @Min(value = 1, message = "JFR max duration must be at least 1 second")
+        private int maxDurationSeconds = 600;
+
+        /**
+         * Number of recordings kept on disk; older ones are deleted when a new one starts.
+         */
+        @Min(value = 1, message = "JFR max files must be at least 1")
+        private int maxFiles = 5;
+    }
+
+    /**
+     * Virtual-thread execution mode, active with {@code spring.threads.virtual.enabled=true}.
+     */
+    private VirtualThreads virtualThreads = new VirtualThreads();
+
+    @Getter
+    @Setter
+    public static class VirtualThreads {
+        /**
+         * Limit concurrent connection checkouts to the Hikari pool size with a semaphore bulkhead,
+         * so an unbounded number of virtual threads queue cheaply instead of piling up inside the pool.
+         */
+        private boolean databaseBulkheadEnabled = true;
+
+        /**
+         * Virtual threads pinned to their carrier for at least this long are counted and logged.
+         */
+        @Min(value = 1, message = "Pinning threshold must be at least 1 millisecond")
+        private long pinningThresholdMillis = 20;
+
+        /**
+         * Maximum number of emails sent concurrently by the virtual-thread email executor.
+         */
+        @Min(value = 1, message = "Email concurrency must be at least 1")
+        private int emailConcurrency = 5;
+    }
+
+    /**
+     * BCrypt password hashing on a dedicated bounded worker pool.
+     */
+    private PasswordHashing passwordHashing = new PasswordHashing();
+
+    @Getter
+    @Setter
+    public static class PasswordHashing {
+        /**
+         * BCrypt cost factor for new hashes. Stored hashes with a lower cost are rehashed on the next
+         * successful login, so raising it needs no migration.
+         */
+        @Min(value = 4, message = "BCrypt strength must be at least 4")
+        @Max(value = 31, message = "BCrypt strength must be at most 31")
+        private int strength = 10;
+
+        /**
+         * Threads hashing and verifying passwords; keeps the rest of the cores free for other requests.
+         */
+        @Min(value = 1, message = "Password hashing workers must be at least 1")
+        private int workers = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        /**
+         * Hashes waiting for a worker; further requests are rejected with 429 right away.
+         */
+        @Min(value = 0, message = "Password hashing queue capacity must be at least 0")
+        private int queueCapacity = 64;
+    }
+
+    /**
+     * Revocation of JWTs on logout and refresh token reuse.
+     */
+    private TokenRevocation tokenRevocation = new TokenRevocation();
+
+    @Getter
+    @Setter
+    public static class TokenRevocation {
+        /**
+         * Interval between polls for revocations made on other nodes.
+         */
+        @Min(value = 100, message = "Token revocation poll interval must be at least 100 milliseconds")
+        private long pollIntervalMillis = 5000;
+
+        /**
+         * How far before the newest revocation seen each poll looks again, so that revocations
+         * committed after later ones were already read are not missed.
+         */
+        @Min(value = 0, message = "Token revocation lookback must be at least 0 seconds")
+        private int lookbackSeconds = 60;
+
+        /**
+         * Interval between purges of expired revocations and refresh tokens.
+         */
+        @Min(value = 1, message = "Token revocation purge interval must be at least 1 minute")
+        private int purgeIntervalMinutes = 60;
+    }
+
+    /**
+     * Provider and service booking policies. The limits below apply where no policy sets them;
+     * the cancellation window defaults to {@code bookora.guest.booking.cancellation-window-hours}.
+     */
+    private BookingPolicy bookingPolicy = new BookingPolicy();
+
+    @Getter
+    @Setter
+    public static class BookingPolicy {
+        /**
+         * How long before its start a booking must be made.
+         */
+        @Min(value = 0, message = "Minimum lead time must be at least 0 minutes")
+        private int minLeadMinutes = 0;
+
+        /**
+         * How far ahead a booking may start; 0 for no limit.
+         */
+        @Min(value = 0, message = "Maximum advance must be at least 0 days")
+        private int maxAdvanceDays = 0;
+
+        /**
+         * Free time kept before and after every booking of a provider.
+         */
+        @Min(value = 0, message = "Buffer must be at least 0 minutes")
+        private int bufferMinutes = 0;
+
+        /**
+         * Bookings start on multiples of this many minutes past midnight; 0 for any minute.
+         */
+        @Min(value = 0, message = "Start granularity must be at least 0 minutes")
+        @Max(value = 1440, message = "Start granularity must be at most 1440 minutes")
+        private int startGranularityMinutes = 0;
+
+        /**
+         * Most active bookings of a provider starting on one day; 0 for no limit.
+         */
+        @Min(value = 0, message = "Daily cap must be at least 0")
+        private int dailyCap = 0;
+
+        /**
+         * Interval between polls for policies changed on other nodes.
+         */
+        @Min(value = 100, message = "Booking policy poll interval must be at least 100 milliseconds")
+        private long pollIntervalMillis = 5000;
+
+        /**
+         * How far before the newest change seen each poll looks again, so that changes committed
+         * after later ones were already read are not missed.
+         */
+        @Min(value = 0, message = "Booking policy lookback must be at least 0 seconds")
+        private int lookbackSeconds = 60;
+    }
+
+    /**
+     * In-memory bitmap calendars of provider schedules, used to list free start times.
+     */
+    private Calendar calendar = new Calendar();
+
+    @Getter
+    @Setter
+    public static class Calendar {
+        /**
+         * Minutes one bit of the calendar stands for; must divide a day.
+         */
+        @Min(value = 1, message = "Calendar granularity must be at least 1 minute")
+        @Max(value = 1440, message = "Calendar granularity must be at most 1440 minutes")
+        private int granularityMinutes = 5;
+
+        /**
+         * Days from today a cached calendar covers.
+         */
+        @Min(value = 1, message = "Calendar must cover at least 1 day")
+        @Max(value = 92, message = "Calendar must cover at most 92 days")
+        private int days = 7;
+
+        /**
+         * How long a cached calendar is used before it is rebuilt, which picks up changes made on
+         * other nodes and to availability.
+         */
+        @Min(value = 1, message = "Calendar max age must be at least 1 second")
+        private int maxAgeSeconds = 60;
+
+        /**
+         * Most providers whose calendars are cached; calendars of further providers are built per request.
+         */
+        @Min(value = 0, message = "Calendar max providers must be at least 0")
+        private int maxProviders = 10000;
+    }
 }
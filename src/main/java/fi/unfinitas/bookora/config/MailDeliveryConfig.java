@@ -0,0 +1,42 @@
+package fi.unfinitas.bookora.config;
+
+import fi.unfinitas.bookora.config.mail.BatchingMailSender;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+
+/**
+ * Pooled SMTP delivery. Replaces the auto-configured {@link JavaMailSenderImpl} with a
+ * {@link BatchingMailSender} using the same session and server settings, so every send reuses an
+ * authenticated connection instead of opening its own.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "bookora.email.delivery", name = "pooled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class MailDeliveryConfig {
+
+    @Bean
+    static BeanPostProcessor pooledMailSenderPostProcessor(final ObjectProvider<BookoraProperties> bookoraProperties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+                if (!(bean instanceof JavaMailSenderImpl mailSender) || bean instanceof BatchingMailSender) {
+                    return bean;
+                }
+                final BookoraProperties.Email.Delivery delivery = bookoraProperties.getObject().getEmail().getDelivery();
+                log.info("Pooled SMTP delivery to {}:{} over {} connections, batches of {}",
+                        mailSender.getHost(), mailSender.getPort(), delivery.getConnections(), delivery.getBatchSize());
+                return new BatchingMailSender(mailSender, delivery.getConnections(), delivery.getBatchSize(),
+                        delivery.getMaxMessagesPerConnection(),
+                        Duration.ofMillis(delivery.getValidateAfterIdleMillis()),
+                        Duration.ofMillis(delivery.getSendTimeoutMillis()));
+            }
+        };
+    }
+}
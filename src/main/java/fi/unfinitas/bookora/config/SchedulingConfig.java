@@ -0,0 +1,15 @@
+package fi.unfinitas.bookora.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration for scheduled background jobs (e.g. purging expired idempotency keys).
+ * Can be switched off with bookora.scheduling.enabled=false, e.g. in tests.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "bookora.scheduling", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
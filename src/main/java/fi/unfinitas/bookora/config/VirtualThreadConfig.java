@@ -0,0 +1,75 @@
+package fi.unfinitas.bookora.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import fi.unfinitas.bookora.config.database.BulkheadDataSource;
+import fi.unfinitas.bookora.config.observability.VirtualThreadPinningMonitor;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Virtual-thread execution mode, switched on with {@code spring.threads.virtual.enabled=true}.
+ * Spring Boot then runs Tomcat requests, the application task executor and the scheduler on virtual threads,
+ * and {@link AsyncConfig} provides a virtual-thread email executor. This configuration adds the safeguards:
+ * a database bulkhead sized to the Hikari pool and detection of virtual threads pinned to their carrier.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadConfig {
+
+    static final String DATABASE_BULKHEAD = "database";
+
+    /**
+     * Wrap the Hikari pool in a {@link BulkheadDataSource} with one permit per pooled connection.
+     * Waiting for a permit is bounded by the pool's connection timeout.
+     *
+     * @param bulkheadRegistry registry the bulkhead is created in, so its metrics are published
+     * @return the post-processor
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "bookora.virtual-threads", name = "database-bulkhead-enabled",
+            havingValue = "true", matchIfMissing = true)
+    static BeanPostProcessor databaseBulkheadPostProcessor(final ObjectProvider<BulkheadRegistry> bulkheadRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+                if (!(bean instanceof HikariDataSource hikariDataSource)) {
+                    return bean;
+                }
+                final Bulkhead bulkhead = bulkheadRegistry.getIfAvailable(BulkheadRegistry::ofDefaults)
+                        .bulkhead(DATABASE_BULKHEAD, databaseBulkheadConfig(hikariDataSource));
+                log.info("Database bulkhead configured with {} permits, max wait {} ms",
+                        bulkhead.getBulkheadConfig().getMaxConcurrentCalls(),
+                        bulkhead.getBulkheadConfig().getMaxWaitDuration().toMillis());
+                return new BulkheadDataSource(hikariDataSource, bulkhead);
+            }
+        };
+    }
+
+    static BulkheadConfig databaseBulkheadConfig(final HikariDataSource hikariDataSource) {
+        return BulkheadConfig.custom()
+                .maxConcurrentCalls(hikariDataSource.getMaximumPoolSize())
+                .maxWaitDuration(Duration.ofMillis(hikariDataSource.getConnectionTimeout()))
+                .fairCallHandlingStrategyEnabled(true)
+                .build();
+    }
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(final MeterRegistry meterRegistry,
+                                                                   final BookoraProperties bookoraProperties) {
+        return new VirtualThreadPinningMonitor(meterRegistry,
+                Duration.ofMillis(bookoraProperties.getVirtualThreads().getPinningThresholdMillis()));
+    }
+}
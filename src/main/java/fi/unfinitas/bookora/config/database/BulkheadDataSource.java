@@ -0,0 +1,109 @@
+package fi.unfinitas.bookora.config.database;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource that takes a bulkhead permit before each connection checkout and returns it when the
+ * connection is closed. With as many permits as pooled connections, threads wait on the bulkhead's
+ * fair semaphore instead of inside the pool, which stays cheap with thousands of virtual threads.
+ * A checkout that gets no permit within the bulkhead's wait time fails like a pool timeout.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private final Bulkhead bulkhead;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public BulkheadDataSource(final DataSource targetDataSource, final Bulkhead bulkhead) {
+        super(targetDataSource);
+        this.bulkhead = bulkhead;
+    }
+
+    /**
+     * @return number of threads currently waiting for a permit
+     */
+    public int getThreadsAwaitingPermit() {
+        return waiting.get();
+    }
+
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquirePermission();
+        return guarded(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        acquirePermission();
+        return guarded(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private void acquirePermission() throws SQLException {
+        waiting.incrementAndGet();
+        try {
+            bulkhead.acquirePermission();
+        } catch (final BulkheadFullException e) {
+            throw new SQLTransientConnectionException("Database bulkhead '" + bulkhead.getName()
+                    + "' is full; no connection available within "
+                    + bulkhead.getBulkheadConfig().getMaxWaitDuration().toMillis() + "ms", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private Connection guarded(final ConnectionSupplier supplier) throws SQLException {
+        final Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (final SQLException | RuntimeException e) {
+            bulkhead.releasePermission();
+            throw e;
+        }
+        final AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getTargetConnection" -> connection;
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "close" -> {
+                        try {
+                            connection.close();
+                        } finally {
+                            // close() may be called more than once; only the first returns the permit
+                            if (released.compareAndSet(false, true)) {
+                                bulkhead.onComplete();
+                            }
+                        }
+                        yield null;
+                    }
+                    default -> {
+                        try {
+                            yield method.invoke(connection, args);
+                        } catch (final InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,251 @@
+package fi.unfinitas.bookora.config.mail;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link JavaMailSenderImpl} that delivers over pooled SMTP connections. Senders put their messages on a queue
+ * and wait for the outcome; one delivery thread per connection drains up to {@code batchSize} queued messages
+ * at a time and sends them back to back over a single borrowed transport. Failures are reported to the waiting
+ * sender as the usual {@link MailSendException}, so callers keep their own retry handling.
+ * <p>
+ * Each message is claimed exactly once, either by a delivery thread before it is handed to the transport or by
+ * a sender that gives up waiting. A timeout is only reported for messages no delivery thread has claimed, so a
+ * retry never duplicates a message that is already on its way.
+ */
+@Slf4j
+public class BatchingMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private static final long POLL_MILLIS = 500;
+
+    private final SmtpTransportPool transportPool;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final BlockingQueue<PendingMessage> queue = new LinkedBlockingQueue<>();
+    private final List<Thread> deliveryThreads = new ArrayList<>();
+    private volatile boolean running = true;
+
+    private record PendingMessage(MimeMessage message, CompletableFuture<Void> result, AtomicBoolean claimed) {
+
+        private PendingMessage(final MimeMessage message) {
+            this(message, new CompletableFuture<>(), new AtomicBoolean());
+        }
+
+        /**
+         * @return whether the caller now owns the message; false if a delivery thread or the sender already did
+         */
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * @param settings                 sender whose session and server settings are used
+     * @param connections              number of SMTP connections and delivery threads
+     * @param batchSize                maximum number of messages sent per connection checkout
+     * @param maxMessagesPerConnection messages sent before a connection is replaced
+     * @param validateAfterIdle        idle time after which a connection is checked before reuse
+     * @param sendTimeout              how long {@link #send} waits for delivery
+     */
+    public BatchingMailSender(final JavaMailSenderImpl settings, final int connections, final int batchSize,
+                              final int maxMessagesPerConnection, final Duration validateAfterIdle,
+                              final Duration sendTimeout) {
+        setSession(settings.getSession());
+        setProtocol(settings.getProtocol());
+        setHost(settings.getHost());
+        setPort(settings.getPort());
+        setUsername(settings.getUsername());
+        setPassword(settings.getPassword());
+        setDefaultEncoding(settings.getDefaultEncoding());
+        setDefaultFileTypeMap(settings.getDefaultFileTypeMap());
+        this.transportPool = new SmtpTransportPool(this::connectTransport, connections,
+                maxMessagesPerConnection, validateAfterIdle);
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        for (int i = 0; i < connections; i++) {
+            deliveryThreads.add(Thread.ofPlatform().daemon().name("smtp-delivery-" + (i + 1)).start(this::deliver));
+        }
+    }
+
+    /**
+     * @return number of messages waiting for a delivery thread
+     */
+    public int getQueuedMessages() {
+        return queue.size();
+    }
+
+    SmtpTransportPool getTransportPool() {
+        return transportPool;
+    }
+
+    @Override
+    protected void doSend(final MimeMessage[] mimeMessages, @Nullable final Object[] originalMessages)
+            throws MailException {
+        if (!running) {
+            throw new MailSendException("Mail delivery has been shut down");
+        }
+        final List<PendingMessage> pending = new ArrayList<>(mimeMessages.length);
+        for (final MimeMessage mimeMessage : mimeMessages) {
+            pending.add(new PendingMessage(prepare(mimeMessage)));
+        }
+        queue.addAll(pending);
+
+        final Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        final long deadline = System.nanoTime() + sendTimeout.toNanos();
+        for (int i = 0; i < pending.size(); i++) {
+            final PendingMessage message = pending.get(i);
+            try {
+                message.result().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (final ExecutionException e) {
+                failedMessages.put(originalMessage(mimeMessages, originalMessages, i), (Exception) e.getCause());
+            } catch (final TimeoutException e) {
+                if (message.claim()) {
+                    // Never handed to the transport, so a retry cannot duplicate it
+                    failedMessages.put(originalMessage(mimeMessages, originalMessages, i),
+                            new MessagingException("Not delivered within " + sendTimeout.toMillis() + " ms"));
+                } else {
+                    // Already being sent: reporting a failure would make the caller send it twice
+                    log.warn("Mail delivery still in progress after {} ms, not reporting it as failed",
+                            sendTimeout.toMillis());
+                    message.result().whenComplete((ignored, error) -> {
+                        if (error != null) {
+                            log.error("Mail delivery that outlived its send timeout failed: {}", error.getMessage());
+                        }
+                    });
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pending.forEach(PendingMessage::claim);
+                throw new MailSendException("Interrupted while waiting for mail delivery", e);
+            }
+        }
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    /**
+     * Stop accepting messages, let the delivery threads finish the queue and close the pooled connections.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        for (final Thread thread : deliveryThreads) {
+            thread.join(sendTimeout.toMillis());
+        }
+        PendingMessage message;
+        while ((message = queue.poll()) != null) {
+            if (message.claim()) {
+                message.result().completeExceptionally(new MessagingException("Mail delivery has been shut down"));
+            }
+        }
+        transportPool.close();
+    }
+
+    private void deliver() {
+        final List<PendingMessage> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                final PendingMessage first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                sendBatch(batch);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (final RuntimeException e) {
+                log.error("Unexpected failure in SMTP delivery: {}", e.getMessage(), e);
+                batch.forEach(message -> message.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Send a batch over one connection. A failed send discards the connection, since the SMTP session may be
+     * left mid-transaction, and the rest of the batch continues over a fresh one. If no connection can be
+     * opened, the rest of the batch fails with that error.
+     */
+    private void sendBatch(final List<PendingMessage> batch) throws InterruptedException {
+        SmtpTransportPool.PooledTransport transport = null;
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                final PendingMessage message = batch.get(i);
+                if (!message.claim()) {
+                    continue; // Sender gave up waiting
+                }
+                if (transport == null) {
+                    try {
+                        transport = transportPool.borrow();
+                    } catch (final MessagingException e) {
+                        log.warn("Failed to open SMTP connection: {}", e.getMessage());
+                        batch.subList(i, batch.size()).forEach(rest -> rest.result().completeExceptionally(e));
+                        return;
+                    }
+                }
+                try {
+                    transport.send(message.message());
+                    message.result().complete(null);
+                } catch (final MessagingException e) {
+                    message.result().completeExceptionally(e);
+                    transportPool.release(transport, true);
+                    transport = null;
+                }
+            }
+        } finally {
+            if (transport != null) {
+                transportPool.release(transport, false);
+            }
+        }
+    }
+
+    /**
+     * Same preparation as {@link JavaMailSenderImpl}: set the sent date and write the headers, keeping a
+     * Message-ID the caller set explicitly.
+     */
+    private static MimeMessage prepare(final MimeMessage mimeMessage) {
+        try {
+            if (mimeMessage.getSentDate() == null) {
+                mimeMessage.setSentDate(new Date());
+            }
+            final String messageId = mimeMessage.getMessageID();
+            mimeMessage.saveChanges();
+            if (messageId != null) {
+                mimeMessage.setHeader("Message-ID", messageId);
+            }
+            return mimeMessage;
+        } catch (final MessagingException e) {
+            throw new MailPreparationException(e);
+        }
+    }
+
+    private static Object originalMessage(final MimeMessage[] mimeMessages, @Nullable final Object[] originalMessages,
+                                          final int index) {
+        return originalMessages != null ? originalMessages[index] : mimeMessages[index];
+    }
+}
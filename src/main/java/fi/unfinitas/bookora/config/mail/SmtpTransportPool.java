@@ -0,0 +1,148 @@
+package fi.unfinitas.bookora.config.mail;
+
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bounded pool of connected SMTP transports. Opening a transport costs the TCP connect, STARTTLS handshake
+ * and AUTH round trips; a pooled transport pays them once and then sends many messages. A transport idle for
+ * longer than {@code validateAfterIdle} is checked with NOOP before reuse, and one that has sent
+ * {@code maxMessagesPerConnection} messages or failed a send is closed instead of returned.
+ */
+@Slf4j
+public class SmtpTransportPool implements AutoCloseable {
+
+    private final Connector connector;
+    private final int maxMessagesPerConnection;
+    private final long validateAfterIdleNanos;
+    private final Semaphore permits;
+    private final Deque<PooledTransport> idle = new ConcurrentLinkedDeque<>();
+    private volatile boolean closed;
+
+    /**
+     * Opens a connected, authenticated transport.
+     */
+    @FunctionalInterface
+    public interface Connector {
+        Transport connect() throws MessagingException;
+    }
+
+    public SmtpTransportPool(final Connector connector, final int maxConnections,
+                             final int maxMessagesPerConnection, final Duration validateAfterIdle) {
+        this.connector = connector;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.validateAfterIdleNanos = validateAfterIdle.toNanos();
+        this.permits = new Semaphore(maxConnections, true);
+    }
+
+    /**
+     * Take a transport, reusing the most recently returned one that is still connected and opening a new one
+     * otherwise. Blocks while all connections are borrowed.
+     *
+     * @return a connected transport that must be given back with {@link #release}
+     * @throws MessagingException if a new connection could not be opened
+     */
+    public PooledTransport borrow() throws MessagingException, InterruptedException {
+        if (closed) {
+            throw new IllegalStateException("SMTP transport pool is closed");
+        }
+        permits.acquire();
+        try {
+            PooledTransport transport;
+            while ((transport = idle.pollFirst()) != null) {
+                if (transport.isUsable()) {
+                    return transport;
+                }
+                log.debug("Discarding SMTP connection that failed its health check");
+                transport.close();
+            }
+            return new PooledTransport(connector.connect());
+        } catch (final MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Give a borrowed transport back. It is closed rather than pooled if it is broken, has reached its message
+     * limit or the pool is closed.
+     *
+     * @param transport the borrowed transport
+     * @param broken    whether a send over it failed, leaving the SMTP session in an unknown state
+     */
+    public void release(final PooledTransport transport, final boolean broken) {
+        try {
+            if (broken || closed || transport.messagesSent >= maxMessagesPerConnection) {
+                transport.close();
+            } else {
+                transport.lastUsedNanos = System.nanoTime();
+                idle.offerFirst(transport);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * @return number of connected transports waiting to be borrowed
+     */
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        PooledTransport transport;
+        while ((transport = idle.pollFirst()) != null) {
+            transport.close();
+        }
+    }
+
+    /**
+     * A connected transport and how much it has been used.
+     */
+    public final class PooledTransport {
+
+        private final Transport transport;
+        private int messagesSent;
+        private long lastUsedNanos = System.nanoTime();
+
+        private PooledTransport(final Transport transport) {
+            this.transport = transport;
+        }
+
+        /**
+         * Send a prepared message to all of its recipients.
+         */
+        public void send(final MimeMessage message) throws MessagingException {
+            final Address[] recipients = message.getAllRecipients();
+            transport.sendMessage(message, recipients != null ? recipients : new Address[0]);
+            messagesSent++;
+        }
+
+        private boolean isUsable() {
+            if (System.nanoTime() - lastUsedNanos < validateAfterIdleNanos) {
+                return true;
+            }
+            // SMTPTransport.isConnected() sends NOOP and reports whether the server answered
+            return transport.isConnected();
+        }
+
+        private void close() {
+            try {
+                transport.close();
+            } catch (final MessagingException e) {
+                log.debug("Failed to close SMTP connection cleanly: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package fi.unfinitas.bookora.config.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one guest booking attempt, committed by
+ * {@link fi.unfinitas.bookora.service.BookingAdmissionMetrics}.
+ */
+@Name("fi.unfinitas.bookora.BookingAdmission")
+@Label("Booking Admission")
+@Category({"Bookora", "Booking"})
+@Description("Guest booking creation from validation to event publishing")
+@StackTrace(false)
+public class BookingAdmissionEvent extends Event {
+
+    @Label("Provider")
+    public String provider;
+
+    @Label("Outcome")
+    public String outcome;
+}
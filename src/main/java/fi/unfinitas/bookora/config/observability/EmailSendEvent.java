@@ -0,0 +1,28 @@
+package fi.unfinitas.bookora.config.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one email, spanning template rendering and all send attempts.
+ */
+@Name("fi.unfinitas.bookora.EmailSend")
+@Label("Email Send")
+@Category({"Bookora", "Email"})
+@Description("Rendering and sending of one email")
+@StackTrace(false)
+public class EmailSendEvent extends Event {
+
+    @Label("Template")
+    public String template;
+
+    @Label("Attempts")
+    public int attempts;
+
+    @Label("Outcome")
+    public String outcome;
+}
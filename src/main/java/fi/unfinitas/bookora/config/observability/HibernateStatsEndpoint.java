@@ -0,0 +1,136 @@
+package fi.unfinitas.bookora.config.observability;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Actuator endpoint {@code /actuator/hibernatestats} for diagnosing database hot spots without a restart.
+ * Hibernate statistics and the slow query log are off by default and switched on and off at runtime with
+ * {@code POST {"enabled": true|false}}; {@code DELETE} resets the counters. Restricted to administrators.
+ */
+@Component
+@Endpoint(id = "hibernatestats")
+@Slf4j
+public class HibernateStatsEndpoint {
+
+    private final Statistics statistics;
+    private final SlowQueryLog slowQueryLog;
+    private final BookoraProperties.HibernateStats properties;
+
+    public HibernateStatsEndpoint(final EntityManagerFactory entityManagerFactory,
+                                  final SlowQueryLog slowQueryLog,
+                                  final BookoraProperties bookoraProperties) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.slowQueryLog = slowQueryLog;
+        this.properties = bookoraProperties.getHibernateStats();
+        // Follow hibernate.generate_statistics on startup
+        if (statistics.isStatisticsEnabled()) {
+            slowQueryLog.enable();
+        }
+    }
+
+    public record Totals(long entityLoadCount, long entityFetchCount, long collectionLoadCount,
+                         long collectionFetchCount, long queryExecutionCount, long queryExecutionMaxTimeMillis,
+                         String queryExecutionMaxTimeQuery, long prepareStatementCount,
+                         long secondLevelCacheHitCount, long secondLevelCacheMissCount,
+                         long transactionCount) {}
+
+    public record QueryStat(String query, long executionCount, long avgMillis, long maxMillis, long rowCount) {}
+
+    public record EntityStat(String entity, long loadCount, long fetchCount, long insertCount,
+                             long updateCount, long deleteCount) {}
+
+    public record Report(boolean enabled, Instant since, Totals totals, List<QueryStat> queries,
+                         List<EntityStat> entities, List<SlowQueryLog.SlowQuery> slowQueries) {}
+
+    /**
+     * @return the current statistics
+     */
+    @ReadOperation
+    public Report report() {
+        final int topN = properties.getTopN();
+        final Totals totals = new Totals(
+                statistics.getEntityLoadCount(),
+                statistics.getEntityFetchCount(),
+                statistics.getCollectionLoadCount(),
+                statistics.getCollectionFetchCount(),
+                statistics.getQueryExecutionCount(),
+                statistics.getQueryExecutionMaxTime(),
+                statistics.getQueryExecutionMaxTimeQueryString(),
+                statistics.getPrepareStatementCount(),
+                statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(),
+                statistics.getTransactionCount());
+
+        final List<QueryStat> queries = Arrays.stream(statistics.getQueries())
+                .map(query -> {
+                    final QueryStatistics stat = statistics.getQueryStatistics(query);
+                    return new QueryStat(query, stat.getExecutionCount(), stat.getExecutionAvgTime(),
+                            stat.getExecutionMaxTime(), stat.getExecutionRowCount());
+                })
+                .sorted(Comparator.comparingLong((QueryStat stat) -> stat.executionCount() * stat.avgMillis())
+                        .thenComparingLong(QueryStat::executionCount)
+                        .reversed())
+                .limit(topN)
+                .toList();
+
+        final List<EntityStat> entities = Arrays.stream(statistics.getEntityNames())
+                .map(name -> {
+                    final EntityStatistics stat = statistics.getEntityStatistics(name);
+                    return new EntityStat(name.substring(name.lastIndexOf('.') + 1), stat.getLoadCount(),
+                            stat.getFetchCount(), stat.getInsertCount(), stat.getUpdateCount(), stat.getDeleteCount());
+                })
+                .filter(stat -> stat.loadCount() + stat.fetchCount() + stat.insertCount()
+                        + stat.updateCount() + stat.deleteCount() > 0)
+                .sorted(Comparator.comparingLong((EntityStat stat) -> stat.loadCount() + stat.fetchCount()).reversed())
+                .toList();
+
+        return new Report(statistics.isStatisticsEnabled(), statistics.getStart(), totals, queries, entities,
+                slowQueryLog.top(topN));
+    }
+
+    /**
+     * Switch statistics collection on or off. Switching on starts from zero.
+     *
+     * @param enabled true to collect statistics
+     * @return the statistics after the switch
+     */
+    @WriteOperation
+    public Report toggle(final boolean enabled) {
+        if (enabled) {
+            statistics.clear();
+            statistics.setStatisticsEnabled(true);
+            slowQueryLog.enable();
+        } else {
+            statistics.setStatisticsEnabled(false);
+            slowQueryLog.disable();
+        }
+        log.info("Hibernate statistics {}", enabled ? "enabled" : "disabled");
+        return report();
+    }
+
+    /**
+     * Reset all counters and the slow query log.
+     */
+    @DeleteOperation
+    public void reset() {
+        statistics.clear();
+        slowQueryLog.clear();
+        log.info("Hibernate statistics reset");
+    }
+}
@@ -0,0 +1,210 @@
+package fi.unfinitas.bookora.config.observability;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import jdk.jfr.Configuration;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Actuator endpoint {@code /actuator/jfr} for profiling a running node with Java Flight Recorder.
+ * {@code POST {"durationSeconds": 120, "settings": "profile"}} starts a time-bounded recording, one at a time;
+ * {@code DELETE} stops it early. Finished recordings are kept in {@code bookora.jfr.directory} (newest
+ * {@code max-files}) and downloaded from {@code GET /actuator/jfr/{name}}. Besides the JDK events the
+ * recordings contain the Bookora events for booking admission, token validation and email sending.
+ * Restricted to administrators.
+ */
+@Component
+@WebEndpoint(id = "jfr")
+@Slf4j
+public class JfrEndpoint {
+
+    static final Set<String> SETTINGS = Set.of("default", "profile");
+    private static final Pattern FILE_NAME = Pattern.compile("bookora-\\d{8}T\\d{6}Z\\.jfr");
+    private static final DateTimeFormatter NAME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private final BookoraProperties.Jfr properties;
+    private Recording recording;
+    private String recordingSettings;
+
+    public JfrEndpoint(final BookoraProperties bookoraProperties) {
+        this.properties = bookoraProperties.getJfr();
+    }
+
+    public record RecordingInfo(String name, String state, String settings, Instant startedAt, Duration duration) {}
+
+    public record RecordingFile(String name, long sizeBytes, Instant createdAt) {}
+
+    public record Status(RecordingInfo recording, List<RecordingFile> files) {}
+
+    /**
+     * @return the running or latest recording and the recordings available for download
+     */
+    @ReadOperation
+    public synchronized Status status() {
+        return new Status(recording != null ? info(recording) : null, files());
+    }
+
+    /**
+     * Start a recording. It stops by itself after the duration and is then written to disk.
+     *
+     * @param durationSeconds recording length, capped at {@code max-duration-seconds}
+     * @param settings        JFR settings, "default" or "profile"
+     * @return the started recording, 409 if one is already running, 400 for unknown settings
+     */
+    @WriteOperation
+    public synchronized WebEndpointResponse<RecordingInfo> start(@Nullable final Integer durationSeconds,
+                                                                 @Nullable final String settings) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(info(recording), HttpStatus.CONFLICT.value());
+        }
+        final String settingsName = settings != null ? settings : properties.getSettings();
+        if (!SETTINGS.contains(settingsName)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        final int seconds = Math.clamp(durationSeconds != null ? durationSeconds : properties.getDefaultDurationSeconds(),
+                1, properties.getMaxDurationSeconds());
+
+        if (recording != null) {
+            recording.close();
+        }
+        try {
+            final Path directory = Path.of(properties.getDirectory());
+            Files.createDirectories(directory);
+            pruneFiles(properties.getMaxFiles() - 1);
+
+            final String name = "bookora-" + NAME_FORMAT.format(Instant.now());
+            final Recording started = new Recording(Configuration.getConfiguration(settingsName));
+            started.setName(name);
+            started.setSettings(withBookoraEvents(started.getSettings()));
+            started.setToDisk(true);
+            started.setDuration(Duration.ofSeconds(seconds));
+            started.setDestination(directory.resolve(name + ".jfr"));
+            started.start();
+            recording = started;
+            recordingSettings = settingsName;
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to start JFR recording", e);
+        } catch (final ParseException e) {
+            throw new IllegalStateException("Invalid JFR settings: " + settingsName, e);
+        }
+
+        log.info("Started JFR recording {} with settings {} for {}s", recording.getName(), settingsName, seconds);
+        return new WebEndpointResponse<>(info(recording));
+    }
+
+    /**
+     * Stop the running recording early and write it to disk.
+     *
+     * @return the stopped recording, 404 if none is running
+     */
+    @DeleteOperation
+    public synchronized WebEndpointResponse<RecordingInfo> stop() {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        recording.stop();
+        log.info("Stopped JFR recording {}", recording.getName());
+        return new WebEndpointResponse<>(info(recording));
+    }
+
+    /**
+     * Download a finished recording.
+     *
+     * @param name the file name as listed by {@link #status()}
+     * @return the {@code .jfr} file, 404 if unknown or still being recorded
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> download(@Selector final String name) {
+        final boolean inProgress = recording != null
+                && recording.getState() == RecordingState.RUNNING
+                && name.equals(recording.getName() + ".jfr");
+        final Path file = Path.of(properties.getDirectory()).resolve(name);
+        if (!FILE_NAME.matcher(name).matches() || inProgress || !Files.isRegularFile(file)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(file));
+    }
+
+    private static Map<String, String> withBookoraEvents(final Map<String, String> settings) {
+        final Map<String, String> merged = new HashMap<>(settings);
+        for (final Class<?> event : List.of(BookingAdmissionEvent.class, TokenValidationEvent.class, EmailSendEvent.class)) {
+            final String name = event.getAnnotation(Name.class).value();
+            merged.put(name + "#enabled", "true");
+            merged.put(name + "#threshold", "0 ms");
+        }
+        return merged;
+    }
+
+    private List<RecordingFile> files() {
+        return listFiles().map(file -> {
+            try {
+                return new RecordingFile(file.getFileName().toString(), Files.size(file),
+                        Files.getLastModifiedTime(file).toInstant());
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).toList();
+    }
+
+    private void pruneFiles(final int keep) throws IOException {
+        final List<Path> files = listFiles().toList();
+        for (final Path file : files.subList(Math.min(keep, files.size()), files.size())) {
+            Files.deleteIfExists(file);
+            log.debug("Deleted old JFR recording {}", file.getFileName());
+        }
+    }
+
+    /**
+     * @return recording files, newest first; names sort by start time
+     */
+    private Stream<Path> listFiles() {
+        final Path directory = Path.of(properties.getDirectory());
+        if (!Files.isDirectory(directory)) {
+            return Stream.empty();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> FILE_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .toList()
+                    .stream();
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to list JFR recordings", e);
+        }
+    }
+
+    private RecordingInfo info(final Recording recording) {
+        return new RecordingInfo(recording.getName(), recording.getState().name(), recordingSettings,
+                recording.getStartTime(), recording.getDuration());
+    }
+}
@@ -0,0 +1,38 @@
+package fi.unfinitas.bookora.config.observability;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Configuration for request correlation and per-request query accounting.
+ */
+@Configuration
+public class ObservabilityConfig {
+
+    /**
+     * Register {@link QueryStatsSessionListener} on every Hibernate session and
+     * {@link SqlCapturingStatementInspector} for the slow query log.
+     *
+     * @return the customizer
+     */
+    @Bean
+    public HibernatePropertiesCustomizer queryStatsHibernateCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, QueryStatsSessionListener.class.getName());
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlCapturingStatementInspector());
+        };
+    }
+
+    /**
+     * Propagate the MDC to async executors. Picked up by the auto-configured task executor as well.
+     *
+     * @return the task decorator
+     */
+    @Bean
+    public TaskDecorator mdcTaskDecorator() {
+        return new MdcTaskDecorator();
+    }
+}
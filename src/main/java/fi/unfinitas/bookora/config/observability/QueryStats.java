@@ -0,0 +1,96 @@
+package fi.unfinitas.bookora.config.observability;
+
+/**
+ * Per-thread accumulator of JDBC statements executed while serving a request.
+ * Opened and closed by {@link QueryStatsFilter}; fed by {@link QueryStatsSessionListener}.
+ * Statements on threads without an open accumulator (e.g. async email or scheduled jobs) are not counted.
+ * While a {@link StatementSink} is installed, every statement is additionally reported to it with its SQL.
+ */
+public final class QueryStats {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<String> PREPARED_SQL = new ThreadLocal<>();
+
+    private static volatile StatementSink sink;
+
+    private int statements;
+    private long nanos;
+
+    private QueryStats() {
+    }
+
+    /**
+     * Start accounting on the current thread.
+     *
+     * @return the accumulator
+     */
+    public static QueryStats open() {
+        final QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Stop accounting on the current thread.
+     */
+    public static void close() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Install or remove (null) the sink receiving every executed statement of every thread.
+     *
+     * @param statementSink the sink
+     */
+    public static void setSink(final StatementSink statementSink) {
+        sink = statementSink;
+    }
+
+    /**
+     * Remember the SQL of the statement about to be executed on this thread; only kept while a sink is installed.
+     *
+     * @param sql the SQL
+     */
+    static void prepared(final String sql) {
+        if (sink != null) {
+            PREPARED_SQL.set(sql);
+        }
+    }
+
+    /**
+     * Add one executed statement to the accumulator of the current thread, if any.
+     *
+     * @param elapsedNanos execution time of the statement
+     */
+    static void record(final long elapsedNanos) {
+        final QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements++;
+            stats.nanos += elapsedNanos;
+        }
+        final StatementSink statementSink = sink;
+        if (statementSink != null) {
+            final String sql = PREPARED_SQL.get();
+            if (sql != null) {
+                statementSink.executed(sql, elapsedNanos);
+            }
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Receiver of executed statements, e.g. the slow query log.
+     */
+    @FunctionalInterface
+    public interface StatementSink {
+
+        void executed(String sql, long elapsedNanos);
+    }
+}
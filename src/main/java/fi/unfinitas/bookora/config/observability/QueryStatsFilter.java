@@ -0,0 +1,154 @@
+package fi.unfinitas.bookora.config.observability;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the JDBC statements and total database time of each request.
+ * Recorded as {@value #STATEMENTS_METRIC} and {@value #TIME_METRIC} tagged by method and route template,
+ * and optionally returned as {@value #COUNT_HEADER} / {@value #TIME_HEADER} response headers so
+ * N+1 regressions are visible on every response during development.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    static final String COUNT_HEADER = "X-DB-Query-Count";
+    static final String TIME_HEADER = "X-DB-Time-Ms";
+    static final String STATEMENTS_METRIC = "bookora.request.db.statements";
+    static final String TIME_METRIC = "bookora.request.db.time";
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final BookoraProperties.QueryStats properties;
+    private final MeterRegistry meterRegistry;
+
+    public QueryStatsFilter(final BookoraProperties bookoraProperties, final MeterRegistry meterRegistry) {
+        this.properties = bookoraProperties.getQueryStats();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull final HttpServletRequest request) {
+        return !properties.isHeadersEnabled() && !properties.isMetricsEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull final HttpServletRequest request,
+            @NonNull final HttpServletResponse response,
+            @NonNull final FilterChain filterChain
+    ) throws ServletException, IOException {
+        final QueryStats stats = QueryStats.open();
+        final StatsHeaderResponse wrapped = properties.isHeadersEnabled() ? new StatsHeaderResponse(response, stats) : null;
+        try {
+            filterChain.doFilter(request, wrapped != null ? wrapped : response);
+        } finally {
+            QueryStats.close();
+            if (wrapped != null) {
+                // Responses without a body (e.g. 204, 304) never triggered the wrapper
+                wrapped.writeHeaders();
+            }
+            if (properties.isMetricsEnabled()) {
+                record(request, stats);
+            }
+        }
+    }
+
+    private void record(final HttpServletRequest request, final QueryStats stats) {
+        final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        final String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+
+        DistributionSummary.builder(STATEMENTS_METRIC)
+                .description("JDBC statements executed per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder(TIME_METRIC)
+                .description("Total JDBC execution time per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Adds the statistics headers right before the response is committed; later statements are not included.
+     */
+    private static final class StatsHeaderResponse extends HttpServletResponseWrapper {
+
+        private final QueryStats stats;
+        private boolean written;
+
+        private StatsHeaderResponse(final HttpServletResponse response, final QueryStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        private void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(COUNT_HEADER, String.valueOf(stats.getStatements()));
+            setHeader(TIME_HEADER, String.valueOf(TimeUnit.NANOSECONDS.toMillis(stats.getNanos())));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(final int sc, final String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(final int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(final String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
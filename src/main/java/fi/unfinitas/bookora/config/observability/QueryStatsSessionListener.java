@@ -0,0 +1,34 @@
+package fi.unfinitas.bookora.config.observability;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Hibernate session listener that times every JDBC statement and batch execution
+ * and adds it to the {@link QueryStats} of the current thread.
+ * Hibernate creates one instance per session; sessions are confined to one thread.
+ */
+public class QueryStatsSessionListener implements SessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        QueryStats.record(System.nanoTime() - statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        QueryStats.record(System.nanoTime() - batchStart);
+    }
+}
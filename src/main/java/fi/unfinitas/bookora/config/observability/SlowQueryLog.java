@@ -0,0 +1,147 @@
+package fi.unfinitas.bookora.config.observability;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Rolling log of the slowest SQL statements, aggregated by normalized SQL.
+ * Only statements slower than the threshold are tracked, at most {@code slow-query-max-tracked} distinct ones,
+ * and entries not seen within the window drop out. Installed as the {@link QueryStats} sink while enabled,
+ * so it costs nothing when off.
+ */
+@Component
+public class SlowQueryLog implements QueryStats.StatementSink {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    private final BookoraProperties.HibernateStats properties;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    public SlowQueryLog(final BookoraProperties bookoraProperties) {
+        this.properties = bookoraProperties.getHibernateStats();
+    }
+
+    /**
+     * A tracked statement.
+     *
+     * @param sql       the normalized SQL
+     * @param count     executions slower than the threshold
+     * @param avgMillis average duration of those executions
+     * @param maxMillis slowest execution
+     * @param lastSeen  time of the latest slow execution
+     */
+    public record SlowQuery(String sql, long count, double avgMillis, double maxMillis, Instant lastSeen) {}
+
+    /**
+     * Start tracking, discarding earlier entries.
+     */
+    public void enable() {
+        entries.clear();
+        enabled = true;
+        QueryStats.setSink(this);
+    }
+
+    /**
+     * Stop tracking. Entries are kept until the next {@link #enable()} or {@link #clear()}.
+     */
+    public void disable() {
+        enabled = false;
+        QueryStats.setSink(null);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public void executed(final String sql, final long elapsedNanos) {
+        if (!enabled || elapsedNanos < TimeUnit.MILLISECONDS.toNanos(properties.getSlowQueryThresholdMillis())) {
+            return;
+        }
+        final String normalized = normalize(sql);
+        Entry entry = entries.get(normalized);
+        if (entry == null) {
+            if (entries.size() >= properties.getSlowQueryMaxTracked()) {
+                evictExpired();
+                if (entries.size() >= properties.getSlowQueryMaxTracked()) {
+                    return;
+                }
+            }
+            entry = entries.computeIfAbsent(normalized, key -> new Entry());
+        }
+        entry.record(elapsedNanos);
+    }
+
+    /**
+     * @param limit maximum number of entries
+     * @return the slowest statements within the window, slowest first
+     */
+    public List<SlowQuery> top(final int limit) {
+        evictExpired();
+        return entries.entrySet().stream()
+                .map(e -> e.getValue().snapshot(e.getKey()))
+                .sorted(Comparator.comparingDouble(SlowQuery::maxMillis).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Normalize SQL so executions differing only in literals, IN-list length or whitespace aggregate together.
+     *
+     * @param sql the SQL
+     * @return the normalized SQL
+     */
+    static String normalize(final String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?...)");
+        return normalized.length() > MAX_SQL_LENGTH ? normalized.substring(0, MAX_SQL_LENGTH) : normalized;
+    }
+
+    private void evictExpired() {
+        final long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(properties.getSlowQueryWindowMinutes());
+        entries.values().removeIf(entry -> entry.lastSeenMillis < cutoff);
+    }
+
+    private static final class Entry {
+
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private volatile long lastSeenMillis;
+
+        private synchronized void record(final long elapsedNanos) {
+            count++;
+            totalNanos += elapsedNanos;
+            maxNanos = Math.max(maxNanos, elapsedNanos);
+            lastSeenMillis = System.currentTimeMillis();
+        }
+
+        private synchronized SlowQuery snapshot(final String sql) {
+            return new SlowQuery(
+                    sql,
+                    count,
+                    count == 0 ? 0 : (double) totalNanos / count / 1_000_000,
+                    (double) maxNanos / 1_000_000,
+                    Instant.ofEpochMilli(lastSeenMillis));
+        }
+    }
+}
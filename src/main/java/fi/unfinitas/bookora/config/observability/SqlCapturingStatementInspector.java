@@ -0,0 +1,16 @@
+package fi.unfinitas.bookora.config.observability;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hands the SQL of each statement to {@link QueryStats} so its execution time can be attributed to it.
+ * Returns the SQL unchanged.
+ */
+public class SqlCapturingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(final String sql) {
+        QueryStats.prepared(sql);
+        return sql;
+    }
+}
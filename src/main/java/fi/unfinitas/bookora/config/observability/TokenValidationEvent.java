@@ -0,0 +1,25 @@
+package fi.unfinitas.bookora.config.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one guest access token validation.
+ */
+@Name("fi.unfinitas.bookora.TokenValidation")
+@Label("Guest Token Validation")
+@Category({"Bookora", "Security"})
+@Description("Lookup and checks of a guest access token")
+@StackTrace(false)
+public class TokenValidationEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,113 @@
+package fi.unfinitas.bookora.config.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Detects virtual threads pinned to their carrier thread, typically by blocking inside a {@code synchronized}
+ * block (e.g. in the JDBC driver or a connection pool), from the JFR {@value #PINNED_EVENT} event streamed in
+ * process. Each pinning longer than the threshold is recorded in the {@value #PINNED_TIMER} timer, tagged with
+ * the first application or library frame; the first pinning per frame is logged with its stack trace.
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    static final String PINNED_TIMER = "bookora.virtual.thread.pinned";
+    static final String OTHER_FRAME = "other";
+    private static final int MAX_FRAME_TAGS = 50;
+    private static final int LOGGED_FRAMES = 15;
+    private static final List<String> JDK_PACKAGES = List.of("java.", "javax.", "jdk.", "sun.", "com.sun.");
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Set<String> seenFrames = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(final MeterRegistry meterRegistry, final Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public synchronized void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Monitoring virtual thread pinning longer than {} ms", threshold.toMillis());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return stream != null;
+    }
+
+    void onPinned(final RecordedEvent event) {
+        final String frame = pinnedFrame(event.getStackTrace());
+        // Frames beyond the first MAX_FRAME_TAGS share one tag so the number of series stays bounded
+        final boolean first = seenFrames.size() < MAX_FRAME_TAGS && seenFrames.add(frame);
+        final String tag = seenFrames.contains(frame) ? frame : OTHER_FRAME;
+
+        Timer.builder(PINNED_TIMER)
+                .description("Virtual threads blocked while pinned to their carrier thread")
+                .tag("frame", tag)
+                .register(meterRegistry)
+                .record(event.getDuration());
+
+        if (first) {
+            log.warn("Virtual thread pinned for {} ms at {}:\n{}", event.getDuration().toMillis(), frame,
+                    describe(event.getStackTrace()));
+        }
+    }
+
+    /**
+     * @param stackTrace the stack of the pinned thread
+     * @return the top frame outside the JDK as {@code Class.method}; the JDK frames above it only park
+     */
+    static String pinnedFrame(final RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        return stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(VirtualThreadPinningMonitor::frameName)
+                .filter(name -> JDK_PACKAGES.stream().noneMatch(name::startsWith))
+                .findFirst()
+                .orElseGet(() -> frameName(stackTrace.getFrames().getFirst()));
+    }
+
+    private static String describe(final RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "    (no stack trace)";
+        }
+        return stackTrace.getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "    at " + frameName(frame) + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String frameName(final RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+}
@@ -1,6 +1,8 @@
 package fi.unfinitas.bookora.config.security;
 
+import fi.unfinitas.bookora.security.JwtDenylist;
 import fi.unfinitas.bookora.security.JwtUtil;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -22,6 +24,7 @@ import java.io.IOException;
 
 /**
  * JWT authentication filter that intercepts requests and validates JWT tokens.
+ * Refresh tokens and revoked tokens are refused from the in-memory {@link JwtDenylist}, without database access.
  */
 @Component
 @RequiredArgsConstructor
@@ -33,6 +36,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final JwtDenylist jwtDenylist;
 
     @Override
     protected void doFilterInternal(
@@ -80,7 +84,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      * Authenticate user with JWT token.
      */
     private void authenticateUser(final String jwt, final HttpServletRequest request) {
-        final String userEmail = jwtUtil.extractUsername(jwt);
+        final Claims claims = jwtUtil.parseClaims(jwt);
+
+        if (JwtUtil.isRefreshToken(claims)) {
+            log.warn("Refresh token presented as access token");
+            return;
+        }
+
+        if (jwtDenylist.isRevoked(JwtUtil.tokenId(claims), JwtUtil.sessionId(claims))) {
+            log.debug("Revoked JWT token presented");
+            return;
+        }
+
+        final String userEmail = claims.getSubject();
 
         if (!StringUtils.hasText(userEmail)) {
             log.warn("JWT token does not contain username");
@@ -89,7 +105,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
 
-        if (jwtUtil.validateToken(jwt, userDetails)) {
+        // The signature and expiry were verified when parsing
+        if (userEmail.equals(userDetails.getUsername())) {
             setAuthentication(userDetails, request);
             log.debug("Successfully authenticated user: {}", userEmail);
         } else {
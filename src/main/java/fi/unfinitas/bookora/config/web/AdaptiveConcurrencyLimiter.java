@@ -0,0 +1,94 @@
+package fi.unfinitas.bookora.config.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AIMD (additive increase, multiplicative decrease) concurrency limiter.
+ * The limit grows by one for every healthy sample while the lane is busy and
+ * shrinks by the backoff ratio when a request is slow or the connection pool has waiters.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong lastDecreaseNanos = new AtomicLong();
+
+    public AdaptiveConcurrencyLimiter(final int initialLimit, final int minLimit, final int maxLimit,
+                                      final long latencyThresholdNanos, final double backoffRatio) {
+        if (minLimit > maxLimit) {
+            throw new IllegalArgumentException("Minimum limit must not exceed maximum limit");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1 (exclusive)");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = new AtomicInteger(Math.clamp(initialLimit, minLimit, maxLimit));
+        this.lastDecreaseNanos.set(System.nanoTime() - latencyThresholdNanos);
+    }
+
+    /**
+     * Try to take a slot without blocking.
+     *
+     * @return true if the request may proceed and {@link #release} must be called afterwards
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            final int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release a slot and feed the request outcome into the limit.
+     *
+     * @param latencyNanos the observed request latency
+     * @param congested    true if a congestion signal (e.g. pool waiters) was observed
+     */
+    public void release(final long latencyNanos, final boolean congested) {
+        final int inFlightBefore = inFlight.getAndDecrement();
+
+        if (congested || latencyNanos > latencyThresholdNanos) {
+            decrease();
+        } else if (inFlightBefore * 2 >= limit.get()) {
+            // Only grow while the lane is actually busy; an idle lane says nothing about capacity.
+            increase();
+        }
+    }
+
+    private void increase() {
+        limit.getAndUpdate(current -> Math.min(maxLimit, current + 1));
+    }
+
+    private void decrease() {
+        // Back off at most once per latency threshold so one burst of slow responses
+        // does not collapse the limit to the minimum.
+        final long now = System.nanoTime();
+        final long last = lastDecreaseNanos.get();
+        if (now - last < latencyThresholdNanos || !lastDecreaseNanos.compareAndSet(last, now)) {
+            return;
+        }
+        limit.getAndUpdate(current -> Math.max(minLimit, (int) (current * backoffRatio)));
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
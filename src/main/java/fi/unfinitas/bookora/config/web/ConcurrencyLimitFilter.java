@@ -0,0 +1,143 @@
+package fi.unfinitas.bookora.config.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.dto.response.ApiResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servlet-level load shedding in front of the connection pool.
+ * Requests are admitted through one of two adaptive lanes (guest booking writes and everything else)
+ * and rejected immediately with 503 and Retry-After when the lane is full, instead of queueing
+ * on the pool for the whole connection timeout.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    static final String WRITE_LANE = "write";
+    static final String READ_LANE = "read";
+
+    private static final String GUEST_BOOKING_PATH = "/bookings/guest";
+    private static final String ACTUATOR_PATH = "/actuator";
+
+    private final BookoraProperties.ConcurrencyLimit properties;
+    private final ConnectionPoolProbe connectionPoolProbe;
+    private final ObjectMapper objectMapper;
+
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+    private final AdaptiveConcurrencyLimiter readLimiter;
+    private final Counter writeRejections;
+    private final Counter readRejections;
+
+    public ConcurrencyLimitFilter(final BookoraProperties bookoraProperties,
+                                  final ConnectionPoolProbe connectionPoolProbe,
+                                  final ObjectMapper objectMapper,
+                                  final MeterRegistry meterRegistry) {
+        this.properties = bookoraProperties.getConcurrencyLimit();
+        this.connectionPoolProbe = connectionPoolProbe;
+        this.objectMapper = objectMapper;
+
+        this.writeLimiter = createLimiter(properties.getWrite());
+        this.readLimiter = createLimiter(properties.getRead());
+        this.writeRejections = registerLane(meterRegistry, WRITE_LANE, writeLimiter);
+        this.readRejections = registerLane(meterRegistry, READ_LANE, readLimiter);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull final HttpServletRequest request) {
+        return !properties.isEnabled() || pathWithinApplication(request).startsWith(ACTUATOR_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull final HttpServletRequest request,
+            @NonNull final HttpServletResponse response,
+            @NonNull final FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        final boolean writeLane = isGuestBookingWrite(request);
+        final AdaptiveConcurrencyLimiter limiter = writeLane ? writeLimiter : readLimiter;
+
+        if (!limiter.tryAcquire()) {
+            (writeLane ? writeRejections : readRejections).increment();
+            log.warn("Shedding {} {} - {} lane at limit {}", request.getMethod(), request.getRequestURI(),
+                    writeLane ? WRITE_LANE : READ_LANE, limiter.getLimit());
+            reject(response);
+            return;
+        }
+
+        final long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start, connectionPoolProbe.isCongested());
+        }
+    }
+
+    private void reject(final HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(properties.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("Service is temporarily overloaded. Please retry shortly."));
+    }
+
+    private static boolean isGuestBookingWrite(final HttpServletRequest request) {
+        final String method = request.getMethod();
+        final boolean readOnly = HttpMethod.GET.matches(method)
+                || HttpMethod.HEAD.matches(method)
+                || HttpMethod.OPTIONS.matches(method);
+        return !readOnly && pathWithinApplication(request).startsWith(GUEST_BOOKING_PATH);
+    }
+
+    private static String pathWithinApplication(final HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private AdaptiveConcurrencyLimiter createLimiter(final BookoraProperties.ConcurrencyLimit.Lane lane) {
+        return new AdaptiveConcurrencyLimiter(
+                lane.getInitialLimit(),
+                lane.getMinLimit(),
+                lane.getMaxLimit(),
+                TimeUnit.MILLISECONDS.toNanos(properties.getLatencyThresholdMs()),
+                properties.getBackoffRatio()
+        );
+    }
+
+    private static Counter registerLane(final MeterRegistry registry, final String lane,
+                                        final AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("bookora.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("lane", lane)
+                .register(registry);
+        Gauge.builder("bookora.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently admitted")
+                .tag("lane", lane)
+                .register(registry);
+        return Counter.builder("bookora.concurrency.rejected")
+                .description("Requests shed with 503")
+                .tag("lane", lane)
+                .register(registry);
+    }
+}
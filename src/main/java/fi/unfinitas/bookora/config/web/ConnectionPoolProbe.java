@@ -0,0 +1,85 @@
+package fi.unfinitas.bookora.config.web;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import fi.unfinitas.bookora.config.database.BulkheadDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Reads the Hikari pool state used as a congestion signal by the concurrency limiter.
+ * Threads queued on the database bulkhead in virtual-thread mode count as waiting for a connection.
+ * Reports no congestion when the datasource is not a Hikari pool.
+ */
+@Component
+public class ConnectionPoolProbe {
+
+    private final ObjectProvider<DataSource> dataSourceProvider;
+    private volatile HikariPoolMXBean poolBean;
+    private volatile BulkheadDataSource bulkheadDataSource;
+    private volatile boolean bulkheadResolved;
+
+    public ConnectionPoolProbe(final ObjectProvider<DataSource> dataSourceProvider) {
+        this.dataSourceProvider = dataSourceProvider;
+    }
+
+    /**
+     * @return number of threads currently waiting for a connection
+     */
+    public int threadsAwaitingConnection() {
+        final HikariPoolMXBean bean = resolvePoolBean();
+        final BulkheadDataSource bulkhead = resolveBulkhead();
+        return (bean != null ? bean.getThreadsAwaitingConnection() : 0)
+                + (bulkhead != null ? bulkhead.getThreadsAwaitingPermit() : 0);
+    }
+
+    /**
+     * @return true if any thread is waiting for a pooled connection
+     */
+    public boolean isCongested() {
+        return threadsAwaitingConnection() > 0;
+    }
+
+    private HikariPoolMXBean resolvePoolBean() {
+        HikariPoolMXBean bean = poolBean;
+        if (bean == null) {
+            final DataSource dataSource = dataSourceProvider.getIfAvailable();
+            bean = unwrapPoolBean(dataSource);
+            poolBean = bean;
+        }
+        return bean;
+    }
+
+    private BulkheadDataSource resolveBulkhead() {
+        if (!bulkheadResolved) {
+            final DataSource dataSource = dataSourceProvider.getIfAvailable();
+            try {
+                if (dataSource != null && dataSource.isWrapperFor(BulkheadDataSource.class)) {
+                    bulkheadDataSource = dataSource.unwrap(BulkheadDataSource.class);
+                }
+            } catch (final SQLException e) {
+                bulkheadDataSource = null;
+            }
+            bulkheadResolved = true;
+        }
+        return bulkheadDataSource;
+    }
+
+    private static HikariPoolMXBean unwrapPoolBean(final DataSource dataSource) {
+        if (dataSource == null) {
+            return null;
+        }
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                // Null until the pool has started; resolved again on the next call
+                return dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            }
+        } catch (final SQLException e) {
+            return null;
+        }
+        return null;
+    }
+}
@@ -75,6 +75,22 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Logout: revoke the access token and its session's refresh token.
+     *
+     * @param authHeader the authorization header with the access token (must start with "Bearer ")
+     * @return the API response
+     */
+    @PostMapping("/logout")
+    @Operation(summary = "Logout", description = "Revoke the access token and the refresh token of its session")
+    public ResponseEntity<ApiResponse<Void>> logout(@RequestHeader("Authorization") final String authHeader) {
+
+        validateBearerToken(authHeader);
+
+        authenticationService.logout(authHeader.substring(7));
+        return ResponseEntity.ok(ApiResponse.success("Logout successful"));
+    }
+
     private static void validateBearerToken(final String authHeader) {
         if (!authHeader.startsWith("Bearer ")) {
             throw new InvalidCredentialsException(
@@ -0,0 +1,54 @@
+package fi.unfinitas.bookora.controller;
+
+import fi.unfinitas.bookora.dto.response.ApiResponse;
+import fi.unfinitas.bookora.dto.response.BookingChangesResponse;
+import fi.unfinitas.bookora.security.CustomUserDetails;
+import fi.unfinitas.bookora.service.ChangeFeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for incremental change feeds used by partner integrations.
+ * Requires authentication as a provider or an administrator.
+ */
+@RestController
+@RequestMapping("/changes")
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeFeedController {
+
+    private final ChangeFeedService changeFeedService;
+
+    /**
+     * Get bookings changed since the given cursor.
+     * Start without a cursor, then pass the returned nextCursor on every following request.
+     *
+     * @param cursor    opaque cursor from the previous page
+     * @param limit     maximum number of changes to return
+     * @param principal the authenticated user
+     * @return a page of booking changes
+     */
+    @GetMapping("/bookings")
+    @Operation(summary = "Booking change feed", description = "Bookings created, updated or deleted since the cursor, oldest first")
+    public ResponseEntity<ApiResponse<BookingChangesResponse>> getBookingChanges(
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(required = false) final Integer limit,
+            @AuthenticationPrincipal final CustomUserDetails principal) {
+        final BookingChangesResponse response = changeFeedService.getBookingChanges(
+                cursor, limit, principal != null ? principal.getUser() : null);
+
+        return ResponseEntity.ok(
+                ApiResponse.success(
+                        "Booking changes retrieved successfully",
+                        response
+                )
+        );
+    }
+}
@@ -0,0 +1,43 @@
+package fi.unfinitas.bookora.controller;
+
+import fi.unfinitas.bookora.dto.response.ApiResponse;
+import fi.unfinitas.bookora.dto.response.FreeSlotsResponse;
+import fi.unfinitas.bookora.service.ProviderCalendarService;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * Controller for listing when services can be booked.
+ * All endpoints are public (no authentication required).
+ */
+@RestController
+@RequestMapping("/guest/services")
+@RequiredArgsConstructor
+@Slf4j
+public class FreeSlotController {
+
+    private final ProviderCalendarService providerCalendarService;
+
+    /**
+     * List the start times at which a service can be booked on a day.
+     * Served from the provider's cached calendar, so a listed start may already be taken on another node.
+     *
+     * @param serviceId the service ID
+     * @param date      the day
+     * @return the free start times
+     */
+    @GetMapping("/{serviceId}/free-slots")
+    @Operation(summary = "List free start times", description = "Booking creation still checks the chosen time")
+    public ResponseEntity<ApiResponse<FreeSlotsResponse>> getFreeSlots(
+            @PathVariable final Long serviceId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate date) {
+        return ResponseEntity.ok(ApiResponse.success("Free slots retrieved successfully",
+                providerCalendarService.getFreeSlots(serviceId, date)));
+    }
+}
@@ -5,15 +5,18 @@ import fi.unfinitas.bookora.dto.response.ApiResponse;
 import fi.unfinitas.bookora.dto.response.BookingResponse;
 import fi.unfinitas.bookora.dto.response.GuestBookingResponse;
 import fi.unfinitas.bookora.service.BookingService;
+import fi.unfinitas.bookora.service.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.UUID;
+import java.util.Optional;
 
 /**
  * Controller for guest booking operations.
@@ -26,42 +29,75 @@ import java.util.UUID;
 @Slf4j
 public class GuestBookingController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
+    // Token-scoped data: only the client may cache it and must revalidate on every use
+    private static final CacheControl GUEST_BOOKING_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     private final BookingService bookingService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Create a new guest booking.
      * Guest provides contact info and serviceId.
      * System generates access token for managing the booking.
+     * With an Idempotency-Key header, a retried request replays the original response
+     * instead of creating a second booking.
      *
-     * @param request the booking request with guest contact info and service details
+     * @param request        the booking request with guest contact info and service details
+     * @param idempotencyKey optional client-generated key identifying this booking attempt
      * @return guest booking response with access token
      */
     @PostMapping
     public ResponseEntity<ApiResponse<GuestBookingResponse>> createGuestBooking(
-            @Valid @RequestBody final CreateGuestBookingRequest request) {
-        final GuestBookingResponse response = bookingService.createGuestBooking(request);
+            @Valid @RequestBody final CreateGuestBookingRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey) {
+        final ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.CREATED);
+        final GuestBookingResponse response;
 
-        return ResponseEntity
-                .status(HttpStatus.CREATED)
-                .body(ApiResponse.success(
-                        "Booking created successfully",
-                        response
-                ));
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            response = bookingService.createGuestBooking(request);
+        } else {
+            final IdempotencyService.Result result = idempotencyService.createGuestBooking(
+                    idempotencyKey, request, () -> bookingService.createGuestBooking(request));
+            response = result.response();
+            builder.header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()));
+        }
+
+        return builder.body(ApiResponse.success(
+                "Booking created successfully",
+                response
+        ));
     }
 
     /**
      * Get booking details by access token.
      * Guests can view their booking using the token provided at creation.
+     * Responses carry a strong ETag; a poll with a matching If-None-Match is answered
+     * with 304 after a single version lookup.
      *
-     * @param token the UUID access token
-     * @return booking details
+     * @param token      the access token (UUID or signed)
+     * @param webRequest the current request, used for conditional GET handling
+     * @return booking details, or 304 if unchanged
      */
     @GetMapping("/{token}")
     public ResponseEntity<ApiResponse<BookingResponse>> getBookingByToken(
-            @PathVariable final UUID token) {
+            @PathVariable final String token,
+            final WebRequest webRequest) {
+        final Optional<String> etag = bookingService.getBookingETagByToken(token);
+        if (etag.isPresent() && webRequest.checkNotModified(etag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag.get())
+                    .cacheControl(GUEST_BOOKING_CACHE_CONTROL)
+                    .build();
+        }
+
         final BookingResponse response = bookingService.getBookingByToken(token);
 
-        return ResponseEntity.ok(
+        final ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(GUEST_BOOKING_CACHE_CONTROL);
+        etag.ifPresent(builder::eTag);
+        return builder.body(
                 ApiResponse.success(
                         "Booking retrieved successfully",
                         response
@@ -74,12 +110,12 @@ public class GuestBookingController {
      * Changes status from PENDING to CONFIRMED and sets confirmed_at timestamp.
      * Can only be called once per booking (before booking start time).
      *
-     * @param token the UUID access token
+     * @param token the access token (UUID or signed)
      * @return updated booking with CONFIRMED status
      */
     @PostMapping("/{token}/confirm")
     public ResponseEntity<ApiResponse<BookingResponse>> confirmBookingByToken(
-            @PathVariable final UUID token) {
+            @PathVariable final String token) {
         final BookingResponse response = bookingService.confirmBookingByToken(token);
 
         return ResponseEntity.ok(
@@ -96,13 +132,13 @@ public class GuestBookingController {
      * Can only be cancelled before the configured cancellation window
      * Token can still be used to view the cancelled booking.
      *
-     * @param token the UUID access token
+     * @param token the access token (UUID or signed)
      * @return updated booking with CANCELLED status
      */
     @PatchMapping("/{token}")
     @Operation(summary = "Cancel booking", description = "Cancel a booking using access token before configured cancellation window")
     public ResponseEntity<ApiResponse<BookingResponse>> cancelBookingByToken(
-            @PathVariable final UUID token) {
+            @PathVariable final String token) {
         final BookingResponse response = bookingService.cancelBookingByToken(token);
 
         return ResponseEntity.ok(
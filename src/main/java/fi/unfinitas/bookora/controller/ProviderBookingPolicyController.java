@@ -0,0 +1,92 @@
+package fi.unfinitas.bookora.controller;
+
+import fi.unfinitas.bookora.dto.request.UpdateBookingPolicyRequest;
+import fi.unfinitas.bookora.dto.response.ApiResponse;
+import fi.unfinitas.bookora.dto.response.BookingPolicyResponse;
+import fi.unfinitas.bookora.security.CustomUserDetails;
+import fi.unfinitas.bookora.service.BookingPolicyService;
+import fi.unfinitas.bookora.service.ProviderService;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Controller for provider and service booking policies.
+ * Requires authentication as the owning provider or an administrator.
+ */
+@RestController
+@RequestMapping("/providers")
+@RequiredArgsConstructor
+@Slf4j
+public class ProviderBookingPolicyController {
+
+    private final ProviderService providerService;
+    private final BookingPolicyService bookingPolicyService;
+
+    /**
+     * List the booking policies of a provider and its services.
+     *
+     * @param providerId the provider ID
+     * @param principal  the authenticated user
+     * @return the policies, the provider's default first
+     */
+    @GetMapping("/{providerId}/booking-policies")
+    @Operation(summary = "List booking policies")
+    public ResponseEntity<ApiResponse<List<BookingPolicyResponse>>> getPolicies(
+            @PathVariable final UUID providerId,
+            @AuthenticationPrincipal final CustomUserDetails principal) {
+        providerService.assertCanAccess(providerId, principal != null ? principal.getUser() : null);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Booking policies retrieved successfully", bookingPolicyService.getPolicies(providerId)));
+    }
+
+    /**
+     * Set the default booking policy of a provider.
+     *
+     * @param providerId the provider ID
+     * @param request    the policy
+     * @param principal  the authenticated user
+     * @return the stored policy
+     */
+    @PutMapping("/{providerId}/booking-policy")
+    @Operation(summary = "Set provider booking policy", description = "Applies to every service without a policy of its own; omitted fields use the defaults")
+    public ResponseEntity<ApiResponse<BookingPolicyResponse>> updateProviderPolicy(
+            @PathVariable final UUID providerId,
+            @Valid @RequestBody final UpdateBookingPolicyRequest request,
+            @AuthenticationPrincipal final CustomUserDetails principal) {
+        providerService.assertCanAccess(providerId, principal != null ? principal.getUser() : null);
+
+        return ResponseEntity.ok(ApiResponse.success("Booking policy updated successfully",
+                bookingPolicyService.updatePolicy(providerId, null, request)));
+    }
+
+    /**
+     * Set the booking policy of one of a provider's services.
+     *
+     * @param providerId the provider ID
+     * @param serviceId  the service ID
+     * @param request    the policy
+     * @param principal  the authenticated user
+     * @return the stored policy
+     */
+    @PutMapping("/{providerId}/services/{serviceId}/booking-policy")
+    @Operation(summary = "Set service booking policy", description = "Omitted fields use the provider's policy")
+    public ResponseEntity<ApiResponse<BookingPolicyResponse>> updateServicePolicy(
+            @PathVariable final UUID providerId,
+            @PathVariable final Long serviceId,
+            @Valid @RequestBody final UpdateBookingPolicyRequest request,
+            @AuthenticationPrincipal final CustomUserDetails principal) {
+        providerService.assertCanAccess(providerId, principal != null ? principal.getUser() : null);
+
+        return ResponseEntity.ok(ApiResponse.success("Booking policy updated successfully",
+                bookingPolicyService.updatePolicy(providerId, serviceId, request)));
+    }
+}
@@ -0,0 +1,48 @@
+package fi.unfinitas.bookora.controller;
+
+import fi.unfinitas.bookora.security.CustomUserDetails;
+import fi.unfinitas.bookora.service.BookingStreamService;
+import fi.unfinitas.bookora.service.ProviderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+/**
+ * Controller for provider booking streams.
+ * Requires authentication as the owning provider or an administrator.
+ */
+@RestController
+@RequestMapping("/providers")
+@RequiredArgsConstructor
+@Slf4j
+public class ProviderBookingStreamController {
+
+    private final ProviderService providerService;
+    private final BookingStreamService bookingStreamService;
+
+    /**
+     * Stream booking created, confirmed and cancelled events of a provider as Server-Sent Events.
+     * Idle connections receive a heartbeat comment periodically.
+     *
+     * @param providerId the provider ID
+     * @param principal  the authenticated user
+     * @return the event stream
+     */
+    @GetMapping(value = "/{providerId}/bookings/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBookings(
+            @PathVariable final UUID providerId,
+            @AuthenticationPrincipal final CustomUserDetails principal) {
+        providerService.assertCanAccess(providerId, principal != null ? principal.getUser() : null);
+
+        log.debug("Opening booking stream for provider {}", providerId);
+        return bookingStreamService.subscribe(providerId);
+    }
+}
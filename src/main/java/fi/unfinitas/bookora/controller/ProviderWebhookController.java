@@ -0,0 +1,92 @@
+package fi.unfinitas.bookora.controller;
+
+import fi.unfinitas.bookora.dto.request.CreateWebhookEndpointRequest;
+import fi.unfinitas.bookora.dto.response.ApiResponse;
+import fi.unfinitas.bookora.dto.response.WebhookEndpointResponse;
+import fi.unfinitas.bookora.security.CustomUserDetails;
+import fi.unfinitas.bookora.service.ProviderService;
+import fi.unfinitas.bookora.service.WebhookService;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Controller for provider webhook endpoints.
+ * Requires authentication as the owning provider or an administrator.
+ */
+@RestController
+@RequestMapping("/providers")
+@RequiredArgsConstructor
+@Slf4j
+public class ProviderWebhookController {
+
+    private final ProviderService providerService;
+    private final WebhookService webhookService;
+
+    /**
+     * Register a webhook endpoint. The response contains the signing secret, which is not shown again.
+     *
+     * @param providerId the provider ID
+     * @param request    the endpoint URL
+     * @param principal  the authenticated user
+     * @return the registered endpoint
+     */
+    @PostMapping("/{providerId}/webhooks")
+    @Operation(summary = "Register webhook endpoint", description = "Booking created, confirmed and cancelled events are POSTed to the URL in signed batches")
+    public ResponseEntity<ApiResponse<WebhookEndpointResponse>> createEndpoint(
+            @PathVariable final UUID providerId,
+            @Valid @RequestBody final CreateWebhookEndpointRequest request,
+            @AuthenticationPrincipal final CustomUserDetails principal) {
+        providerService.assertCanAccess(providerId, principal != null ? principal.getUser() : null);
+
+        final WebhookEndpointResponse data = webhookService.createEndpoint(providerId, request.url());
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Webhook endpoint registered successfully", data));
+    }
+
+    /**
+     * List the webhook endpoints of a provider.
+     *
+     * @param providerId the provider ID
+     * @param principal  the authenticated user
+     * @return the endpoints
+     */
+    @GetMapping("/{providerId}/webhooks")
+    @Operation(summary = "List webhook endpoints")
+    public ResponseEntity<ApiResponse<List<WebhookEndpointResponse>>> getEndpoints(
+            @PathVariable final UUID providerId,
+            @AuthenticationPrincipal final CustomUserDetails principal) {
+        providerService.assertCanAccess(providerId, principal != null ? principal.getUser() : null);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Webhook endpoints retrieved successfully", webhookService.getEndpoints(providerId)));
+    }
+
+    /**
+     * Delete a webhook endpoint.
+     *
+     * @param providerId the provider ID
+     * @param endpointId the endpoint ID
+     * @param principal  the authenticated user
+     * @return success message
+     */
+    @DeleteMapping("/{providerId}/webhooks/{endpointId}")
+    @Operation(summary = "Delete webhook endpoint")
+    public ResponseEntity<ApiResponse<Void>> deleteEndpoint(
+            @PathVariable final UUID providerId,
+            @PathVariable final Long endpointId,
+            @AuthenticationPrincipal final CustomUserDetails principal) {
+        providerService.assertCanAccess(providerId, principal != null ? principal.getUser() : null);
+
+        webhookService.deleteEndpoint(providerId, endpointId);
+        return ResponseEntity.ok(ApiResponse.success("Webhook endpoint deleted successfully"));
+    }
+}
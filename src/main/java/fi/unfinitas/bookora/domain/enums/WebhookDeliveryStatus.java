@@ -0,0 +1,7 @@
+package fi.unfinitas.bookora.domain.enums;
+
+public enum WebhookDeliveryStatus {
+    PENDING,
+    DELIVERED,
+    FAILED
+}
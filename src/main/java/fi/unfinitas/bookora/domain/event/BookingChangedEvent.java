@@ -0,0 +1,52 @@
+package fi.unfinitas.bookora.domain.event;
+
+import fi.unfinitas.bookora.domain.enums.BookingStatus;
+import fi.unfinitas.bookora.domain.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Domain event for booking lifecycle changes.
+ * Published by BookingService inside the booking transaction and consumed after commit
+ * (e.g. by the provider booking stream).
+ */
+public record BookingChangedEvent(
+    Type type,
+    Long bookingId,
+    UUID providerId,
+    Long serviceId,
+    Long groupSlotId,
+    BookingStatus status,
+    LocalDateTime startTime,
+    LocalDateTime endTime,
+    LocalDateTime occurredAt
+) {
+
+    public enum Type {
+        CREATED,
+        CONFIRMED,
+        CANCELLED
+    }
+
+    /**
+     * Create an event describing the current state of a booking.
+     *
+     * @param type    the kind of change
+     * @param booking the changed booking
+     * @return the event
+     */
+    public static BookingChangedEvent of(final Type type, final Booking booking) {
+        return new BookingChangedEvent(
+                type,
+                booking.getId(),
+                booking.getProvider().getId(),
+                booking.getServiceOffering().getId(),
+                booking.getGroupSlotId(),
+                booking.getStatus(),
+                booking.getStartTime(),
+                booking.getEndTime(),
+                LocalDateTime.now()
+        );
+    }
+}
@@ -50,4 +50,16 @@ public class Booking extends VersionedBaseEntity {
     @Column(columnDefinition = "TEXT")
     private String notes;
 
+    /**
+     * Group slot the booking holds a seat in; null for one-to-one services.
+     */
+    @Column(name = "group_slot_id")
+    private Long groupSlotId;
+
+    /**
+     * Shard of the group slot the seat was taken from.
+     */
+    @Column(name = "group_slot_shard")
+    private Integer groupSlotShard;
+
 }
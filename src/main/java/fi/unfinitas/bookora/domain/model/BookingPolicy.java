@@ -0,0 +1,49 @@
+package fi.unfinitas.bookora.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * Booking rules of a provider, or of one of its services when {@code serviceId} is set.
+ * Null fields inherit from the provider's row and then from the configured defaults.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = "id", callSuper = false)
+@Table(name = "t_booking_policy")
+public class BookingPolicy extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "provider_id", nullable = false)
+    private UUID providerId;
+
+    @Column(name = "service_id")
+    private Long serviceId;
+
+    @Column(name = "min_lead_minutes")
+    private Integer minLeadMinutes;
+
+    @Column(name = "max_advance_days")
+    private Integer maxAdvanceDays;
+
+    @Column(name = "buffer_minutes")
+    private Integer bufferMinutes;
+
+    @Column(name = "start_granularity_minutes")
+    private Integer startGranularityMinutes;
+
+    @Column(name = "daily_cap")
+    private Integer dailyCap;
+
+    @Column(name = "cancellation_window_hours")
+    private Integer cancellationWindowHours;
+}
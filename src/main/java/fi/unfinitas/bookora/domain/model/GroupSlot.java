@@ -0,0 +1,41 @@
+package fi.unfinitas.bookora.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One occurrence of a group session; its seats are counted in {@link GroupSlotShard} rows.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = "id", callSuper = false)
+@Table(name = "t_group_slot", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_group_slot_service_start", columnNames = {"service_id", "start_time"})
+})
+public class GroupSlot extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "service_id", nullable = false)
+    private Long serviceId;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+
+    @Column(nullable = false)
+    private Integer capacity;
+
+    @Column(nullable = false)
+    private Integer shards;
+}
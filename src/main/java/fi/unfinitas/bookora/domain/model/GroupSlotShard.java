@@ -0,0 +1,33 @@
+package fi.unfinitas.bookora.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Seat counter for a share of a {@link GroupSlot}'s capacity.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = "id", callSuper = false)
+@Table(name = "t_group_slot_shard", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_group_slot_shard_slot_shard", columnNames = {"slot_id", "shard"})
+})
+public class GroupSlotShard extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "slot_id", nullable = false)
+    private Long slotId;
+
+    @Column(nullable = false)
+    private Integer shard;
+
+    @Column(nullable = false)
+    private Integer remaining;
+}
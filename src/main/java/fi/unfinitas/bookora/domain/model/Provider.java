@@ -20,7 +20,7 @@ import java.util.UUID;
 public class Provider extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @OneToOne(fetch = FetchType.LAZY)
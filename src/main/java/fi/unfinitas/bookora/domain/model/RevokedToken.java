@@ -0,0 +1,33 @@
+package fi.unfinitas.bookora.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = "id", callSuper = false)
+@Table(name = "t_revoked_token", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_revoked_token_token_id", columnNames = "token_id")
+})
+public class RevokedToken extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * {@code jti} of a revoked access token or {@code sid} of a revoked login session.
+     */
+    @Column(name = "token_id", nullable = false)
+    private UUID tokenId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
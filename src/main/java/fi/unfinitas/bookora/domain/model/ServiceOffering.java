@@ -43,6 +43,24 @@ public class ServiceOffering extends VersionedBaseEntity {
     @Builder.Default
     private Boolean isActive = true;
 
+    /**
+     * Bookings per slot; more than one makes the service a group session.
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer capacity = 1;
+
+    /**
+     * Counter rows the seats of a group slot are spread over.
+     */
+    @Column(name = "capacity_shards", nullable = false)
+    @Builder.Default
+    private Integer capacityShards = 1;
+
+    public boolean isGroupSession() {
+        return capacity > 1;
+    }
+
     @PrePersist
     @PreUpdate
     private void validate() {
@@ -52,5 +70,11 @@ public class ServiceOffering extends VersionedBaseEntity {
         if (price.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Price must be positive");
         }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (capacityShards < 1 || capacityShards > capacity) {
+            throw new IllegalArgumentException("Capacity shards must be between 1 and the capacity");
+        }
     }
 }
@@ -24,7 +24,7 @@ import static fi.unfinitas.bookora.domain.enums.UserRole.USER;
 public class User extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(nullable = false, unique = true, length = 50)
@@ -0,0 +1,37 @@
+package fi.unfinitas.bookora.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = "id", callSuper = false)
+@Table(name = "t_webhook_endpoint")
+@SQLRestriction("deleted_at IS NULL")
+@SQLDelete(sql = "UPDATE t_webhook_endpoint SET deleted_at = NOW(), updated_at = NOW() WHERE id = ?")
+public class WebhookEndpoint extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "provider_id", nullable = false)
+    private Provider provider;
+
+    @Column(nullable = false, length = 2048)
+    private String url;
+
+    @Column(nullable = false, length = 128)
+    private String secret;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean active = true;
+}
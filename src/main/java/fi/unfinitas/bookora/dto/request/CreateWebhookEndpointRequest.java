@@ -0,0 +1,15 @@
+package fi.unfinitas.bookora.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO for registering a webhook endpoint of a provider.
+ */
+public record CreateWebhookEndpointRequest(
+    @NotBlank(message = "URL is required")
+    @Size(max = 2048, message = "URL must not exceed 2048 characters")
+    @Pattern(regexp = "^https?://\\S+$", message = "URL must be an absolute http(s) URL")
+    String url
+) {}
@@ -0,0 +1,29 @@
+package fi.unfinitas.bookora.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+/**
+ * DTO for setting the booking policy of a provider or one of its services.
+ * Omitted fields inherit from the provider's policy and then from the defaults; 0 switches a limit off.
+ */
+public record UpdateBookingPolicyRequest(
+    @Min(value = 0, message = "Minimum lead time must be at least 0 minutes")
+    Integer minLeadMinutes,
+
+    @Min(value = 0, message = "Maximum advance must be at least 0 days")
+    Integer maxAdvanceDays,
+
+    @Min(value = 0, message = "Buffer must be at least 0 minutes")
+    Integer bufferMinutes,
+
+    @Min(value = 0, message = "Start granularity must be at least 0 minutes")
+    @Max(value = 1440, message = "Start granularity must be at most 1440 minutes")
+    Integer startGranularityMinutes,
+
+    @Min(value = 0, message = "Daily cap must be at least 0")
+    Integer dailyCap,
+
+    @Min(value = 0, message = "Cancellation window must be at least 0 hours")
+    Integer cancellationWindowHours
+) {}
@@ -0,0 +1,20 @@
+package fi.unfinitas.bookora.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO for a single entry of the booking change feed.
+ * Deleted bookings are returned as tombstones with {@code deleted = true}.
+ */
+public record BookingChangeResponse(
+    Long id,
+    UUID providerId,
+    Long serviceId,
+    String status,
+    LocalDateTime startTime,
+    LocalDateTime endTime,
+    Long version,
+    LocalDateTime updatedAt,
+    boolean deleted
+) {}
@@ -0,0 +1,14 @@
+package fi.unfinitas.bookora.dto.response;
+
+import java.util.List;
+
+/**
+ * DTO for a page of the booking change feed.
+ * Pass {@code nextCursor} as the cursor of the next request; when {@code hasMore} is false
+ * the client is caught up and should poll again later with the same cursor.
+ */
+public record BookingChangesResponse(
+    List<BookingChangeResponse> changes,
+    String nextCursor,
+    boolean hasMore
+) {}
@@ -0,0 +1,18 @@
+package fi.unfinitas.bookora.dto.response;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the booking policy of a provider ({@code serviceId} null) or one of its services.
+ * Null fields are inherited.
+ */
+public record BookingPolicyResponse(
+    Long serviceId,
+    Integer minLeadMinutes,
+    Integer maxAdvanceDays,
+    Integer bufferMinutes,
+    Integer startGranularityMinutes,
+    Integer dailyCap,
+    Integer cancellationWindowHours,
+    LocalDateTime updatedAt
+) {}
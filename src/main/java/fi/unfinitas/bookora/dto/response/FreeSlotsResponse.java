@@ -0,0 +1,15 @@
+package fi.unfinitas.bookora.dto.response;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * DTO for the start times at which a service can be booked on one day.
+ */
+public record FreeSlotsResponse(
+    Long serviceId,
+    LocalDate date,
+    Integer durationMinutes,
+    List<LocalTime> startTimes
+) {}
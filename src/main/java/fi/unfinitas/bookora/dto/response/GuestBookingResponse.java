@@ -1,7 +1,6 @@
 package fi.unfinitas.bookora.dto.response;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
  * DTO for guest booking response.
@@ -18,6 +17,6 @@ public record GuestBookingResponse(
     String status,
     String notes,
     LocalDateTime createdAt,
-    UUID accessToken,
+    String accessToken,
     LocalDateTime tokenExpiresAt
 ) {}
@@ -0,0 +1,18 @@
+package fi.unfinitas.bookora.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a registered webhook endpoint.
+ * The signing secret is only returned once, in the response to the registration.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record WebhookEndpointResponse(
+    Long id,
+    String url,
+    boolean active,
+    String secret,
+    LocalDateTime createdAt
+) {}
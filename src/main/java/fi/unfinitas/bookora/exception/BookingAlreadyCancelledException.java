@@ -3,13 +3,13 @@ package fi.unfinitas.bookora.exception;
 /**
  * Exception thrown when attempting to confirm a booking that has already been cancelled.
  */
-public class BookingAlreadyCancelledException extends RuntimeException {
+public class BookingAlreadyCancelledException extends BookoraException {
 
     public BookingAlreadyCancelledException(final String message) {
-        super(message);
+        super(ErrorCode.BOOKING_ALREADY_CANCELLED, message);
     }
 
     public BookingAlreadyCancelledException(final String message, final Throwable cause) {
-        super(message, cause);
+        super(ErrorCode.BOOKING_ALREADY_CANCELLED, message, cause);
     }
 }
@@ -3,13 +3,13 @@ package fi.unfinitas.bookora.exception;
 /**
  * Exception thrown when attempting to confirm a booking that is already confirmed.
  */
-public class BookingAlreadyConfirmedException extends RuntimeException {
+public class BookingAlreadyConfirmedException extends BookoraException {
 
     public BookingAlreadyConfirmedException(final String message) {
-        super(message);
+        super(ErrorCode.BOOKING_ALREADY_CONFIRMED, message);
     }
 
     public BookingAlreadyConfirmedException(final String message, final Throwable cause) {
-        super(message, cause);
+        super(ErrorCode.BOOKING_ALREADY_CONFIRMED, message, cause);
     }
 }
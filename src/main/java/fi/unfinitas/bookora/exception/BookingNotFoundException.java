@@ -3,13 +3,13 @@ package fi.unfinitas.bookora.exception;
 /**
  * Exception thrown when a booking is not found.
  */
-public class BookingNotFoundException extends RuntimeException {
+public class BookingNotFoundException extends BookoraException {
 
     public BookingNotFoundException(final String message) {
-        super(message);
+        super(ErrorCode.BOOKING_NOT_FOUND, message);
     }
 
     public BookingNotFoundException(final String message, final Throwable cause) {
-        super(message, cause);
+        super(ErrorCode.BOOKING_NOT_FOUND, message, cause);
     }
 }
@@ -0,0 +1,25 @@
+package fi.unfinitas.bookora.exception;
+
+/**
+ * Base type for expected business rejections that end in a 4xx response. These are thrown for control flow
+ * (slot conflicts, bad or expired tokens, rate limits) and can be frequent under scans or stampedes on a hot
+ * slot, so no stack trace is captured and suppression is disabled. The {@link ErrorCode} decides the status,
+ * log level and rejection counter in {@link GlobalExceptionHandler}; the message is returned to the client.
+ */
+public abstract class BookoraException extends RuntimeException {
+
+    private final ErrorCode errorCode;
+
+    protected BookoraException(final ErrorCode errorCode, final String message) {
+        this(errorCode, message, null);
+    }
+
+    protected BookoraException(final ErrorCode errorCode, final String message, final Throwable cause) {
+        super(message, cause, false, false);
+        this.errorCode = errorCode;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+}
@@ -4,13 +4,13 @@ package fi.unfinitas.bookora.exception;
  * Exception thrown when a customer attempts to book multiple overlapping appointments.
  * A customer cannot be in two places at the same time.
  */
-public class CustomerBookingConflictException extends RuntimeException {
+public class CustomerBookingConflictException extends BookoraException {
 
     public CustomerBookingConflictException(final String message) {
-        super(message);
+        super(ErrorCode.CUSTOMER_BOOKING_CONFLICT, message);
     }
 
     public CustomerBookingConflictException(final String message, final Throwable cause) {
-        super(message, cause);
+        super(ErrorCode.CUSTOMER_BOOKING_CONFLICT, message, cause);
     }
 }
@@ -0,0 +1,11 @@
+package fi.unfinitas.bookora.exception;
+
+/**
+ * Exception thrown when a provider has taken as many bookings on a day as its policy allows.
+ */
+public class DailyBookingCapReachedException extends BookoraException {
+
+    public DailyBookingCapReachedException(final String message) {
+        super(ErrorCode.DAILY_BOOKING_CAP_REACHED, message);
+    }
+}
@@ -3,13 +3,13 @@ package fi.unfinitas.bookora.exception;
 /**
  * Exception thrown when attempting to register with an email that already exists.
  */
-public class EmailAlreadyExistsException extends RuntimeException {
+public class EmailAlreadyExistsException extends BookoraException {
 
     public EmailAlreadyExistsException(final String message) {
-        super(message);
+        super(ErrorCode.EMAIL_ALREADY_EXISTS, message);
     }
 
     public EmailAlreadyExistsException(final String message, final Throwable cause) {
-        super(message, cause);
+        super(ErrorCode.EMAIL_ALREADY_EXISTS, message, cause);
     }
 }
@@ -0,0 +1,56 @@
+package fi.unfinitas.bookora.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Expected business rejections, with the HTTP status {@link GlobalExceptionHandler} answers them with.
+ * Rejections that hint at abuse (bad credentials, foreign resources, rate limits) are logged as warnings.
+ */
+public enum ErrorCode {
+
+    EMAIL_ALREADY_EXISTS(HttpStatus.CONFLICT, false),
+    USERNAME_ALREADY_EXISTS(HttpStatus.CONFLICT, false),
+    INVALID_CREDENTIALS(HttpStatus.UNAUTHORIZED, true),
+    USER_NOT_FOUND(HttpStatus.NOT_FOUND, false),
+    BOOKING_NOT_FOUND(HttpStatus.NOT_FOUND, false),
+    SERVICE_OFFERING_NOT_FOUND(HttpStatus.NOT_FOUND, false),
+    INVALID_BOOKING_TIME(HttpStatus.BAD_REQUEST, false),
+    CUSTOMER_BOOKING_CONFLICT(HttpStatus.CONFLICT, false),
+    GROUP_SESSION_FULL(HttpStatus.CONFLICT, false),
+    DAILY_BOOKING_CAP_REACHED(HttpStatus.CONFLICT, false),
+    BOOKING_ALREADY_CONFIRMED(HttpStatus.CONFLICT, false),
+    BOOKING_ALREADY_CANCELLED(HttpStatus.CONFLICT, false),
+    CANNOT_CANCEL_BOOKING(HttpStatus.BAD_REQUEST, false),
+    GUEST_EMAIL_ALREADY_REGISTERED(HttpStatus.CONFLICT, false),
+    INVALID_TOKEN(HttpStatus.UNAUTHORIZED, false),
+    TOKEN_EXPIRED(HttpStatus.UNAUTHORIZED, false),
+    TOKEN_ALREADY_USED(HttpStatus.FORBIDDEN, true),
+    VERIFICATION_TOKEN_INVALID(HttpStatus.BAD_REQUEST, false),
+    VERIFICATION_TOKEN_EXPIRED(HttpStatus.BAD_REQUEST, false),
+    INVALID_IDEMPOTENCY_KEY(HttpStatus.UNPROCESSABLE_ENTITY, false),
+    IDEMPOTENCY_KEY_CONFLICT(HttpStatus.CONFLICT, false),
+    PROVIDER_ACCESS_DENIED(HttpStatus.FORBIDDEN, true),
+    INVALID_CURSOR(HttpStatus.BAD_REQUEST, false),
+    WEBHOOK_ENDPOINT_NOT_FOUND(HttpStatus.NOT_FOUND, false),
+    INVALID_WEBHOOK_URL(HttpStatus.BAD_REQUEST, true),
+    RATE_LIMIT_EXCEEDED(HttpStatus.TOO_MANY_REQUESTS, true);
+
+    private final HttpStatus status;
+    private final boolean warn;
+
+    ErrorCode(final HttpStatus status, final boolean warn) {
+        this.status = status;
+        this.warn = warn;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return whether a rejection with this code is logged as a warning rather than at debug level
+     */
+    public boolean isWarn() {
+        return warn;
+    }
+}
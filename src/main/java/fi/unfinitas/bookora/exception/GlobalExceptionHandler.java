@@ -1,7 +1,12 @@
 package fi.unfinitas.bookora.exception;
 
 import fi.unfinitas.bookora.dto.response.ApiResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import jakarta.persistence.OptimisticLockException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -10,11 +15,13 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -26,6 +33,44 @@ import java.util.UUID;
 @Slf4j
 public class GlobalExceptionHandler {
 
+    static final String REJECTIONS_COUNTER = "bookora.rejections";
+
+    private final Map<ErrorCode, Counter> rejections = new EnumMap<>(ErrorCode.class);
+
+    /**
+     * @param meterRegistry registry for the rejection counters; web slice tests have none, so the counters then
+     *                      go to the global registry
+     */
+    @Autowired
+    public GlobalExceptionHandler(final ObjectProvider<MeterRegistry> meterRegistry) {
+        this(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    GlobalExceptionHandler(final MeterRegistry meterRegistry) {
+        for (final ErrorCode errorCode : ErrorCode.values()) {
+            rejections.put(errorCode, Counter.builder(REJECTIONS_COUNTER)
+                    .description("Requests rejected with a business error, by error code")
+                    .tag("code", errorCode.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Handle expected business rejections; status, log level and counter come from the error code.
+     */
+    @ExceptionHandler(BookoraException.class)
+    public ResponseEntity<ApiResponse<Void>> handleBookoraException(final BookoraException ex) {
+        final ErrorCode errorCode = ex.getErrorCode();
+        rejections.get(errorCode).increment();
+        if (errorCode.isWarn()) {
+            log.warn("Request rejected with {}: {}", errorCode, ex.getMessage());
+        } else {
+            log.debug("Request rejected with {}: {}", errorCode, ex.getMessage());
+        }
+        final ApiResponse<Void> response = ApiResponse.fail(ex.getMessage());
+        return new ResponseEntity<>(response, errorCode.getStatus());
+    }
+
     /**
      * Handle validation errors.
      */
@@ -43,36 +88,6 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
-    /**
-     * Handle email already exists exception.
-     */
-    @ExceptionHandler(EmailAlreadyExistsException.class)
-    public ResponseEntity<ApiResponse<Void>> handleEmailAlreadyExists(final EmailAlreadyExistsException ex) {
-        log.debug("Email already exists: {}", ex.getMessage());
-        final ApiResponse<Void> response = ApiResponse.fail(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
-    }
-
-    /**
-     * Handle username already exists exception.
-     */
-    @ExceptionHandler(UsernameAlreadyExistsException.class)
-    public ResponseEntity<ApiResponse<Void>> handleUsernameAlreadyExists(final UsernameAlreadyExistsException ex) {
-        log.debug("Username already exists: {}", ex.getMessage());
-        final ApiResponse<Void> response = ApiResponse.fail(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
-    }
-
-    /**
-     * Handle invalid credentials' exception.
-     */
-    @ExceptionHandler(InvalidCredentialsException.class)
-    public ResponseEntity<ApiResponse<Void>> handleInvalidCredentials(final InvalidCredentialsException ex) {
-        log.warn("Invalid credentials attempt: {}", ex.getMessage());
-        final ApiResponse<Void> response = ApiResponse.fail(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
-    }
-
     /**
      * Handle username not found exception.
      */
@@ -93,6 +108,16 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handle missing request parameter exception.
+     */
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public ResponseEntity<ApiResponse<Void>> handleMissingRequestParameter(final MissingServletRequestParameterException ex) {
+        log.debug("Missing request parameter: {}", ex.getParameterName());
+        final ApiResponse<Void> response = ApiResponse.fail("Required parameter '" + ex.getParameterName() + "' is missing");
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Handle method argument type mismatch exception (e.g., invalid UUID format).
      */
@@ -115,116 +140,6 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
-    /**
-     * Handle booking not found exception.
-     */
-    @ExceptionHandler(BookingNotFoundException.class)
-    public ResponseEntity<ApiResponse<Void>> handleBookingNotFound(final BookingNotFoundException ex) {
-        log.debug("Booking not found: {}", ex.getMessage());
-        final ApiResponse<Void> response = ApiResponse.fail(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
-    }
-
-    /**
-     * Handle service offering not found exception.
-     */
-    @ExceptionHandler(ServiceOfferingNotFoundException.class)
-    public ResponseEntity<ApiResponse<Void>> handleServiceOfferingNotFound(final ServiceOfferingNotFoundException ex) {
-        log.debug("Service offering not found: {}", ex.getMessage());
-        final ApiResponse<Void> response = ApiResponse.fail(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
-    }
-
-    /**
-     * Handle invalid booking time exception.
-     */
-    @ExceptionHandler(InvalidBookingTimeException.class)
-    public ResponseEntity<ApiResponse<Void>> handleInvalidBookingTime(final InvalidBookingTimeException ex) {
-        log.debug("Invalid booking time: {}", ex.getMessage());
-        final ApiResponse<Void> response = ApiResponse.fail(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
-    }
-
-    /**
-     * Handle token expired exception.
-     */
-    @ExceptionHandler(TokenExpiredException.class)
-    public ResponseEntity<ApiResponse<Void>> handleTokenExpired(final TokenExpiredException ex) {
-        log.debug("Token expired: {}", ex.getMessage());
-        final ApiResponse<Void> response = ApiResponse.fail(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
-    }
-
-    /**
-     * Handle invalid token exception.
-     */
-    @ExceptionHandler(InvalidTokenException.class)
-    public ResponseEntity<ApiResponse<Void>> handleInvalidToken(final InvalidTokenException ex) {
-        log.debug("Invalid token: {}", ex.getMessage());
-        final ApiResponse<Void> response = ApiResponse.fail(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
-    }
-
-    /**
-     * Handle token already used exception.
-     */
-    @ExceptionHandler(TokenAlreadyUsedException.class)
-    public ResponseEntity<ApiResponse<Void>> handleTokenAlreadyUsed(final TokenAlreadyUsedException ex) {
-        log.warn("Token already used: {}", ex.getMessage());
-        final ApiResponse<Void> response = ApiResponse.fail(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.FORBIDDEN);
-    }
-
-    /**
-     * Handle guest email already registered exception.
-     */
-    @ExceptionHandler(GuestEmailAlreadyRegisteredException.class)
-    public ResponseEntity<ApiResponse<Void>> handleGuestEmailAlreadyRegistered(final GuestEmailAlreadyRegisteredException ex) {
-        log.debug("Guest email already registered: {}", ex.getMessage());
-        final ApiResponse<Void> response = ApiResponse.fail(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
-    }
-
-    /**
-     * Handle booking already confirmed exception.
-     */
-    @ExceptionHandler(BookingAlreadyConfirmedException.class)
-    public ResponseEntity<ApiResponse<Void>> handleBookingAlreadyConfirmed(final BookingAlreadyConfirmedException ex) {
-        log.debug("Booking already confirmed: {}", ex.getMessage());
-        final ApiResponse<Void> response = ApiResponse.fail(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
-    }
-
-    /**
-     * Handle booking already cancelled exception.
-     */
-    @ExceptionHandler(BookingAlreadyCancelledException.class)
-    public ResponseEntity<ApiResponse<Void>> handleBookingAlreadyCancelled(final BookingAlreadyCancelledException ex) {
-        log.debug("Booking already cancelled: {}", ex.getMessage());
-        final ApiResponse<Void> response = ApiResponse.fail(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
-    }
-
-    /**
-     * Handle cannot cancel booking exception.
-     */
-    @ExceptionHandler(CannotCancelBookingException.class)
-    public ResponseEntity<ApiResponse<Void>> handleCannotCancelBooking(final CannotCancelBookingException ex) {
-        log.debug("Cannot cancel booking: {}", ex.getMessage());
-        final ApiResponse<Void> response = ApiResponse.fail(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
-    }
-
-    /**
-     * Handle customer booking conflict exception.
-     */
-    @ExceptionHandler(CustomerBookingConflictException.class)
-    public ResponseEntity<ApiResponse<Void>> handleCustomerBookingConflict(final CustomerBookingConflictException ex) {
-        log.debug("Customer booking conflict: {}", ex.getMessage());
-        final ApiResponse<Void> response = ApiResponse.fail(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
-    }
-
     /**
      * Handle optimistic locking failures.
      * Occurs when two users/threads try to modify the same entity simultaneously.
@@ -273,44 +188,4 @@ public class GlobalExceptionHandler {
         );
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
-
-    /**
-     * Handle user not found exception.
-     */
-    @ExceptionHandler(UserNotFoundException.class)
-    public ResponseEntity<ApiResponse<Void>> handleUserNotFound(final UserNotFoundException ex) {
-        log.debug("User not found: {}", ex.getMessage());
-        final ApiResponse<Void> response = ApiResponse.fail(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
-    }
-
-    /**
-     * Handle rate limit exceeded exception.
-     */
-    @ExceptionHandler(RateLimitExceededException.class)
-    public ResponseEntity<ApiResponse<Void>> handleRateLimitExceeded(final RateLimitExceededException ex) {
-        log.warn("Rate limit exceeded: {}", ex.getMessage());
-        final ApiResponse<Void> response = ApiResponse.fail(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.TOO_MANY_REQUESTS);
-    }
-
-    /**
-     * Handle verification token invalid exception.
-     */
-    @ExceptionHandler(VerificationTokenInvalidException.class)
-    public ResponseEntity<ApiResponse<Void>> handleVerificationTokenInvalid(final VerificationTokenInvalidException ex) {
-        log.debug("Invalid verification token: {}", ex.getMessage());
-        final ApiResponse<Void> response = ApiResponse.fail(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
-    }
-
-    /**
-     * Handle verification token expired exception.
-     */
-    @ExceptionHandler(VerificationTokenExpiredException.class)
-    public ResponseEntity<ApiResponse<Void>> handleVerificationTokenExpired(final VerificationTokenExpiredException ex) {
-        log.debug("Verification token expired: {}", ex.getMessage());
-        final ApiResponse<Void> response = ApiResponse.fail(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
-    }
 }
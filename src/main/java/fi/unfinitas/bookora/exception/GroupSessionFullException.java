@@ -0,0 +1,11 @@
+package fi.unfinitas.bookora.exception;
+
+/**
+ * Exception thrown when every seat of a group session slot is taken.
+ */
+public class GroupSessionFullException extends BookoraException {
+
+    public GroupSessionFullException(final String message) {
+        super(ErrorCode.GROUP_SESSION_FULL, message);
+    }
+}
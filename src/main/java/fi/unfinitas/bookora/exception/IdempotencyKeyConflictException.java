@@ -0,0 +1,16 @@
+package fi.unfinitas.bookora.exception;
+
+/**
+ * Exception thrown when a request arrives while another request with the same Idempotency-Key
+ * is still being processed.
+ */
+public class IdempotencyKeyConflictException extends BookoraException {
+
+    public IdempotencyKeyConflictException(final String message) {
+        super(ErrorCode.IDEMPOTENCY_KEY_CONFLICT, message);
+    }
+
+    public IdempotencyKeyConflictException(final String message, final Throwable cause) {
+        super(ErrorCode.IDEMPOTENCY_KEY_CONFLICT, message, cause);
+    }
+}
@@ -4,13 +4,13 @@ package fi.unfinitas.bookora.exception;
  * Exception thrown when booking time is invalid.
  * This includes past time bookings, end time before start time, and overlapping bookings.
  */
-public class InvalidBookingTimeException extends RuntimeException {
+public class InvalidBookingTimeException extends BookoraException {
 
     public InvalidBookingTimeException(final String message) {
-        super(message);
+        super(ErrorCode.INVALID_BOOKING_TIME, message);
     }
 
     public InvalidBookingTimeException(final String message, final Throwable cause) {
-        super(message, cause);
+        super(ErrorCode.INVALID_BOOKING_TIME, message, cause);
     }
 }
@@ -3,13 +3,13 @@ package fi.unfinitas.bookora.exception;
 /**
  * Exception thrown when login credentials are invalid.
  */
-public class InvalidCredentialsException extends RuntimeException {
+public class InvalidCredentialsException extends BookoraException {
 
     public InvalidCredentialsException(final String message) {
-        super(message);
+        super(ErrorCode.INVALID_CREDENTIALS, message);
     }
 
     public InvalidCredentialsException(final String message, final Throwable cause) {
-        super(message, cause);
+        super(ErrorCode.INVALID_CREDENTIALS, message, cause);
     }
 }
@@ -0,0 +1,15 @@
+package fi.unfinitas.bookora.exception;
+
+/**
+ * Exception thrown when a change feed cursor cannot be decoded.
+ */
+public class InvalidCursorException extends BookoraException {
+
+    public InvalidCursorException(final String message) {
+        super(ErrorCode.INVALID_CURSOR, message);
+    }
+
+    public InvalidCursorException(final String message, final Throwable cause) {
+        super(ErrorCode.INVALID_CURSOR, message, cause);
+    }
+}
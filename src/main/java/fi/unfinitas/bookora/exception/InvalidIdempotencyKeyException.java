@@ -0,0 +1,15 @@
+package fi.unfinitas.bookora.exception;
+
+/**
+ * Exception thrown when an Idempotency-Key is malformed or was already used with a different request body.
+ */
+public class InvalidIdempotencyKeyException extends BookoraException {
+
+    public InvalidIdempotencyKeyException(final String message) {
+        super(ErrorCode.INVALID_IDEMPOTENCY_KEY, message);
+    }
+
+    public InvalidIdempotencyKeyException(final String message, final Throwable cause) {
+        super(ErrorCode.INVALID_IDEMPOTENCY_KEY, message, cause);
+    }
+}
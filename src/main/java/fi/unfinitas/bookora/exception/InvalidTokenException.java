@@ -3,13 +3,13 @@ package fi.unfinitas.bookora.exception;
 /**
  * Exception thrown when a guest access token is invalid or does not exist.
  */
-public class InvalidTokenException extends RuntimeException {
+public class InvalidTokenException extends BookoraException {
 
     public InvalidTokenException(final String message) {
-        super(message);
+        super(ErrorCode.INVALID_TOKEN, message);
     }
 
     public InvalidTokenException(final String message, final Throwable cause) {
-        super(message, cause);
+        super(ErrorCode.INVALID_TOKEN, message, cause);
     }
 }
@@ -0,0 +1,11 @@
+package fi.unfinitas.bookora.exception;
+
+/**
+ * Exception thrown when a webhook URL is not https or points at a loopback, private or link-local address.
+ */
+public class InvalidWebhookUrlException extends BookoraException {
+
+    public InvalidWebhookUrlException(final String message) {
+        super(ErrorCode.INVALID_WEBHOOK_URL, message);
+    }
+}
@@ -0,0 +1,15 @@
+package fi.unfinitas.bookora.exception;
+
+/**
+ * Exception thrown when a user tries to access data of a provider they do not own.
+ */
+public class ProviderAccessDeniedException extends BookoraException {
+
+    public ProviderAccessDeniedException(final String message) {
+        super(ErrorCode.PROVIDER_ACCESS_DENIED, message);
+    }
+
+    public ProviderAccessDeniedException(final String message, final Throwable cause) {
+        super(ErrorCode.PROVIDER_ACCESS_DENIED, message, cause);
+    }
+}
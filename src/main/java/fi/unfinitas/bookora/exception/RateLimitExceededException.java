@@ -1,12 +1,12 @@
 package fi.unfinitas.bookora.exception;
 
-public class RateLimitExceededException extends RuntimeException {
+public class RateLimitExceededException extends BookoraException {
 
     public RateLimitExceededException(final String message) {
-        super(message);
+        super(ErrorCode.RATE_LIMIT_EXCEEDED, message);
     }
 
     public RateLimitExceededException(final String message, final Throwable cause) {
-        super(message, cause);
+        super(ErrorCode.RATE_LIMIT_EXCEEDED, message, cause);
     }
 }
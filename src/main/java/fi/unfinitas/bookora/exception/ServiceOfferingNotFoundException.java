@@ -3,13 +3,13 @@ package fi.unfinitas.bookora.exception;
 /**
  * Exception thrown when a service offering is not found.
  */
-public class ServiceOfferingNotFoundException extends RuntimeException {
+public class ServiceOfferingNotFoundException extends BookoraException {
 
     public ServiceOfferingNotFoundException(final String message) {
-        super(message);
+        super(ErrorCode.SERVICE_OFFERING_NOT_FOUND, message);
     }
 
     public ServiceOfferingNotFoundException(final String message, final Throwable cause) {
-        super(message, cause);
+        super(ErrorCode.SERVICE_OFFERING_NOT_FOUND, message, cause);
     }
 }
@@ -3,13 +3,13 @@ package fi.unfinitas.bookora.exception;
 /**
  * Exception thrown when a guest access token has already been used.
  */
-public class TokenAlreadyUsedException extends RuntimeException {
+public class TokenAlreadyUsedException extends BookoraException {
 
     public TokenAlreadyUsedException(final String message) {
-        super(message);
+        super(ErrorCode.TOKEN_ALREADY_USED, message);
     }
 
     public TokenAlreadyUsedException(final String message, final Throwable cause) {
-        super(message, cause);
+        super(ErrorCode.TOKEN_ALREADY_USED, message, cause);
     }
 }
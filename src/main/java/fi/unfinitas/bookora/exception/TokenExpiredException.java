@@ -3,13 +3,13 @@ package fi.unfinitas.bookora.exception;
 /**
  * Exception thrown when a guest access token has expired.
  */
-public class TokenExpiredException extends RuntimeException {
+public class TokenExpiredException extends BookoraException {
 
     public TokenExpiredException(final String message) {
-        super(message);
+        super(ErrorCode.TOKEN_EXPIRED, message);
     }
 
     public TokenExpiredException(final String message, final Throwable cause) {
-        super(message, cause);
+        super(ErrorCode.TOKEN_EXPIRED, message, cause);
     }
 }
@@ -3,13 +3,13 @@ package fi.unfinitas.bookora.exception;
 /**
  * Exception thrown when a user is not found.
  */
-public class UserNotFoundException extends RuntimeException {
+public class UserNotFoundException extends BookoraException {
 
     public UserNotFoundException(final String message) {
-        super(message);
+        super(ErrorCode.USER_NOT_FOUND, message);
     }
 
     public UserNotFoundException(final String message, final Throwable cause) {
-        super(message, cause);
+        super(ErrorCode.USER_NOT_FOUND, message, cause);
     }
 }
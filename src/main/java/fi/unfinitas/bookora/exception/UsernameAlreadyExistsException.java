@@ -3,13 +3,13 @@ package fi.unfinitas.bookora.exception;
 /**
  * Exception thrown when attempting to register with a username that already exists.
  */
-public class UsernameAlreadyExistsException extends RuntimeException {
+public class UsernameAlreadyExistsException extends BookoraException {
 
     public UsernameAlreadyExistsException(final String message) {
-        super(message);
+        super(ErrorCode.USERNAME_ALREADY_EXISTS, message);
     }
 
     public UsernameAlreadyExistsException(final String message, final Throwable cause) {
-        super(message, cause);
+        super(ErrorCode.USERNAME_ALREADY_EXISTS, message, cause);
     }
 }
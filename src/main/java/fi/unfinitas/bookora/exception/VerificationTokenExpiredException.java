@@ -1,12 +1,12 @@
 package fi.unfinitas.bookora.exception;
 
-public class VerificationTokenExpiredException extends RuntimeException {
+public class VerificationTokenExpiredException extends BookoraException {
 
     public VerificationTokenExpiredException(final String message) {
-        super(message);
+        super(ErrorCode.VERIFICATION_TOKEN_EXPIRED, message);
     }
 
     public VerificationTokenExpiredException(final String message, final Throwable cause) {
-        super(message, cause);
+        super(ErrorCode.VERIFICATION_TOKEN_EXPIRED, message, cause);
     }
 }
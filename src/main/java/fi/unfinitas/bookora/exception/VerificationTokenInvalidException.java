@@ -1,12 +1,12 @@
 package fi.unfinitas.bookora.exception;
 
-public class VerificationTokenInvalidException extends RuntimeException {
+public class VerificationTokenInvalidException extends BookoraException {
 
     public VerificationTokenInvalidException(final String message) {
-        super(message);
+        super(ErrorCode.VERIFICATION_TOKEN_INVALID, message);
     }
 
     public VerificationTokenInvalidException(final String message, final Throwable cause) {
-        super(message, cause);
+        super(ErrorCode.VERIFICATION_TOKEN_INVALID, message, cause);
     }
 }
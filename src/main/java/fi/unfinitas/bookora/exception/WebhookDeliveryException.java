@@ -0,0 +1,15 @@
+package fi.unfinitas.bookora.exception;
+
+/**
+ * Exception thrown when a webhook request fails or is rejected by the endpoint.
+ */
+public class WebhookDeliveryException extends RuntimeException {
+
+    public WebhookDeliveryException(final String message) {
+        super(message);
+    }
+
+    public WebhookDeliveryException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
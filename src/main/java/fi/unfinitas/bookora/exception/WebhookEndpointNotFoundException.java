@@ -0,0 +1,15 @@
+package fi.unfinitas.bookora.exception;
+
+/**
+ * Exception thrown when a webhook endpoint is not found.
+ */
+public class WebhookEndpointNotFoundException extends BookoraException {
+
+    public WebhookEndpointNotFoundException(final String message) {
+        super(ErrorCode.WEBHOOK_ENDPOINT_NOT_FOUND, message);
+    }
+
+    public WebhookEndpointNotFoundException(final String message, final Throwable cause) {
+        super(ErrorCode.WEBHOOK_ENDPOINT_NOT_FOUND, message, cause);
+    }
+}
@@ -30,7 +30,7 @@ public interface BookingMapper {
     @Mapping(source = "booking.endTime", target = "endTime")
     @Mapping(source = "booking.notes", target = "notes")
     @Mapping(source = "booking.createdAt", target = "createdAt")
-    @Mapping(source = "token.token", target = "accessToken")
+    @Mapping(source = "accessToken", target = "accessToken")
     @Mapping(source = "token.expiresAt", target = "tokenExpiresAt")
-    GuestBookingResponse toGuestResponse(Booking booking, GuestAccessToken token);
+    GuestBookingResponse toGuestResponse(Booking booking, GuestAccessToken token, String accessToken);
 }
@@ -0,0 +1,34 @@
+package fi.unfinitas.bookora.repository;
+
+import fi.unfinitas.bookora.domain.model.Availability;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for Availability entity.
+ */
+public interface AvailabilityRepository extends JpaRepository<Availability, Long> {
+
+    /**
+     * Find the availability windows of a provider on the given days, open windows first.
+     *
+     * @param providerId the provider's ID
+     * @param from       first day, inclusive
+     * @param to         last day, exclusive
+     * @return the windows that are not soft-deleted
+     */
+    @Query("SELECT a FROM Availability a WHERE a.provider.id = :providerId " +
+            "AND a.deletedAt IS NULL " +
+            "AND a.availabilityDate >= :from AND a.availabilityDate < :to " +
+            "ORDER BY a.isAvailable DESC")
+    List<Availability> findByProviderIdAndDays(
+            @Param("providerId") UUID providerId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+}
@@ -0,0 +1,27 @@
+package fi.unfinitas.bookora.repository;
+
+import fi.unfinitas.bookora.domain.model.BookingPolicy;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository interface for BookingPolicy entity.
+ */
+public interface BookingPolicyRepository extends JpaRepository<BookingPolicy, Long> {
+
+    List<BookingPolicy> findByProviderIdOrderByIdAsc(UUID providerId);
+
+    List<BookingPolicy> findByProviderIdIn(Collection<UUID> providerIds);
+
+    /**
+     * @param serviceId the service, or null for the provider's default policy
+     */
+    Optional<BookingPolicy> findByProviderIdAndServiceId(UUID providerId, Long serviceId);
+
+    List<BookingPolicy> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+}
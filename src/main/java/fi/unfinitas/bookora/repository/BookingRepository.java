@@ -1,6 +1,8 @@
 package fi.unfinitas.bookora.repository;
 
 import fi.unfinitas.bookora.domain.model.Booking;
+import fi.unfinitas.bookora.repository.projection.BookingChangeView;
+import fi.unfinitas.bookora.repository.projection.BookingTimeRange;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,6 +16,22 @@ import java.util.UUID;
  */
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    /**
+     * Columns selected for {@link BookingChangeView}.
+     */
+    String CHANGE_COLUMNS = "b.id AS id, b.provider_id AS providerId, b.service_id AS serviceId, " +
+            "b.status AS status, b.start_time AS startTime, b.end_time AS endTime, b.version AS version, " +
+            "b.updated_at AS updatedAt, b.deleted_at AS deletedAt";
+
+    /**
+     * Exclusive upper bound for updated_at in the change feed. A write transaction that is still open may yet
+     * commit rows stamped after its start, so the feed stops short of the oldest open one (backend_xid is
+     * only set once a transaction has written). The settle margin covers the gap between stamping and the
+     * first statement and clock skew between the application and the database.
+     */
+    String CHANGE_FENCE = "LEAST(LOCALTIMESTAMP, (SELECT min(a.xact_start) FROM pg_stat_activity a " +
+            "WHERE a.backend_xid IS NOT NULL)::timestamp) - make_interval(secs => :settleSeconds)";
+
     /**
      * Find all bookings for a specific customer.
      *
@@ -49,6 +67,67 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("endTime") LocalDateTime endTime
     );
 
+    /**
+     * Find the times of a provider's active bookings overlapping the given range, for its calendar and for
+     * buffers that depend on the service of each booking.
+     *
+     * @param providerId the provider's ID
+     * @param from       start of the range
+     * @param to         end of the range
+     * @return start, end, service and group slot of each PENDING or CONFIRMED booking
+     */
+    @Query("SELECT b.startTime AS startTime, b.endTime AS endTime, b.serviceOffering.id AS serviceId, " +
+            "b.groupSlotId AS groupSlotId FROM Booking b " +
+            "WHERE b.provider.id = :providerId " +
+            "AND b.deletedAt IS NULL " +
+            "AND b.status IN ('PENDING', 'CONFIRMED') " +
+            "AND b.startTime < :to AND b.endTime > :from")
+    List<BookingTimeRange> findActiveBookingTimes(
+            @Param("providerId") UUID providerId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    /**
+     * Count the active bookings of a provider starting in the given range, for daily booking caps.
+     *
+     * @param providerId the provider's ID
+     * @param from       start of the range, inclusive
+     * @param to         end of the range, exclusive
+     * @return number of PENDING or CONFIRMED bookings
+     */
+    @Query("SELECT COUNT(b) FROM Booking b WHERE b.provider.id = :providerId " +
+            "AND b.deletedAt IS NULL " +
+            "AND b.status IN ('PENDING', 'CONFIRMED') " +
+            "AND b.startTime >= :from AND b.startTime < :to")
+    long countActiveBookingsStartingBetween(
+            @Param("providerId") UUID providerId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    /**
+     * Check if there are any overlapping bookings for a provider in the given time range, other than
+     * the bookings of the given group slot, which share the time with each other.
+     *
+     * @param providerId  the provider's ID
+     * @param startTime   the start time of the new booking
+     * @param endTime     the end time of the new booking
+     * @param groupSlotId the group slot being booked
+     * @return true if there is an overlapping booking outside the slot, false otherwise
+     */
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.provider.id = :providerId " +
+            "AND b.deletedAt IS NULL " +
+            "AND b.status IN ('PENDING', 'CONFIRMED') " +
+            "AND ((b.startTime < :endTime AND b.endTime > :startTime)) " +
+            "AND (b.groupSlotId IS NULL OR b.groupSlotId <> :groupSlotId)")
+    boolean existsOverlappingBookingOutsideSlot(
+            @Param("providerId") UUID providerId,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("groupSlotId") Long groupSlotId
+    );
+
     /**
      * Check if there are any overlapping bookings for a customer in the given time range.
      * Only considers bookings with status PENDING or CONFIRMED.
@@ -68,4 +147,48 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime
     );
+
+    /**
+     * Find bookings changed after a keyset position, ordered by (updated_at, id).
+     * Native so that soft-deleted bookings are returned as tombstones.
+     *
+     * @param updatedAt     the updated_at of the last row already seen
+     * @param id            the ID of the last row already seen
+     * @param settleSeconds margin kept behind the oldest open write transaction and the current time
+     * @param limit         maximum number of rows
+     * @return changed bookings in feed order
+     */
+    @Query(value = "SELECT " + CHANGE_COLUMNS + " FROM t_booking b " +
+            "WHERE (b.updated_at, b.id) > (:updatedAt, :id) AND b.updated_at < " + CHANGE_FENCE + " " +
+            "ORDER BY b.updated_at, b.id LIMIT :limit",
+            nativeQuery = true)
+    List<BookingChangeView> findChangesAfter(
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("id") long id,
+            @Param("settleSeconds") int settleSeconds,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Find bookings of a provider changed after a keyset position, ordered by (updated_at, id).
+     *
+     * @param providerId    the provider's ID
+     * @param updatedAt     the updated_at of the last row already seen
+     * @param id            the ID of the last row already seen
+     * @param settleSeconds margin kept behind the oldest open write transaction and the current time
+     * @param limit         maximum number of rows
+     * @return changed bookings in feed order
+     */
+    @Query(value = "SELECT " + CHANGE_COLUMNS + " FROM t_booking b " +
+            "WHERE b.provider_id = :providerId " +
+            "AND (b.updated_at, b.id) > (:updatedAt, :id) AND b.updated_at < " + CHANGE_FENCE + " " +
+            "ORDER BY b.updated_at, b.id LIMIT :limit",
+            nativeQuery = true)
+    List<BookingChangeView> findProviderChangesAfter(
+            @Param("providerId") UUID providerId,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("id") long id,
+            @Param("settleSeconds") int settleSeconds,
+            @Param("limit") int limit
+    );
 }
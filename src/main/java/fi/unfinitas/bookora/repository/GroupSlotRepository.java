@@ -0,0 +1,68 @@
+package fi.unfinitas.bookora.repository;
+
+import fi.unfinitas.bookora.domain.model.GroupSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for GroupSlot entity.
+ */
+public interface GroupSlotRepository extends JpaRepository<GroupSlot, Long> {
+
+    Optional<GroupSlot> findByServiceIdAndStartTime(Long serviceId, LocalDateTime startTime);
+
+    /**
+     * Slots of a group session starting in the given range that had seats left at the time of the read.
+     *
+     * @param serviceId the group session service
+     * @param from      start of the range, inclusive
+     * @param to        end of the range, exclusive
+     * @return the slots, by start time
+     */
+    @Query(value = """
+            SELECT s.* FROM t_group_slot s
+            WHERE s.service_id = :serviceId AND s.start_time >= :from AND s.start_time < :to
+              AND EXISTS (SELECT 1 FROM t_group_slot_shard sh WHERE sh.slot_id = s.id AND sh.remaining > 0)
+            ORDER BY s.start_time
+            """, nativeQuery = true)
+    List<GroupSlot> findWithSeatsLeft(@Param("serviceId") Long serviceId,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to);
+
+    /**
+     * Create a slot with its seat counters unless it exists. The capacity is split evenly over the
+     * shards, the first {@code capacity % shards} shards getting one seat more.
+     *
+     * @param serviceId the group session service
+     * @param startTime start of the slot
+     * @param endTime   end of the slot
+     * @param capacity  seats in the slot
+     * @param shards    counter rows to spread the seats over
+     * @return number of shards created; 0 if the slot already existed
+     */
+    @Modifying
+    @Query(value = """
+            WITH slot AS (
+                INSERT INTO t_group_slot (service_id, start_time, end_time, capacity, shards, created_at, updated_at)
+                VALUES (:serviceId, :startTime, :endTime, :capacity, :shards, now(), now())
+                ON CONFLICT (service_id, start_time) DO NOTHING
+                RETURNING id, capacity, shards
+            )
+            INSERT INTO t_group_slot_shard (slot_id, shard, remaining, created_at, updated_at)
+            SELECT slot.id, s.shard,
+                   slot.capacity / slot.shards + CASE WHEN s.shard < slot.capacity % slot.shards THEN 1 ELSE 0 END,
+                   now(), now()
+            FROM slot CROSS JOIN generate_series(0, slot.shards - 1) AS s(shard)
+            """, nativeQuery = true)
+    int createIfAbsent(@Param("serviceId") Long serviceId,
+                       @Param("startTime") LocalDateTime startTime,
+                       @Param("endTime") LocalDateTime endTime,
+                       @Param("capacity") int capacity,
+                       @Param("shards") int shards);
+}
@@ -0,0 +1,77 @@
+package fi.unfinitas.bookora.repository;
+
+import fi.unfinitas.bookora.domain.model.GroupSlotShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for GroupSlotShard entity: the seat counters of group slots.
+ */
+public interface GroupSlotShardRepository extends JpaRepository<GroupSlotShard, Long> {
+
+    /**
+     * Lock a shard of the slot that has seats left, starting the search at the given shard.
+     * Shards locked by other bookers are skipped instead of waited for.
+     *
+     * @param slotId the slot
+     * @param offset shard to start at
+     * @param shards number of shards of the slot
+     * @return the locked shard, or empty if every shard with seats left is locked or none has any
+     */
+    @Query(value = """
+            SELECT shard FROM t_group_slot_shard
+            WHERE slot_id = :slotId AND remaining > 0
+            ORDER BY (shard + :shards - :offset) % :shards
+            LIMIT 1
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    Optional<Integer> lockAvailableShard(@Param("slotId") Long slotId, @Param("offset") int offset,
+                                         @Param("shards") int shards);
+
+    /**
+     * Shards of the slot that had seats left at the time of the read, without locking.
+     *
+     * @param slotId the slot
+     * @return the shard numbers
+     */
+    @Query(value = "SELECT shard FROM t_group_slot_shard WHERE slot_id = :slotId AND remaining > 0 ORDER BY shard",
+            nativeQuery = true)
+    List<Integer> findAvailableShards(@Param("slotId") Long slotId);
+
+    /**
+     * Take a seat from a shard if it has one left, waiting for a lock held by another booker.
+     *
+     * @param slotId the slot
+     * @param shard  the shard
+     * @return 1 if a seat was taken, 0 if the shard is sold out
+     */
+    @Modifying
+    @Query(value = "UPDATE t_group_slot_shard SET remaining = remaining - 1, updated_at = now() "
+            + "WHERE slot_id = :slotId AND shard = :shard AND remaining > 0", nativeQuery = true)
+    int takeSeat(@Param("slotId") Long slotId, @Param("shard") int shard);
+
+    /**
+     * Return a seat to the shard it was taken from.
+     *
+     * @param slotId the slot
+     * @param shard  the shard
+     * @return number of updated shards
+     */
+    @Modifying
+    @Query(value = "UPDATE t_group_slot_shard SET remaining = remaining + 1, updated_at = now() "
+            + "WHERE slot_id = :slotId AND shard = :shard", nativeQuery = true)
+    int releaseSeat(@Param("slotId") Long slotId, @Param("shard") int shard);
+
+    /**
+     * @param slotId the slot
+     * @return seats left over all shards of the slot
+     */
+    @Query(value = "SELECT COALESCE(SUM(remaining), 0) FROM t_group_slot_shard WHERE slot_id = :slotId",
+            nativeQuery = true)
+    int sumRemaining(@Param("slotId") Long slotId);
+}
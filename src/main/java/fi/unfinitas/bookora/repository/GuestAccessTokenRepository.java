@@ -1,7 +1,10 @@
 package fi.unfinitas.bookora.repository;
 
 import fi.unfinitas.bookora.domain.model.GuestAccessToken;
+import fi.unfinitas.bookora.repository.projection.GuestBookingVersion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -26,4 +29,36 @@ public interface GuestAccessTokenRepository extends JpaRepository<GuestAccessTok
      * @return Optional containing the token if found
      */
     Optional<GuestAccessToken> findByBookingId(Long bookingId);
+
+    /**
+     * Find the version state of the booking behind a token in a single index lookup.
+     * Native so that soft-deleted (revoked) tokens are visible as well.
+     *
+     * @param token the UUID token
+     * @return Optional containing the version state if the token exists
+     */
+    @Query(value = "SELECT b.id AS bookingId, b.version AS bookingVersion, s.version AS serviceVersion, " +
+            "b.status AS status, t.expires_at AS expiresAt, t.confirmed_at AS confirmedAt, t.deleted_at AS deletedAt " +
+            "FROM t_guest_access_token t " +
+            "JOIN t_booking b ON b.id = t.booking_id " +
+            "JOIN t_service s ON s.id = b.service_id " +
+            "WHERE t.token = :token",
+            nativeQuery = true)
+    Optional<GuestBookingVersion> findVersionByToken(@Param("token") UUID token);
+
+    /**
+     * Find the version state of a booking by the booking's active token, for signed tokens that carry
+     * the booking ID instead of the token value.
+     *
+     * @param bookingId the booking ID
+     * @return Optional containing the version state if the booking has an active token
+     */
+    @Query(value = "SELECT b.id AS bookingId, b.version AS bookingVersion, s.version AS serviceVersion, " +
+            "b.status AS status, t.expires_at AS expiresAt, t.confirmed_at AS confirmedAt, t.deleted_at AS deletedAt " +
+            "FROM t_guest_access_token t " +
+            "JOIN t_booking b ON b.id = t.booking_id " +
+            "JOIN t_service s ON s.id = b.service_id " +
+            "WHERE t.booking_id = :bookingId AND t.deleted_at IS NULL",
+            nativeQuery = true)
+    Optional<GuestBookingVersion> findVersionByBookingId(@Param("bookingId") Long bookingId);
 }
@@ -2,8 +2,42 @@ package fi.unfinitas.bookora.repository;
 
 import fi.unfinitas.bookora.domain.model.Provider;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface ProviderRepository extends JpaRepository<Provider, UUID> {
+
+    /**
+     * Check whether a provider is owned by the given user.
+     *
+     * @param id     the provider ID
+     * @param userId the user ID
+     * @return true if the provider exists and belongs to the user
+     */
+    boolean existsByIdAndUserId(UUID id, UUID userId);
+
+    /**
+     * Find the ID of the provider owned by a user.
+     *
+     * @param userId the user ID
+     * @return Optional containing the provider ID if the user owns a provider
+     */
+    @Query("SELECT p.id FROM Provider p WHERE p.user.id = :userId")
+    Optional<UUID> findIdByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Take a transaction-scoped advisory lock on one day of a provider's calendar, waiting while another
+     * transaction holds it. The lock is released when the calling transaction ends.
+     *
+     * @param providerId the provider ID
+     * @param day        the day
+     * @return always 1
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtextextended(CAST(:providerId AS text) || '/' || CAST(:day AS text), 0))",
+            nativeQuery = true)
+    int lockDay(@Param("providerId") UUID providerId, @Param("day") LocalDate day);
 }
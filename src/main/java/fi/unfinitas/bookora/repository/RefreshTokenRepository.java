@@ -0,0 +1,54 @@
+package fi.unfinitas.bookora.repository;
+
+import fi.unfinitas.bookora.domain.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository interface for RefreshToken entity.
+ */
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    Optional<RefreshToken> findByJti(UUID jti);
+
+    /**
+     * Mark a refresh token as used if it is still unused, unrevoked and unexpired. Of concurrent
+     * refreshes with the same token, only one updates the row.
+     *
+     * @param jti the token id
+     * @param now the reference time
+     * @return 1 if the token was marked, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.usedAt = :now, t.updatedAt = :now "
+            + "WHERE t.jti = :jti AND t.usedAt IS NULL AND t.revokedAt IS NULL AND t.expiresAt > :now")
+    int markUsed(@Param("jti") UUID jti, @Param("now") LocalDateTime now);
+
+    /**
+     * Revoke every refresh token of a login session.
+     *
+     * @param sessionId the session
+     * @param now       the reference time
+     * @return number of revoked tokens
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now, t.updatedAt = :now "
+            + "WHERE t.sessionId = :sessionId AND t.revokedAt IS NULL")
+    int revokeSession(@Param("sessionId") UUID sessionId, @Param("now") LocalDateTime now);
+
+    /**
+     * Delete all tokens that expired before the given time.
+     *
+     * @param now the reference time
+     * @return number of deleted tokens
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,43 @@
+package fi.unfinitas.bookora.repository;
+
+import fi.unfinitas.bookora.domain.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for RevokedToken entity.
+ */
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    /**
+     * Record a revocation unless the token or session is already revoked.
+     *
+     * @param tokenId   the access token {@code jti} or session {@code sid}
+     * @param expiresAt when the last token covered by the revocation expires
+     * @return 1 if recorded, 0 if already revoked
+     */
+    @Modifying
+    @Query(value = "INSERT INTO t_revoked_token (token_id, expires_at) VALUES (:tokenId, :expiresAt) "
+            + "ON CONFLICT (token_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("tokenId") UUID tokenId, @Param("expiresAt") LocalDateTime expiresAt);
+
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime now);
+
+    List<RevokedToken> findByCreatedAtGreaterThanEqualAndExpiresAtAfter(LocalDateTime since, LocalDateTime now);
+
+    /**
+     * Delete all revocations whose tokens expired before the given time.
+     *
+     * @param now the reference time
+     * @return number of deleted revocations
+     */
+    @Modifying
+    @Query("DELETE FROM RevokedToken t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,62 @@
+package fi.unfinitas.bookora.repository;
+
+import fi.unfinitas.bookora.domain.model.WebhookDelivery;
+import fi.unfinitas.bookora.repository.projection.DueWebhookDelivery;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for WebhookDelivery entity.
+ */
+public interface WebhookDeliveryRepository extends JpaRepository<WebhookDelivery, Long> {
+
+    /**
+     * Lock pending deliveries that are due, oldest first, together with their endpoint.
+     * Rows locked by another dispatcher are skipped, so several instances can poll concurrently
+     * without picking up the same delivery.
+     *
+     * @param now   the reference time
+     * @param limit maximum number of deliveries to claim
+     * @return the locked deliveries
+     */
+    @Query(value = """
+            SELECT d.id AS id, d.endpoint_id AS endpointId, e.url AS url, e.secret AS secret,
+                   (e.active AND e.deleted_at IS NULL) AS endpointActive,
+                   d.event_type AS eventType, d.payload AS payload, d.attempts AS attempts,
+                   d.created_at AS createdAt
+            FROM t_webhook_delivery d
+            JOIN t_webhook_endpoint e ON e.id = d.endpoint_id
+            WHERE d.status = 'PENDING' AND d.next_attempt_at <= :now
+            ORDER BY d.next_attempt_at, d.id
+            LIMIT :limit
+            FOR UPDATE OF d SKIP LOCKED
+            """, nativeQuery = true)
+    List<DueWebhookDelivery> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Push back the next attempt of claimed deliveries while they are in flight.
+     *
+     * @param ids        the delivery IDs
+     * @param leaseUntil time until which the deliveries are hidden from other dispatchers
+     * @return number of updated deliveries
+     */
+    @Modifying
+    @Query("UPDATE WebhookDelivery d SET d.nextAttemptAt = :leaseUntil WHERE d.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Delete deliveries that were delivered before the given time.
+     *
+     * @param before the reference time
+     * @return number of deleted deliveries
+     */
+    @Modifying
+    @Query("DELETE FROM WebhookDelivery d WHERE d.status = fi.unfinitas.bookora.domain.enums.WebhookDeliveryStatus.DELIVERED AND d.deliveredAt < :before")
+    int deleteDeliveredBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,20 @@
+package fi.unfinitas.bookora.repository;
+
+import fi.unfinitas.bookora.domain.model.WebhookEndpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository interface for WebhookEndpoint entity.
+ */
+public interface WebhookEndpointRepository extends JpaRepository<WebhookEndpoint, Long> {
+
+    List<WebhookEndpoint> findByProviderIdOrderByIdAsc(UUID providerId);
+
+    List<WebhookEndpoint> findByProviderIdAndActiveTrue(UUID providerId);
+
+    Optional<WebhookEndpoint> findByIdAndProviderId(Long id, UUID providerId);
+}
@@ -0,0 +1,28 @@
+package fi.unfinitas.bookora.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection of a booking row for the change feed, including soft-deleted rows.
+ */
+public interface BookingChangeView {
+
+    Long getId();
+
+    UUID getProviderId();
+
+    Long getServiceId();
+
+    String getStatus();
+
+    LocalDateTime getStartTime();
+
+    LocalDateTime getEndTime();
+
+    Long getVersion();
+
+    LocalDateTime getUpdatedAt();
+
+    LocalDateTime getDeletedAt();
+}
@@ -0,0 +1,20 @@
+package fi.unfinitas.bookora.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the time an active booking takes, for building provider calendars and checking buffers.
+ */
+public interface BookingTimeRange {
+
+    LocalDateTime getStartTime();
+
+    LocalDateTime getEndTime();
+
+    Long getServiceId();
+
+    /**
+     * @return the group slot of a group session booking, null for one-to-one bookings
+     */
+    Long getGroupSlotId();
+}
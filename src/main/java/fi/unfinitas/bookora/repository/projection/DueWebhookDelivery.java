@@ -0,0 +1,28 @@
+package fi.unfinitas.bookora.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a claimed webhook delivery joined with its endpoint.
+ * {@code endpointActive} is false when the endpoint was disabled or deleted after the event was queued.
+ */
+public interface DueWebhookDelivery {
+
+    Long getId();
+
+    Long getEndpointId();
+
+    String getUrl();
+
+    String getSecret();
+
+    boolean getEndpointActive();
+
+    String getEventType();
+
+    String getPayload();
+
+    int getAttempts();
+
+    LocalDateTime getCreatedAt();
+}
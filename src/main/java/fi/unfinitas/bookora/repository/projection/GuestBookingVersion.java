@@ -0,0 +1,24 @@
+package fi.unfinitas.bookora.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight projection of the state that determines a guest booking response.
+ * Used to answer conditional GETs without loading and mapping the full booking.
+ */
+public interface GuestBookingVersion {
+
+    Long getBookingId();
+
+    Long getBookingVersion();
+
+    Long getServiceVersion();
+
+    String getStatus();
+
+    LocalDateTime getExpiresAt();
+
+    LocalDateTime getConfirmedAt();
+
+    LocalDateTime getDeletedAt();
+}
@@ -0,0 +1,122 @@
+package fi.unfinitas.bookora.security;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password encoder that runs BCrypt on a dedicated pool of {@code bookora.password-hashing.workers} threads
+ * with at most {@code queue-capacity} hashes waiting. A credential-stuffing burst then occupies those threads
+ * only, instead of every request thread and core; anything beyond the queue is rejected at once with
+ * {@link RateLimitExceededException}. Hash time is recorded in {@value #HASHING_TIMER} by operation, the
+ * queue depth in {@value #QUEUE_GAUGE} and rejections in {@value #REJECTED_COUNTER}.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    static final String HASHING_TIMER = "bookora.password.hashing";
+    static final String QUEUE_GAUGE = "bookora.password.hashing.queue";
+    static final String REJECTED_COUNTER = "bookora.password.hashing.rejected";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(final BookoraProperties.PasswordHashing properties, final MeterRegistry meterRegistry) {
+        this(new BCryptPasswordEncoder(properties.getStrength()), properties, meterRegistry);
+        log.info("BCrypt strength {}, {} hashing worker(s), queue capacity {}",
+                properties.getStrength(), properties.getWorkers(), properties.getQueueCapacity());
+    }
+
+    BoundedPasswordEncoder(final PasswordEncoder delegate, final BookoraProperties.PasswordHashing properties,
+                           final MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        final BlockingQueue<Runnable> queue = properties.getQueueCapacity() > 0
+                ? new ArrayBlockingQueue<>(properties.getQueueCapacity())
+                : new SynchronousQueue<>();
+        this.executor = new ThreadPoolExecutor(properties.getWorkers(), properties.getWorkers(),
+                0L, TimeUnit.MILLISECONDS, queue,
+                Thread.ofPlatform().daemon().name("password-hashing-", 1).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.encodeTimer = hashingTimer(meterRegistry, "encode");
+        this.matchesTimer = hashingTimer(meterRegistry, "matches");
+        Gauge.builder(QUEUE_GAUGE, executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a worker")
+                .register(meterRegistry);
+        this.rejected = Counter.builder(REJECTED_COUNTER)
+                .description("Password hashes rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(final CharSequence rawPassword) {
+        return submit(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+        return submit(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Cheap check of the stored hash's cost factor, run on the caller thread.
+     */
+    @Override
+    public boolean upgradeEncoding(final String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Stop the workers; called by Spring on context shutdown.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(final Callable<T> hashing) {
+        final Future<T> result;
+        try {
+            result = executor.submit(hashing);
+        } catch (final RejectedExecutionException e) {
+            rejected.increment();
+            throw new RateLimitExceededException("Too many password checks in progress, please try again shortly");
+        }
+        try {
+            return result.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(false);
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Timer hashingTimer(final MeterRegistry meterRegistry, final String operation) {
+        return Timer.builder(HASHING_TIMER)
+                .description("Time spent hashing or verifying a password on a worker")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -4,18 +4,23 @@ import fi.unfinitas.bookora.domain.model.User;
 import fi.unfinitas.bookora.exception.EmailNotVerifiedException;
 import fi.unfinitas.bookora.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 
 /**
  * Custom UserDetailsService implementation for loading user-specific data.
+ * Also stores rehashed passwords when a login finds a hash with an outdated BCrypt cost factor.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -31,6 +36,16 @@ public class CustomUserDetailsService implements UserDetailsService {
         return new CustomUserDetails(user);
     }
 
+    @Override
+    @Transactional
+    public UserDetails updatePassword(final UserDetails userDetails, final String newPassword) {
+        final User user = userRepository.findById(((CustomUserDetails) userDetails).getUser().getId())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        log.debug("Rehashed password of user ID: {} with the current BCrypt strength", user.getId());
+        return new CustomUserDetails(userRepository.save(user));
+    }
+
     private static void isEmailVerified(User user) {
         if (!user.getIsEmailVerified()) {
             throw new EmailNotVerifiedException("Please verify your email to continue");
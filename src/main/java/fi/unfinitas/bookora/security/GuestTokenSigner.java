@@ -0,0 +1,183 @@
+package fi.unfinitas.bookora.security;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.exception.InvalidTokenException;
+import fi.unfinitas.bookora.exception.TokenExpiredException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stateless guest access tokens: booking id, expiry and key id, signed with HMAC-SHA256 under a rotating key
+ * from {@code bookora.guest.token.signing}. A forged, tampered or expired token is rejected without any I/O.
+ * <p>
+ * Binary layout, Base64url encoded without padding: format version (1 byte), key id length (1 byte), key id
+ * (ASCII), booking id (8 bytes), expiry in epoch seconds of the local date-time (8 bytes), and the first 16
+ * bytes of the HMAC over everything before it. A token is 48 characters with a two-character key id, so it is
+ * never mistaken for a 36-character UUID token.
+ */
+@Component
+@Slf4j
+public class GuestTokenSigner {
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAC_BYTES = 16;
+    private static final int MAX_KEY_ID_LENGTH = 16;
+    private static final int MIN_KEY_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final boolean signingEnabled;
+    private final String activeKeyId;
+
+    /**
+     * Initialized MACs by key id; cloned for each use since {@link Mac} is not thread-safe.
+     */
+    private final Map<String, Mac> keys = new HashMap<>();
+
+    /**
+     * Booking id and expiry of a token with a valid signature.
+     *
+     * @param bookingId the booking the token grants access to
+     * @param expiresAt when the token expires
+     */
+    public record Claims(long bookingId, LocalDateTime expiresAt) {
+    }
+
+    public GuestTokenSigner(final BookoraProperties bookoraProperties) {
+        final BookoraProperties.Guest.Token.Signing signing = bookoraProperties.getGuest().getToken().getSigning();
+        signing.getKeys().forEach((keyId, secret) -> {
+            if (secret == null || secret.isBlank()) {
+                return;
+            }
+            if (keyId.isEmpty() || keyId.length() > MAX_KEY_ID_LENGTH
+                    || !StandardCharsets.US_ASCII.newEncoder().canEncode(keyId)) {
+                throw new IllegalStateException("Guest token key id must be 1-16 ASCII characters: " + keyId);
+            }
+            final byte[] key = Base64.getDecoder().decode(secret.trim());
+            if (key.length < MIN_KEY_BYTES) {
+                throw new IllegalStateException("Guest token key " + keyId + " must be at least 32 bytes");
+            }
+            keys.put(keyId, initMac(key));
+        });
+        this.activeKeyId = signing.getActiveKeyId();
+        this.signingEnabled = signing.isEnabled();
+        if (signingEnabled && !keys.containsKey(activeKeyId)) {
+            throw new IllegalStateException("Guest token signing is enabled but key " + activeKeyId + " is not configured");
+        }
+        log.info("Guest token signing {}, {} verification key(s)", signingEnabled ? "enabled" : "disabled", keys.size());
+    }
+
+    /**
+     * @return whether new guest bookings get signed tokens
+     */
+    public boolean isSigningEnabled() {
+        return signingEnabled;
+    }
+
+    /**
+     * Sign a token with the active key.
+     *
+     * @param bookingId the booking the token grants access to
+     * @param expiresAt when the token expires
+     * @return the token
+     */
+    public String sign(final long bookingId, final LocalDateTime expiresAt) {
+        if (!signingEnabled) {
+            throw new IllegalStateException("Guest token signing is disabled");
+        }
+        final byte[] keyId = activeKeyId.getBytes(StandardCharsets.US_ASCII);
+        final ByteBuffer token = ByteBuffer.allocate(payloadLength(keyId.length) + MAC_BYTES)
+                .put(FORMAT_VERSION)
+                .put((byte) keyId.length)
+                .put(keyId)
+                .putLong(bookingId)
+                .putLong(expiresAt.toEpochSecond(ZoneOffset.UTC));
+        final byte[] bytes = token.array();
+        System.arraycopy(mac(keys.get(activeKeyId), bytes, bytes.length - MAC_BYTES), 0,
+                bytes, bytes.length - MAC_BYTES, MAC_BYTES);
+        return ENCODER.encodeToString(bytes);
+    }
+
+    /**
+     * Verify a token's signature and expiry.
+     *
+     * @param token the token
+     * @return the booking id and expiry
+     * @throws InvalidTokenException if the token is malformed, signed with an unknown key or tampered with
+     * @throws TokenExpiredException if the token has expired
+     */
+    public Claims verify(final String token) {
+        final byte[] bytes;
+        try {
+            bytes = DECODER.decode(token);
+        } catch (final IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid token");
+        }
+        if (bytes.length < 2 || bytes[0] != FORMAT_VERSION) {
+            throw new InvalidTokenException("Invalid token");
+        }
+        final int keyIdLength = bytes[1];
+        if (keyIdLength < 1 || keyIdLength > MAX_KEY_ID_LENGTH
+                || bytes.length != payloadLength(keyIdLength) + MAC_BYTES) {
+            throw new InvalidTokenException("Invalid token");
+        }
+        final Mac key = keys.get(new String(bytes, 2, keyIdLength, StandardCharsets.US_ASCII));
+        if (key == null) {
+            throw new InvalidTokenException("Invalid token");
+        }
+        final byte[] expected = mac(key, bytes, bytes.length - MAC_BYTES);
+        if (!MessageDigest.isEqual(expected, Arrays.copyOfRange(bytes, bytes.length - MAC_BYTES, bytes.length))) {
+            throw new InvalidTokenException("Invalid token");
+        }
+
+        final ByteBuffer claims = ByteBuffer.wrap(bytes, 2 + keyIdLength, 16);
+        final long bookingId = claims.getLong();
+        final LocalDateTime expiresAt = LocalDateTime.ofEpochSecond(claims.getLong(), 0, ZoneOffset.UTC);
+        if (LocalDateTime.now().isAfter(expiresAt)) {
+            throw new TokenExpiredException("Token expired");
+        }
+        return new Claims(bookingId, expiresAt);
+    }
+
+    private static int payloadLength(final int keyIdLength) {
+        return 2 + keyIdLength + 16;
+    }
+
+    private static Mac initMac(final byte[] key) {
+        try {
+            final Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(key, ALGORITHM));
+            mac.clone(); // Fail at startup if the provider cannot clone
+            return mac;
+        } catch (final GeneralSecurityException | CloneNotSupportedException e) {
+            throw new IllegalStateException("Cloneable HMAC-SHA256 is not available", e);
+        }
+    }
+
+    /**
+     * @return the truncated HMAC of the first {@code length} bytes
+     */
+    private static byte[] mac(final Mac key, final byte[] bytes, final int length) {
+        try {
+            final Mac mac = (Mac) key.clone();
+            mac.update(bytes, 0, length);
+            return Arrays.copyOf(mac.doFinal(), MAC_BYTES);
+        } catch (final CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
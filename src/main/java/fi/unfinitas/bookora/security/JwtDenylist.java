@@ -0,0 +1,71 @@
+package fi.unfinitas.bookora.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory set of revoked access token ids ({@code jti}) and login sessions ({@code sid}), checked by
+ * {@link fi.unfinitas.bookora.config.security.JwtAuthenticationFilter} on every request with two hash
+ * lookups and no I/O. Each entry is kept until the last token it covers expires, so the set is bounded
+ * by the number of revocations within one token lifetime. Its size is exported as {@value #SIZE_GAUGE}.
+ * <p>
+ * Filled by {@link fi.unfinitas.bookora.service.TokenRevocationService} from {@code t_revoked_token}.
+ */
+@Component
+public class JwtDenylist {
+
+    static final String SIZE_GAUGE = "bookora.jwt.denylist.size";
+
+    private final Map<UUID, LocalDateTime> revoked = new ConcurrentHashMap<>();
+
+    public JwtDenylist(final MeterRegistry meterRegistry) {
+        Gauge.builder(SIZE_GAUGE, revoked, Map::size)
+                .description("Revoked JWT ids and sessions held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Deny a token or session.
+     *
+     * @param tokenId   the access token {@code jti} or session {@code sid}
+     * @param expiresAt when the last token covered expires
+     */
+    public void add(final UUID tokenId, final LocalDateTime expiresAt) {
+        revoked.merge(tokenId, expiresAt, (current, added) -> added.isAfter(current) ? added : current);
+    }
+
+    /**
+     * @param tokenId   the {@code jti} of the token, may be null
+     * @param sessionId the {@code sid} of the token, may be null
+     * @return whether the token or its session is revoked
+     */
+    public boolean isRevoked(final UUID tokenId, final UUID sessionId) {
+        return (tokenId != null && revoked.containsKey(tokenId))
+                || (sessionId != null && revoked.containsKey(sessionId));
+    }
+
+    /**
+     * Drop entries whose tokens have expired by the given time.
+     *
+     * @param now the reference time
+     * @return number of dropped entries
+     */
+    public int purgeExpired(final LocalDateTime now) {
+        final int before = revoked.size();
+        revoked.values().removeIf(now::isAfter);
+        return before - revoked.size();
+    }
+
+    /**
+     * @return number of entries
+     */
+    public int size() {
+        return revoked.size();
+    }
+}
@@ -14,15 +14,25 @@ import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
  * Utility class for JWT token operations.
+ * <p>
+ * Every token carries a random {@code jti} and a {@code typ} claim ({@value #ACCESS_TOKEN} or
+ * {@value #REFRESH_TOKEN}); tokens issued for a login session also carry its id in {@code sid},
+ * so that a single token or a whole session can be revoked.
  */
 @Component
 @Slf4j
 public class JwtUtil {
 
+    static final String TOKEN_TYPE_CLAIM = "typ";
+    static final String SESSION_ID_CLAIM = "sid";
+    static final String ACCESS_TOKEN = "access";
+    static final String REFRESH_TOKEN = "refresh";
+
     @Value("${jwt.secret}")
     private String secret;
 
@@ -92,6 +102,45 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verify a JWT token and return all of its claims.
+     */
+    public Claims parseClaims(final String token) {
+        return extractAllClaims(token);
+    }
+
+    /**
+     * @return the {@code jti} of the token, or null for tokens issued without one
+     */
+    public static UUID tokenId(final Claims claims) {
+        return parseUuid(claims.getId());
+    }
+
+    /**
+     * @return the login session the token belongs to, or null for tokens issued without one
+     */
+    public static UUID sessionId(final Claims claims) {
+        return parseUuid(claims.get(SESSION_ID_CLAIM, String.class));
+    }
+
+    /**
+     * @return whether the token is a refresh token, which must not be accepted as an access token
+     */
+    public static boolean isRefreshToken(final Claims claims) {
+        return REFRESH_TOKEN.equals(claims.get(TOKEN_TYPE_CLAIM, String.class));
+    }
+
+    private static UUID parseUuid(final String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (final IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     /**
      * Extract all claims from JWT token.
      */
@@ -114,24 +163,47 @@ public class JwtUtil {
      * Generate access token for user.
      */
     public String generateAccessToken(final UserDetails userDetails) {
-        final Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername(), expiration);
+        return generateAccessToken(userDetails, null);
+    }
+
+    /**
+     * Generate access token for user within a login session.
+     */
+    public String generateAccessToken(final UserDetails userDetails, final UUID sessionId) {
+        return createToken(claims(ACCESS_TOKEN, sessionId), userDetails.getUsername(), expiration, UUID.randomUUID());
     }
 
     /**
      * Generate refresh token for user.
      */
     public String generateRefreshToken(final UserDetails userDetails) {
+        return generateRefreshToken(userDetails, null, UUID.randomUUID());
+    }
+
+    /**
+     * Generate refresh token for user within a login session, with the given {@code jti}.
+     */
+    public String generateRefreshToken(final UserDetails userDetails, final UUID sessionId, final UUID tokenId) {
+        return createToken(claims(REFRESH_TOKEN, sessionId), userDetails.getUsername(), refreshExpiration, tokenId);
+    }
+
+    private static Map<String, Object> claims(final String type, final UUID sessionId) {
         final Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername(), refreshExpiration);
+        claims.put(TOKEN_TYPE_CLAIM, type);
+        if (sessionId != null) {
+            claims.put(SESSION_ID_CLAIM, sessionId.toString());
+        }
+        return claims;
     }
 
     /**
      * Create JWT token with claims and subject.
      */
-    private String createToken(final Map<String, Object> claims, final String subject, final Long expirationTime) {
+    private String createToken(final Map<String, Object> claims, final String subject, final Long expirationTime,
+                               final UUID tokenId) {
         return Jwts.builder()
                 .claims(claims)
+                .id(tokenId.toString())
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expirationTime))
@@ -153,4 +225,11 @@ public class JwtUtil {
     public Long getAccessTokenExpiration() {
         return expiration;
     }
+
+    /**
+     * Get refresh token expiration time in milliseconds.
+     */
+    public Long getRefreshTokenExpiration() {
+        return refreshExpiration;
+    }
 }
@@ -7,7 +7,7 @@ import fi.unfinitas.bookora.dto.response.UserPublicInfo;
 
 /**
  * Service interface for handling user authentication operations.
- * Responsible for login, registration, and token refresh operations.
+ * Responsible for login, registration, token refresh and logout operations.
  */
 public interface AuthenticationService {
 
@@ -34,4 +34,11 @@ public interface AuthenticationService {
      * @return new login data with tokens
      */
     LoginResponse refreshToken(String refreshToken);
+
+    /**
+     * Revoke an access token and every token of its login session
+     *
+     * @param accessToken the access token
+     */
+    void logout(String accessToken);
 }
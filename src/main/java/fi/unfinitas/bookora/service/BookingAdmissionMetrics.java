@@ -0,0 +1,195 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.config.observability.BookingAdmissionEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer instrumentation of the guest booking admission funnel.
+ * Records a timer per phase ({@value #PHASE_TIMER}) and a counter per outcome ({@value #OUTCOME_COUNTER}),
+ * both tagged by provider. Only the first {@code bookora.metrics.max-provider-tags} providers get their
+ * own tag value; the rest share {@value #OTHER_PROVIDER} so the number of series stays bounded. Latency
+ * distributions come from a histogram per phase only ({@value #PHASE_HISTOGRAM}), which aggregates across
+ * nodes; the provider timers carry count, total and max.
+ * Each attempt is also emitted as a {@link BookingAdmissionEvent} when a JFR recording is running.
+ */
+@Component
+public class BookingAdmissionMetrics {
+
+    static final String PHASE_TIMER = "bookora.booking.admission.phase";
+    static final String PHASE_HISTOGRAM = "bookora.booking.admission.phase.latency";
+    static final String OUTCOME_COUNTER = "bookora.booking.admission";
+    static final String UNKNOWN_PROVIDER = "unknown";
+    static final String OTHER_PROVIDER = "other";
+
+    public enum Phase {
+        VALIDATION,
+        SERVICE_LOOKUP,
+        POLICY_CHECK,
+        GROUP_SLOT_LOOKUP,
+        DAY_LOCK,
+        PROVIDER_OVERLAP_CHECK,
+        DAILY_CAP_CHECK,
+        GUEST_RESOLUTION,
+        CUSTOMER_OVERLAP_CHECK,
+        SEAT_RESERVATION,
+        INSERT,
+        TOKEN_GENERATION,
+        EVENT_PUBLISH
+    }
+
+    public enum Outcome {
+        SUCCESS,
+        INVALID_TIME,
+        PROVIDER_CONFLICT,
+        CUSTOMER_CONFLICT,
+        RACE_CONFLICT,
+        GROUP_SESSION_FULL,
+        DAILY_CAP_REACHED,
+        EMAIL_REGISTERED,
+        ERROR
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final int maxProviderTags;
+    private final Set<String> taggedProviders = ConcurrentHashMap.newKeySet();
+    private final Map<Phase, Timer> phaseHistograms = new EnumMap<>(Phase.class);
+
+    public BookingAdmissionMetrics(final MeterRegistry meterRegistry, final BookoraProperties bookoraProperties) {
+        this.meterRegistry = meterRegistry;
+        this.maxProviderTags = bookoraProperties.getMetrics().getMaxProviderTags();
+        for (final Phase phase : Phase.values()) {
+            phaseHistograms.put(phase, Timer.builder(PHASE_HISTOGRAM)
+                    .description("Latency distribution of each phase of guest booking creation")
+                    .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Start measuring one booking attempt.
+     *
+     * @return the attempt; not thread-safe, use from the request thread only
+     */
+    public Admission begin() {
+        return new Admission();
+    }
+
+    String providerTag(final UUID providerId) {
+        if (providerId == null) {
+            return UNKNOWN_PROVIDER;
+        }
+        final String tag = providerId.toString();
+        if (taggedProviders.contains(tag)) {
+            return tag;
+        }
+        // May overshoot the limit slightly under contention, which is harmless
+        if (taggedProviders.size() < maxProviderTags && taggedProviders.add(tag)) {
+            return tag;
+        }
+        return OTHER_PROVIDER;
+    }
+
+    private Timer phaseTimer(final Phase phase, final String provider) {
+        return Timer.builder(PHASE_TIMER)
+                .description("Duration of each phase of guest booking creation")
+                .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                .tag("provider", provider)
+                .register(meterRegistry);
+    }
+
+    private Counter outcomeCounter(final Outcome outcome, final String provider) {
+        return Counter.builder(OUTCOME_COUNTER)
+                .description("Guest booking attempts by outcome")
+                .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                .tag("provider", provider)
+                .register(meterRegistry);
+    }
+
+    /**
+     * One booking attempt. Phases run before the provider is known are tagged {@value #UNKNOWN_PROVIDER}.
+     */
+    public final class Admission {
+
+        private final BookingAdmissionEvent event = new BookingAdmissionEvent();
+        private String provider = UNKNOWN_PROVIDER;
+        private UUID providerId;
+        private boolean completed;
+
+        private Admission() {
+            event.begin();
+        }
+
+        /**
+         * Set the provider the booking is for; applies to all later phases and the outcome.
+         *
+         * @param providerId the provider ID
+         */
+        public void provider(final UUID providerId) {
+            this.providerId = providerId;
+            this.provider = providerTag(providerId);
+        }
+
+        /**
+         * Time a phase that returns a value.
+         *
+         * @param phase the phase
+         * @param step  the work of the phase
+         * @return the result of the step
+         */
+        public <T> T time(final Phase phase, final Supplier<T> step) {
+            final Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                return step.get();
+            } finally {
+                final long nanos = sample.stop(phaseTimer(phase, provider));
+                phaseHistograms.get(phase).record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        /**
+         * Time a phase without a result.
+         *
+         * @param phase the phase
+         * @param step  the work of the phase
+         */
+        public void time(final Phase phase, final Runnable step) {
+            time(phase, () -> {
+                step.run();
+                return null;
+            });
+        }
+
+        /**
+         * Record the outcome of the attempt. Only the first call counts, so a specific outcome
+         * recorded where a failure is detected is not overwritten by a generic one further up.
+         *
+         * @param outcome the outcome
+         */
+        public void complete(final Outcome outcome) {
+            if (completed) {
+                return;
+            }
+            completed = true;
+            outcomeCounter(outcome, provider).increment();
+            if (event.shouldCommit()) {
+                event.provider = providerId != null ? providerId.toString() : null;
+                event.outcome = outcome.name();
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.domain.model.BookingPolicy;
+import fi.unfinitas.bookora.dto.request.UpdateBookingPolicyRequest;
+import fi.unfinitas.bookora.dto.response.BookingPolicyResponse;
+import fi.unfinitas.bookora.exception.ServiceOfferingNotFoundException;
+import fi.unfinitas.bookora.repository.BookingPolicyRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Service for provider and service booking policies.
+ * <p>
+ * Policies are compiled into immutable {@link BookingRules}, one per provider and one per service with its own
+ * policy, and kept in memory, so the booking path reads its rules without a query. Each node compiles every
+ * policy at startup and then polls {@code t_booking_policy} for changed rows every
+ * {@code bookora.booking-policy.poll-interval-millis}, recompiling the providers they belong to; a change made
+ * through this node takes effect here at once and everywhere within one poll. Providers without a policy use
+ * the configured defaults.
+ */
+@Service
+@Slf4j
+public class BookingPolicyService implements SmartInitializingSingleton {
+
+    static final String CACHED_PROVIDERS_GAUGE = "bookora.booking.policy.providers";
+
+    private final BookingPolicyRepository bookingPolicyRepository;
+    private final ServiceOfferingService serviceOfferingService;
+    private final BookoraProperties.BookingPolicy properties;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingRules defaults;
+    private final Map<UUID, ProviderRules> rulesByProvider = new ConcurrentHashMap<>();
+
+    /**
+     * Newest {@code updated_at} seen; null until the policies have been loaded.
+     */
+    private volatile LocalDateTime cursor;
+
+    /**
+     * Compiled rules of one provider.
+     *
+     * @param provider      rules of the provider's services without a policy of their own
+     * @param services      rules of the services with a policy of their own
+     * @param widestBuffer  largest buffer of any of the rules
+     * @param anyDailyCap   whether any of the rules has a daily cap
+     */
+    private record ProviderRules(BookingRules provider, Map<Long, BookingRules> services, Duration widestBuffer,
+                                 boolean anyDailyCap) {
+
+        ProviderRules(final BookingRules provider, final Map<Long, BookingRules> services) {
+            this(provider, services,
+                    services.values().stream().map(BookingRules::buffer).reduce(provider.buffer(),
+                            (a, b) -> a.compareTo(b) >= 0 ? a : b),
+                    provider.hasDailyCap() || services.values().stream().anyMatch(BookingRules::hasDailyCap));
+        }
+
+        BookingRules forService(final Long serviceId) {
+            return services.getOrDefault(serviceId, provider);
+        }
+    }
+
+    public BookingPolicyService(final BookingPolicyRepository bookingPolicyRepository,
+                                final ServiceOfferingService serviceOfferingService,
+                                final BookoraProperties bookoraProperties,
+                                final PlatformTransactionManager transactionManager,
+                                final MeterRegistry meterRegistry) {
+        this.bookingPolicyRepository = bookingPolicyRepository;
+        this.serviceOfferingService = serviceOfferingService;
+        this.properties = bookoraProperties.getBookingPolicy();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaults = new BookingRules(
+                Duration.ofMinutes(properties.getMinLeadMinutes()),
+                Duration.ofDays(properties.getMaxAdvanceDays()),
+                Duration.ofMinutes(properties.getBufferMinutes()),
+                properties.getStartGranularityMinutes(),
+                properties.getDailyCap(),
+                Duration.ofHours(bookoraProperties.getGuest().getBooking().getCancellationWindowHours()));
+        Gauge.builder(CACHED_PROVIDERS_GAUGE, rulesByProvider, Map::size)
+                .description("Providers with compiled booking policies in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Compile every policy before the application accepts requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        pollChanges();
+        log.info("Compiled booking policies of {} provider(s)", rulesByProvider.size());
+    }
+
+    /**
+     * The rules a new or cancelled booking is checked against. Served from memory.
+     *
+     * @param providerId the provider
+     * @param serviceId  the booked service
+     * @return the rules of the service, falling back to the provider's and then to the defaults
+     */
+    public BookingRules rulesFor(final UUID providerId, final Long serviceId) {
+        final ProviderRules rules = rulesByProvider.get(providerId);
+        return rules == null ? defaults : rules.forService(serviceId);
+    }
+
+    /**
+     * The largest buffer of any of the provider's services. A booking has to keep the larger of its own buffer
+     * and that of each neighbouring booking, so admission looks this far around a new booking.
+     *
+     * @param providerId the provider
+     * @return the widest buffer of the provider's rules
+     */
+    public Duration widestBuffer(final UUID providerId) {
+        final ProviderRules rules = rulesByProvider.get(providerId);
+        return rules == null ? defaults.buffer() : rules.widestBuffer();
+    }
+
+    /**
+     * @param providerId the provider
+     * @return whether any of the provider's rules has a buffer or a daily cap, which admission has to serialize
+     */
+    public boolean limitsAdmission(final UUID providerId) {
+        final ProviderRules rules = rulesByProvider.get(providerId);
+        return rules == null
+                ? !defaults.buffer().isZero() || defaults.hasDailyCap()
+                : !rules.widestBuffer().isZero() || rules.anyDailyCap();
+    }
+
+    /**
+     * List the policies of a provider, its default first.
+     *
+     * @param providerId the provider
+     * @return the provider's policy and those of its services
+     */
+    public List<BookingPolicyResponse> getPolicies(final UUID providerId) {
+        return bookingPolicyRepository.findByProviderIdOrderByIdAsc(providerId).stream()
+                .sorted((a, b) -> Boolean.compare(a.getServiceId() != null, b.getServiceId() != null))
+                .map(BookingPolicyService::toResponse)
+                .toList();
+    }
+
+    /**
+     * Create or replace the policy of a provider or one of its services and recompile the provider's rules.
+     *
+     * @param providerId the provider
+     * @param serviceId  one of the provider's services, or null for the provider's default policy
+     * @param request    the new policy; null fields are inherited
+     * @return the stored policy
+     * @throws ServiceOfferingNotFoundException if the service does not belong to the provider
+     */
+    public BookingPolicyResponse updatePolicy(final UUID providerId, final Long serviceId,
+                                              final UpdateBookingPolicyRequest request) {
+        if (serviceId != null
+                && !serviceOfferingService.getServiceOfferingById(serviceId).getProvider().getId().equals(providerId)) {
+            throw new ServiceOfferingNotFoundException("Service offering not found with ID: " + serviceId);
+        }
+
+        final BookingPolicy saved = transactionTemplate.execute(status -> {
+            final BookingPolicy policy = bookingPolicyRepository.findByProviderIdAndServiceId(providerId, serviceId)
+                    .orElseGet(() -> BookingPolicy.builder().providerId(providerId).serviceId(serviceId).build());
+            policy.setMinLeadMinutes(request.minLeadMinutes());
+            policy.setMaxAdvanceDays(request.maxAdvanceDays());
+            policy.setBufferMinutes(request.bufferMinutes());
+            policy.setStartGranularityMinutes(request.startGranularityMinutes());
+            policy.setDailyCap(request.dailyCap());
+            policy.setCancellationWindowHours(request.cancellationWindowHours());
+            return bookingPolicyRepository.save(policy);
+        });
+        reload(Set.of(providerId));
+
+        log.info("Updated booking policy of provider {} service {}", providerId, serviceId);
+        return toResponse(saved);
+    }
+
+    /**
+     * Recompile the providers whose policies changed since the last poll, including on other nodes.
+     */
+    @Scheduled(fixedDelayString = "${bookora.booking-policy.poll-interval-millis:5000}",
+            initialDelayString = "${bookora.booking-policy.poll-interval-millis:5000}",
+            timeUnit = TimeUnit.MILLISECONDS)
+    public void pollChanges() {
+        final LocalDateTime since = cursor;
+        if (since == null) {
+            final List<BookingPolicy> policies = bookingPolicyRepository.findAll();
+            compileAll(policies);
+            cursor = newest(policies, LocalDateTime.now());
+            return;
+        }
+
+        // Rows are stamped before commit, so one committed late may sort before rows already read
+        final List<BookingPolicy> changed = bookingPolicyRepository.findByUpdatedAtGreaterThanEqual(
+                since.minusSeconds(properties.getLookbackSeconds()));
+        if (!changed.isEmpty()) {
+            reload(changed.stream().map(BookingPolicy::getProviderId).collect(Collectors.toSet()));
+            cursor = newest(changed, since);
+        }
+    }
+
+    private void reload(final Collection<UUID> providerIds) {
+        final Map<UUID, List<BookingPolicy>> policies = bookingPolicyRepository.findByProviderIdIn(providerIds)
+                .stream()
+                .collect(Collectors.groupingBy(BookingPolicy::getProviderId));
+        // Replaced one provider at a time, so a booking never sees a provider without its rules
+        for (final UUID providerId : providerIds) {
+            final List<BookingPolicy> providerPolicies = policies.get(providerId);
+            if (providerPolicies == null) {
+                rulesByProvider.remove(providerId);
+            } else {
+                rulesByProvider.put(providerId, compile(providerPolicies));
+            }
+        }
+    }
+
+    private void compileAll(final List<BookingPolicy> policies) {
+        policies.stream()
+                .collect(Collectors.groupingBy(BookingPolicy::getProviderId))
+                .forEach((providerId, providerPolicies) -> rulesByProvider.put(providerId, compile(providerPolicies)));
+    }
+
+    private ProviderRules compile(final List<BookingPolicy> providerPolicies) {
+        final BookingRules provider = providerPolicies.stream()
+                .filter(policy -> policy.getServiceId() == null)
+                .findFirst()
+                .map(defaults::overriddenBy)
+                .orElse(defaults);
+        return new ProviderRules(provider, providerPolicies.stream()
+                .filter(policy -> policy.getServiceId() != null)
+                .collect(Collectors.toUnmodifiableMap(BookingPolicy::getServiceId, provider::overriddenBy)));
+    }
+
+    private static LocalDateTime newest(final List<BookingPolicy> policies, final LocalDateTime fallback) {
+        return policies.stream()
+                .map(BookingPolicy::getUpdatedAt)
+                .max(LocalDateTime::compareTo)
+                .filter(updatedAt -> updatedAt.isAfter(fallback))
+                .orElse(fallback);
+    }
+
+    private static BookingPolicyResponse toResponse(final BookingPolicy policy) {
+        return new BookingPolicyResponse(policy.getServiceId(), policy.getMinLeadMinutes(), policy.getMaxAdvanceDays(),
+                policy.getBufferMinutes(), policy.getStartGranularityMinutes(), policy.getDailyCap(),
+                policy.getCancellationWindowHours(), policy.getUpdatedAt());
+    }
+}
@@ -0,0 +1,106 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.domain.model.BookingPolicy;
+import fi.unfinitas.bookora.exception.InvalidBookingTimeException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Booking rules of one provider or service, compiled from its {@link BookingPolicy} rows by
+ * {@link BookingPolicyService}. Immutable, and evaluated without touching the database.
+ *
+ * @param minLeadTime             how long before its start a booking must be made
+ * @param maxAdvance              how far ahead a booking may start; zero for no limit
+ * @param buffer                  free time kept before and after every booking of the provider
+ * @param startGranularityMinutes bookings start on multiples of this many minutes past midnight; 0 for any minute
+ * @param dailyCap                most active bookings of the provider starting on one day; 0 for no limit
+ * @param cancellationWindow      how long before its start a booking can no longer be cancelled
+ */
+public record BookingRules(Duration minLeadTime, Duration maxAdvance, Duration buffer, int startGranularityMinutes,
+                           int dailyCap, Duration cancellationWindow) {
+
+    /**
+     * Check the start of a new booking against the lead time, advance window and granularity.
+     *
+     * @param startTime start of the booking
+     * @param now       the current time
+     * @throws InvalidBookingTimeException if a rule is broken
+     */
+    public void checkStartTime(final LocalDateTime startTime, final LocalDateTime now) {
+        if (isTooSoon(startTime, now)) {
+            throw new InvalidBookingTimeException(String.format(
+                    "Bookings must be made at least %d minutes in advance", minLeadTime.toMinutes()));
+        }
+        if (isTooFar(startTime, now)) {
+            throw new InvalidBookingTimeException(String.format(
+                    "Bookings can be made at most %d days in advance", maxAdvance.toDays()));
+        }
+        if (isOffGrid(startTime)) {
+            throw new InvalidBookingTimeException(String.format(
+                    "Bookings must start on a %d-minute boundary", startGranularityMinutes));
+        }
+    }
+
+    /**
+     * @return whether {@link #checkStartTime} accepts the start
+     */
+    public boolean allowsStart(final LocalDateTime startTime, final LocalDateTime now) {
+        return !isTooSoon(startTime, now) && !isTooFar(startTime, now) && !isOffGrid(startTime);
+    }
+
+    /**
+     * @return start of the range no other booking of the provider may overlap
+     */
+    public LocalDateTime bufferedStart(final LocalDateTime startTime) {
+        return startTime.minus(buffer);
+    }
+
+    /**
+     * @return end of the range no other booking of the provider may overlap
+     */
+    public LocalDateTime bufferedEnd(final LocalDateTime endTime) {
+        return endTime.plus(buffer);
+    }
+
+    public boolean hasDailyCap() {
+        return dailyCap > 0;
+    }
+
+    /**
+     * @return the last moment a booking starting at {@code startTime} can be cancelled
+     */
+    public LocalDateTime cancellationDeadline(final LocalDateTime startTime) {
+        return startTime.minus(cancellationWindow);
+    }
+
+    /**
+     * Rules with the fields the policy sets replaced.
+     *
+     * @param policy a provider or service policy
+     * @return the combined rules
+     */
+    public BookingRules overriddenBy(final BookingPolicy policy) {
+        return new BookingRules(
+                policy.getMinLeadMinutes() != null ? Duration.ofMinutes(policy.getMinLeadMinutes()) : minLeadTime,
+                policy.getMaxAdvanceDays() != null ? Duration.ofDays(policy.getMaxAdvanceDays()) : maxAdvance,
+                policy.getBufferMinutes() != null ? Duration.ofMinutes(policy.getBufferMinutes()) : buffer,
+                policy.getStartGranularityMinutes() != null ? policy.getStartGranularityMinutes() : startGranularityMinutes,
+                policy.getDailyCap() != null ? policy.getDailyCap() : dailyCap,
+                policy.getCancellationWindowHours() != null
+                        ? Duration.ofHours(policy.getCancellationWindowHours()) : cancellationWindow);
+    }
+
+    private boolean isTooSoon(final LocalDateTime startTime, final LocalDateTime now) {
+        return startTime.isBefore(now.plus(minLeadTime));
+    }
+
+    private boolean isTooFar(final LocalDateTime startTime, final LocalDateTime now) {
+        return !maxAdvance.isZero() && startTime.isAfter(now.plus(maxAdvance));
+    }
+
+    private boolean isOffGrid(final LocalDateTime startTime) {
+        return startGranularityMinutes > 0 && (startTime.getNano() != 0
+                || startTime.toLocalTime().toSecondOfDay() % (startGranularityMinutes * 60) != 0);
+    }
+}
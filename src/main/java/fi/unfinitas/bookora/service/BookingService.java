@@ -4,7 +4,7 @@ import fi.unfinitas.bookora.dto.request.CreateGuestBookingRequest;
 import fi.unfinitas.bookora.dto.response.BookingResponse;
 import fi.unfinitas.bookora.dto.response.GuestBookingResponse;
 
-import java.util.UUID;
+import java.util.Optional;
 
 /**
  * Service interface for managing booking operations.
@@ -26,20 +26,31 @@ public interface BookingService {
      * Get booking by access token.
      * Can be called multiple times in any booking state.
      *
-     * @param token the UUID access token
+     * @param token the access token (UUID or signed)
      * @return booking response
      */
-    BookingResponse getBookingByToken(UUID token);
+    BookingResponse getBookingByToken(String token);
+
+    /**
+     * Get a strong ETag for the booking behind an access token.
+     * Derived from the booking and service versions and the token's confirmation and revocation
+     * timestamps, so it changes whenever the response of {@link #getBookingByToken(String)} would.
+     * Requires a single lookup and no mapping.
+     *
+     * @param token the access token (UUID or signed)
+     * @return the ETag, or empty if the token is not valid for viewing
+     */
+    Optional<String> getBookingETagByToken(String token);
 
     /**
      * Confirm booking by access token.
      * Changes status from PENDING to CONFIRMED and sets confirmed_at timestamp.
      * Can only be called once per booking (before booking start time).
      *
-     * @param token the UUID access token
+     * @param token the access token (UUID or signed)
      * @return updated booking response
      */
-    BookingResponse confirmBookingByToken(UUID token);
+    BookingResponse confirmBookingByToken(String token);
 
     /**
      * Cancel booking by access token.
@@ -47,9 +58,9 @@ public interface BookingService {
      * Can only be cancelled before the configured cancellation window (default: 24 hours before booking start time).
      * Cannot be undone after cancellation.
      *
-     * @param token the UUID access token
+     * @param token the access token (UUID or signed)
      * @return updated booking response
      */
-    BookingResponse cancelBookingByToken(UUID token);
+    BookingResponse cancelBookingByToken(String token);
 
 }
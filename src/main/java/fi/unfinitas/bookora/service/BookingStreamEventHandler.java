@@ -0,0 +1,32 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.domain.event.BookingChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Event listener for BookingChangedEvent.
+ * Forwards committed booking changes to open provider booking streams.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingStreamEventHandler {
+
+    private final BookingStreamService bookingStreamService;
+
+    /**
+     * Handle BookingChangedEvent AFTER transaction commits, so dashboards never see
+     * bookings that were rolled back. Publishing only enqueues and does not block.
+     *
+     * @param event the booking change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleBookingChanged(final BookingChangedEvent event) {
+        log.debug("Streaming {} event for booking ID: {}", event.type(), event.bookingId());
+        bookingStreamService.publish(event);
+    }
+}
@@ -0,0 +1,183 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.domain.event.BookingChangedEvent;
+import fi.unfinitas.bookora.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service for streaming booking changes to provider dashboards over Server-Sent Events.
+ * Each connection has a bounded buffer drained by its own virtual thread, so idle
+ * connections hold no platform thread and a slow client cannot hold up publishers.
+ */
+@Service
+@Slf4j
+public class BookingStreamService {
+
+    static final String HEARTBEAT_COMMENT = "heartbeat";
+
+    private final BookoraProperties.BookingStream properties;
+    private final Map<UUID, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    public BookingStreamService(final BookoraProperties bookoraProperties, final MeterRegistry meterRegistry) {
+        this.properties = bookoraProperties.getBookingStream();
+        Gauge.builder("bookora.booking-stream.connections", connections, AtomicInteger::get)
+                .description("Open provider booking stream connections")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a booking change stream for a provider.
+     *
+     * @param providerId the provider ID
+     * @return the emitter to return from the controller
+     * @throws RateLimitExceededException if the provider has too many open streams
+     */
+    public SseEmitter subscribe(final UUID providerId) {
+        final SseEmitter emitter = new SseEmitter(TimeUnit.MINUTES.toMillis(properties.getTimeoutMinutes()));
+        register(providerId, emitter);
+        return emitter;
+    }
+
+    /**
+     * Push a booking change to all streams of the booking's provider.
+     * Never blocks: a connection whose buffer is full is closed.
+     *
+     * @param event the booking change
+     */
+    public void publish(final BookingChangedEvent event) {
+        final Set<Subscription> providerSubscriptions = subscriptions.get(event.providerId());
+        if (providerSubscriptions == null) {
+            return;
+        }
+        providerSubscriptions.forEach(subscription -> subscription.offer(event));
+    }
+
+    /**
+     * @param providerId the provider ID
+     * @return number of open streams for the provider
+     */
+    public int connectionCount(final UUID providerId) {
+        final Set<Subscription> providerSubscriptions = subscriptions.get(providerId);
+        return providerSubscriptions == null ? 0 : providerSubscriptions.size();
+    }
+
+    /**
+     * Close all open streams on shutdown.
+     */
+    @PreDestroy
+    public void closeAll() {
+        subscriptions.values().forEach(set -> set.forEach(Subscription::close));
+    }
+
+    void register(final UUID providerId, final SseEmitter emitter) {
+        final Subscription subscription = new Subscription(providerId, emitter);
+
+        // Check and add under the provider's entry lock, so concurrent subscribes cannot pass the cap together
+        subscriptions.compute(providerId, (id, set) -> {
+            final Set<Subscription> providerSubscriptions = set != null ? set : ConcurrentHashMap.newKeySet();
+            if (providerSubscriptions.size() >= properties.getMaxConnectionsPerProvider()) {
+                log.warn("Rejecting booking stream for provider {}: {} connections open",
+                        providerId, providerSubscriptions.size());
+                throw new RateLimitExceededException("Too many open booking streams for this provider");
+            }
+            providerSubscriptions.add(subscription);
+            return providerSubscriptions;
+        });
+        connections.incrementAndGet();
+
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+
+        subscription.start();
+        log.debug("Opened booking stream for provider {}", providerId);
+    }
+
+    private void unregister(final Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.providerId, (id, set) -> {
+            set.remove(subscription);
+            return set.isEmpty() ? null : set;
+        });
+        connections.decrementAndGet();
+    }
+
+    private final class Subscription implements Runnable {
+
+        private final UUID providerId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<BookingChangedEvent> buffer;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private Thread worker;
+
+        private Subscription(final UUID providerId, final SseEmitter emitter) {
+            this.providerId = providerId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(properties.getBufferSize());
+        }
+
+        private void start() {
+            worker = Thread.ofVirtual().name("booking-stream-" + providerId).start(this);
+        }
+
+        private void offer(final BookingChangedEvent event) {
+            if (!buffer.offer(event)) {
+                log.warn("Booking stream buffer full for provider {}, disconnecting slow client", providerId);
+                close();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed.get()) {
+                    final BookingChangedEvent event = buffer.poll(properties.getHeartbeatSeconds(), TimeUnit.SECONDS);
+                    if (event == null) {
+                        emitter.send(SseEmitter.event().comment(HEARTBEAT_COMMENT));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .name("booking-" + event.type().name().toLowerCase(Locale.ROOT))
+                                .id(String.valueOf(event.bookingId()))
+                                .data(event, MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (final IOException | IllegalStateException e) {
+                // Client went away; the container reports it through onError/onCompletion as well
+                log.debug("Booking stream for provider {} closed: {}", providerId, e.getMessage());
+                close();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            unregister(this);
+            if (worker != null && worker != Thread.currentThread()) {
+                worker.interrupt();
+            }
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.domain.enums.UserRole;
+import fi.unfinitas.bookora.domain.model.User;
+import fi.unfinitas.bookora.dto.response.BookingChangeResponse;
+import fi.unfinitas.bookora.dto.response.BookingChangesResponse;
+import fi.unfinitas.bookora.exception.InvalidCursorException;
+import fi.unfinitas.bookora.exception.ProviderAccessDeniedException;
+import fi.unfinitas.bookora.repository.BookingRepository;
+import fi.unfinitas.bookora.repository.ProviderRepository;
+import fi.unfinitas.bookora.repository.projection.BookingChangeView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service for the incremental booking change feed.
+ * Pages through bookings by (updated_at, id) so sync clients only transfer what changed
+ * since their last cursor. Soft-deleted bookings are included as tombstones.
+ * Pages end before the oldest write transaction still open, so a row that commits late is never
+ * lands behind a cursor already handed out.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeFeedService {
+
+    private static final LocalDateTime FEED_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final char CURSOR_SEPARATOR = '|';
+
+    private final BookingRepository bookingRepository;
+    private final ProviderRepository providerRepository;
+    private final BookoraProperties bookoraProperties;
+
+    /**
+     * Get the next page of booking changes visible to the user.
+     * Administrators see all bookings; providers see bookings of their own provider.
+     *
+     * @param cursor opaque cursor from the previous page, or null to start from the beginning
+     * @param limit  requested page size, or null for the default
+     * @param user   the authenticated user
+     * @return the page of changes with the cursor for the next request
+     * @throws InvalidCursorException        if the cursor is malformed
+     * @throws ProviderAccessDeniedException if the user may not read the feed
+     */
+    @Transactional(readOnly = true)
+    public BookingChangesResponse getBookingChanges(final String cursor, final Integer limit, final User user) {
+        final Cursor position = cursor == null || cursor.isBlank() ? new Cursor(FEED_START, 0L) : decode(cursor);
+        final int pageSize = resolvePageSize(limit);
+        final int settleSeconds = bookoraProperties.getChangeFeed().getSettleSeconds();
+
+        // Fetch one extra row to know whether another page follows
+        final List<BookingChangeView> rows = fetch(position, settleSeconds, pageSize + 1, user);
+        final boolean hasMore = rows.size() > pageSize;
+        final List<BookingChangeView> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        final String nextCursor = page.isEmpty()
+                ? encode(position)
+                : encode(new Cursor(page.getLast().getUpdatedAt(), page.getLast().getId()));
+
+        log.debug("Returning {} booking changes (hasMore: {})", page.size(), hasMore);
+        return new BookingChangesResponse(
+                page.stream().map(ChangeFeedService::toResponse).toList(),
+                nextCursor,
+                hasMore
+        );
+    }
+
+    private List<BookingChangeView> fetch(final Cursor position, final int settleSeconds,
+                                          final int limit, final User user) {
+        if (user != null && user.getRole() == UserRole.ADMIN) {
+            return bookingRepository.findChangesAfter(position.updatedAt(), position.id(), settleSeconds, limit);
+        }
+        if (user != null && user.getRole() == UserRole.PROVIDER) {
+            final UUID providerId = providerRepository.findIdByUserId(user.getId())
+                    .orElseThrow(() -> new ProviderAccessDeniedException("No provider is registered for this user"));
+            return bookingRepository.findProviderChangesAfter(
+                    providerId, position.updatedAt(), position.id(), settleSeconds, limit);
+        }
+        throw new ProviderAccessDeniedException("Only providers and administrators can read the change feed");
+    }
+
+    private int resolvePageSize(final Integer limit) {
+        final BookoraProperties.ChangeFeed properties = bookoraProperties.getChangeFeed();
+        if (limit == null) {
+            return properties.getDefaultLimit();
+        }
+        return Math.clamp(limit, 1, properties.getMaxLimit());
+    }
+
+    private static BookingChangeResponse toResponse(final BookingChangeView view) {
+        return new BookingChangeResponse(
+                view.getId(),
+                view.getProviderId(),
+                view.getServiceId(),
+                view.getStatus(),
+                view.getStartTime(),
+                view.getEndTime(),
+                view.getVersion(),
+                view.getUpdatedAt(),
+                view.getDeletedAt() != null
+        );
+    }
+
+    static String encode(final Cursor cursor) {
+        final String raw = cursor.updatedAt() + String.valueOf(CURSOR_SEPARATOR) + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Cursor decode(final String cursor) {
+        try {
+            final String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final int separator = raw.lastIndexOf(CURSOR_SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+            return new Cursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Keyset position in the feed: the last row a client has seen.
+     */
+    record Cursor(LocalDateTime updatedAt, long id) {}
+}
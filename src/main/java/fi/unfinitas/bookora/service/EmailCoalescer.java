@@ -0,0 +1,251 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.domain.event.SendMailEvent;
+import fi.unfinitas.bookora.dto.response.BookingResponse;
+import fi.unfinitas.bookora.dto.response.GuestBookingResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional stage in front of {@link EmailTemplateService#send} that holds notification emails per recipient
+ * for {@code bookora.email.coalescing.window-millis}. When the window ends, a later email about the same thing
+ * supersedes earlier ones: a cancellation replaces the unsent confirmation of the same booking, and a new
+ * verification link replaces an older one. If one email is left it is sent as is; several are sent as one
+ * digest that embeds the content of each. Counts are recorded in {@value #EVENTS_COUNTER} by outcome.
+ * <p>
+ * The window timer thread is only started by the first submitted email, and once the bean is shut down
+ * emails are sent right away instead of being held.
+ */
+@Slf4j
+@Component
+public class EmailCoalescer {
+
+    static final String DIGEST_TEMPLATE = "email/digest";
+    static final String EVENTS_COUNTER = "bookora.email.coalescing";
+
+    private static final String BOOKING_CREATED = "email/booking-created";
+    private static final String BOOKING_CANCELLED = "email/booking-cancelled";
+    private static final String EMAIL_VERIFICATION = "email/email-verification";
+
+    private final EmailTemplateService emailTemplateService;
+    private final EmailTemplateRenderer emailTemplateRenderer;
+    private final Executor emailTaskExecutor;
+    private final BookoraProperties.Email.Coalescing properties;
+    private final Map<String, Batch> pending = new ConcurrentHashMap<>();
+
+    private final Counter received;
+    private final Counter superseded;
+    private final Counter sent;
+
+    private ScheduledExecutorService scheduler;
+    private boolean shutDown;
+
+    /**
+     * One update in a digest email.
+     *
+     * @param subject subject of the email it replaces
+     * @param html    content of that email
+     */
+    public record DigestUpdate(String subject, String html) {
+    }
+
+    /**
+     * Emails held for one recipient; only mutated inside {@link Map#compute} on {@link #pending}.
+     */
+    private static final class Batch {
+        private final List<SendMailEvent> events = new ArrayList<>();
+    }
+
+    public EmailCoalescer(final EmailTemplateService emailTemplateService,
+                          final EmailTemplateRenderer emailTemplateRenderer,
+                          @Qualifier("emailTaskExecutor") final Executor emailTaskExecutor,
+                          final BookoraProperties bookoraProperties,
+                          final MeterRegistry meterRegistry) {
+        this.emailTemplateService = emailTemplateService;
+        this.emailTemplateRenderer = emailTemplateRenderer;
+        this.emailTaskExecutor = emailTaskExecutor;
+        this.properties = bookoraProperties.getEmail().getCoalescing();
+        this.received = outcomeCounter(meterRegistry, "received");
+        this.superseded = outcomeCounter(meterRegistry, "superseded");
+        this.sent = outcomeCounter(meterRegistry, "sent");
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Hold an email until its recipient's window ends, or until the recipient has
+     * {@code max-pending-per-recipient} emails held.
+     *
+     * @param event the email to send
+     */
+    public void submit(final SendMailEvent event) {
+        received.increment();
+        final String recipient = event.to().toLowerCase(Locale.ROOT);
+        final Batch[] batch = new Batch[1];
+        final int[] size = new int[1];
+        pending.compute(recipient, (key, held) -> {
+            batch[0] = held != null ? held : new Batch();
+            batch[0].events.add(event);
+            size[0] = batch[0].events.size();
+            return batch[0];
+        });
+        if (size[0] == 1) {
+            if (!scheduleFlush(recipient, batch[0])) {
+                flush(recipient, batch[0]); // Shutting down, nothing would flush it later
+            }
+        } else if (size[0] >= properties.getMaxPendingPerRecipient()) {
+            flush(recipient, batch[0]);
+        }
+    }
+
+    /**
+     * Send everything still held, e.g. on shutdown.
+     */
+    @PreDestroy
+    void shutdown() {
+        synchronized (this) {
+            shutDown = true;
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+            }
+        }
+        pending.forEach((recipient, batch) -> {
+            if (pending.remove(recipient, batch)) {
+                deliver(batch.events);
+            }
+        });
+    }
+
+    /**
+     * Drop every email that a later one in the list supersedes, keeping the survivors in the order of
+     * their last occurrence.
+     *
+     * @param events emails for one recipient, oldest first
+     * @return the emails that still need to be sent
+     */
+    static List<SendMailEvent> coalesce(final List<SendMailEvent> events) {
+        final Map<Object, SendMailEvent> latest = new LinkedHashMap<>();
+        for (final SendMailEvent event : events) {
+            final Object key = supersedeKey(event);
+            latest.remove(key);
+            latest.put(key, event);
+        }
+        return List.copyOf(latest.values());
+    }
+
+    /**
+     * @return key shared by emails that supersede each other; unrelated emails get a unique key
+     */
+    private static Object supersedeKey(final SendMailEvent event) {
+        return switch (event.templateName()) {
+            case BOOKING_CREATED, BOOKING_CANCELLED -> {
+                final Long bookingId = switch (event.templateVariables().get("booking")) {
+                    case BookingResponse booking -> booking.id();
+                    case GuestBookingResponse booking -> booking.id();
+                    case null, default -> null;
+                };
+                yield bookingId != null ? "booking:" + bookingId : new Object();
+            }
+            case EMAIL_VERIFICATION -> EMAIL_VERIFICATION;
+            default -> new Object();
+        };
+    }
+
+    /**
+     * Flush the batch when the window ends, starting the timer thread on first use.
+     *
+     * @return false if the coalescer has been shut down and the batch was not scheduled
+     */
+    private synchronized boolean scheduleFlush(final String recipient, final Batch batch) {
+        if (shutDown) {
+            return false;
+        }
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("email-coalescer").daemon().factory());
+        }
+        scheduler.schedule(() -> flush(recipient, batch), properties.getWindowMillis(), TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    private void flush(final String recipient, final Batch batch) {
+        if (!pending.remove(recipient, batch)) {
+            return; // Already flushed because it filled up
+        }
+        try {
+            emailTaskExecutor.execute(() -> deliver(batch.events));
+        } catch (final TaskRejectedException e) {
+            log.warn("Email executor rejected coalesced emails for {}, sending on the caller thread", recipient);
+            deliver(batch.events);
+        }
+    }
+
+    private void deliver(final List<SendMailEvent> events) {
+        final List<SendMailEvent> remaining = coalesce(events);
+        superseded.increment(events.size() - remaining.size());
+        if (remaining.size() == 1) {
+            send(remaining.getFirst());
+            return;
+        }
+
+        final List<SendMailEvent> digested = new ArrayList<>();
+        final List<DigestUpdate> updates = new ArrayList<>();
+        for (final SendMailEvent event : remaining) {
+            final Optional<String> content = renderContent(event);
+            if (content.isPresent()) {
+                digested.add(event);
+                updates.add(new DigestUpdate(event.subject(), content.get()));
+            } else {
+                send(event);
+            }
+        }
+        if (digested.size() == 1) {
+            send(digested.getFirst());
+        } else if (!digested.isEmpty()) {
+            log.debug("Sending {} coalesced emails to {} as one digest", digested.size(), digested.getFirst().to());
+            send(new SendMailEvent(digested.getFirst().to(), "Your Bookora updates (" + updates.size() + ")",
+                    DIGEST_TEMPLATE, Map.of("updates", updates)));
+        }
+    }
+
+    private Optional<String> renderContent(final SendMailEvent event) {
+        try {
+            return emailTemplateRenderer.renderContentOnly(event.templateName(), event.templateVariables());
+        } catch (final RuntimeException e) {
+            log.warn("Failed to render {} for a digest, sending it separately: {}", event.templateName(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void send(final SendMailEvent event) {
+        sent.increment();
+        emailTemplateService.send(event);
+    }
+
+    private static Counter outcomeCounter(final MeterRegistry meterRegistry, final String outcome) {
+        return Counter.builder(EVENTS_COUNTER)
+                .description("Notification emails passing through per-recipient coalescing, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.transaction.event.TransactionalEventListener;
  * Event listener for SendMailEvent.
  * Handles email sending asynchronously AFTER transaction commits.
  * This ensures emails are only sent when the booking is successfully saved.
+ * With coalescing enabled, emails go through {@link EmailCoalescer} first.
  */
 @Slf4j
 @Component
@@ -19,6 +20,7 @@ import org.springframework.transaction.event.TransactionalEventListener;
 public class EmailNotificationEventHandler {
 
     private final EmailTemplateService emailTemplateService;
+    private final EmailCoalescer emailCoalescer;
 
     /**
      * Handle SendMailEvent asynchronously AFTER transaction commits.
@@ -36,7 +38,11 @@ public class EmailNotificationEventHandler {
 
         try {
             log.debug("Handling SendMailEvent for recipient: {}", event.to());
-            emailTemplateService.send(event);
+            if (emailCoalescer.isEnabled()) {
+                emailCoalescer.submit(event);
+            } else {
+                emailTemplateService.send(event);
+            }
         } catch (final Exception e) {
             log.error("Failed to handle SendMailEvent for recipient {}: {}",
                 event.to(), e.getMessage(), e);
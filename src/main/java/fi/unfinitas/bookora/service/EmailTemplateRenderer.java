@@ -0,0 +1,130 @@
+package fi.unfinitas.bookora.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.TemplateSpec;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.templatemode.TemplateMode;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders email templates, producing the invariant layout only once. An email template marks its variable
+ * part with {@code th:fragment="content"} and {@code th:remove="${layoutOnly} ? body : none"}. The layout
+ * around it (head with the inline styles, header, footer) is rendered once with {@code layoutOnly} set and
+ * kept as two strings; each message then renders only the content fragment. Templates without the fragment
+ * are rendered in full. The known templates are parsed and their layouts rendered at startup, and every
+ * render is timed in {@value #RENDER_TIMER} by template.
+ */
+@Slf4j
+@Component
+public class EmailTemplateRenderer implements SmartInitializingSingleton {
+
+    static final String RENDER_TIMER = "bookora.email.render";
+    static final String CONTENT_FRAGMENT = "content";
+    static final String LAYOUT_ONLY = "layoutOnly";
+    private static final String EMPTY_CONTENT = "<div class=\"content\"></div>";
+
+    /**
+     * Templates rendered at startup.
+     */
+    static final List<String> TEMPLATES =
+            List.of("email/booking-created", "email/booking-cancelled", "email/email-verification", "email/digest");
+
+    private final TemplateEngine templateEngine;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Layout> layouts = new ConcurrentHashMap<>();
+
+    /**
+     * Rendered markup before and after the content fragment, or {@link #FULL} for templates without one.
+     */
+    private record Layout(String head, String tail) {
+    }
+
+    private static final Layout FULL = new Layout(null, null);
+
+    public EmailTemplateRenderer(final TemplateEngine templateEngine, final MeterRegistry meterRegistry) {
+        this.templateEngine = templateEngine;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (final String template : TEMPLATES) {
+            // Also parses and caches the content fragment, which renders empty in layout-only mode
+            final Layout layout = layouts.computeIfAbsent(template, this::renderLayout);
+            if (layout != FULL) {
+                renderContent(template, Map.of(LAYOUT_ONLY, true));
+            }
+        }
+        log.info("Pre-rendered {} email template layouts", layouts.size());
+    }
+
+    /**
+     * Render a template with the given variables.
+     *
+     * @param templateName template to render, e.g. {@code email/booking-created}
+     * @param variables    template variables
+     * @return the HTML
+     */
+    public String render(final String templateName, final Map<String, Object> variables) {
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            final Layout layout = layouts.computeIfAbsent(templateName, this::renderLayout);
+            if (layout == FULL) {
+                return templateEngine.process(templateName, context(variables));
+            }
+            final String content = renderContent(templateName, variables);
+            final StringBuilder html = new StringBuilder(layout.head().length() + content.length() + layout.tail().length());
+            return html.append(layout.head()).append(content).append(layout.tail()).toString();
+        } finally {
+            sample.stop(Timer.builder(RENDER_TIMER)
+                    .description("Email template rendering time")
+                    .tag("template", templateName)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Render only the content fragment of a template, without its layout, for embedding in another email.
+     *
+     * @param templateName template to render
+     * @param variables    template variables
+     * @return the content HTML, or empty if the template has no content fragment
+     */
+    public Optional<String> renderContentOnly(final String templateName, final Map<String, Object> variables) {
+        if (layouts.computeIfAbsent(templateName, this::renderLayout) == FULL) {
+            return Optional.empty();
+        }
+        return Optional.of(renderContent(templateName, variables));
+    }
+
+    private Layout renderLayout(final String templateName) {
+        final String layout = templateEngine.process(templateName, context(Map.of(LAYOUT_ONLY, true)));
+        final int content = layout.indexOf(EMPTY_CONTENT);
+        if (content < 0) {
+            log.debug("Email template {} has no content fragment, rendering it in full", templateName);
+            return FULL;
+        }
+        return new Layout(layout.substring(0, content), layout.substring(content + EMPTY_CONTENT.length()));
+    }
+
+    private String renderContent(final String templateName, final Map<String, Object> variables) {
+        final TemplateSpec content = new TemplateSpec(templateName, Set.of(CONTENT_FRAGMENT), (TemplateMode) null, null);
+        return templateEngine.process(content, context(variables));
+    }
+
+    private static Context context(final Map<String, Object> variables) {
+        final Context context = new Context();
+        context.setVariables(variables);
+        return context;
+    }
+}
@@ -1,6 +1,7 @@
 package fi.unfinitas.bookora.service;
 
 import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.config.observability.EmailSendEvent;
 import fi.unfinitas.bookora.domain.event.SendMailEvent;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
@@ -10,19 +11,17 @@ import org.springframework.mail.MailException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Component;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
 /**
  * Email template service with rendering and retry logic.
- * Renders Thymeleaf templates and sends emails with automatic retry on failure.
+ * Renders Thymeleaf templates through {@link EmailTemplateRenderer} and sends emails with automatic retry on failure.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class EmailTemplateService {
 
-    private final TemplateEngine templateEngine;
+    private final EmailTemplateRenderer emailTemplateRenderer;
     private final JavaMailSender javaMailSender;
     private final BookoraProperties bookoraProperties;
 
@@ -35,18 +34,25 @@ public class EmailTemplateService {
      * @param event the email event containing recipient, subject, template, and variables
      */
     public void send(final SendMailEvent event) {
+        final EmailSendEvent jfrEvent = new EmailSendEvent();
+        jfrEvent.begin();
+        jfrEvent.template = event.templateName();
         try {
             final String htmlContent = renderTemplate(event.templateName(), event.templateVariables());
 
             final MimeMessage mimeMessage = createMimeMessage(event.to(), event.subject(), htmlContent);
 
-            sendWithRetry(mimeMessage);
+            jfrEvent.attempts = sendWithRetry(mimeMessage);
+            jfrEvent.outcome = "SENT";
 
             log.info("Email sent successfully to: {}", event.to());
         } catch (final Exception e) {
+            jfrEvent.outcome = "FAILED";
             log.error("Failed to send email to {} after {} attempts: {}",
                 event.to(), MAX_RETRY_ATTEMPTS, e.getMessage(), e);
             // Don't propagate exception - email failure should not fail business logic
+        } finally {
+            jfrEvent.commit();
         }
     }
 
@@ -55,9 +61,7 @@ public class EmailTemplateService {
      */
     private String renderTemplate(final String templateName, final java.util.Map<String, Object> variables) {
         try {
-            final Context context = new Context();
-            context.setVariables(variables);
-            return templateEngine.process(templateName, context);
+            return emailTemplateRenderer.render(templateName, variables);
         } catch (final Exception e) {
             log.error("Failed to render template {}: {}", templateName, e.getMessage(), e);
             throw e;
@@ -81,8 +85,10 @@ public class EmailTemplateService {
 
     /**
      * Send email with retry logic (exponential backoff).
+     *
+     * @return the number of attempts it took
      */
-    private void sendWithRetry(final MimeMessage mimeMessage) {
+    private int sendWithRetry(final MimeMessage mimeMessage) {
         int attempt = 0;
         Exception lastException = null;
 
@@ -92,7 +98,7 @@ public class EmailTemplateService {
                 if (attempt > 0) {
                     log.info("Email sent successfully on retry attempt {}", attempt + 1);
                 }
-                return; // Success
+                return attempt + 1; // Success
             } catch (final MailException e) {
                 attempt++;
                 lastException = e;
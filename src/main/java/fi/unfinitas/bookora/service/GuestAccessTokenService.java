@@ -1,31 +1,46 @@
 package fi.unfinitas.bookora.service;
 
 import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.config.observability.TokenValidationEvent;
 import fi.unfinitas.bookora.domain.enums.BookingStatus;
 import fi.unfinitas.bookora.domain.model.Booking;
 import fi.unfinitas.bookora.domain.model.GuestAccessToken;
 import fi.unfinitas.bookora.exception.BookingAlreadyCancelledException;
 import fi.unfinitas.bookora.exception.InvalidTokenException;
 import fi.unfinitas.bookora.exception.TokenExpiredException;
+import fi.unfinitas.bookora.repository.BookingRepository;
 import fi.unfinitas.bookora.repository.GuestAccessTokenRepository;
+import fi.unfinitas.bookora.repository.projection.GuestBookingVersion;
+import fi.unfinitas.bookora.security.GuestTokenSigner;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Service for managing guest access tokens.
  * Handles token generation, validation, and lifecycle management.
+ * <p>
+ * Guests hold either the UUID of their {@link GuestAccessToken} row or, when signing is enabled, a signed token
+ * from {@link GuestTokenSigner} that carries the booking ID. Signed tokens are checked for forgery, expiry and
+ * revocation without I/O, and their booking is then loaded by primary key. Both formats are accepted everywhere.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class GuestAccessTokenService {
 
+    private static final int UUID_TOKEN_LENGTH = 36;
+
     private final GuestAccessTokenRepository tokenRepository;
+    private final BookingRepository bookingRepository;
+    private final GuestTokenSigner tokenSigner;
+    private final GuestTokenRevocations revocations;
     private final BookoraProperties bookoraProperties;
 
     /**
@@ -55,26 +70,72 @@ public class GuestAccessTokenService {
         return savedToken;
     }
 
+    /**
+     * The token to hand to the guest: signed if signing is enabled, the UUID otherwise.
+     *
+     * @param token the generated token
+     * @return the access token
+     */
+    public String accessToken(final GuestAccessToken token) {
+        if (tokenSigner.isSigningEnabled()) {
+            return tokenSigner.sign(token.getBooking().getId(), token.getExpiresAt());
+        }
+        return token.getToken().toString();
+    }
+
+    /**
+     * Validate a token and return its booking for viewing.
+     * A signed token is verified without I/O and its booking is loaded by primary key.
+     *
+     * @param token the access token
+     * @return the booking
+     * @throws InvalidTokenException            if token is invalid, revoked or unknown
+     * @throws TokenExpiredException            if token has expired
+     * @throws BookingAlreadyCancelledException if booking is cancelled
+     */
+    @Transactional(readOnly = true)
+    public Booking findViewableBooking(final String token) {
+        if (isUuidToken(token)) {
+            return validateToken(token).getBooking();
+        }
+        log.debug("Validating signed access token");
+
+        return recordValidation("view", () -> {
+            final long bookingId = verifySigned(token).bookingId();
+            final Booking booking = bookingRepository.findById(bookingId)
+                    .orElseThrow(() -> {
+                        log.warn("Booking {} of signed access token not found", bookingId);
+                        return new InvalidTokenException("Token not found");
+                    });
+            validateBookingNotCancelled(booking);
+
+            log.debug("Signed token validated successfully for booking ID: {}", bookingId);
+            return booking;
+        });
+    }
+
     /**
      * Validate token and return the GuestAccessToken entity.
      * Checks if token exists, is not expired, and booking is not cancelled.
      * Used for operations that allow already-confirmed tokens (e.g., view, cancel).
      *
-     * @param token the UUID token
+     * @param token the access token
      * @return the GuestAccessToken entity
      * @throws InvalidTokenException if token not found or booking is cancelled
      * @throws TokenExpiredException if token has expired
      */
     @Transactional(readOnly = true)
-    public GuestAccessToken validateToken(final UUID token) {
+    public GuestAccessToken validateToken(final String token) {
         log.debug("Validating access token");
 
-        final GuestAccessToken accessToken = findToken(token);
-        validateExpiration(accessToken);
-        validateBookingNotCancelled(accessToken);
+        return recordValidation("view", () -> {
+            final GuestAccessToken accessToken = findToken(token);
+            validateExpiration(accessToken);
+            validateBookingNotCancelled(accessToken.getBooking());
 
-        log.debug("Token validated successfully for booking ID: {}", accessToken.getBooking().getId());
-        return accessToken;
+            log.debug("Token validated successfully for booking ID: {}", accessToken.getBooking().getId());
+            return accessToken;
+        });
     }
 
     /**
@@ -82,37 +143,133 @@ public class GuestAccessTokenService {
      * Checks if token exists, is not expired, and has not been confirmed yet.
      * Used for confirmation operation to prevent double-confirmation.
      *
-     * @param token the UUID token
+     * @param token the access token
      * @return the GuestAccessToken entity
      * @throws InvalidTokenException if token not found or already confirmed
      * @throws TokenExpiredException if token has expired
      */
     @Transactional(readOnly = true)
-    public GuestAccessToken validateTokenForConfirm(final UUID token) {
+    public GuestAccessToken validateTokenForConfirm(final String token) {
         log.debug("Validating access token for confirmation");
 
-        final GuestAccessToken accessToken = findToken(token);
-        validateExpiration(accessToken);
-        validateNotConfirmed(accessToken);
+        return recordValidation("confirm", () -> {
+            final GuestAccessToken accessToken = findToken(token);
+            validateExpiration(accessToken);
+            validateNotConfirmed(accessToken);
+
+            log.debug("Token validated successfully for confirmation. Booking ID: {}",
+                    accessToken.getBooking().getId());
+            return accessToken;
+        });
+    }
+
+    /**
+     * Find the version state of the booking behind a token that can still be viewed.
+     * Returns empty for unknown, revoked or expired tokens and cancelled bookings,
+     * so callers fall back to {@link #findViewableBooking(String)} for the error response.
+     *
+     * @param token the access token
+     * @return the version state, or empty if the token would not pass validation
+     */
+    @Transactional(readOnly = true)
+    public Optional<GuestBookingVersion> findViewableBookingVersion(final String token) {
+        final Optional<GuestBookingVersion> found = isUuidToken(token)
+                ? parseUuid(token).flatMap(tokenRepository::findVersionByToken)
+                : tryVerifySigned(token).flatMap(claims -> tokenRepository.findVersionByBookingId(claims.bookingId()));
+        return found
+                .filter(version -> version.getDeletedAt() == null)
+                .filter(version -> !LocalDateTime.now().isAfter(version.getExpiresAt()))
+                .filter(version -> !BookingStatus.CANCELLED.name().equals(version.getStatus()));
+    }
 
-        log.debug("Token validated successfully for confirmation. Booking ID: {}",
-                accessToken.getBooking().getId());
-        return accessToken;
+    /**
+     * Run a validation and emit it as a {@link TokenValidationEvent} when a JFR recording is running.
+     *
+     * @param operation  the validation performed
+     * @param validation the validation
+     * @param <T>        the validation result
+     * @return the validation result
+     */
+    private <T> T recordValidation(final String operation, final Supplier<T> validation) {
+        final TokenValidationEvent event = new TokenValidationEvent();
+        event.begin();
+        String outcome = "ERROR";
+        try {
+            final T result = validation.get();
+            outcome = "VALID";
+            return result;
+        } catch (final InvalidTokenException | TokenExpiredException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
     }
 
     /**
-     * Find token by UUID.
+     * Find the active token row behind a UUID or signed token.
      *
-     * @param token the UUID token
+     * @param token the access token
      * @return the GuestAccessToken entity
-     * @throws InvalidTokenException if token not found
+     * @throws InvalidTokenException if token is invalid, revoked or not found
+     * @throws TokenExpiredException if a signed token has expired
      */
-    private GuestAccessToken findToken(final UUID token) {
-        return tokenRepository.findByToken(token)
-                .orElseThrow(() -> {
-                    log.warn("Access token not found");
-                    return new InvalidTokenException("Token not found");
-                });
+    private GuestAccessToken findToken(final String token) {
+        final Optional<GuestAccessToken> accessToken;
+        if (isUuidToken(token)) {
+            accessToken = tokenRepository.findByToken(parseUuid(token)
+                    .orElseThrow(() -> new InvalidTokenException("Invalid token")));
+        } else {
+            accessToken = tokenRepository.findByBookingId(verifySigned(token).bookingId());
+        }
+        return accessToken.orElseThrow(() -> {
+            log.warn("Access token not found");
+            return new InvalidTokenException("Token not found");
+        });
+    }
+
+    /**
+     * Verify a signed token and check that its booking's tokens have not been revoked.
+     *
+     * @param token the signed token
+     * @return the claims of the token
+     * @throws InvalidTokenException if token is forged, tampered with or revoked
+     * @throws TokenExpiredException if token has expired
+     */
+    private GuestTokenSigner.Claims verifySigned(final String token) {
+        final GuestTokenSigner.Claims claims = tokenSigner.verify(token);
+        if (revocations.isRevoked(claims.bookingId())) {
+            log.warn("Attempt to use revoked token for booking ID: {}", claims.bookingId());
+            throw new InvalidTokenException("Token has been revoked");
+        }
+        return claims;
+    }
+
+    private Optional<GuestTokenSigner.Claims> tryVerifySigned(final String token) {
+        try {
+            return Optional.of(verifySigned(token));
+        } catch (final InvalidTokenException | TokenExpiredException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * UUID tokens are 36 characters; signed tokens never are.
+     */
+    private static boolean isUuidToken(final String token) {
+        return token.length() == UUID_TOKEN_LENGTH;
+    }
+
+    private static Optional<UUID> parseUuid(final String token) {
+        try {
+            return Optional.of(UUID.fromString(token));
+        } catch (final IllegalArgumentException e) {
+            return Optional.empty();
+        }
     }
 
     /**
@@ -147,13 +304,13 @@ public class GuestAccessTokenService {
      * Validate that the booking associated with the token is not cancelled.
      * This prevents access to cancelled bookings through their tokens.
      *
-     * @param accessToken the token to validate
+     * @param booking the booking of the token
      * @throws BookingAlreadyCancelledException if booking is cancelled
      */
-    private void validateBookingNotCancelled(final GuestAccessToken accessToken) {
-        if (accessToken.getBooking().getStatus() == BookingStatus.CANCELLED) {
+    private void validateBookingNotCancelled(final Booking booking) {
+        if (booking.getStatus() == BookingStatus.CANCELLED) {
             log.warn("Attempt to access cancelled booking ID: {}",
-                    accessToken.getBooking().getId());
+                    booking.getId());
             throw new BookingAlreadyCancelledException(
                     "This booking has been cancelled and cannot be accessed"
             );
@@ -0,0 +1,73 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.domain.event.BookingChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory set of bookings whose signed guest tokens are revoked, fed by cancellations.
+ * Entries are kept until the longest-lived token of the booking would have expired anyway.
+ * <p>
+ * The set is per instance. Another instance still refuses a revoked token once it loads the booking,
+ * because cancelled bookings and soft-deleted token rows are rejected there as well.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GuestTokenRevocations {
+
+    private final BookoraProperties bookoraProperties;
+    private final Map<Long, LocalDateTime> revoked = new ConcurrentHashMap<>();
+
+    /**
+     * Revoke the signed tokens of a booking.
+     *
+     * @param bookingId the booking
+     * @param until     when its tokens expire
+     */
+    public void revoke(final long bookingId, final LocalDateTime until) {
+        revoked.merge(bookingId, until, (current, added) -> added.isAfter(current) ? added : current);
+    }
+
+    /**
+     * @param bookingId the booking
+     * @return whether the signed tokens of the booking are revoked
+     */
+    public boolean isRevoked(final long bookingId) {
+        return revoked.containsKey(bookingId);
+    }
+
+    /**
+     * Revoke the tokens of a cancelled booking once the cancellation is committed.
+     *
+     * @param event the booking change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleBookingChanged(final BookingChangedEvent event) {
+        if (event.type() == BookingChangedEvent.Type.CANCELLED) {
+            final int extensionDays = bookoraProperties.getGuest().getToken().getExpirationExtensionDays();
+            revoke(event.bookingId(), event.endTime().plusDays(extensionDays));
+        }
+    }
+
+    /**
+     * Drop revocations of tokens that have expired by now.
+     */
+    @Scheduled(fixedDelay = 1, initialDelay = 1, timeUnit = TimeUnit.HOURS)
+    public void purgeExpired() {
+        final LocalDateTime now = LocalDateTime.now();
+        final int before = revoked.size();
+        revoked.values().removeIf(now::isAfter);
+        log.debug("Purged {} expired guest token revocations", before - revoked.size());
+    }
+}
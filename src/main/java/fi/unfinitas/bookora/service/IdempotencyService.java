@@ -0,0 +1,234 @@
+package fi.unfinitas.bookora.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.domain.model.IdempotencyKey;
+import fi.unfinitas.bookora.dto.request.CreateGuestBookingRequest;
+import fi.unfinitas.bookora.dto.response.GuestBookingResponse;
+import fi.unfinitas.bookora.exception.IdempotencyKeyConflictException;
+import fi.unfinitas.bookora.exception.InvalidIdempotencyKeyException;
+import fi.unfinitas.bookora.repository.IdempotencyKeyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Service for Idempotency-Key handling on guest booking creation.
+ * The first request with a key runs the booking logic and stores its response in the same
+ * transaction; retries with the same key and body replay that response without touching
+ * the booking logic, token generation or email sending.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private static final String KEY_CONSTRAINT = "uq_idempotency_key_key";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final BookoraProperties.Idempotency properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, CachedResponse> cache = new ConcurrentHashMap<>();
+
+    public IdempotencyService(final IdempotencyKeyRepository idempotencyKeyRepository,
+                              final ObjectMapper objectMapper,
+                              final BookoraProperties bookoraProperties,
+                              final PlatformTransactionManager transactionManager) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.properties = bookoraProperties.getIdempotency();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Result of an idempotent booking creation.
+     *
+     * @param response the booking response
+     * @param replayed true if the response was replayed from an earlier request
+     */
+    public record Result(GuestBookingResponse response, boolean replayed) {}
+
+    /**
+     * Create a guest booking at most once per idempotency key.
+     *
+     * @param key     the client-supplied Idempotency-Key
+     * @param request the booking request
+     * @param action  the booking logic, invoked only for the first request with the key
+     * @return the original or replayed response
+     * @throws InvalidIdempotencyKeyException  if the key is too long or was used with a different request
+     * @throws IdempotencyKeyConflictException if a request with the key is still in progress
+     */
+    public Result createGuestBooking(final String key,
+                                     final CreateGuestBookingRequest request,
+                                     final Supplier<GuestBookingResponse> action) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(
+                    "Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters.");
+        }
+        final String requestHash = hashRequest(request);
+
+        final CachedResponse cached = cache.get(key);
+        if (cached != null && !cached.isExpired()) {
+            log.debug("Replaying cached response for idempotency key");
+            return new Result(cached.verify(requestHash), true);
+        }
+
+        final Result result;
+        try {
+            result = transactionTemplate.execute(status -> executeOnce(key, requestHash, action));
+        } catch (DataIntegrityViolationException e) {
+            if (!isKeyConstraint(e)) {
+                throw e;
+            }
+            // A concurrent request with the same key committed first
+            log.debug("Concurrent request with the same idempotency key, replaying stored response");
+            return replayStored(key, requestHash);
+        }
+
+        if (result != null) {
+            cacheResponse(key, requestHash, result.response());
+        }
+        return result;
+    }
+
+    /**
+     * Purge expired keys from the table and the in-memory cache.
+     */
+    @Scheduled(fixedDelayString = "${bookora.idempotency.purge-interval-minutes:60}",
+            initialDelayString = "${bookora.idempotency.purge-interval-minutes:60}",
+            timeUnit = TimeUnit.MINUTES)
+    public void purgeExpired() {
+        cache.values().removeIf(CachedResponse::isExpired);
+        final Integer deleted = transactionTemplate.execute(
+                status -> idempotencyKeyRepository.deleteExpired(LocalDateTime.now()));
+        log.debug("Purged {} expired idempotency keys", deleted);
+    }
+
+    private Result executeOnce(final String key, final String requestHash,
+                               final Supplier<GuestBookingResponse> action) {
+        final Optional<IdempotencyKey> existing = idempotencyKeyRepository.findByKey(key);
+        if (existing.isPresent()) {
+            if (!existing.get().isExpired()) {
+                return new Result(replay(existing.get(), requestHash), true);
+            }
+            idempotencyKeyRepository.delete(existing.get());
+            idempotencyKeyRepository.flush();
+        }
+
+        // Flushed before the booking logic runs so a concurrent duplicate blocks on the
+        // unique constraint instead of creating a second booking
+        final IdempotencyKey record = idempotencyKeyRepository.saveAndFlush(IdempotencyKey.builder()
+                .key(key)
+                .requestHash(requestHash)
+                .expiresAt(LocalDateTime.now().plusHours(properties.getTtlHours()))
+                .build());
+
+        final GuestBookingResponse response = action.get();
+        record.setResponseBody(serialize(response));
+        idempotencyKeyRepository.save(record);
+
+        return new Result(response, false);
+    }
+
+    private Result replayStored(final String key, final String requestHash) {
+        final GuestBookingResponse response = transactionTemplate.execute(status ->
+                idempotencyKeyRepository.findByKey(key)
+                        .map(stored -> replay(stored, requestHash))
+                        .orElseThrow(() -> new IdempotencyKeyConflictException(
+                                "A request with this Idempotency-Key is still being processed. Please retry shortly.")));
+        cacheResponse(key, requestHash, response);
+        return new Result(response, true);
+    }
+
+    private GuestBookingResponse replay(final IdempotencyKey stored, final String requestHash) {
+        if (!stored.getRequestHash().equals(requestHash)) {
+            throw mismatch();
+        }
+        if (stored.getResponseBody() == null) {
+            throw new IdempotencyKeyConflictException(
+                    "A request with this Idempotency-Key is still being processed. Please retry shortly.");
+        }
+        return deserialize(stored.getResponseBody());
+    }
+
+    private void cacheResponse(final String key, final String requestHash, final GuestBookingResponse response) {
+        if (cache.size() >= properties.getCacheMaxEntries()) {
+            cache.values().removeIf(CachedResponse::isExpired);
+            if (cache.size() >= properties.getCacheMaxEntries()) {
+                // Still full: the table remains the source of truth
+                return;
+            }
+        }
+        cache.put(key, new CachedResponse(requestHash, response,
+                LocalDateTime.now().plusHours(properties.getTtlHours())));
+    }
+
+    private String hashRequest(final CreateGuestBookingRequest request) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Failed to hash request for idempotency check", e);
+        }
+    }
+
+    private String serialize(final GuestBookingResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize booking response", e);
+        }
+    }
+
+    private GuestBookingResponse deserialize(final String body) {
+        try {
+            return objectMapper.readValue(body, GuestBookingResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to deserialize stored booking response", e);
+        }
+    }
+
+    private static InvalidIdempotencyKeyException mismatch() {
+        return new InvalidIdempotencyKeyException(
+                "Idempotency-Key has already been used with a different request.");
+    }
+
+    private boolean isKeyConstraint(final DataIntegrityViolationException e) {
+        final Throwable rootCause = e.getRootCause();
+        if (rootCause == null) {
+            return false;
+        }
+        final String message = rootCause.getMessage();
+        return message != null && message.contains(KEY_CONSTRAINT);
+    }
+
+    private record CachedResponse(String requestHash, GuestBookingResponse response, LocalDateTime expiresAt) {
+
+        boolean isExpired() {
+            return LocalDateTime.now().isAfter(expiresAt);
+        }
+
+        GuestBookingResponse verify(final String hash) {
+            if (!requestHash.equals(hash)) {
+                throw mismatch();
+            }
+            return response;
+        }
+    }
+}
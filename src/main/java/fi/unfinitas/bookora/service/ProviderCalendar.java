@@ -0,0 +1,240 @@
+package fi.unfinitas.bookora.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bitmap calendar of one provider over consecutive days, one bit per {@code granularityMinutes} slot.
+ * <p>
+ * Two bitmaps cover the whole range: slots inside an availability window are set in {@code open}, slots
+ * touched by an active booking in {@code booked}. Availability is rounded inwards and bookings outwards, so a
+ * slot is only reported free when it certainly is. At 5 minutes a day is 288 bits, and a week of both bitmaps
+ * is 32 words each, about 600 bytes per provider. Free starts are found with word-level AND-and-shift passes
+ * instead of a query per candidate. Instances are immutable; bookings are added and removed on copies.
+ */
+public final class ProviderCalendar {
+
+    private final LocalDate firstDay;
+    private final int days;
+    private final int granularityMinutes;
+    private final int slotsPerDay;
+    private final long[] open;
+    private final long[] booked;
+
+    private ProviderCalendar(final LocalDate firstDay, final int days, final int granularityMinutes,
+                             final long[] open, final long[] booked) {
+        this.firstDay = firstDay;
+        this.days = days;
+        this.granularityMinutes = granularityMinutes;
+        this.slotsPerDay = 1440 / granularityMinutes;
+        this.open = open;
+        this.booked = booked;
+    }
+
+    /**
+     * Start an empty calendar.
+     *
+     * @param firstDay           first day covered
+     * @param days               number of days covered
+     * @param granularityMinutes slot length; must divide a day
+     * @return a builder
+     */
+    public static Builder builder(final LocalDate firstDay, final int days, final int granularityMinutes) {
+        if (days < 1 || granularityMinutes < 1 || 1440 % granularityMinutes != 0) {
+            throw new IllegalArgumentException("Calendar needs at least one day and a granularity dividing 1440 minutes");
+        }
+        final int words = Math.ceilDiv(days * (1440 / granularityMinutes), Long.SIZE);
+        return new Builder(new ProviderCalendar(firstDay, days, granularityMinutes, new long[words], new long[words]));
+    }
+
+    public LocalDate firstDay() {
+        return firstDay;
+    }
+
+    public boolean covers(final LocalDate day) {
+        return !day.isBefore(firstDay) && day.isBefore(firstDay.plusDays(days));
+    }
+
+    /**
+     * @return whether the instant falls on a slot boundary, so that a booking from or to it fills whole slots
+     */
+    public boolean isAligned(final LocalDateTime dateTime) {
+        return secondsFromStart(dateTime) % (granularityMinutes * 60L) == 0;
+    }
+
+    /**
+     * Find the starts on a day where a booking of the given length fits: every slot it covers is open, and no
+     * booking is within {@code bufferMinutes} of it.
+     *
+     * @param day             a day the calendar covers
+     * @param durationMinutes length of the booking
+     * @param bufferMinutes   free time required before and after it
+     * @return the start times, in order
+     */
+    public List<LocalTime> freeStarts(final LocalDate day, final int durationMinutes, final int bufferMinutes) {
+        if (!covers(day)) {
+            throw new IllegalArgumentException("Day " + day + " is outside the calendar");
+        }
+        final int length = Math.max(1, Math.ceilDiv(durationMinutes, granularityMinutes));
+        final int padding = Math.ceilDiv(bufferMinutes, granularityMinutes);
+
+        final long[] starts = runs(open.clone(), length);
+        final long[] unbooked = new long[booked.length];
+        for (int word = 0; word < booked.length; word++) {
+            unbooked[word] = ~booked[word];
+        }
+        clearFrom(unbooked, days * slotsPerDay);
+        final long[] clear = shiftUp(runs(unbooked, length + 2 * padding), padding);
+        for (int word = 0; word < starts.length; word++) {
+            starts[word] &= clear[word];
+        }
+
+        final List<LocalTime> result = new ArrayList<>();
+        final int from = (int) (day.toEpochDay() - firstDay.toEpochDay()) * slotsPerDay;
+        final int to = from + slotsPerDay;
+        for (int word = from / Long.SIZE; word <= (to - 1) / Long.SIZE; word++) {
+            long bits = starts[word];
+            while (bits != 0) {
+                final int slot = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                if (slot >= from && slot < to) {
+                    result.add(LocalTime.MIDNIGHT.plusMinutes((long) (slot - from) * granularityMinutes));
+                }
+                bits &= bits - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a copy with the slots touched by the booking marked booked
+     */
+    public ProviderCalendar withBooking(final LocalDateTime startTime, final LocalDateTime endTime) {
+        final long[] copy = booked.clone();
+        setRange(copy, floorSlot(startTime), ceilSlot(endTime), true);
+        return new ProviderCalendar(firstDay, days, granularityMinutes, open, copy);
+    }
+
+    /**
+     * Free the slots of a cancelled booking. Only exact when no other active booking shares a slot with it, that
+     * is for an aligned one-to-one booking, which the provider overlap constraint keeps apart from the rest.
+     *
+     * @return a copy with the slots touched by the booking marked free
+     */
+    public ProviderCalendar withoutBooking(final LocalDateTime startTime, final LocalDateTime endTime) {
+        final long[] copy = booked.clone();
+        setRange(copy, floorSlot(startTime), ceilSlot(endTime), false);
+        return new ProviderCalendar(firstDay, days, granularityMinutes, open, copy);
+    }
+
+    /**
+     * Fills a calendar; not thread-safe, and not to be used after {@link #build()}.
+     */
+    public static final class Builder {
+
+        private final ProviderCalendar calendar;
+
+        private Builder(final ProviderCalendar calendar) {
+            this.calendar = calendar;
+        }
+
+        /**
+         * Mark an availability window open, or closed when {@code available} is false. Closed windows should be
+         * added after the open ones they cut into.
+         */
+        public Builder availability(final LocalDate day, final LocalTime startTime, final LocalTime endTime,
+                                    final boolean available) {
+            if (endTime.isAfter(startTime)) {
+                final LocalDateTime start = day.atTime(startTime);
+                final LocalDateTime end = day.atTime(endTime);
+                // Open windows shrink to whole slots, closed ones grow to them
+                setRange(calendar.open, available ? calendar.ceilSlot(start) : calendar.floorSlot(start),
+                        available ? calendar.floorSlot(end) : calendar.ceilSlot(end), available);
+            }
+            return this;
+        }
+
+        public Builder booking(final LocalDateTime startTime, final LocalDateTime endTime) {
+            setRange(calendar.booked, calendar.floorSlot(startTime), calendar.ceilSlot(endTime), true);
+            return this;
+        }
+
+        public ProviderCalendar build() {
+            return calendar;
+        }
+    }
+
+    private long secondsFromStart(final LocalDateTime dateTime) {
+        return Duration.between(firstDay.atStartOfDay(), dateTime).getSeconds();
+    }
+
+    private int floorSlot(final LocalDateTime dateTime) {
+        return clamp(Math.floorDiv(secondsFromStart(dateTime), granularityMinutes * 60L));
+    }
+
+    private int ceilSlot(final LocalDateTime dateTime) {
+        return clamp(Math.ceilDiv(secondsFromStart(dateTime), granularityMinutes * 60L));
+    }
+
+    private int clamp(final long slot) {
+        return (int) Math.max(0, Math.min(slot, (long) days * slotsPerDay));
+    }
+
+    /**
+     * Narrow {@code bits} in place so that bit i is set only if bits i to i + length - 1 all were, doubling the
+     * run length covered with each pass.
+     */
+    static long[] runs(final long[] bits, final int length) {
+        int covered = 1;
+        while (covered < length) {
+            final int shift = Math.min(covered, length - covered);
+            final int wordShift = shift / Long.SIZE;
+            final int bitShift = shift % Long.SIZE;
+            // Ascending order reads only words not yet narrowed in this pass
+            for (int word = 0; word < bits.length; word++) {
+                final long low = word + wordShift < bits.length ? bits[word + wordShift] : 0L;
+                final long high = word + wordShift + 1 < bits.length ? bits[word + wordShift + 1] : 0L;
+                bits[word] &= bitShift == 0 ? low : (low >>> bitShift) | (high << (Long.SIZE - bitShift));
+            }
+            covered += shift;
+        }
+        return bits;
+    }
+
+    /**
+     * @return a copy where bit i is bit i - shift of {@code bits}, zero below {@code shift}
+     */
+    static long[] shiftUp(final long[] bits, final int shift) {
+        if (shift == 0) {
+            return bits;
+        }
+        final long[] shifted = new long[bits.length];
+        final int wordShift = shift / Long.SIZE;
+        final int bitShift = shift % Long.SIZE;
+        for (int word = wordShift; word < bits.length; word++) {
+            final long high = bits[word - wordShift];
+            final long low = word - wordShift - 1 >= 0 ? bits[word - wordShift - 1] : 0L;
+            shifted[word] = bitShift == 0 ? high : (high << bitShift) | (low >>> (Long.SIZE - bitShift));
+        }
+        return shifted;
+    }
+
+    private static void setRange(final long[] bits, final int from, final int to, final boolean value) {
+        for (int slot = from; slot < to; ) {
+            final int word = slot / Long.SIZE;
+            final int end = Math.min(to, (word + 1) * Long.SIZE);
+            final long mask = (end - slot == Long.SIZE ? -1L : ((1L << (end - slot)) - 1)) << (slot % Long.SIZE);
+            bits[word] = value ? bits[word] | mask : bits[word] & ~mask;
+            slot = end;
+        }
+    }
+
+    private static void clearFrom(final long[] bits, final int from) {
+        if (from < bits.length * Long.SIZE) {
+            setRange(bits, from, bits.length * Long.SIZE, false);
+        }
+    }
+}
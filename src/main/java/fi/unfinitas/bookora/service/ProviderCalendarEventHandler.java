@@ -0,0 +1,32 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.domain.event.BookingChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Event listener for BookingChangedEvent.
+ * Keeps the cached provider calendars of this node up to date with committed bookings.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProviderCalendarEventHandler {
+
+    private final ProviderCalendarService providerCalendarService;
+
+    /**
+     * Handle BookingChangedEvent AFTER transaction commits, so rolled back bookings never mark
+     * slots booked. Only touches memory.
+     *
+     * @param event the booking change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleBookingChanged(final BookingChangedEvent event) {
+        log.debug("Applying {} event for booking ID: {} to provider calendar", event.type(), event.bookingId());
+        providerCalendarService.apply(event);
+    }
+}
@@ -0,0 +1,207 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.domain.event.BookingChangedEvent;
+import fi.unfinitas.bookora.domain.model.Availability;
+import fi.unfinitas.bookora.domain.model.ServiceOffering;
+import fi.unfinitas.bookora.dto.response.FreeSlotsResponse;
+import fi.unfinitas.bookora.repository.AvailabilityRepository;
+import fi.unfinitas.bookora.repository.BookingRepository;
+import fi.unfinitas.bookora.repository.projection.BookingTimeRange;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service for the bitmap calendars of provider schedules.
+ * <p>
+ * Each node caches a {@link ProviderCalendar} per provider covering {@code bookora.calendar.days} days from today,
+ * built from the provider's availability and active bookings with two queries. Bookings committed through this
+ * node are applied to the cached calendar at once; a calendar is rebuilt when it is older than
+ * {@code bookora.calendar.max-age-seconds}, which bounds how long changes made on other nodes or to availability
+ * go unseen. The calendar only lists free start times: booking creation still checks overlaps in the database.
+ */
+@Service
+@Slf4j
+public class ProviderCalendarService {
+
+    static final String CACHED_PROVIDERS_GAUGE = "bookora.calendar.providers";
+
+    private final AvailabilityRepository availabilityRepository;
+    private final BookingRepository bookingRepository;
+    private final ServiceOfferingService serviceOfferingService;
+    private final BookingPolicyService bookingPolicyService;
+    private final SlotInventoryService slotInventoryService;
+    private final BookoraProperties.Calendar properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<UUID, CachedCalendar> calendars = new ConcurrentHashMap<>();
+
+    private record CachedCalendar(ProviderCalendar calendar, long loadedAtNanos) {
+
+        CachedCalendar with(final ProviderCalendar updated) {
+            return new CachedCalendar(updated, loadedAtNanos);
+        }
+    }
+
+    public ProviderCalendarService(final AvailabilityRepository availabilityRepository,
+                                   final BookingRepository bookingRepository,
+                                   final ServiceOfferingService serviceOfferingService,
+                                   final BookingPolicyService bookingPolicyService,
+                                   final SlotInventoryService slotInventoryService,
+                                   final BookoraProperties bookoraProperties,
+                                   final PlatformTransactionManager transactionManager,
+                                   final MeterRegistry meterRegistry) {
+        this.availabilityRepository = availabilityRepository;
+        this.bookingRepository = bookingRepository;
+        this.serviceOfferingService = serviceOfferingService;
+        this.bookingPolicyService = bookingPolicyService;
+        this.slotInventoryService = slotInventoryService;
+        this.properties = bookoraProperties.getCalendar();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        Gauge.builder(CACHED_PROVIDERS_GAUGE, calendars, Map::size)
+                .description("Providers with a cached schedule calendar")
+                .register(meterRegistry);
+    }
+
+    /**
+     * List the start times on a day at which a service can be booked: the provider is available and free for
+     * the service's duration plus its buffer, and the start passes the service's booking rules. The daily cap
+     * is left to booking creation.
+     * <p>
+     * The calendar marks group session bookings booked like any other, as they take the provider's time. A
+     * group session's own slots that still have seats are therefore listed as well, unless a booking outside
+     * the slot is within the buffer of it.
+     *
+     * @param serviceId the service
+     * @param date      the day
+     * @return the free start times, in order
+     */
+    public FreeSlotsResponse getFreeSlots(final Long serviceId, final LocalDate date) {
+        final ServiceOffering service = serviceOfferingService.getServiceOfferingById(serviceId);
+        final UUID providerId = service.getProvider().getId();
+        final BookingRules rules = bookingPolicyService.rulesFor(providerId, serviceId);
+        final LocalDateTime now = LocalDateTime.now();
+
+        final SortedSet<LocalTime> candidates = new TreeSet<>(freeStarts(providerId, date,
+                service.getDurationMinutes(), (int) rules.buffer().toMinutes()));
+        if (service.isGroupSession()) {
+            candidates.addAll(groupStartsWithSeatsLeft(service, date, rules));
+        }
+        final List<LocalTime> startTimes = candidates.stream()
+                .filter(startTime -> rules.allowsStart(date.atTime(startTime), now))
+                .toList();
+        return new FreeSlotsResponse(serviceId, date, service.getDurationMinutes(), startTimes);
+    }
+
+    /**
+     * Find the start times on a day where a booking of the given length fits the provider's schedule. Days the
+     * cached calendar does not cover get a calendar of their own, which is not cached.
+     *
+     * @param providerId      the provider
+     * @param date            the day
+     * @param durationMinutes length of the booking
+     * @param bufferMinutes   free time required before and after it
+     * @return the start times, in order
+     */
+    public List<LocalTime> freeStarts(final UUID providerId, final LocalDate date, final int durationMinutes,
+                                      final int bufferMinutes) {
+        final ProviderCalendar calendar = calendarFor(providerId);
+        if (calendar.covers(date)) {
+            return calendar.freeStarts(date, durationMinutes, bufferMinutes);
+        }
+        return load(providerId, date, 1).freeStarts(date, durationMinutes, bufferMinutes);
+    }
+
+    /**
+     * The provider's calendar from today, from the cache unless it is stale.
+     *
+     * @param providerId the provider
+     * @return the calendar
+     */
+    public ProviderCalendar calendarFor(final UUID providerId) {
+        final LocalDate today = LocalDate.now();
+        final CachedCalendar cached = calendars.get(providerId);
+        if (cached != null && cached.calendar().firstDay().equals(today)
+                && System.nanoTime() - cached.loadedAtNanos() < TimeUnit.SECONDS.toNanos(properties.getMaxAgeSeconds())) {
+            return cached.calendar();
+        }
+
+        final long loadedAtNanos = System.nanoTime();
+        final ProviderCalendar calendar = load(providerId, today, properties.getDays());
+        if (cached != null || calendars.size() < properties.getMaxProviders()) {
+            calendars.put(providerId, new CachedCalendar(calendar, loadedAtNanos));
+        }
+        return calendar;
+    }
+
+    /**
+     * Apply a committed booking change to the cached calendar of its provider. New bookings are marked booked.
+     * A cancelled one-to-one booking on slot boundaries is freed; any other cancellation drops the calendar, as
+     * its slots may still be held by another booking, and the next read rebuilds it.
+     *
+     * @param event the booking change
+     */
+    public void apply(final BookingChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> calendars.computeIfPresent(event.providerId(), (id, cached) ->
+                    cached.with(cached.calendar().withBooking(event.startTime(), event.endTime())));
+            case CANCELLED -> calendars.computeIfPresent(event.providerId(), (id, cached) -> {
+                final ProviderCalendar calendar = cached.calendar();
+                if (event.groupSlotId() == null
+                        && calendar.isAligned(event.startTime()) && calendar.isAligned(event.endTime())) {
+                    return cached.with(calendar.withoutBooking(event.startTime(), event.endTime()));
+                }
+                return null;
+            });
+            case CONFIRMED -> {
+                // Pending and confirmed bookings both hold their slots
+            }
+        }
+    }
+
+    private List<LocalTime> groupStartsWithSeatsLeft(final ServiceOffering service, final LocalDate date,
+                                                     final BookingRules rules) {
+        final UUID providerId = service.getProvider().getId();
+        return transactionTemplate.execute(status -> slotInventoryService.findSlotsWithSeatsLeft(service.getId(), date)
+                .stream()
+                .filter(slot -> !bookingRepository.existsOverlappingBookingOutsideSlot(providerId,
+                        rules.bufferedStart(slot.getStartTime()), rules.bufferedEnd(slot.getEndTime()), slot.getId()))
+                .map(slot -> slot.getStartTime().toLocalTime())
+                .toList());
+    }
+
+    private ProviderCalendar load(final UUID providerId, final LocalDate firstDay, final int days) {
+        final LocalDate end = firstDay.plusDays(days);
+        final ProviderCalendar.Builder builder =
+                ProviderCalendar.builder(firstDay, days, properties.getGranularityMinutes());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Open windows come first, so closed ones cut into them
+            for (final Availability availability : availabilityRepository.findByProviderIdAndDays(providerId, firstDay, end)) {
+                builder.availability(availability.getAvailabilityDate(), availability.getStartTime(),
+                        availability.getEndTime(), Boolean.TRUE.equals(availability.getIsAvailable()));
+            }
+            for (final BookingTimeRange booking : bookingRepository.findActiveBookingTimes(
+                    providerId, firstDay.atStartOfDay(), end.atStartOfDay())) {
+                builder.booking(booking.getStartTime(), booking.getEndTime());
+            }
+        });
+        log.debug("Built {}-day calendar of provider {} from {}", days, providerId, firstDay);
+        return builder.build();
+    }
+}
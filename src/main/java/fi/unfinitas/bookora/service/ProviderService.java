@@ -0,0 +1,46 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.domain.enums.UserRole;
+import fi.unfinitas.bookora.domain.model.User;
+import fi.unfinitas.bookora.exception.ProviderAccessDeniedException;
+import fi.unfinitas.bookora.repository.ProviderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Service for provider-related operations.
+ * Handles provider ownership checks for provider-scoped endpoints.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProviderService {
+
+    private final ProviderRepository providerRepository;
+
+    /**
+     * Ensure the user may access data of the given provider.
+     * Administrators may access any provider; providers only their own.
+     *
+     * @param providerId the provider ID
+     * @param user       the authenticated user
+     * @throws ProviderAccessDeniedException if the user does not own the provider
+     */
+    @Transactional(readOnly = true)
+    public void assertCanAccess(final UUID providerId, final User user) {
+        if (user == null) {
+            throw new ProviderAccessDeniedException("Authentication is required to access provider data");
+        }
+        if (user.getRole() == UserRole.ADMIN) {
+            return;
+        }
+        if (user.getRole() != UserRole.PROVIDER || !providerRepository.existsByIdAndUserId(providerId, user.getId())) {
+            log.warn("User {} denied access to provider {}", user.getId(), providerId);
+            throw new ProviderAccessDeniedException("You do not have access to this provider");
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.domain.model.Booking;
+import fi.unfinitas.bookora.domain.model.GroupSlot;
+import fi.unfinitas.bookora.domain.model.ServiceOffering;
+import fi.unfinitas.bookora.exception.GroupSessionFullException;
+import fi.unfinitas.bookora.exception.InvalidBookingTimeException;
+import fi.unfinitas.bookora.repository.GroupSlotRepository;
+import fi.unfinitas.bookora.repository.GroupSlotShardRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Seat inventory of group sessions (services with a capacity above one).
+ * <p>
+ * Each slot's seats are counted in {@code capacity_shards} rows of {@code t_group_slot_shard}. A booker locks a
+ * shard with seats left, skipping shards other bookers hold, and decrements it with a conditional UPDATE that
+ * never goes below zero. The row lock is held until the booking commits, so with one shard every booker of a
+ * slot queues behind the previous one; with N shards up to N bookings of the slot proceed in parallel.
+ * Only when every shard with seats left is locked does a booker wait for one.
+ */
+@Service
+@Slf4j
+public class SlotInventoryService {
+
+    private final GroupSlotRepository groupSlotRepository;
+    private final GroupSlotShardRepository groupSlotShardRepository;
+
+    /**
+     * A seat taken in a group slot.
+     *
+     * @param slotId the slot
+     * @param shard  the shard it was taken from
+     */
+    public record Seat(long slotId, int shard) {}
+
+    public SlotInventoryService(final GroupSlotRepository groupSlotRepository,
+                                final GroupSlotShardRepository groupSlotShardRepository) {
+        this.groupSlotRepository = groupSlotRepository;
+        this.groupSlotShardRepository = groupSlotShardRepository;
+    }
+
+    /**
+     * Find the slot of a group session, creating it with its seat counters on the first booking.
+     *
+     * @param serviceOffering the group session service
+     * @param startTime       start of the booking
+     * @param endTime         end of the booking
+     * @return the slot
+     * @throws InvalidBookingTimeException if the booking does not last exactly the service's duration
+     */
+    public GroupSlot findOrCreateSlot(final ServiceOffering serviceOffering, final LocalDateTime startTime,
+                                      final LocalDateTime endTime) {
+        if (!endTime.equals(startTime.plusMinutes(serviceOffering.getDurationMinutes()))) {
+            throw new InvalidBookingTimeException(String.format(
+                    "A group session lasts exactly %d minutes", serviceOffering.getDurationMinutes()));
+        }
+        return groupSlotRepository.findByServiceIdAndStartTime(serviceOffering.getId(), startTime)
+                .orElseGet(() -> createSlot(serviceOffering, startTime, endTime));
+    }
+
+    /**
+     * Find the slots of a group session on a day that still have seats left.
+     *
+     * @param serviceId the group session service
+     * @param day       the day
+     * @return the slots, by start time
+     */
+    public List<GroupSlot> findSlotsWithSeatsLeft(final Long serviceId, final LocalDate day) {
+        return groupSlotRepository.findWithSeatsLeft(serviceId, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Take a seat in the slot. The shard stays locked until the calling transaction ends.
+     *
+     * @param slot the slot
+     * @return the seat
+     * @throws GroupSessionFullException if no seat is left
+     */
+    public Seat takeSeat(final GroupSlot slot) {
+        final int shards = slot.getShards();
+        final int offset = ThreadLocalRandom.current().nextInt(shards);
+        final Optional<Integer> unlocked = groupSlotShardRepository.lockAvailableShard(slot.getId(), offset, shards);
+        if (unlocked.isPresent() && groupSlotShardRepository.takeSeat(slot.getId(), unlocked.get()) == 1) {
+            return new Seat(slot.getId(), unlocked.get());
+        }
+
+        // Every shard with seats left is held by another booker, or none has any: wait for each in turn
+        for (final int shard : groupSlotShardRepository.findAvailableShards(slot.getId())) {
+            if (groupSlotShardRepository.takeSeat(slot.getId(), shard) == 1) {
+                return new Seat(slot.getId(), shard);
+            }
+        }
+        log.debug("Group slot {} is fully booked", slot.getId());
+        throw new GroupSessionFullException("This group session is fully booked. Please choose another time.");
+    }
+
+    /**
+     * Return the seat of a cancelled booking; does nothing for one-to-one bookings.
+     *
+     * @param booking the booking
+     */
+    public void releaseSeat(final Booking booking) {
+        if (booking.getGroupSlotId() != null) {
+            groupSlotShardRepository.releaseSeat(booking.getGroupSlotId(), booking.getGroupSlotShard());
+        }
+    }
+
+    private GroupSlot createSlot(final ServiceOffering serviceOffering, final LocalDateTime startTime,
+                                 final LocalDateTime endTime) {
+        // Created in the booking's transaction: a separate one would take a second pooled connection per booker.
+        // Concurrent first bookers wait on the unique constraint until the first booking ends, then find the slot
+        groupSlotRepository.createIfAbsent(serviceOffering.getId(), startTime, endTime,
+                serviceOffering.getCapacity(), serviceOffering.getCapacityShards());
+        return groupSlotRepository.findByServiceIdAndStartTime(serviceOffering.getId(), startTime)
+                .orElseThrow(() -> new IllegalStateException("Group slot was not created"));
+    }
+}
@@ -0,0 +1,229 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.domain.model.RefreshToken;
+import fi.unfinitas.bookora.domain.model.RevokedToken;
+import fi.unfinitas.bookora.exception.InvalidCredentialsException;
+import fi.unfinitas.bookora.repository.RefreshTokenRepository;
+import fi.unfinitas.bookora.repository.RevokedTokenRepository;
+import fi.unfinitas.bookora.security.JwtDenylist;
+import fi.unfinitas.bookora.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service for refresh token rotation and JWT revocation.
+ * <p>
+ * Every issued refresh token is stored by its {@code jti} and can be used once: a refresh marks it used and
+ * issues a new one in the same login session. Presenting a used token again means it was stolen, so the whole
+ * session is revoked. Logout revokes the access token and its session.
+ * <p>
+ * Revocations are written to {@code t_revoked_token} and added to the local {@link JwtDenylist} at once.
+ * Each node loads the unexpired revocations at startup and then polls for new rows every
+ * {@code bookora.token-revocation.poll-interval-millis}, so a revocation reaches every node within one poll.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService implements SmartInitializingSingleton {
+
+    static final String REUSE_COUNTER = "bookora.auth.refresh.reuse";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final JwtUtil jwtUtil;
+    private final JwtDenylist denylist;
+    private final BookoraProperties.TokenRevocation properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter reuseDetected;
+
+    /**
+     * Newest {@code created_at} seen, in database time; null until a revocation has been read.
+     */
+    private volatile LocalDateTime cursor;
+
+    public TokenRevocationService(final RefreshTokenRepository refreshTokenRepository,
+                                  final RevokedTokenRepository revokedTokenRepository,
+                                  final JwtUtil jwtUtil,
+                                  final JwtDenylist denylist,
+                                  final BookoraProperties bookoraProperties,
+                                  final PlatformTransactionManager transactionManager,
+                                  final MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.jwtUtil = jwtUtil;
+        this.denylist = denylist;
+        this.properties = bookoraProperties.getTokenRevocation();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reuseDetected = Counter.builder(REUSE_COUNTER)
+                .description("Refresh tokens presented again after rotation; each revokes its session")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Load the unexpired revocations before the application accepts requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        pollRevocations();
+        log.info("Loaded {} token revocation(s)", denylist.size());
+    }
+
+    /**
+     * Issue and store a refresh token for a login session.
+     *
+     * @param userDetails the user
+     * @param userId      the user's id
+     * @param sessionId   the login session
+     * @return the refresh token
+     */
+    public String issueRefreshToken(final UserDetails userDetails, final UUID userId, final UUID sessionId) {
+        final UUID tokenId = UUID.randomUUID();
+        final String token = jwtUtil.generateRefreshToken(userDetails, sessionId, tokenId);
+        refreshTokenRepository.save(RefreshToken.builder()
+                .jti(tokenId)
+                .sessionId(sessionId)
+                .userId(userId)
+                .expiresAt(LocalDateTime.now().plus(Duration.ofMillis(jwtUtil.getRefreshTokenExpiration())))
+                .build());
+        return token;
+    }
+
+    /**
+     * Use up a refresh token. A token that was already used revokes its whole session.
+     *
+     * @param refreshToken a refresh token with a valid signature
+     * @return the login session to issue the new tokens in
+     * @throws InvalidCredentialsException if the token is not a usable refresh token
+     */
+    public UUID rotate(final String refreshToken) {
+        final Claims claims = parse(refreshToken, "Invalid refresh token");
+        final UUID tokenId = JwtUtil.tokenId(claims);
+        final UUID sessionId = JwtUtil.sessionId(claims);
+        if (!JwtUtil.isRefreshToken(claims) || tokenId == null || sessionId == null) {
+            throw new InvalidCredentialsException("Invalid refresh token");
+        }
+
+        final Boolean rotated = transactionTemplate.execute(status -> {
+            if (refreshTokenRepository.markUsed(tokenId, LocalDateTime.now()) == 1) {
+                return true;
+            }
+            final Optional<RefreshToken> stored = refreshTokenRepository.findByJti(tokenId);
+            if (stored.isPresent() && stored.get().getUsedAt() != null && stored.get().getRevokedAt() == null) {
+                log.warn("Refresh token reuse detected, revoking session {}", sessionId);
+                reuseDetected.increment();
+                revokeSession(sessionId);
+            }
+            return false;
+        });
+        if (!Boolean.TRUE.equals(rotated)) {
+            throw new InvalidCredentialsException("Invalid refresh token");
+        }
+        return sessionId;
+    }
+
+    /**
+     * Revoke an access token and the login session it belongs to.
+     *
+     * @param accessToken the access token
+     * @throws InvalidCredentialsException if the token is not a valid access token
+     */
+    public void logout(final String accessToken) {
+        final Claims claims = parse(accessToken, "Invalid access token");
+        if (JwtUtil.isRefreshToken(claims)) {
+            throw new InvalidCredentialsException("Invalid access token");
+        }
+        final UUID tokenId = JwtUtil.tokenId(claims);
+        final UUID sessionId = JwtUtil.sessionId(claims);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (tokenId != null) {
+                revoke(tokenId, toLocalDateTime(claims.getExpiration()));
+            }
+            if (sessionId != null) {
+                revokeSession(sessionId);
+            }
+        });
+    }
+
+    /**
+     * Read revocations made since the last poll, including those of other nodes.
+     */
+    @Scheduled(fixedDelayString = "${bookora.token-revocation.poll-interval-millis:5000}",
+            initialDelayString = "${bookora.token-revocation.poll-interval-millis:5000}",
+            timeUnit = TimeUnit.MILLISECONDS)
+    public void pollRevocations() {
+        final LocalDateTime now = LocalDateTime.now();
+        final LocalDateTime since = cursor;
+        // Rows are stamped at transaction start, so one committed late may sort before rows already read
+        final List<RevokedToken> revocations = since == null
+                ? revokedTokenRepository.findByExpiresAtAfter(now)
+                : revokedTokenRepository.findByCreatedAtGreaterThanEqualAndExpiresAtAfter(
+                        since.minusSeconds(properties.getLookbackSeconds()), now);
+
+        LocalDateTime newest = since;
+        for (final RevokedToken revocation : revocations) {
+            denylist.add(revocation.getTokenId(), revocation.getExpiresAt());
+            if (newest == null || revocation.getCreatedAt().isAfter(newest)) {
+                newest = revocation.getCreatedAt();
+            }
+        }
+        cursor = newest;
+    }
+
+    /**
+     * Purge expired revocations and refresh tokens from memory and the tables.
+     */
+    @Scheduled(fixedDelayString = "${bookora.token-revocation.purge-interval-minutes:60}",
+            initialDelayString = "${bookora.token-revocation.purge-interval-minutes:60}",
+            timeUnit = TimeUnit.MINUTES)
+    public void purgeExpired() {
+        final LocalDateTime now = LocalDateTime.now();
+        final int dropped = denylist.purgeExpired(now);
+        transactionTemplate.executeWithoutResult(status -> {
+            final int revocations = revokedTokenRepository.deleteExpired(now);
+            final int refreshTokens = refreshTokenRepository.deleteExpired(now);
+            log.debug("Purged {} expired denylist entries, {} revocations and {} refresh tokens",
+                    dropped, revocations, refreshTokens);
+        });
+    }
+
+    private void revokeSession(final UUID sessionId) {
+        refreshTokenRepository.revokeSession(sessionId, LocalDateTime.now());
+        // Covers the session's access tokens as well, which never outlive its newest refresh token
+        revoke(sessionId, LocalDateTime.now().plus(Duration.ofMillis(jwtUtil.getRefreshTokenExpiration())));
+    }
+
+    private void revoke(final UUID tokenId, final LocalDateTime expiresAt) {
+        revokedTokenRepository.insertIfAbsent(tokenId, expiresAt);
+        denylist.add(tokenId, expiresAt);
+    }
+
+    private Claims parse(final String token, final String message) {
+        try {
+            return jwtUtil.parseClaims(token);
+        } catch (final JwtException | IllegalArgumentException e) {
+            throw new InvalidCredentialsException(message);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(final Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+}
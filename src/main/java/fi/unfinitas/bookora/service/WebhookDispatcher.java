@@ -0,0 +1,322 @@
+package fi.unfinitas.bookora.service;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.domain.enums.WebhookDeliveryStatus;
+import fi.unfinitas.bookora.domain.model.WebhookDelivery;
+import fi.unfinitas.bookora.exception.WebhookDeliveryException;
+import fi.unfinitas.bookora.repository.WebhookDeliveryRepository;
+import fi.unfinitas.bookora.repository.projection.DueWebhookDelivery;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Background dispatcher for the webhook delivery outbox.
+ * Each poll claims due deliveries with {@code FOR UPDATE SKIP LOCKED}, groups them per endpoint
+ * into batched, signed requests and sends those on a bounded worker pool. Failed deliveries are
+ * retried with exponential backoff; each endpoint has its own circuit breaker so a dead partner
+ * endpoint is not hammered and cannot tie up the workers.
+ * <p>
+ * Polls run on a dedicated thread rather than the shared scheduler thread, so slow partners never hold up
+ * other scheduled jobs. A batch is only sent if the request can time out before the claim's lease runs out;
+ * otherwise it is left for the next claim after the lease, so no other node can send it at the same time.
+ */
+@Service
+@Slf4j
+public class WebhookDispatcher {
+
+    static final String CIRCUIT_BREAKER_CONFIG = "webhook";
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final WebhookDeliveryRepository webhookDeliveryRepository;
+    private final WebhookSender webhookSender;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final CircuitBreakerConfig circuitBreakerConfig;
+    private final ObjectMapper objectMapper;
+    private final BookoraProperties.Webhook properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final ExecutorService poller;
+    private final AtomicBoolean polling = new AtomicBoolean();
+    private final long sendTimeoutNanos;
+
+    private final Timer deliveryLag;
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter failed;
+    private final Counter dropped;
+    private final Counter shortCircuited;
+    private final Counter leaseExpired;
+
+    public WebhookDispatcher(final WebhookDeliveryRepository webhookDeliveryRepository,
+                             final WebhookSender webhookSender,
+                             final CircuitBreakerRegistry circuitBreakerRegistry,
+                             final ObjectMapper objectMapper,
+                             final BookoraProperties bookoraProperties,
+                             final PlatformTransactionManager transactionManager,
+                             final MeterRegistry meterRegistry) {
+        this.webhookDeliveryRepository = webhookDeliveryRepository;
+        this.webhookSender = webhookSender;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.circuitBreakerConfig = circuitBreakerRegistry.getConfiguration(CIRCUIT_BREAKER_CONFIG)
+                .orElseGet(circuitBreakerRegistry::getDefaultConfig);
+        this.objectMapper = objectMapper;
+        this.properties = bookoraProperties.getWebhook();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = Executors.newFixedThreadPool(properties.getWorkers(),
+                Thread.ofPlatform().name("webhook-", 0).daemon().factory());
+        this.poller = Executors.newSingleThreadExecutor(
+                Thread.ofPlatform().name("webhook-dispatcher").daemon().factory());
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(
+                (long) properties.getConnectTimeoutMillis() + properties.getRequestTimeoutMillis());
+
+        this.deliveryLag = Timer.builder("bookora.webhook.delivery.lag")
+                .description("Time from queueing a webhook event to its successful delivery")
+                .register(meterRegistry);
+        this.delivered = outcomeCounter(meterRegistry, "delivered");
+        this.retried = outcomeCounter(meterRegistry, "retried");
+        this.failed = outcomeCounter(meterRegistry, "failed");
+        this.dropped = outcomeCounter(meterRegistry, "dropped");
+        this.shortCircuited = outcomeCounter(meterRegistry, "short_circuited");
+        this.leaseExpired = outcomeCounter(meterRegistry, "lease_expired");
+        if (TimeUnit.SECONDS.toNanos(properties.getLeaseSeconds()) <= sendTimeoutNanos) {
+            log.warn("Webhook lease of {}s is shorter than one request timeout; no delivery will be sent",
+                    properties.getLeaseSeconds());
+        }
+    }
+
+    /**
+     * Hand a poll to the dispatcher thread and return at once. Skipped while the previous poll is still
+     * sending, so polls never overlap on the same instance.
+     */
+    @Scheduled(fixedDelayString = "${bookora.webhook.poll-interval-millis:1000}")
+    public void poll() {
+        if (!polling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            poller.execute(() -> {
+                try {
+                    dispatch();
+                } catch (final RuntimeException e) {
+                    log.error("Webhook dispatch failed", e);
+                } finally {
+                    polling.set(false);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            polling.set(false);
+        }
+    }
+
+    /**
+     * Claim due deliveries and send them. Blocks until every batch of the poll has finished or been left
+     * for a later claim, which is at most about one lease.
+     */
+    void dispatch() {
+        final long leaseDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(properties.getLeaseSeconds());
+        final List<DueWebhookDelivery> claimed = claim();
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        final Map<Long, List<DueWebhookDelivery>> byEndpoint = new LinkedHashMap<>();
+        claimed.forEach(delivery ->
+                byEndpoint.computeIfAbsent(delivery.getEndpointId(), id -> new ArrayList<>()).add(delivery));
+
+        final List<Callable<Void>> batches = new ArrayList<>();
+        byEndpoint.values().forEach(deliveries -> {
+            if (!deliveries.getFirst().getEndpointActive()) {
+                drop(deliveries);
+                return;
+            }
+            for (int from = 0; from < deliveries.size(); from += properties.getBatchSize()) {
+                final List<DueWebhookDelivery> batch =
+                        deliveries.subList(from, Math.min(from + properties.getBatchSize(), deliveries.size()));
+                batches.add(() -> {
+                    deliver(batch, leaseDeadline);
+                    return null;
+                });
+            }
+        });
+
+        try {
+            workers.invokeAll(batches);
+        } catch (final InterruptedException e) {
+            // Unfinished deliveries become due again when their lease runs out
+            Thread.currentThread().interrupt();
+        }
+        log.debug("Dispatched {} webhook deliveries in {} batches", claimed.size(), batches.size());
+    }
+
+    /**
+     * Delete delivered rows older than the retention period.
+     */
+    @Scheduled(fixedDelay = 1, initialDelay = 1, timeUnit = TimeUnit.HOURS)
+    public void purgeDelivered() {
+        final LocalDateTime before = LocalDateTime.now().minusDays(properties.getRetentionDays());
+        final Integer deleted = transactionTemplate.execute(
+                status -> webhookDeliveryRepository.deleteDeliveredBefore(before));
+        log.debug("Purged {} delivered webhook deliveries", deleted);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        poller.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private List<DueWebhookDelivery> claim() {
+        final LocalDateTime now = LocalDateTime.now();
+        final List<DueWebhookDelivery> claimed = transactionTemplate.execute(status -> {
+            final List<DueWebhookDelivery> due = webhookDeliveryRepository.lockDue(now, properties.getClaimSize());
+            if (!due.isEmpty()) {
+                webhookDeliveryRepository.lease(
+                        due.stream().map(DueWebhookDelivery::getId).toList(),
+                        now.plusSeconds(properties.getLeaseSeconds()));
+            }
+            return due;
+        });
+        return claimed != null ? claimed : List.of();
+    }
+
+    private void deliver(final List<DueWebhookDelivery> batch, final long leaseDeadline) {
+        final DueWebhookDelivery first = batch.getFirst();
+        if (System.nanoTime() + sendTimeoutNanos > leaseDeadline) {
+            // The lease could run out mid-request; the rows become due again once it has
+            log.debug("Lease too short to send {} deliveries to endpoint {}, leaving them for the next claim",
+                    batch.size(), first.getEndpointId());
+            leaseExpired.increment(batch.size());
+            return;
+        }
+        final CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(
+                "webhook-" + first.getEndpointId(), circuitBreakerConfig);
+
+        if (!circuitBreaker.tryAcquirePermission()) {
+            log.debug("Circuit open for webhook endpoint {}, postponing {} deliveries",
+                    first.getEndpointId(), batch.size());
+            final LocalDateTime retryAt = LocalDateTime.now().plusSeconds(properties.getInitialBackoffSeconds());
+            update(batch, delivery -> delivery.setNextAttemptAt(retryAt));
+            shortCircuited.increment(batch.size());
+            return;
+        }
+
+        final long start = System.nanoTime();
+        try {
+            webhookSender.send(first.getUrl(), first.getSecret(), body(batch));
+            circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            markDelivered(batch);
+        } catch (final WebhookDeliveryException e) {
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            log.warn("Webhook delivery to endpoint {} failed: {}", first.getEndpointId(), e.getMessage());
+            markAttemptFailed(batch, e.getMessage());
+        }
+    }
+
+    private void markDelivered(final List<DueWebhookDelivery> batch) {
+        final LocalDateTime now = LocalDateTime.now();
+        update(batch, delivery -> {
+            delivery.setStatus(WebhookDeliveryStatus.DELIVERED);
+            delivery.setAttempts(delivery.getAttempts() + 1);
+            delivery.setDeliveredAt(now);
+            delivery.setLastError(null);
+        });
+        batch.forEach(delivery -> deliveryLag.record(Duration.between(delivery.getCreatedAt(), now)));
+        delivered.increment(batch.size());
+    }
+
+    private void markAttemptFailed(final List<DueWebhookDelivery> batch, final String error) {
+        final LocalDateTime now = LocalDateTime.now();
+        update(batch, delivery -> {
+            final int attempts = delivery.getAttempts() + 1;
+            delivery.setAttempts(attempts);
+            delivery.setLastError(StringUtils.abbreviate(error, MAX_ERROR_LENGTH));
+            if (attempts >= properties.getMaxAttempts()) {
+                delivery.setStatus(WebhookDeliveryStatus.FAILED);
+                failed.increment();
+            } else {
+                delivery.setNextAttemptAt(now.plus(
+                        backoff(attempts, properties.getInitialBackoffSeconds(), properties.getMaxBackoffSeconds())));
+                retried.increment();
+            }
+        });
+    }
+
+    private void drop(final List<DueWebhookDelivery> deliveries) {
+        update(deliveries, delivery -> {
+            delivery.setStatus(WebhookDeliveryStatus.FAILED);
+            delivery.setLastError("Webhook endpoint was disabled or deleted");
+        });
+        dropped.increment(deliveries.size());
+    }
+
+    private void update(final List<DueWebhookDelivery> deliveries, final Consumer<WebhookDelivery> change) {
+        final List<Long> ids = deliveries.stream().map(DueWebhookDelivery::getId).toList();
+        transactionTemplate.executeWithoutResult(status ->
+                webhookDeliveryRepository.findAllById(ids).forEach(change));
+    }
+
+    private String body(final List<DueWebhookDelivery> batch) {
+        final List<Event> events = batch.stream()
+                .map(delivery -> new Event(
+                        delivery.getId(), delivery.getEventType(), delivery.getCreatedAt(), delivery.getPayload()))
+                .toList();
+        try {
+            return objectMapper.writeValueAsString(Map.of("deliveries", events));
+        } catch (final JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize webhook batch", e);
+        }
+    }
+
+    /**
+     * Delay before the next attempt: the initial delay doubled for every failed attempt, capped.
+     *
+     * @param attempts       number of attempts made so far (at least 1)
+     * @param initialSeconds delay after the first failed attempt
+     * @param maxSeconds     upper bound for the delay
+     * @return the delay
+     */
+    static Duration backoff(final int attempts, final int initialSeconds, final int maxSeconds) {
+        final long seconds = (long) initialSeconds << Math.min(attempts - 1, 30);
+        return Duration.ofSeconds(Math.min(seconds, maxSeconds));
+    }
+
+    private static Counter outcomeCounter(final MeterRegistry meterRegistry, final String outcome) {
+        return Counter.builder("bookora.webhook.deliveries")
+                .description("Webhook deliveries by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * One event in a webhook request body. {@code id} is stable across retries so receivers can deduplicate.
+     */
+    private record Event(Long id, String type, LocalDateTime createdAt, @JsonRawValue String data) {}
+}
@@ -0,0 +1,32 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.domain.event.BookingChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Event listener for BookingChangedEvent.
+ * Writes webhook deliveries to the outbox as part of the booking transaction.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WebhookEventHandler {
+
+    private final WebhookService webhookService;
+
+    /**
+     * Handle BookingChangedEvent BEFORE the transaction commits, so the outbox rows commit or
+     * roll back together with the booking. Only inserts rows; sending happens in WebhookDispatcher.
+     *
+     * @param event the booking change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void handleBookingChanged(final BookingChangedEvent event) {
+        log.debug("Queueing webhooks for {} event of booking ID: {}", event.type(), event.bookingId());
+        webhookService.enqueue(event);
+    }
+}
@@ -0,0 +1,175 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.exception.InvalidWebhookUrlException;
+import fi.unfinitas.bookora.exception.WebhookDeliveryException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Sends signed webhook requests to partner endpoints.
+ * Each request carries {@value #SIGNATURE_HEADER}: {@code t=<epoch seconds>,v1=<hex HMAC-SHA256>}
+ * computed over {@code <t>.<body>} with the endpoint secret, so receivers can verify origin
+ * and reject replays.
+ * <p>
+ * Requests are plain HTTP/1.1 over a socket to the address {@link WebhookUrlValidator#resolve} checked, so the
+ * host is looked up once per send and a DNS answer that changes after the check is never used. The URL's host
+ * still goes into the Host header, the TLS server name and the certificate hostname check.
+ */
+@Component
+@Slf4j
+public class WebhookSender {
+
+    static final String SIGNATURE_HEADER = "X-Bookora-Signature";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final int connectTimeoutMillis;
+    private final int requestTimeoutMillis;
+    private final WebhookUrlValidator webhookUrlValidator;
+
+    public WebhookSender(final BookoraProperties bookoraProperties, final WebhookUrlValidator webhookUrlValidator) {
+        final BookoraProperties.Webhook properties = bookoraProperties.getWebhook();
+        this.connectTimeoutMillis = properties.getConnectTimeoutMillis();
+        this.requestTimeoutMillis = properties.getRequestTimeoutMillis();
+        this.webhookUrlValidator = webhookUrlValidator;
+    }
+
+    /**
+     * POST a JSON body to an endpoint.
+     *
+     * @param url    the endpoint URL
+     * @param secret the endpoint secret
+     * @param body   the JSON body
+     * @throws WebhookDeliveryException if the URL is refused, the request fails or the endpoint does not answer with 2xx
+     */
+    public void send(final String url, final String secret, final String body) {
+        final InetAddress address;
+        try {
+            address = webhookUrlValidator.resolve(url);
+        } catch (final InvalidWebhookUrlException e) {
+            throw new WebhookDeliveryException("Refused: " + e.getMessage(), e);
+        }
+
+        final URI uri = URI.create(url);
+        final boolean https = uri.getScheme().equalsIgnoreCase("https");
+        final int port = uri.getPort() != -1 ? uri.getPort() : https ? 443 : 80;
+        final long timestamp = Instant.now().getEpochSecond();
+        final byte[] payload = body.getBytes(StandardCharsets.UTF_8);
+        final String path = (uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath())
+                + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+        final String head = "POST " + path + " HTTP/1.1\r\n"
+                + "Host: " + uri.getRawAuthority() + "\r\n"
+                + "Content-Type: application/json\r\n"
+                + "User-Agent: Bookora-Webhooks\r\n"
+                + SIGNATURE_HEADER + ": t=" + timestamp + ",v1=" + sign(secret, timestamp, body) + "\r\n"
+                + "Content-Length: " + payload.length + "\r\n"
+                + "Connection: close\r\n\r\n";
+
+        final int statusCode;
+        try (Socket socket = connect(address, port, https ? hostName(uri) : null)) {
+            final OutputStream out = socket.getOutputStream();
+            out.write(head.getBytes(StandardCharsets.US_ASCII));
+            out.write(payload);
+            out.flush();
+            statusCode = readStatusCode(socket.getInputStream());
+        } catch (final IOException e) {
+            throw new WebhookDeliveryException("Request failed: " + e.getMessage(), e);
+        }
+
+        if (statusCode / 100 != 2) {
+            throw new WebhookDeliveryException("Endpoint responded with HTTP " + statusCode);
+        }
+        log.debug("Webhook delivered to {} ({} bytes)", url, body.length());
+    }
+
+    /**
+     * Open a connection to the checked address; with a TLS server name, wrap it in TLS verified against that name.
+     */
+    private Socket connect(final InetAddress address, final int port, final String tlsServerName) throws IOException {
+        final Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(address, port), connectTimeoutMillis);
+            socket.setSoTimeout(requestTimeoutMillis);
+            if (tlsServerName == null) {
+                return socket;
+            }
+            final SSLSocket tls = (SSLSocket) ((SSLSocketFactory) SSLSocketFactory.getDefault())
+                    .createSocket(socket, tlsServerName, port, true);
+            final SSLParameters parameters = tls.getSSLParameters();
+            parameters.setEndpointIdentificationAlgorithm("HTTPS");
+            tls.setSSLParameters(parameters);
+            tls.startHandshake();
+            return tls;
+        } catch (final IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the host of the URL without the brackets of an IPv6 literal
+     */
+    private static String hostName(final URI uri) {
+        final String host = uri.getHost();
+        return host.startsWith("[") ? host.substring(1, host.length() - 1) : host;
+    }
+
+    /**
+     * Read the status code from the status line of an HTTP/1.x response; the rest is not needed.
+     */
+    private static int readStatusCode(final InputStream in) throws IOException {
+        final StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1 && c != '\n') {
+            if (line.length() > 1024) {
+                throw new IOException("Status line too long");
+            }
+            line.append((char) c);
+        }
+        final String[] parts = line.toString().trim().split(" ", 3);
+        if (parts.length < 2 || !parts[0].startsWith("HTTP/1.")) {
+            throw new IOException("Malformed response status line");
+        }
+        try {
+            return Integer.parseInt(parts[1]);
+        } catch (final NumberFormatException e) {
+            throw new IOException("Malformed response status code", e);
+        }
+    }
+
+    /**
+     * Compute the hex HMAC-SHA256 of {@code <timestamp>.<body>}.
+     *
+     * @param secret    the endpoint secret
+     * @param timestamp the epoch seconds sent in the signature header
+     * @param body      the request body
+     * @return the hex signature
+     */
+    static String sign(final String secret, final long timestamp, final String body) {
+        try {
+            final Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            mac.update((timestamp + ".").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to sign webhook payload", e);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package fi.unfinitas.bookora.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fi.unfinitas.bookora.domain.event.BookingChangedEvent;
+import fi.unfinitas.bookora.domain.model.WebhookDelivery;
+import fi.unfinitas.bookora.domain.model.WebhookEndpoint;
+import fi.unfinitas.bookora.dto.response.WebhookEndpointResponse;
+import fi.unfinitas.bookora.exception.InvalidWebhookUrlException;
+import fi.unfinitas.bookora.exception.WebhookEndpointNotFoundException;
+import fi.unfinitas.bookora.repository.ProviderRepository;
+import fi.unfinitas.bookora.repository.WebhookDeliveryRepository;
+import fi.unfinitas.bookora.repository.WebhookEndpointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Service for webhook endpoints and the delivery outbox.
+ * Booking events are written to the outbox inside the booking transaction, so a committed
+ * booking always produces its webhooks and a rolled back one never does. Sending happens
+ * later in {@link WebhookDispatcher}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WebhookService {
+
+    private static final int SECRET_BYTES = 32;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    private final WebhookEndpointRepository webhookEndpointRepository;
+    private final WebhookDeliveryRepository webhookDeliveryRepository;
+    private final ProviderRepository providerRepository;
+    private final WebhookUrlValidator webhookUrlValidator;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Register a webhook endpoint for a provider with a newly generated signing secret.
+     *
+     * @param providerId the provider ID
+     * @param url        the endpoint URL
+     * @return the endpoint including its secret
+     * @throws InvalidWebhookUrlException if the URL is not https or points at a local or private address
+     */
+    @Transactional
+    public WebhookEndpointResponse createEndpoint(final UUID providerId, final String url) {
+        webhookUrlValidator.validate(url);
+
+        final byte[] secret = new byte[SECRET_BYTES];
+        SECURE_RANDOM.nextBytes(secret);
+
+        final WebhookEndpoint endpoint = webhookEndpointRepository.save(WebhookEndpoint.builder()
+                .provider(providerRepository.getReferenceById(providerId))
+                .url(url)
+                .secret(HexFormat.of().formatHex(secret))
+                .build());
+
+        log.info("Registered webhook endpoint {} for provider {}", endpoint.getId(), providerId);
+        return new WebhookEndpointResponse(
+                endpoint.getId(), endpoint.getUrl(), endpoint.getActive(), endpoint.getSecret(), endpoint.getCreatedAt());
+    }
+
+    /**
+     * List the webhook endpoints of a provider. Secrets are not included.
+     *
+     * @param providerId the provider ID
+     * @return the endpoints
+     */
+    @Transactional(readOnly = true)
+    public List<WebhookEndpointResponse> getEndpoints(final UUID providerId) {
+        return webhookEndpointRepository.findByProviderIdOrderByIdAsc(providerId).stream()
+                .map(endpoint -> new WebhookEndpointResponse(
+                        endpoint.getId(), endpoint.getUrl(), endpoint.getActive(), null, endpoint.getCreatedAt()))
+                .toList();
+    }
+
+    /**
+     * Delete a webhook endpoint of a provider. Pending deliveries to it are dropped by the dispatcher.
+     *
+     * @param providerId the provider ID
+     * @param endpointId the endpoint ID
+     * @throws WebhookEndpointNotFoundException if the provider has no such endpoint
+     */
+    @Transactional
+    public void deleteEndpoint(final UUID providerId, final Long endpointId) {
+        final WebhookEndpoint endpoint = webhookEndpointRepository.findByIdAndProviderId(endpointId, providerId)
+                .orElseThrow(() -> new WebhookEndpointNotFoundException(
+                        "Webhook endpoint not found with ID: " + endpointId));
+        webhookEndpointRepository.delete(endpoint);
+        log.info("Deleted webhook endpoint {} of provider {}", endpointId, providerId);
+    }
+
+    /**
+     * Write one outbox row per active endpoint of the booking's provider.
+     * Must run inside the transaction that changed the booking.
+     *
+     * @param event the booking change
+     */
+    @Transactional
+    public void enqueue(final BookingChangedEvent event) {
+        final List<WebhookEndpoint> endpoints =
+                webhookEndpointRepository.findByProviderIdAndActiveTrue(event.providerId());
+        if (endpoints.isEmpty()) {
+            return;
+        }
+
+        final String eventType = "booking." + event.type().name().toLowerCase(Locale.ROOT);
+        final String payload = serialize(event);
+        final LocalDateTime now = LocalDateTime.now();
+        webhookDeliveryRepository.saveAll(endpoints.stream()
+                .map(endpoint -> WebhookDelivery.builder()
+                        .endpoint(endpoint)
+                        .eventType(eventType)
+                        .payload(payload)
+                        .nextAttemptAt(now)
+                        .build())
+                .toList());
+
+        log.debug("Queued {} for booking ID: {} to {} webhook endpoints",
+                eventType, event.bookingId(), endpoints.size());
+    }
+
+    private String serialize(final BookingChangedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (final JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize booking event", e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.exception.InvalidWebhookUrlException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.Locale;
+
+/**
+ * Guards webhook endpoints against server-side request forgery. A URL is refused unless it is https (when
+ * {@code bookora.webhook.require-https} is set) and every address its host resolves to is public, so providers
+ * cannot make the server post to itself, the cloud metadata service or the internal network. Checked when an
+ * endpoint is registered and again before every send, as DNS answers may change in between. Senders connect to
+ * the address {@link #resolve} checked rather than looking the host up again, which a rebinding DNS server
+ * could answer differently.
+ */
+@Component
+public class WebhookUrlValidator {
+
+    /**
+     * Host name lookup; {@link InetAddress#getAllByName} outside tests.
+     */
+    @FunctionalInterface
+    interface HostLookup {
+        InetAddress[] lookup(String host) throws UnknownHostException;
+    }
+
+    private final boolean requireHttps;
+    private final HostLookup hostLookup;
+
+    @Autowired
+    public WebhookUrlValidator(final BookoraProperties bookoraProperties) {
+        this(bookoraProperties, InetAddress::getAllByName);
+    }
+
+    WebhookUrlValidator(final BookoraProperties bookoraProperties, final HostLookup hostLookup) {
+        this.requireHttps = bookoraProperties.getWebhook().isRequireHttps();
+        this.hostLookup = hostLookup;
+    }
+
+    /**
+     * @param url the endpoint URL
+     * @throws InvalidWebhookUrlException if the URL may not be called
+     */
+    public void validate(final String url) {
+        resolve(url);
+    }
+
+    /**
+     * Validate the URL and return the address to connect to.
+     *
+     * @param url the endpoint URL
+     * @return the first address the host resolved to, all of which were checked
+     * @throws InvalidWebhookUrlException if the URL may not be called
+     */
+    public InetAddress resolve(final String url) {
+        final URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (final IllegalArgumentException e) {
+            throw new InvalidWebhookUrlException("Webhook URL is malformed");
+        }
+
+        final String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        if (!scheme.equals("https") && (requireHttps || !scheme.equals("http"))) {
+            throw new InvalidWebhookUrlException(requireHttps ? "Webhook URL must use https" : "Webhook URL must use http(s)");
+        }
+        if (uri.getHost() == null || uri.getUserInfo() != null) {
+            throw new InvalidWebhookUrlException("Webhook URL must name a host and no credentials");
+        }
+
+        final InetAddress[] addresses;
+        try {
+            addresses = hostLookup.lookup(uri.getHost());
+        } catch (final UnknownHostException e) {
+            throw new InvalidWebhookUrlException("Webhook host cannot be resolved");
+        }
+        for (final InetAddress address : addresses) {
+            if (!isPublic(address)) {
+                throw new InvalidWebhookUrlException("Webhook URL must not point at a local or private address");
+            }
+        }
+        if (addresses.length == 0) {
+            throw new InvalidWebhookUrlException("Webhook host cannot be resolved");
+        }
+        return addresses[0];
+    }
+
+    static boolean isPublic(final InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        final byte[] bytes = address.getAddress();
+        if (bytes.length == 4) {
+            // 100.64.0.0/10 carrier-grade NAT, 0.0.0.0/8
+            return !((bytes[0] & 0xff) == 100 && (bytes[1] & 0xc0) == 64) && bytes[0] != 0;
+        }
+        // fc00::/7 unique local addresses
+        return (bytes[0] & 0xfe) != 0xfc;
+    }
+}
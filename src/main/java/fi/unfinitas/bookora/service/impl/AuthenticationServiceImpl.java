@@ -15,6 +15,7 @@ import fi.unfinitas.bookora.security.CustomUserDetails;
 import fi.unfinitas.bookora.security.JwtUtil;
 import fi.unfinitas.bookora.service.AuthenticationService;
 import fi.unfinitas.bookora.service.EmailVerificationService;
+import fi.unfinitas.bookora.service.TokenRevocationService;
 import fi.unfinitas.bookora.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -31,10 +32,12 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Default implementation of AuthenticationService.
- * Handles user authentication operations including login, registration, and token refresh.
+ * Handles user authentication operations including login, registration, token refresh and logout.
+ * Each login starts a session whose refresh tokens are rotated on every refresh.
  */
 @Service
 @RequiredArgsConstructor
@@ -49,6 +52,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final EmailVerificationService emailVerificationService;
     private final ApplicationEventPublisher eventPublisher;
     private final BookoraProperties bookoraProperties;
+    private final TokenRevocationService tokenRevocationService;
 
     /**
      * Register a new user
@@ -89,7 +93,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
             log.debug("User authenticated successfully with ID: {}", user.getId());
 
-            return buildLoginResponse(user, userDetails);
+            return buildLoginResponse(user, userDetails, UUID.randomUUID());
 
         } catch (final InternalAuthenticationServiceException e) {
             // Spring Security wraps exceptions from UserDetailsService
@@ -120,17 +124,29 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
             validateRefreshToken(refreshToken, userDetails, username);
 
+            final UUID sessionId = tokenRevocationService.rotate(refreshToken);
             final User user = ((CustomUserDetails) userDetails).getUser();
 
             log.debug("Token refreshed successfully for user ID: {}", user.getId());
 
-            return buildLoginResponse(user, userDetails);
+            return buildLoginResponse(user, userDetails, sessionId);
         } catch (final EmailNotVerifiedException e) {
             log.warn("Email not verified during token refresh");
             throw e;
         }
     }
 
+    /**
+     * Revoke an access token and its session.
+     *
+     * @param accessToken the access token
+     */
+    @Override
+    public void logout(final String accessToken) {
+        tokenRevocationService.logout(accessToken);
+        log.debug("Session logged out");
+    }
+
     private UserDetails authenticateUser(final LoginRequest request) {
         final Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
@@ -148,9 +164,9 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         }
     }
 
-    private LoginResponse buildLoginResponse(final User user, final UserDetails userDetails) {
-        final String accessToken = jwtUtil.generateAccessToken(userDetails);
-        final String refreshToken = jwtUtil.generateRefreshToken(userDetails);
+    private LoginResponse buildLoginResponse(final User user, final UserDetails userDetails, final UUID sessionId) {
+        final String accessToken = jwtUtil.generateAccessToken(userDetails, sessionId);
+        final String refreshToken = tokenRevocationService.issueRefreshToken(userDetails, user.getId(), sessionId);
         final Long expiresIn = jwtUtil.getAccessTokenExpiration();
 
         return new LoginResponse(
@@ -2,8 +2,10 @@ package fi.unfinitas.bookora.service.impl;
 
 import fi.unfinitas.bookora.config.BookoraProperties;
 import fi.unfinitas.bookora.domain.enums.BookingStatus;
+import fi.unfinitas.bookora.domain.event.BookingChangedEvent;
 import fi.unfinitas.bookora.domain.event.SendMailEvent;
 import fi.unfinitas.bookora.domain.model.Booking;
+import fi.unfinitas.bookora.domain.model.GroupSlot;
 import fi.unfinitas.bookora.domain.model.GuestAccessToken;
 import fi.unfinitas.bookora.domain.model.ServiceOffering;
 import fi.unfinitas.bookora.domain.model.User;
@@ -14,33 +16,62 @@ import fi.unfinitas.bookora.exception.BookingAlreadyCancelledException;
 import fi.unfinitas.bookora.exception.BookingAlreadyConfirmedException;
 import fi.unfinitas.bookora.exception.CannotCancelBookingException;
 import fi.unfinitas.bookora.exception.CustomerBookingConflictException;
+import fi.unfinitas.bookora.exception.DailyBookingCapReachedException;
+import fi.unfinitas.bookora.exception.GroupSessionFullException;
+import fi.unfinitas.bookora.exception.GuestEmailAlreadyRegisteredException;
 import fi.unfinitas.bookora.exception.InvalidBookingTimeException;
 import fi.unfinitas.bookora.mapper.BookingMapper;
 import fi.unfinitas.bookora.repository.BookingRepository;
+import fi.unfinitas.bookora.repository.ProviderRepository;
+import fi.unfinitas.bookora.repository.projection.BookingTimeRange;
+import fi.unfinitas.bookora.repository.projection.GuestBookingVersion;
+import fi.unfinitas.bookora.service.BookingAdmissionMetrics;
+import fi.unfinitas.bookora.service.BookingAdmissionMetrics.Admission;
+import fi.unfinitas.bookora.service.BookingAdmissionMetrics.Outcome;
+import fi.unfinitas.bookora.service.BookingAdmissionMetrics.Phase;
+import fi.unfinitas.bookora.service.BookingPolicyService;
+import fi.unfinitas.bookora.service.BookingRules;
 import fi.unfinitas.bookora.service.BookingService;
 import fi.unfinitas.bookora.service.GuestAccessTokenService;
 import fi.unfinitas.bookora.service.GuestUserService;
 import fi.unfinitas.bookora.service.ServiceOfferingService;
+import fi.unfinitas.bookora.service.SlotInventoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Implementation of BookingService for managing booking operations.
  * Handles guest booking creation, retrieval, and cancellation.
+ * Group session services take a seat from {@link SlotInventoryService} instead of the whole time slot.
+ * Provider and service policies come compiled from {@link BookingPolicyService}.
  */
 @org.springframework.stereotype.Service
 @RequiredArgsConstructor
 @Slf4j
 public class BookingServiceImpl implements BookingService {
 
+    /** Exclusion constraints of t_booking (V17, recreated in V24). */
+    private static final String PROVIDER_OVERLAP_CONSTRAINT = "no_overlapping_bookings";
+    private static final String CUSTOMER_OVERLAP_CONSTRAINT = "no_overlapping_customer_bookings";
+    private static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+    private static final Pattern EXCLUSION_CONSTRAINT_MESSAGE = Pattern.compile("exclusion constraint \"([^\"]+)\"");
+
     private final BookingRepository bookingRepository;
     private final ServiceOfferingService serviceOfferingService;
     private final GuestUserService guestUserService;
@@ -48,52 +79,144 @@ public class BookingServiceImpl implements BookingService {
     private final BookingMapper bookingMapper;
     private final ApplicationEventPublisher eventPublisher;
     private final BookoraProperties bookoraProperties;
+    private final BookingAdmissionMetrics admissionMetrics;
+    private final SlotInventoryService slotInventoryService;
+    private final BookingPolicyService bookingPolicyService;
+    private final ProviderRepository providerRepository;
 
     @Override
     @Transactional
     public GuestBookingResponse createGuestBooking(final CreateGuestBookingRequest request) {
         log.debug("Creating guest booking for service ID: {}", request.getServiceId());
 
-        validateBookingTimes(request.getStartTime(), request.getEndTime());
+        final Admission admission = admissionMetrics.begin();
+        try {
+            final GuestBookingResponse response = admitGuestBooking(request, admission);
+            admission.complete(Outcome.SUCCESS);
+            return response;
+        } catch (final RuntimeException e) {
+            // Specific outcomes are recorded where the failure is detected; this only catches the rest
+            admission.complete(Outcome.ERROR);
+            throw e;
+        }
+    }
+
+    private GuestBookingResponse admitGuestBooking(final CreateGuestBookingRequest request, final Admission admission) {
+        try {
+            admission.time(Phase.VALIDATION, () -> validateBookingTimes(request.getStartTime(), request.getEndTime()));
+        } catch (final InvalidBookingTimeException e) {
+            admission.complete(Outcome.INVALID_TIME);
+            throw e;
+        }
 
-        final ServiceOffering serviceOffering = serviceOfferingService.getServiceOfferingById(request.getServiceId());
+        final ServiceOffering serviceOffering = admission.time(Phase.SERVICE_LOOKUP,
+                () -> serviceOfferingService.getServiceOfferingById(request.getServiceId()));
 
         final UUID providerId = serviceOffering.getProvider().getId();
-        final boolean hasOverlap = bookingRepository.existsOverlappingBooking(
-                providerId,
-                request.getStartTime(),
-                request.getEndTime()
-        );
+        admission.provider(providerId);
+
+        final BookingRules rules = bookingPolicyService.rulesFor(providerId, serviceOffering.getId());
+        final GroupSlot groupSlot;
+        try {
+            admission.time(Phase.POLICY_CHECK, () -> rules.checkStartTime(request.getStartTime(), LocalDateTime.now()));
+            groupSlot = serviceOffering.isGroupSession()
+                    ? admission.time(Phase.GROUP_SLOT_LOOKUP, () -> slotInventoryService.findOrCreateSlot(
+                            serviceOffering, request.getStartTime(), request.getEndTime()))
+                    : null;
+        } catch (final InvalidBookingTimeException e) {
+            admission.complete(Outcome.INVALID_TIME);
+            throw e;
+        }
+
+        // Neither buffers nor daily caps are backed by a constraint, so the checks below only hold if no other
+        // booking of the provider is admitted into the same days meanwhile. Any service's buffer or cap counts:
+        // a booking without a buffer of its own still has to keep clear of its neighbours' buffers
+        final Duration widestBuffer = max(rules.buffer(), bookingPolicyService.widestBuffer(providerId));
+        if (!rules.buffer().isZero() || rules.hasDailyCap() || bookingPolicyService.limitsAdmission(providerId)) {
+            admission.time(Phase.DAY_LOCK, () -> lockDays(providerId,
+                    request.getStartTime().minus(widestBuffer), request.getEndTime().plus(widestBuffer)));
+        }
+
+        // Widened by the booking's buffer, and then by the buffer of each neighbour that has a wider one
+        final boolean hasOverlap = admission.time(Phase.PROVIDER_OVERLAP_CHECK,
+                () -> (groupSlot == null
+                        ? bookingRepository.existsOverlappingBooking(
+                                providerId,
+                                rules.bufferedStart(request.getStartTime()),
+                                rules.bufferedEnd(request.getEndTime()))
+                        : bookingRepository.existsOverlappingBookingOutsideSlot(
+                                providerId,
+                                rules.bufferedStart(request.getStartTime()),
+                                rules.bufferedEnd(request.getEndTime()),
+                                groupSlot.getId()))
+                        || widestBuffer.compareTo(rules.buffer()) > 0 && violatesNeighbourBuffer(providerId,
+                                request.getStartTime(), request.getEndTime(), groupSlot, rules, widestBuffer));
 
         if (hasOverlap) {
             log.warn("Overlapping booking detected for provider {} at time range {} - {}",
                     providerId, request.getStartTime(), request.getEndTime());
+            admission.complete(Outcome.PROVIDER_CONFLICT);
             throw new InvalidBookingTimeException(
                     "The selected time slot is already booked. Please choose another time."
             );
         }
 
-        final User guestUser = guestUserService.findOrCreateGuestUser(
-                request.getEmail(),
-                request.getFirstName(),
-                request.getLastName(),
-                request.getPhoneNumber()
-        );
+        if (rules.hasDailyCap()) {
+            final LocalDate day = request.getStartTime().toLocalDate();
+            final long booked = admission.time(Phase.DAILY_CAP_CHECK,
+                    () -> bookingRepository.countActiveBookingsStartingBetween(
+                            providerId,
+                            day.atStartOfDay(),
+                            day.plusDays(1).atStartOfDay()));
+            if (booked >= rules.dailyCap()) {
+                log.debug("Provider {} has reached its daily cap of {} bookings on {}", providerId, rules.dailyCap(), day);
+                admission.complete(Outcome.DAILY_CAP_REACHED);
+                throw new DailyBookingCapReachedException(
+                        "No more bookings are taken on this day. Please choose another day."
+                );
+            }
+        }
+
+        final User guestUser;
+        try {
+            guestUser = admission.time(Phase.GUEST_RESOLUTION, () -> guestUserService.findOrCreateGuestUser(
+                    request.getEmail(),
+                    request.getFirstName(),
+                    request.getLastName(),
+                    request.getPhoneNumber()
+            ));
+        } catch (final GuestEmailAlreadyRegisteredException e) {
+            admission.complete(Outcome.EMAIL_REGISTERED);
+            throw e;
+        }
 
-        final boolean hasCustomerOverlap = bookingRepository.existsCustomerOverlappingBooking(
-                guestUser.getId(),
-                request.getStartTime(),
-                request.getEndTime()
-        );
+        final boolean hasCustomerOverlap = admission.time(Phase.CUSTOMER_OVERLAP_CHECK,
+                () -> bookingRepository.existsCustomerOverlappingBooking(
+                        guestUser.getId(),
+                        request.getStartTime(),
+                        request.getEndTime()
+                ));
 
         if (hasCustomerOverlap) {
             log.warn("Customer {} already has a booking during {} - {}",
                     guestUser.getEmail(), request.getStartTime(), request.getEndTime());
+            admission.complete(Outcome.CUSTOMER_CONFLICT);
             throw new CustomerBookingConflictException(
                     "You already have a booking during this time. You cannot book multiple appointments at the same time."
             );
         }
 
+        // Taken last, so the seat counter stays locked only for the insert and what follows
+        final SlotInventoryService.Seat seat;
+        try {
+            seat = groupSlot == null ? null
+                    : admission.time(Phase.SEAT_RESERVATION, () -> slotInventoryService.takeSeat(groupSlot));
+        } catch (final GroupSessionFullException e) {
+            log.debug("Group session {} is full at {}", serviceOffering.getId(), request.getStartTime());
+            admission.complete(Outcome.GROUP_SESSION_FULL);
+            throw e;
+        }
+
         final Booking booking = Booking.builder()
                 .customer(guestUser)
                 .provider(serviceOffering.getProvider())
@@ -102,24 +225,32 @@ public class BookingServiceImpl implements BookingService {
                 .endTime(request.getEndTime())
                 .status(BookingStatus.PENDING)
                 .notes(request.getNotes())
+                .groupSlotId(seat == null ? null : seat.slotId())
+                .groupSlotShard(seat == null ? null : seat.shard())
                 .build();
 
         try {
-            final Booking savedBooking = bookingRepository.save(booking);
+            final Booking savedBooking = admission.time(Phase.INSERT, () -> bookingRepository.save(booking));
             log.debug("Booking created successfully with ID: {}", savedBooking.getId());
 
-            final GuestAccessToken token = tokenService.generateToken(savedBooking);
+            final GuestAccessToken token = admission.time(Phase.TOKEN_GENERATION,
+                    () -> tokenService.generateToken(savedBooking));
 
-            final GuestBookingResponse response = bookingMapper.toGuestResponse(savedBooking, token);
+            final GuestBookingResponse response = bookingMapper.toGuestResponse(savedBooking, token,
+                    tokenService.accessToken(token));
             log.debug("Guest booking completed. Booking ID: {}", savedBooking.getId());
 
-            publishSendMailEvent(response, serviceOffering, savedBooking);
+            admission.time(Phase.EVENT_PUBLISH, () -> {
+                eventPublisher.publishEvent(BookingChangedEvent.of(BookingChangedEvent.Type.CREATED, savedBooking));
+                publishSendMailEvent(response, serviceOffering, savedBooking);
+            });
 
             return response;
         } catch (DataIntegrityViolationException e) {
             if (isProviderOverlapConstraint(e)) {
                 log.warn("Race condition: provider booking overlap for provider {} at {} - {}",
                         providerId, request.getStartTime(), request.getEndTime());
+                admission.complete(Outcome.RACE_CONFLICT);
                 throw new InvalidBookingTimeException(
                         "This time slot was just booked by another user. Please select a different time."
                 );
@@ -127,6 +258,7 @@ public class BookingServiceImpl implements BookingService {
             if (isCustomerOverlapConstraint(e)) {
                 log.warn("Race condition: customer booking overlap for customer {} at {} - {}",
                         guestUser.getEmail(), request.getStartTime(), request.getEndTime());
+                admission.complete(Outcome.RACE_CONFLICT);
                 throw new CustomerBookingConflictException(
                         "You already have a booking during this time. You cannot book multiple appointments at the same time."
                 );
@@ -137,19 +269,24 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public BookingResponse getBookingByToken(final UUID token) {
+    public BookingResponse getBookingByToken(final String token) {
         log.debug("Retrieving booking by access token");
 
-        final GuestAccessToken accessToken = tokenService.validateToken(token);
-        final Booking booking = accessToken.getBooking();
+        final Booking booking = tokenService.findViewableBooking(token);
 
         log.debug("Booking retrieved successfully. ID: {} Status: {}", booking.getId(), booking.getStatus());
         return bookingMapper.toResponse(booking);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> getBookingETagByToken(final String token) {
+        return tokenService.findViewableBookingVersion(token).map(BookingServiceImpl::toETag);
+    }
+
     @Override
     @Transactional
-    public BookingResponse confirmBookingByToken(final UUID token) {
+    public BookingResponse confirmBookingByToken(final String token) {
         log.debug("Confirming booking");
 
         final GuestAccessToken accessToken = tokenService.validateTokenForConfirm(token);
@@ -160,6 +297,7 @@ public class BookingServiceImpl implements BookingService {
         booking.setStatus(BookingStatus.CONFIRMED);
 
         accessToken.markAsConfirmed();
+        eventPublisher.publishEvent(BookingChangedEvent.of(BookingChangedEvent.Type.CONFIRMED, booking));
 
         log.debug("Booking confirmed successfully. ID: {}", booking.getId());
         return bookingMapper.toResponse(booking);
@@ -167,7 +305,7 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional
-    public BookingResponse cancelBookingByToken(final UUID token) {
+    public BookingResponse cancelBookingByToken(final String token) {
         log.debug("Cancelling booking");
 
         final GuestAccessToken accessToken = tokenService.validateToken(token);
@@ -175,10 +313,12 @@ public class BookingServiceImpl implements BookingService {
 
         validateStatus(booking);
 
-        // Check if cancellation is within configured hours of booking start time
-        final int cancellationWindowHours = bookoraProperties.getGuest().getBooking().getCancellationWindowHours();
+        // Check if cancellation is within the policy's hours of booking start time
+        final BookingRules rules = bookingPolicyService.rulesFor(
+                booking.getProvider().getId(), booking.getServiceOffering().getId());
+        final long cancellationWindowHours = rules.cancellationWindow().toHours();
         final LocalDateTime now = LocalDateTime.now();
-        final LocalDateTime cancellationDeadline = booking.getStartTime().minusHours(cancellationWindowHours);
+        final LocalDateTime cancellationDeadline = rules.cancellationDeadline(booking.getStartTime());
 
         if (now.isAfter(cancellationDeadline)) {
             log.warn("Cannot cancel booking {} within {} hours of start time. Deadline: {}, Now: {}",
@@ -190,11 +330,13 @@ public class BookingServiceImpl implements BookingService {
 
         booking.setStatus(BookingStatus.CANCELLED);
         final Booking updatedBooking = bookingRepository.save(booking);
+        slotInventoryService.releaseSeat(updatedBooking);
 
         // Revoke token to prevent further access
         accessToken.softDelete("BOOKING_CANCELLED");
 
         log.debug("Booking cancelled successfully. ID: {}", updatedBooking.getId());
+        eventPublisher.publishEvent(BookingChangedEvent.of(BookingChangedEvent.Type.CANCELLED, updatedBooking));
 
         // Publish SendMailEvent for booking cancellation email
         try {
@@ -240,6 +382,41 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    /**
+     * Check the booking against the buffers of the neighbouring bookings' services. Each pair keeps the larger
+     * of its two buffers apart; bookings of the same group slot share their time.
+     */
+    private boolean violatesNeighbourBuffer(final UUID providerId, final LocalDateTime startTime,
+                                            final LocalDateTime endTime, final GroupSlot groupSlot,
+                                            final BookingRules rules, final Duration widestBuffer) {
+        for (final BookingTimeRange other : bookingRepository.findActiveBookingTimes(
+                providerId, startTime.minus(widestBuffer), endTime.plus(widestBuffer))) {
+            if (groupSlot != null && groupSlot.getId().equals(other.getGroupSlotId())) {
+                continue;
+            }
+            final Duration gap = max(rules.buffer(), bookingPolicyService.rulesFor(providerId, other.getServiceId()).buffer());
+            if (other.getStartTime().isBefore(endTime.plus(gap)) && other.getEndTime().isAfter(startTime.minus(gap))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Duration max(final Duration a, final Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    /**
+     * Lock every day the booking touches when widened by the provider's widest buffer, in calendar order. Two
+     * bookings that a buffer keeps apart touch a common day, as do two bookings starting on the same day, so such
+     * admissions run one at a time.
+     */
+    private void lockDays(final UUID providerId, final LocalDateTime bufferedStart, final LocalDateTime bufferedEnd) {
+        for (LocalDate day = bufferedStart.toLocalDate(); !day.isAfter(bufferedEnd.toLocalDate()); day = day.plusDays(1)) {
+            providerRepository.lockDay(providerId, day);
+        }
+    }
+
     private static void validateStatus(final Booking booking) {
         if (booking.getStatus() == BookingStatus.CANCELLED) {
             log.warn("Booking {} is already cancelled", booking.getId());
@@ -280,21 +457,49 @@ public class BookingServiceImpl implements BookingService {
         log.debug("Booking times validated: {} - {}", startTime, endTime);
     }
 
+    private static String toETag(final GuestBookingVersion version) {
+        return String.format("\"%d.%d.%x.%x\"",
+                version.getBookingVersion(),
+                version.getServiceVersion(),
+                epochMillis(version.getConfirmedAt()),
+                epochMillis(version.getDeletedAt()));
+    }
+
+    private static long epochMillis(final LocalDateTime dateTime) {
+        return dateTime == null ? 0L : dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
     private boolean isProviderOverlapConstraint(DataIntegrityViolationException e) {
-        final Throwable rootCause = e.getRootCause();
-        if (rootCause == null) {
-            return false;
-        }
-        final String message = rootCause.getMessage();
-        return message != null && message.contains("idx_no_overlapping_bookings");
+        return PROVIDER_OVERLAP_CONSTRAINT.equals(violatedExclusionConstraint(e));
     }
 
     private boolean isCustomerOverlapConstraint(DataIntegrityViolationException e) {
-        final Throwable rootCause = e.getRootCause();
-        if (rootCause == null) {
-            return false;
+        return CUSTOMER_OVERLAP_CONSTRAINT.equals(violatedExclusionConstraint(e));
+    }
+
+    /**
+     * Name of the exclusion constraint behind the violation, or null when it is not an exclusion violation
+     * (SQLState 23P01). Prefers the name Hibernate extracted and falls back to the server message.
+     */
+    private static String violatedExclusionConstraint(final DataIntegrityViolationException e) {
+        String constraintName = null;
+        for (Throwable cause = e; cause != null && cause.getCause() != cause; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                constraintName = violation.getConstraintName();
+            }
+            if (cause instanceof SQLException sqlException
+                    && EXCLUSION_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())) {
+                return constraintName != null ? constraintName : constraintFromMessage(sqlException.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private static String constraintFromMessage(final String message) {
+        if (message == null) {
+            return null;
         }
-        final String message = rootCause.getMessage();
-        return message != null && message.contains("idx_no_overlapping_customer_bookings");
+        final Matcher matcher = EXCLUSION_CONSTRAINT_MESSAGE.matcher(message);
+        return matcher.find() ? matcher.group(1) : null;
     }
 }
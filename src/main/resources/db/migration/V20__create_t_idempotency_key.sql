@@ -0,0 +1,24 @@
+-- Create idempotency key table
+-- Stores the response of a guest booking creation under the client-supplied Idempotency-Key
+-- so that a retried request replays the original response instead of booking again
+
+CREATE TABLE t_idempotency_key (
+    id BIGSERIAL PRIMARY KEY,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    response_body TEXT,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted_at TIMESTAMP,
+    deleted_by VARCHAR(255),
+
+    -- Concurrent requests with the same key serialize on this constraint
+    CONSTRAINT uq_idempotency_key_key UNIQUE (idempotency_key)
+);
+
+-- Index on expires_at for the periodic purge of expired keys
+CREATE INDEX idx_idempotency_key_expires_at ON t_idempotency_key(expires_at);
+
+COMMENT ON COLUMN t_idempotency_key.request_hash IS 'SHA-256 of the request body; a reused key with a different body is rejected';
+COMMENT ON COLUMN t_idempotency_key.response_body IS 'Serialized GuestBookingResponse returned to the original request';
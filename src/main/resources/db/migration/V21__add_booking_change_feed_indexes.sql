@@ -0,0 +1,8 @@
+-- Indexes for the incremental booking change feed (GET /changes/bookings)
+-- Keyset pagination over (updated_at, id); soft-deleted rows are included as tombstones,
+-- so the indexes are deliberately not partial on deleted_at
+
+CREATE INDEX idx_booking_updated_at_id ON t_booking(updated_at, id);
+
+-- Provider-scoped feed
+CREATE INDEX idx_booking_provider_updated_at_id ON t_booking(provider_id, updated_at, id);
@@ -0,0 +1,47 @@
+-- Create webhook tables
+-- Providers register partner endpoints; booking events are written to the delivery outbox
+-- in the booking transaction and pushed to the endpoints by a background dispatcher
+
+CREATE TABLE t_webhook_endpoint (
+    id BIGSERIAL PRIMARY KEY,
+    provider_id UUID NOT NULL,
+    url VARCHAR(2048) NOT NULL,
+    secret VARCHAR(128) NOT NULL,
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted_at TIMESTAMP,
+    deleted_by VARCHAR(255),
+    CONSTRAINT fk_webhook_endpoint_provider FOREIGN KEY (provider_id) REFERENCES t_provider(id) ON DELETE RESTRICT
+);
+
+-- Endpoints are looked up per provider for every booking event
+CREATE INDEX idx_webhook_endpoint_provider_id ON t_webhook_endpoint(provider_id) WHERE deleted_at IS NULL;
+
+CREATE TABLE t_webhook_delivery (
+    id BIGSERIAL PRIMARY KEY,
+    endpoint_id BIGINT NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(500),
+    delivered_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted_at TIMESTAMP,
+    deleted_by VARCHAR(255),
+    CONSTRAINT fk_webhook_delivery_endpoint FOREIGN KEY (endpoint_id) REFERENCES t_webhook_endpoint(id) ON DELETE RESTRICT,
+    CONSTRAINT chk_webhook_delivery_status CHECK (status IN ('PENDING', 'DELIVERED', 'FAILED'))
+);
+
+-- The dispatcher polls for due pending deliveries; the partial index stays small
+CREATE INDEX idx_webhook_delivery_due ON t_webhook_delivery(next_attempt_at) WHERE status = 'PENDING';
+
+-- Index for purging delivered rows
+CREATE INDEX idx_webhook_delivery_delivered_at ON t_webhook_delivery(delivered_at) WHERE status = 'DELIVERED';
+
+COMMENT ON COLUMN t_webhook_endpoint.secret IS 'Shared secret for the HMAC-SHA256 signature of each request';
+COMMENT ON COLUMN t_webhook_delivery.payload IS 'Serialized BookingChangedEvent';
+COMMENT ON COLUMN t_webhook_delivery.next_attempt_at IS 'Earliest time of the next attempt; also used as a lease while a batch is in flight';
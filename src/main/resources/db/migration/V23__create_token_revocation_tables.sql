@@ -0,0 +1,49 @@
+-- Create token revocation tables
+-- Refresh tokens are single use: each refresh rotates the token, and presenting a used one again
+-- revokes its whole login session. Revoked access tokens and sessions are denylisted until they expire.
+
+CREATE TABLE t_refresh_token (
+    id BIGSERIAL PRIMARY KEY,
+    jti UUID NOT NULL,
+    session_id UUID NOT NULL,
+    user_id UUID NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    used_at TIMESTAMP,
+    revoked_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted_at TIMESTAMP,
+    deleted_by VARCHAR(255),
+    CONSTRAINT uq_refresh_token_jti UNIQUE (jti),
+    CONSTRAINT fk_refresh_token_user FOREIGN KEY (user_id) REFERENCES t_user(id) ON DELETE RESTRICT
+);
+
+-- Reuse detection revokes every token of a session
+CREATE INDEX idx_refresh_token_session_id ON t_refresh_token(session_id);
+
+-- Index on expires_at for the periodic purge of expired tokens
+CREATE INDEX idx_refresh_token_expires_at ON t_refresh_token(expires_at);
+
+CREATE TABLE t_revoked_token (
+    id BIGSERIAL PRIMARY KEY,
+    token_id UUID NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted_at TIMESTAMP,
+    deleted_by VARCHAR(255),
+
+    -- Revoking the same token or session twice is a no-op
+    CONSTRAINT uq_revoked_token_token_id UNIQUE (token_id)
+);
+
+-- Every node polls for revocations created since its last poll
+CREATE INDEX idx_revoked_token_created_at ON t_revoked_token(created_at);
+
+-- Index on expires_at for loading the denylist and the periodic purge
+CREATE INDEX idx_revoked_token_expires_at ON t_revoked_token(expires_at);
+
+COMMENT ON COLUMN t_refresh_token.session_id IS 'Login session (sid claim) shared by all rotations of a refresh token';
+COMMENT ON COLUMN t_refresh_token.used_at IS 'Set when the token is rotated; a second use is treated as theft';
+COMMENT ON COLUMN t_revoked_token.token_id IS 'jti of a revoked access token, or sid of a revoked login session';
+COMMENT ON COLUMN t_revoked_token.expires_at IS 'When the last token covered by the revocation expires; the row can be purged after that';
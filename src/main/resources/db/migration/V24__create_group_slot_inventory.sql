@@ -0,0 +1,64 @@
+-- Group sessions: a service with capacity > 1 takes up to `capacity` bookings per slot
+-- Seats are counted in t_group_slot_shard rows, decremented with a conditional UPDATE. A popular
+-- session spreads its seats over `capacity_shards` rows so that bookers do not queue on one row lock.
+
+ALTER TABLE t_service
+ADD COLUMN capacity INTEGER NOT NULL DEFAULT 1,
+ADD COLUMN capacity_shards INTEGER NOT NULL DEFAULT 1,
+ADD CONSTRAINT chk_service_capacity CHECK (capacity >= 1),
+ADD CONSTRAINT chk_service_capacity_shards CHECK (capacity_shards BETWEEN 1 AND capacity);
+
+CREATE TABLE t_group_slot (
+    id BIGSERIAL PRIMARY KEY,
+    service_id BIGINT NOT NULL,
+    start_time TIMESTAMP NOT NULL,
+    end_time TIMESTAMP NOT NULL,
+    capacity INTEGER NOT NULL,
+    shards INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted_at TIMESTAMP,
+    deleted_by VARCHAR(255),
+    CONSTRAINT fk_group_slot_service FOREIGN KEY (service_id) REFERENCES t_service(id) ON DELETE RESTRICT,
+    -- Concurrent first bookings of a slot serialize on this constraint
+    CONSTRAINT uq_group_slot_service_start UNIQUE (service_id, start_time)
+);
+
+CREATE TABLE t_group_slot_shard (
+    id BIGSERIAL PRIMARY KEY,
+    slot_id BIGINT NOT NULL,
+    shard INTEGER NOT NULL,
+    remaining INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted_at TIMESTAMP,
+    deleted_by VARCHAR(255),
+    CONSTRAINT fk_group_slot_shard_slot FOREIGN KEY (slot_id) REFERENCES t_group_slot(id) ON DELETE RESTRICT,
+    CONSTRAINT uq_group_slot_shard_slot_shard UNIQUE (slot_id, shard),
+    CONSTRAINT chk_group_slot_shard_remaining CHECK (remaining >= 0)
+);
+
+ALTER TABLE t_booking
+ADD COLUMN group_slot_id BIGINT,
+ADD COLUMN group_slot_shard INTEGER,
+ADD CONSTRAINT fk_booking_group_slot FOREIGN KEY (group_slot_id) REFERENCES t_group_slot(id) ON DELETE RESTRICT,
+ADD CONSTRAINT chk_booking_group_slot CHECK ((group_slot_id IS NULL) = (group_slot_shard IS NULL));
+
+-- Bookings of the same group slot may overlap; any other overlap for a provider is still excluded.
+-- Single bookings use their own negated id as the key, so they conflict with everything that overlaps.
+ALTER TABLE t_booking DROP CONSTRAINT IF EXISTS no_overlapping_bookings;
+
+ALTER TABLE t_booking
+ADD CONSTRAINT no_overlapping_bookings
+EXCLUDE USING gist (
+    provider_id WITH =,
+    tsrange(start_time, end_time, '[)') WITH &&,
+    COALESCE(group_slot_id, -id) WITH <>
+)
+WHERE (status IN ('PENDING', 'CONFIRMED') AND deleted_at IS NULL);
+
+COMMENT ON COLUMN t_service.capacity IS 'Bookings per slot; 1 for one-to-one services, more for group sessions';
+COMMENT ON COLUMN t_service.capacity_shards IS 'Counter rows the seats of a group slot are spread over';
+COMMENT ON COLUMN t_group_slot.capacity IS 'Capacity of the service when the slot was first booked';
+COMMENT ON COLUMN t_group_slot_shard.remaining IS 'Seats left in this shard';
+COMMENT ON COLUMN t_booking.group_slot_shard IS 'Shard the seat was taken from; it is returned there on cancellation';
@@ -0,0 +1,40 @@
+-- Booking policies per provider, optionally overridden per service
+-- A row with service_id NULL is the provider's default. NULL columns inherit from the provider row,
+-- then from the bookora.booking-policy defaults; 0 switches a limit off.
+
+CREATE TABLE t_booking_policy (
+    id BIGSERIAL PRIMARY KEY,
+    provider_id UUID NOT NULL,
+    service_id BIGINT,
+    min_lead_minutes INTEGER,
+    max_advance_days INTEGER,
+    buffer_minutes INTEGER,
+    start_granularity_minutes INTEGER,
+    daily_cap INTEGER,
+    cancellation_window_hours INTEGER,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted_at TIMESTAMP,
+    deleted_by VARCHAR(255),
+    CONSTRAINT fk_booking_policy_provider FOREIGN KEY (provider_id) REFERENCES t_provider(id) ON DELETE RESTRICT,
+    CONSTRAINT fk_booking_policy_service FOREIGN KEY (service_id) REFERENCES t_service(id) ON DELETE RESTRICT,
+    CONSTRAINT chk_booking_policy_min_lead CHECK (min_lead_minutes >= 0),
+    CONSTRAINT chk_booking_policy_max_advance CHECK (max_advance_days >= 0),
+    CONSTRAINT chk_booking_policy_buffer CHECK (buffer_minutes >= 0),
+    CONSTRAINT chk_booking_policy_granularity CHECK (start_granularity_minutes BETWEEN 0 AND 1440),
+    CONSTRAINT chk_booking_policy_daily_cap CHECK (daily_cap >= 0),
+    CONSTRAINT chk_booking_policy_cancellation CHECK (cancellation_window_hours >= 0)
+);
+
+CREATE UNIQUE INDEX uq_booking_policy_provider ON t_booking_policy(provider_id) WHERE service_id IS NULL;
+CREATE UNIQUE INDEX uq_booking_policy_provider_service ON t_booking_policy(provider_id, service_id)
+    WHERE service_id IS NOT NULL;
+
+-- Polled by every node for changed policies
+CREATE INDEX idx_booking_policy_updated_at ON t_booking_policy(updated_at);
+
+COMMENT ON TABLE t_booking_policy IS 'Booking rules per provider and service, compiled into an in-memory cache on each node';
+COMMENT ON COLUMN t_booking_policy.service_id IS 'NULL for the provider default';
+COMMENT ON COLUMN t_booking_policy.max_advance_days IS 'How far ahead bookings may start; 0 for no limit';
+COMMENT ON COLUMN t_booking_policy.start_granularity_minutes IS 'Bookings start on multiples of this many minutes past midnight; 0 for any minute';
+COMMENT ON COLUMN t_booking_policy.daily_cap IS 'Most active bookings of the provider starting on one day; 0 for no limit';
@@ -0,0 +1,64 @@
+package fi.unfinitas.bookora.config;
+
+import fi.unfinitas.bookora.config.observability.CorrelationIdFilter;
+import fi.unfinitas.bookora.config.observability.MdcTaskDecorator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncConfigTest {
+
+    private final AsyncConfig asyncConfig = new AsyncConfig();
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    @DisplayName("Should send emails on virtual threads with bounded concurrency and the caller's MDC")
+    void shouldRunEmailsOnBoundedVirtualThreads() throws Exception {
+        final BookoraProperties properties = new BookoraProperties();
+        properties.getVirtualThreads().setEmailConcurrency(2);
+        final Executor executor = asyncConfig.virtualEmailTaskExecutor(new MdcTaskDecorator(), properties);
+
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final Set<String> correlationIds = ConcurrentHashMap.newKeySet();
+        final Set<Boolean> virtual = ConcurrentHashMap.newKeySet();
+        final CountDownLatch done = new CountDownLatch(10);
+
+        MDC.put(CorrelationIdFilter.MDC_KEY, "req-1");
+        for (int i = 0; i < 10; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                correlationIds.add(MDC.get(CorrelationIdFilter.MDC_KEY));
+                virtual.add(Thread.currentThread().isVirtual());
+                try {
+                    Thread.sleep(20);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isBetween(1, 2);
+        assertThat(correlationIds).containsExactly("req-1");
+        assertThat(virtual).containsExactly(true);
+        ((SimpleAsyncTaskExecutor) executor).close();
+    }
+}
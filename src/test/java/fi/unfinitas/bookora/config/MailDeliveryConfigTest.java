@@ -0,0 +1,59 @@
+package fi.unfinitas.bookora.config;
+
+import fi.unfinitas.bookora.config.mail.BatchingMailSender;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MailDeliveryConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(Infrastructure.class, MailDeliveryConfig.class);
+
+    @Configuration(proxyBeanMethods = false)
+    static class Infrastructure {
+
+        @Bean
+        JavaMailSenderImpl mailSender() {
+            final JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+            mailSender.setHost("smtp.example.com");
+            mailSender.setPort(587);
+            mailSender.setUsername("bookora");
+            mailSender.setPassword("secret");
+            return mailSender;
+        }
+
+        @Bean
+        BookoraProperties bookoraProperties() {
+            return new BookoraProperties();
+        }
+    }
+
+    @Test
+    @DisplayName("Should replace the mail sender with a pooled one using the same server settings")
+    void shouldUsePooledSender() {
+        contextRunner.run(context -> {
+            final JavaMailSender mailSender = context.getBean(JavaMailSender.class);
+            assertThat(mailSender).isInstanceOf(BatchingMailSender.class);
+
+            final BatchingMailSender batchingMailSender = (BatchingMailSender) mailSender;
+            assertThat(batchingMailSender.getHost()).isEqualTo("smtp.example.com");
+            assertThat(batchingMailSender.getPort()).isEqualTo(587);
+            assertThat(batchingMailSender.getUsername()).isEqualTo("bookora");
+            assertThat(context.getBeansOfType(JavaMailSenderImpl.class)).hasSize(1);
+        });
+    }
+
+    @Test
+    @DisplayName("Should keep the plain mail sender when pooling is disabled")
+    void shouldKeepPlainSenderWhenDisabled() {
+        contextRunner.withPropertyValues("bookora.email.delivery.pooled=false").run(context ->
+                assertThat(context.getBean(JavaMailSender.class)).isNotInstanceOf(BatchingMailSender.class));
+    }
+}
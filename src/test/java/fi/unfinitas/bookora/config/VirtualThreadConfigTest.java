@@ -0,0 +1,79 @@
+package fi.unfinitas.bookora.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import fi.unfinitas.bookora.config.database.BulkheadDataSource;
+import fi.unfinitas.bookora.config.observability.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(Infrastructure.class, VirtualThreadConfig.class);
+
+    @Configuration(proxyBeanMethods = false)
+    static class Infrastructure {
+
+        @Bean
+        DataSource dataSource() {
+            final HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl("jdbc:postgresql://localhost:5432/unused");
+            dataSource.setMaximumPoolSize(7);
+            dataSource.setConnectionTimeout(1500);
+            return dataSource;
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        BookoraProperties bookoraProperties() {
+            return new BookoraProperties();
+        }
+    }
+
+    @Test
+    @DisplayName("Should wrap the pool in a bulkhead sized to it in virtual-thread mode")
+    void shouldWrapPoolInBulkhead() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true").run(context -> {
+            final DataSource dataSource = context.getBean(DataSource.class);
+            assertThat(dataSource).isInstanceOf(BulkheadDataSource.class);
+
+            final BulkheadDataSource bulkheadDataSource = (BulkheadDataSource) dataSource;
+            assertThat(bulkheadDataSource.getBulkhead().getName()).isEqualTo(VirtualThreadConfig.DATABASE_BULKHEAD);
+            assertThat(bulkheadDataSource.getBulkhead().getBulkheadConfig().getMaxConcurrentCalls()).isEqualTo(7);
+            assertThat(bulkheadDataSource.getBulkhead().getBulkheadConfig().getMaxWaitDuration().toMillis())
+                    .isEqualTo(1500);
+            assertThat(dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize()).isEqualTo(7);
+            assertThat(context).hasSingleBean(VirtualThreadPinningMonitor.class);
+        });
+    }
+
+    @Test
+    @DisplayName("Should leave the pool alone when the bulkhead is disabled")
+    void shouldNotWrapWhenDisabled() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true",
+                "bookora.virtual-threads.database-bulkhead-enabled=false").run(context ->
+                assertThat(context.getBean(DataSource.class)).isInstanceOf(HikariDataSource.class));
+    }
+
+    @Test
+    @DisplayName("Should not be active with platform threads")
+    void shouldBeInactiveWithPlatformThreads() {
+        contextRunner.run(context -> {
+            assertThat(context.getBean(DataSource.class)).isInstanceOf(HikariDataSource.class);
+            assertThat(context).doesNotHaveBean(VirtualThreadPinningMonitor.class);
+        });
+    }
+}
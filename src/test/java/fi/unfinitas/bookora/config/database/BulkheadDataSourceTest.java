@@ -0,0 +1,115 @@
+package fi.unfinitas.bookora.config.database;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class BulkheadDataSourceTest {
+
+    private DataSource target;
+    private Connection connection;
+    private Bulkhead bulkhead;
+    private BulkheadDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        bulkhead = Bulkhead.of("database", BulkheadConfig.custom()
+                .maxConcurrentCalls(2)
+                .maxWaitDuration(Duration.ofMillis(50))
+                .build());
+        dataSource = new BulkheadDataSource(target, bulkhead);
+    }
+
+    @Test
+    @DisplayName("Should hold a permit while the connection is open")
+    void shouldHoldPermitUntilClose() throws SQLException {
+        final Connection first = dataSource.getConnection();
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+
+        first.close();
+        first.close();
+
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(2);
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    @DisplayName("Should delegate to the pooled connection")
+    void shouldDelegate() throws SQLException {
+        final Connection wrapped = dataSource.getConnection();
+
+        wrapped.setAutoCommit(false);
+
+        verify(connection).setAutoCommit(false);
+        assertThat(((ConnectionProxy) wrapped).getTargetConnection()).isSameAs(connection);
+    }
+
+    @Test
+    @DisplayName("Should fail like a pool timeout when no permit becomes available")
+    void shouldFailWhenFull() throws SQLException {
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThatThrownBy(() -> dataSource.getConnection())
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("bulkhead 'database' is full");
+        verify(target, times(2)).getConnection();
+        assertThat(dataSource.getThreadsAwaitingPermit()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should hand the permit to a waiting thread when a connection is closed")
+    void shouldWakeWaiter() throws Exception {
+        dataSource = new BulkheadDataSource(target, Bulkhead.of("database", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ofSeconds(5))
+                .build()));
+        final Connection held = dataSource.getConnection();
+
+        final CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (final SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (dataSource.getThreadsAwaitingPermit() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(dataSource.getThreadsAwaitingPermit()).isEqualTo(1);
+
+        held.close();
+
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(dataSource.getThreadsAwaitingPermit()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should return the permit when the pool fails to provide a connection")
+    void shouldReleasePermitOnPoolFailure() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool timeout"));
+
+        assertThatThrownBy(() -> dataSource.getConnection()).hasMessage("pool timeout");
+
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,192 @@
+package fi.unfinitas.bookora.config.mail;
+
+import fi.unfinitas.bookora.testutil.SmtpSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchingMailSenderTest {
+
+    private SmtpSink smtpSink;
+    private BatchingMailSender mailSender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtpSink = new SmtpSink();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (mailSender != null) {
+            mailSender.destroy();
+        }
+        smtpSink.close();
+    }
+
+    private BatchingMailSender mailSender(final int connections, final int maxMessagesPerConnection,
+                                          final Duration validateAfterIdle) {
+        return mailSender(connections, maxMessagesPerConnection, validateAfterIdle, Duration.ofSeconds(10));
+    }
+
+    private BatchingMailSender mailSender(final int connections, final int maxMessagesPerConnection,
+                                          final Duration validateAfterIdle, final Duration sendTimeout) {
+        final JavaMailSenderImpl settings = new JavaMailSenderImpl();
+        settings.setHost("localhost");
+        settings.setPort(smtpSink.port());
+        settings.setDefaultEncoding("UTF-8");
+        return new BatchingMailSender(settings, connections, 10, maxMessagesPerConnection, validateAfterIdle,
+                sendTimeout);
+    }
+
+    private static SimpleMailMessage message(final int n) {
+        final SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("noreply@bookora.test");
+        message.setTo("guest-" + n + "@example.com");
+        message.setSubject("Booking Confirmation " + n);
+        message.setText("Your booking is confirmed.");
+        return message;
+    }
+
+    @Test
+    @DisplayName("Should send many messages over one reused connection")
+    void shouldReuseConnection() {
+        mailSender = mailSender(1, 100, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 20; i++) {
+            mailSender.send(message(i));
+        }
+
+        assertThat(smtpSink.messages()).isEqualTo(20);
+        assertThat(smtpSink.connections()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should deliver concurrent senders over at most the configured connections")
+    void shouldBatchConcurrentSenders() throws Exception {
+        mailSender = mailSender(2, 100, Duration.ofMinutes(1));
+
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            final List<Future<?>> sent = IntStream.range(0, 200)
+                    .<Future<?>>mapToObj(i -> senders.submit(() -> mailSender.send(message(i))))
+                    .toList();
+            for (final Future<?> future : sent) {
+                future.get();
+            }
+        }
+
+        assertThat(smtpSink.messages()).isEqualTo(200);
+        assertThat(smtpSink.connections()).isBetween(1, 2);
+    }
+
+    @Test
+    @DisplayName("Should open a new connection after the message limit")
+    void shouldRecycleConnections() {
+        mailSender = mailSender(1, 5, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 12; i++) {
+            mailSender.send(message(i));
+        }
+
+        assertThat(smtpSink.messages()).isEqualTo(12);
+        assertThat(smtpSink.connections()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should check an idle connection and reconnect when the server dropped it")
+    void shouldReconnectAfterServerDrop() throws Exception {
+        mailSender = mailSender(1, 100, Duration.ZERO);
+        mailSender.send(message(1));
+
+        smtpSink.dropConnections();
+        mailSender.send(message(2));
+
+        assertThat(smtpSink.messages()).isEqualTo(2);
+        assertThat(smtpSink.connections()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should health-check a reused connection with NOOP once it has been idle")
+    void shouldCheckIdleConnection() {
+        mailSender = mailSender(1, 100, Duration.ZERO);
+
+        mailSender.send(message(1));
+        mailSender.send(message(2));
+
+        assertThat(smtpSink.noops()).isEqualTo(1);
+        assertThat(smtpSink.connections()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should report a failure to the sender when the server is unreachable")
+    void shouldFailWhenServerUnreachable() throws IOException {
+        mailSender = mailSender(1, 100, Duration.ZERO);
+        smtpSink.close();
+
+        assertThatThrownBy(() -> mailSender.send(message(1)))
+                .isInstanceOf(MailSendException.class)
+                .satisfies(e -> assertThat(((MailSendException) e).getFailedMessages()).hasSize(1));
+    }
+
+    @Test
+    @DisplayName("Should not report a timeout for a message already handed to the transport")
+    void shouldNotFailMessageAlreadyBeingSent() throws Exception {
+        smtpSink.close();
+        smtpSink = new SmtpSink(Duration.ofMillis(500));
+        mailSender = mailSender(1, 100, Duration.ZERO, Duration.ofMillis(100));
+
+        mailSender.send(message(1));
+
+        final long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (smtpSink.messages() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(smtpSink.messages()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should report a timeout for a message no delivery thread picked up")
+    void shouldFailMessageNeverPickedUp() throws Exception {
+        smtpSink.close();
+        smtpSink = new SmtpSink(Duration.ofMillis(500));
+        mailSender = mailSender(1, 100, Duration.ZERO, Duration.ofMillis(100));
+
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            final Future<?> first = senders.submit(() -> mailSender.send(message(1)));
+            Thread.sleep(50);
+
+            assertThatThrownBy(() -> mailSender.send(message(2)))
+                    .isInstanceOf(MailSendException.class)
+                    .hasMessageContaining("Not delivered within 100 ms");
+            first.get();
+        }
+        Thread.sleep(700);
+        assertThat(smtpSink.messages()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should refuse messages after shutdown")
+    void shouldRefuseAfterShutdown() throws Exception {
+        mailSender = mailSender(1, 100, Duration.ZERO);
+        mailSender.destroy();
+
+        assertThatThrownBy(() -> mailSender.send(message(1)))
+                .isInstanceOf(MailSendException.class)
+                .hasMessageContaining("shut down");
+        assertThat(mailSender.getTransportPool().getIdleConnections()).isZero();
+    }
+}
@@ -0,0 +1,112 @@
+package fi.unfinitas.bookora.config.mail;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SmtpTransportPoolTest {
+
+    private final List<Transport> opened = new ArrayList<>();
+    private final MimeMessage message = mock(MimeMessage.class);
+
+    private SmtpTransportPool pool(final int maxMessagesPerConnection, final Duration validateAfterIdle) {
+        return new SmtpTransportPool(() -> {
+            final Transport transport = mock(Transport.class);
+            when(transport.isConnected()).thenReturn(true);
+            opened.add(transport);
+            return transport;
+        }, 2, maxMessagesPerConnection, validateAfterIdle);
+    }
+
+    @Test
+    @DisplayName("Should reuse a returned connection without checking it when recently used")
+    void shouldReuseConnection() throws Exception {
+        final SmtpTransportPool pool = pool(100, Duration.ofMinutes(1));
+
+        final SmtpTransportPool.PooledTransport first = pool.borrow();
+        first.send(message);
+        pool.release(first, false);
+        final SmtpTransportPool.PooledTransport second = pool.borrow();
+
+        assertThat(second).isSameAs(first);
+        assertThat(opened).hasSize(1);
+        verify(opened.getFirst(), never()).isConnected();
+    }
+
+    @Test
+    @DisplayName("Should replace an idle connection that fails its health check")
+    void shouldReplaceDeadConnection() throws Exception {
+        final SmtpTransportPool pool = pool(100, Duration.ZERO);
+        final SmtpTransportPool.PooledTransport first = pool.borrow();
+        pool.release(first, false);
+        when(opened.getFirst().isConnected()).thenReturn(false);
+
+        final SmtpTransportPool.PooledTransport second = pool.borrow();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(opened).hasSize(2);
+        verify(opened.getFirst()).close();
+    }
+
+    @Test
+    @DisplayName("Should close a connection after its message limit")
+    void shouldRecycleAfterMessageLimit() throws Exception {
+        final SmtpTransportPool pool = pool(2, Duration.ofMinutes(1));
+        final SmtpTransportPool.PooledTransport transport = pool.borrow();
+        transport.send(message);
+        transport.send(message);
+
+        pool.release(transport, false);
+
+        assertThat(pool.getIdleConnections()).isZero();
+        verify(opened.getFirst()).close();
+        verify(opened.getFirst(), times(2)).sendMessage(eq(message), any());
+    }
+
+    @Test
+    @DisplayName("Should close a broken connection instead of pooling it")
+    void shouldCloseBrokenConnection() throws Exception {
+        final SmtpTransportPool pool = pool(100, Duration.ofMinutes(1));
+        final SmtpTransportPool.PooledTransport transport = pool.borrow();
+
+        pool.release(transport, true);
+
+        assertThat(pool.getIdleConnections()).isZero();
+        verify(opened.getFirst()).close();
+    }
+
+    @Test
+    @DisplayName("Should give the permit back when a connection cannot be opened")
+    void shouldReleasePermitWhenConnectFails() throws Exception {
+        final SmtpTransportPool pool = new SmtpTransportPool(() -> {
+            throw new MessagingException("Connection refused");
+        }, 1, 100, Duration.ZERO);
+
+        assertThatThrownBy(pool::borrow).hasMessage("Connection refused");
+        assertThatThrownBy(pool::borrow).hasMessage("Connection refused");
+    }
+
+    @Test
+    @DisplayName("Should close idle connections when closed")
+    void shouldCloseIdleConnections() throws Exception {
+        final SmtpTransportPool pool = pool(100, Duration.ofMinutes(1));
+        pool.release(pool.borrow(), false);
+
+        pool.close();
+
+        assertThat(pool.getIdleConnections()).isZero();
+        verify(opened.getFirst()).close();
+        assertThatThrownBy(pool::borrow).isInstanceOf(IllegalStateException.class);
+    }
+}
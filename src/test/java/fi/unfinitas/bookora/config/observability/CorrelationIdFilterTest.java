@@ -0,0 +1,52 @@
+package fi.unfinitas.bookora.config.observability;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CorrelationIdFilterTest {
+
+    private final CorrelationIdFilter filter = new CorrelationIdFilter();
+
+    @Test
+    @DisplayName("Should propagate a well-formed correlation ID from the request")
+    void shouldPropagateIncomingId() throws Exception {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bookings/guest");
+        request.addHeader(CorrelationIdFilter.HEADER, "req-123.abc");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final AtomicReference<String> inChain = new AtomicReference<>();
+
+        filter.doFilter(request, response, chain(inChain));
+
+        assertThat(inChain.get()).isEqualTo("req-123.abc");
+        assertThat(response.getHeader(CorrelationIdFilter.HEADER)).isEqualTo("req-123.abc");
+        assertThat(MDC.get(CorrelationIdFilter.MDC_KEY)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should generate a correlation ID when the header is missing or unsafe")
+    void shouldGenerateIdForMissingOrUnsafeHeader() throws Exception {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bookings/guest");
+        request.addHeader(CorrelationIdFilter.HEADER, "bad\nid");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final AtomicReference<String> inChain = new AtomicReference<>();
+
+        filter.doFilter(request, response, chain(inChain));
+
+        assertThat(inChain.get()).isNotEqualTo("bad\nid").hasSize(36);
+        assertThat(response.getHeader(CorrelationIdFilter.HEADER)).isEqualTo(inChain.get());
+        assertThat(CorrelationIdFilter.resolve(null)).hasSize(36);
+        assertThat(CorrelationIdFilter.resolve("x".repeat(65))).hasSize(36);
+    }
+
+    private static FilterChain chain(final AtomicReference<String> inChain) {
+        return (req, res) -> inChain.set(MDC.get(CorrelationIdFilter.MDC_KEY));
+    }
+}
@@ -0,0 +1,129 @@
+package fi.unfinitas.bookora.config.observability;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HibernateStatsEndpointTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Statistics statistics;
+
+    private SlowQueryLog slowQueryLog;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        slowQueryLog = new SlowQueryLog(new BookoraProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowQueryLog.disable();
+    }
+
+    @Test
+    @DisplayName("Should enable statistics and the slow query log at runtime")
+    void shouldToggle() {
+        when(statistics.getQueries()).thenReturn(new String[0]);
+        when(statistics.getEntityNames()).thenReturn(new String[0]);
+        final HibernateStatsEndpoint endpoint = endpoint();
+        assertThat(slowQueryLog.isEnabled()).isFalse();
+
+        endpoint.toggle(true);
+
+        verify(statistics).clear();
+        verify(statistics).setStatisticsEnabled(true);
+        assertThat(slowQueryLog.isEnabled()).isTrue();
+
+        endpoint.toggle(false);
+
+        verify(statistics).setStatisticsEnabled(false);
+        assertThat(slowQueryLog.isEnabled()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should start the slow query log when statistics are enabled by configuration")
+    void shouldFollowStartupSetting() {
+        when(statistics.isStatisticsEnabled()).thenReturn(true);
+
+        endpoint();
+
+        assertThat(slowQueryLog.isEnabled()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should report busiest queries and touched entities")
+    void shouldReport() {
+        when(statistics.isStatisticsEnabled()).thenReturn(true);
+        when(statistics.getEntityLoadCount()).thenReturn(12L);
+        when(statistics.getQueries()).thenReturn(new String[]{"select b from Booking b", "select s from Service s"});
+        final QueryStatistics bookingQuery = queryStatistics(100, 2, 9);
+        final QueryStatistics serviceQuery = queryStatistics(5, 30, 40);
+        when(statistics.getQueryStatistics("select b from Booking b")).thenReturn(bookingQuery);
+        when(statistics.getQueryStatistics("select s from Service s")).thenReturn(serviceQuery);
+        when(statistics.getEntityNames()).thenReturn(new String[]{
+                "fi.unfinitas.bookora.domain.model.Booking", "fi.unfinitas.bookora.domain.model.User"});
+        final EntityStatistics bookingEntity = mock(EntityStatistics.class);
+        when(bookingEntity.getLoadCount()).thenReturn(12L);
+        when(statistics.getEntityStatistics("fi.unfinitas.bookora.domain.model.Booking")).thenReturn(bookingEntity);
+        final EntityStatistics userEntity = mock(EntityStatistics.class);
+        when(statistics.getEntityStatistics("fi.unfinitas.bookora.domain.model.User")).thenReturn(userEntity);
+
+        final HibernateStatsEndpoint.Report report = endpoint().report();
+
+        assertThat(report.enabled()).isTrue();
+        assertThat(report.totals().entityLoadCount()).isEqualTo(12L);
+        assertThat(report.queries()).extracting(HibernateStatsEndpoint.QueryStat::query)
+                .containsExactly("select b from Booking b", "select s from Service s");
+        assertThat(report.entities()).singleElement().satisfies(entity -> {
+            assertThat(entity.entity()).isEqualTo("Booking");
+            assertThat(entity.loadCount()).isEqualTo(12L);
+        });
+    }
+
+    @Test
+    @DisplayName("Should reset counters and the slow query log")
+    void shouldReset() {
+        slowQueryLog.enable();
+        slowQueryLog.executed("select * from t_booking", 50_000_000L);
+
+        endpoint().reset();
+
+        verify(statistics).clear();
+        assertThat(slowQueryLog.top(10)).isEmpty();
+    }
+
+    private HibernateStatsEndpoint endpoint() {
+        return new HibernateStatsEndpoint(entityManagerFactory, slowQueryLog, new BookoraProperties());
+    }
+
+    private static QueryStatistics queryStatistics(final long count, final long avg, final long max) {
+        final QueryStatistics stat = mock(QueryStatistics.class);
+        when(stat.getExecutionCount()).thenReturn(count);
+        when(stat.getExecutionAvgTime()).thenReturn(avg);
+        when(stat.getExecutionMaxTime()).thenReturn(max);
+        return stat;
+    }
+}
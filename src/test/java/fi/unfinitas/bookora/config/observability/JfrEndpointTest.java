@@ -0,0 +1,118 @@
+package fi.unfinitas.bookora.config.observability;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.service.BookingAdmissionMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JfrEndpointTest {
+
+    @TempDir
+    private Path directory;
+
+    private BookoraProperties bookoraProperties;
+    private JfrEndpoint jfrEndpoint;
+
+    @BeforeEach
+    void setUp() {
+        bookoraProperties = new BookoraProperties();
+        bookoraProperties.getJfr().setDirectory(directory.toString());
+        bookoraProperties.getJfr().setSettings("default");
+        jfrEndpoint = new JfrEndpoint(bookoraProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jfrEndpoint.stop();
+    }
+
+    @Test
+    @DisplayName("Should record Bookora events and offer the recording for download")
+    void shouldRecordAndDownload() throws Exception {
+        final WebEndpointResponse<JfrEndpoint.RecordingInfo> started = jfrEndpoint.start(30, null);
+        assertThat(started.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        assertThat(started.getBody().state()).isEqualTo("RUNNING");
+        assertThat(started.getBody().settings()).isEqualTo("default");
+
+        final UUID providerId = UUID.randomUUID();
+        final BookingAdmissionMetrics.Admission admission =
+                new BookingAdmissionMetrics(new SimpleMeterRegistry(), bookoraProperties).begin();
+        admission.provider(providerId);
+        admission.complete(BookingAdmissionMetrics.Outcome.SUCCESS);
+
+        final String name = started.getBody().name() + ".jfr";
+        assertThat(jfrEndpoint.download(name).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+
+        assertThat(jfrEndpoint.stop().getBody().state()).isNotEqualTo("RUNNING");
+
+        final WebEndpointResponse<Resource> download = jfrEndpoint.download(name);
+        assertThat(download.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(download.getBody().getFile().toPath());
+        assertThat(events)
+                .filteredOn(event -> event.getEventType().getName().equals("fi.unfinitas.bookora.BookingAdmission"))
+                .singleElement()
+                .satisfies(event -> {
+                    assertThat(event.getString("provider")).isEqualTo(providerId.toString());
+                    assertThat(event.getString("outcome")).isEqualTo("SUCCESS");
+                });
+        assertThat(jfrEndpoint.status().files()).extracting(JfrEndpoint.RecordingFile::name).containsExactly(name);
+    }
+
+    @Test
+    @DisplayName("Should allow only one running recording")
+    void shouldRejectConcurrentRecording() {
+        jfrEndpoint.start(30, null);
+
+        assertThat(jfrEndpoint.start(30, null).getStatus()).isEqualTo(409);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown settings and cap the duration")
+    void shouldValidateRequest() {
+        bookoraProperties.getJfr().setMaxDurationSeconds(5);
+
+        assertThat(jfrEndpoint.start(30, "custom").getStatus()).isEqualTo(WebEndpointResponse.STATUS_BAD_REQUEST);
+        assertThat(jfrEndpoint.start(3600, null).getBody().duration()).hasSeconds(5);
+    }
+
+    @Test
+    @DisplayName("Should keep only the newest recordings")
+    void shouldPruneOldRecordings() throws Exception {
+        bookoraProperties.getJfr().setMaxFiles(2);
+        Files.createFile(directory.resolve("bookora-20260101T000000Z.jfr"));
+        Files.createFile(directory.resolve("bookora-20260102T000000Z.jfr"));
+        Files.createFile(directory.resolve("notes.txt"));
+
+        jfrEndpoint.start(30, null);
+        jfrEndpoint.stop();
+
+        assertThat(directory.resolve("bookora-20260101T000000Z.jfr")).doesNotExist();
+        assertThat(directory.resolve("bookora-20260102T000000Z.jfr")).exists();
+        assertThat(directory.resolve("notes.txt")).exists();
+        assertThat(jfrEndpoint.status().files()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should not serve files outside the recording naming scheme")
+    void shouldNotServeArbitraryFiles() throws Exception {
+        Files.createFile(directory.resolve("notes.txt"));
+
+        assertThat(jfrEndpoint.download("notes.txt").getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+        assertThat(jfrEndpoint.download("../etc/passwd").getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+}
@@ -0,0 +1,45 @@
+package fi.unfinitas.bookora.config.observability;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MdcTaskDecoratorTest {
+
+    private final MdcTaskDecorator decorator = new MdcTaskDecorator();
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    @DisplayName("Should carry the MDC of the submitting thread to the worker thread")
+    void shouldCopyMdcToWorker() throws Exception {
+        final AtomicReference<String> seen = new AtomicReference<>();
+        final AtomicReference<String> afterTask = new AtomicReference<>();
+        MDC.put(CorrelationIdFilter.MDC_KEY, "req-1");
+        final Runnable task = decorator.decorate(() -> seen.set(MDC.get(CorrelationIdFilter.MDC_KEY)));
+        MDC.clear();
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture.runAsync(task, executor).get();
+            CompletableFuture.runAsync(() -> afterTask.set(MDC.get(CorrelationIdFilter.MDC_KEY)), executor).get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(seen.get()).isEqualTo("req-1");
+        // Pooled thread is left clean for the next task
+        assertThat(afterTask.get()).isNull();
+    }
+}
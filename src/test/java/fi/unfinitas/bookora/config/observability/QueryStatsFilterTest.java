@@ -0,0 +1,97 @@
+package fi.unfinitas.bookora.config.observability;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryStatsFilterTest {
+
+    private BookoraProperties bookoraProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        bookoraProperties = new BookoraProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        request = new MockHttpServletRequest("GET", "/bookings/guest/abc");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/bookings/guest/{token}");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    @DisplayName("Should record statements executed through Hibernate sessions as metrics")
+    void shouldRecordMetrics() throws Exception {
+        new QueryStatsFilter(bookoraProperties, meterRegistry).doFilter(request, response, executeStatements(3));
+
+        assertThat(meterRegistry.get(QueryStatsFilter.STATEMENTS_METRIC)
+                .tags("method", "GET", "uri", "/bookings/guest/{token}").summary().totalAmount()).isEqualTo(3.0);
+        assertThat(meterRegistry.get(QueryStatsFilter.TIME_METRIC).timer().count()).isEqualTo(1);
+        assertThat(response.getHeader(QueryStatsFilter.COUNT_HEADER)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should add statistics headers before the body is written")
+    void shouldAddHeadersWhenEnabled() throws Exception {
+        bookoraProperties.getQueryStats().setHeadersEnabled(true);
+        final FilterChain chain = (req, res) -> {
+            executeStatements(2).doFilter(req, res);
+            res.getOutputStream().write("{}".getBytes(StandardCharsets.UTF_8));
+            res.flushBuffer();
+            // Executed after the response was committed: not reflected in the headers
+            executeStatements(1).doFilter(req, res);
+        };
+
+        new QueryStatsFilter(bookoraProperties, meterRegistry).doFilter(request, response, chain);
+
+        assertThat(response.getHeader(QueryStatsFilter.COUNT_HEADER)).isEqualTo("2");
+        assertThat(response.getHeader(QueryStatsFilter.TIME_HEADER)).isNotNull();
+        assertThat(meterRegistry.get(QueryStatsFilter.STATEMENTS_METRIC).summary().totalAmount()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("Should add statistics headers to responses without a body")
+    void shouldAddHeadersToEmptyResponse() throws Exception {
+        bookoraProperties.getQueryStats().setHeadersEnabled(true);
+        bookoraProperties.getQueryStats().setMetricsEnabled(false);
+
+        new QueryStatsFilter(bookoraProperties, meterRegistry).doFilter(request, response, executeStatements(1));
+
+        assertThat(response.getHeader(QueryStatsFilter.COUNT_HEADER)).isEqualTo("1");
+        assertThat(meterRegistry.find(QueryStatsFilter.STATEMENTS_METRIC).summary()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should not count statements outside of a request")
+    void shouldIgnoreStatementsWithoutOpenStats() {
+        final QueryStatsSessionListener listener = new QueryStatsSessionListener();
+
+        listener.jdbcExecuteStatementStart();
+        listener.jdbcExecuteStatementEnd();
+
+        final QueryStats stats = QueryStats.open();
+        QueryStats.close();
+        assertThat(stats.getStatements()).isZero();
+    }
+
+    private static FilterChain executeStatements(final int count) {
+        return (req, res) -> {
+            final QueryStatsSessionListener listener = new QueryStatsSessionListener();
+            for (int i = 0; i < count; i++) {
+                listener.jdbcExecuteStatementStart();
+                listener.jdbcExecuteStatementEnd();
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package fi.unfinitas.bookora.config.observability;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowQueryLogTest {
+
+    private BookoraProperties bookoraProperties;
+    private SlowQueryLog slowQueryLog;
+
+    @BeforeEach
+    void setUp() {
+        bookoraProperties = new BookoraProperties();
+        slowQueryLog = new SlowQueryLog(bookoraProperties);
+        slowQueryLog.enable();
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowQueryLog.disable();
+    }
+
+    @Test
+    @DisplayName("Should replace literals, collapse IN lists and whitespace")
+    void shouldNormalizeSql() {
+        assertThat(SlowQueryLog.normalize("select * from t_booking b1_0\n  where b1_0.status = 'PENDING' and b1_0.id in (1, 2, 3) limit 10"))
+                .isEqualTo("select * from t_booking b1_0 where b1_0.status = ? and b1_0.id in (?...) limit ?");
+        assertThat(SlowQueryLog.normalize("select * from t_user where name = 'O''Brien' and id in (?,?)"))
+                .isEqualTo("select * from t_user where name = ? and id in (?...)");
+    }
+
+    @Test
+    @DisplayName("Should aggregate by normalized SQL and order by slowest execution")
+    void shouldAggregateAndOrder() {
+        slowQueryLog.executed("select * from t_booking where id = 1", millis(20));
+        slowQueryLog.executed("select * from t_booking where id = 2", millis(40));
+        slowQueryLog.executed("select * from t_service where id = 3", millis(100));
+
+        assertThat(slowQueryLog.top(10)).satisfiesExactly(
+                first -> {
+                    assertThat(first.sql()).isEqualTo("select * from t_service where id = ?");
+                    assertThat(first.count()).isEqualTo(1);
+                },
+                second -> {
+                    assertThat(second.sql()).isEqualTo("select * from t_booking where id = ?");
+                    assertThat(second.count()).isEqualTo(2);
+                    assertThat(second.avgMillis()).isEqualTo(30.0);
+                    assertThat(second.maxMillis()).isEqualTo(40.0);
+                });
+        assertThat(slowQueryLog.top(1)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should ignore statements below the threshold and beyond the tracking limit")
+    void shouldBoundEntries() {
+        bookoraProperties.getHibernateStats().setSlowQueryMaxTracked(2);
+
+        slowQueryLog.executed("select 1 from t_a", millis(1));
+        slowQueryLog.executed("select 1 from t_b", millis(20));
+        slowQueryLog.executed("select 1 from t_c", millis(20));
+        slowQueryLog.executed("select 1 from t_d", millis(20));
+        slowQueryLog.executed("select 1 from t_b", millis(30));
+
+        assertThat(slowQueryLog.top(10))
+                .extracting(SlowQueryLog.SlowQuery::sql)
+                .containsExactly("select ? from t_b", "select ? from t_c");
+    }
+
+    @Test
+    @DisplayName("Should receive statements through QueryStats only while enabled")
+    void shouldInstallAsSink() {
+        QueryStats.prepared("select * from t_booking where id = 7");
+        QueryStats.record(millis(50));
+        assertThat(slowQueryLog.top(10)).hasSize(1);
+
+        slowQueryLog.disable();
+        QueryStats.prepared("select * from t_service where id = 7");
+        QueryStats.record(millis(50));
+
+        assertThat(slowQueryLog.top(10)).extracting(SlowQueryLog.SlowQuery::sql)
+                .containsExactly("select * from t_booking where id = ?");
+    }
+
+    private static long millis(final long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
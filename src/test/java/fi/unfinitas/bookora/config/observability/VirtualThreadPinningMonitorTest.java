@@ -0,0 +1,68 @@
+package fi.unfinitas.bookora.config.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VirtualThreadPinningMonitor monitor =
+            new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(5));
+    private final Object lock = new Object();
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    @DisplayName("Should record a virtual thread blocking inside a synchronized block")
+    void shouldRecordPinning() throws Exception {
+        monitor.start();
+        assertThat(monitor.isRunning()).isTrue();
+
+        Thread.ofVirtual().start(this::sleepWhileHoldingMonitor).join();
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pinnedTimer() == null && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        final Timer timer = pinnedTimer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.getId().getTag("frame"))
+                .isEqualTo(VirtualThreadPinningMonitorTest.class.getName() + ".sleepWhileHoldingMonitor");
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Should stop streaming when stopped")
+    void shouldStop() {
+        monitor.start();
+        monitor.stop();
+
+        assertThat(monitor.isRunning()).isFalse();
+    }
+
+    private void sleepWhileHoldingMonitor() {
+        synchronized (lock) {
+            try {
+                Thread.sleep(30);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Timer pinnedTimer() {
+        return meterRegistry.find(VirtualThreadPinningMonitor.PINNED_TIMER).timer();
+    }
+}
@@ -0,0 +1,108 @@
+package fi.unfinitas.bookora.config.web;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    @DisplayName("Should reject when in-flight requests reach the limit")
+    void shouldRejectWhenLimitReached() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, THRESHOLD_NANOS, 0.5);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should increase limit additively on fast responses while busy")
+    void shouldIncreaseLimitOnFastResponses() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, THRESHOLD_NANOS, 0.5);
+
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.release(FAST, false);
+
+        assertThat(limiter.getLimit()).isEqualTo(3);
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not increase limit while the lane is idle")
+    void shouldNotIncreaseLimitWhenIdle() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 20, THRESHOLD_NANOS, 0.5);
+
+        limiter.tryAcquire();
+        limiter.release(FAST, false);
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should decrease limit multiplicatively on slow responses")
+    void shouldDecreaseLimitOnSlowResponse() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 20, THRESHOLD_NANOS, 0.5);
+
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should decrease limit when the connection pool is congested")
+    void shouldDecreaseLimitOnPoolCongestion() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 20, THRESHOLD_NANOS, 0.5);
+
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should back off only once per latency threshold window")
+    void shouldBackOffOncePerWindow() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(16, 1, 20, THRESHOLD_NANOS, 0.5);
+
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+        for (int i = 0; i < 4; i++) {
+            limiter.release(SLOW, false);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("Should never go below the minimum limit")
+    void shouldRespectMinimumLimit() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(3, 2, 20, 1, 0.1);
+
+        limiter.tryAcquire();
+        limiter.release(SLOW, true);
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid configuration")
+    void shouldRejectInvalidConfiguration() {
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(5, 10, 2, THRESHOLD_NANOS, 0.5))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(5, 1, 10, THRESHOLD_NANOS, 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,157 @@
+package fi.unfinitas.bookora.config.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fi.unfinitas.bookora.config.BookoraProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class ConcurrencyLimitFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BookoraProperties properties;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BookoraProperties();
+        properties.getConcurrencyLimit().setWrite(new BookoraProperties.ConcurrencyLimit.Lane(1, 1, 1));
+        properties.getConcurrencyLimit().setRead(new BookoraProperties.ConcurrencyLimit.Lane(1, 1, 1));
+        properties.getConcurrencyLimit().setRetryAfterSeconds(3);
+        filter = new ConcurrencyLimitFilter(properties, mock(ConnectionPoolProbe.class),
+                new ObjectMapper().findAndRegisterModules(), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should shed a request with 503 and Retry-After while its lane is full")
+    void shouldShedWhenLaneIsFull() throws Exception {
+        final MockHttpServletResponse shed = new MockHttpServletResponse();
+
+        filter.doFilter(request("POST", "/bookings/guest"), new MockHttpServletResponse(),
+                (req, res) -> filter.doFilter(request("POST", "/bookings/guest"), shed, new MockFilterChain()));
+
+        assertThat(shed.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(shed.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+        assertThat(shed.getContentAsString()).contains("temporarily overloaded");
+        assertThat(rejected(ConcurrencyLimitFilter.WRITE_LANE)).isEqualTo(1.0);
+        assertThat(rejected(ConcurrencyLimitFilter.READ_LANE)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should admit reads and writes through separate lanes")
+    void shouldClassifyLanes() throws Exception {
+        final MockHttpServletResponse read = new MockHttpServletResponse();
+        final MockHttpServletResponse guestRead = new MockHttpServletResponse();
+
+        filter.doFilter(request("POST", "/bookings/guest"), new MockHttpServletResponse(), (req, res) -> {
+            // A full write lane leaves reads, including guest booking reads, untouched
+            filter.doFilter(request("GET", "/bookings/guest/abc"), guestRead, new MockFilterChain());
+            filter.doFilter(request("POST", "/auth/login"), read, new MockFilterChain());
+        });
+
+        assertThat(guestRead.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(read.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(rejected(ConcurrencyLimitFilter.WRITE_LANE)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should classify guest booking writes under a context path")
+    void shouldStripContextPath() throws Exception {
+        final MockHttpServletResponse shed = new MockHttpServletResponse();
+        final MockHttpServletRequest outer = request("PATCH", "/api/bookings/guest/abc/cancel");
+        outer.setContextPath("/api");
+
+        filter.doFilter(outer, new MockHttpServletResponse(), (req, res) -> {
+            final MockHttpServletRequest inner = request("POST", "/api/bookings/guest");
+            inner.setContextPath("/api");
+            filter.doFilter(inner, shed, new MockFilterChain());
+        });
+
+        assertThat(shed.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+    }
+
+    @Test
+    @DisplayName("Should never shed actuator requests")
+    void shouldBypassActuator() throws Exception {
+        final MockHttpServletResponse health = new MockHttpServletResponse();
+
+        filter.doFilter(request("GET", "/bookings/guest/abc"), new MockHttpServletResponse(),
+                (req, res) -> filter.doFilter(request("GET", "/actuator/health"), health, new MockFilterChain()));
+
+        assertThat(health.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(rejected(ConcurrencyLimitFilter.READ_LANE)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should pass every request through when disabled")
+    void shouldPassThroughWhenDisabled() throws Exception {
+        properties.getConcurrencyLimit().setEnabled(false);
+        final MockHttpServletResponse second = new MockHttpServletResponse();
+
+        filter.doFilter(request("POST", "/bookings/guest"), new MockHttpServletResponse(),
+                (req, res) -> filter.doFilter(request("POST", "/bookings/guest"), second, new MockFilterChain()));
+
+        assertThat(second.getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    @DisplayName("Should release the permit after the chain completes")
+    void shouldReleaseOnSuccess() throws Exception {
+        final AtomicReference<Double> inFlightDuringChain = new AtomicReference<>();
+
+        filter.doFilter(request("POST", "/bookings/guest"), new MockHttpServletResponse(),
+                (req, res) -> inFlightDuringChain.set(inFlight(ConcurrencyLimitFilter.WRITE_LANE)));
+
+        assertThat(inFlightDuringChain.get()).isEqualTo(1.0);
+        assertThat(inFlight(ConcurrencyLimitFilter.WRITE_LANE)).isZero();
+        assertAdmitted("POST", "/bookings/guest");
+    }
+
+    @Test
+    @DisplayName("Should release the permit when the chain throws")
+    void shouldReleaseOnException() throws Exception {
+        final FilterChain failing = (req, res) -> {
+            throw new ServletException("boom");
+        };
+
+        assertThatThrownBy(() -> filter.doFilter(request("GET", "/providers"), new MockHttpServletResponse(), failing))
+                .isInstanceOf(ServletException.class);
+
+        assertThat(inFlight(ConcurrencyLimitFilter.READ_LANE)).isZero();
+        assertAdmitted("GET", "/providers");
+    }
+
+    private void assertAdmitted(final String method, final String uri) throws ServletException, IOException {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, uri), response, new MockFilterChain());
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    private double rejected(final String lane) {
+        return meterRegistry.get("bookora.concurrency.rejected").tag("lane", lane).counter().count();
+    }
+
+    private double inFlight(final String lane) {
+        return meterRegistry.get("bookora.concurrency.in-flight").tag("lane", lane).gauge().value();
+    }
+
+    private static MockHttpServletRequest request(final String method, final String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+}
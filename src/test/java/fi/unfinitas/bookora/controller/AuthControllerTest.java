@@ -1,11 +1,14 @@
 package fi.unfinitas.bookora.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import fi.unfinitas.bookora.config.observability.QueryStatsFilter;
+import fi.unfinitas.bookora.config.web.ConcurrencyLimitFilter;
 import fi.unfinitas.bookora.dto.request.LoginRequest;
 import fi.unfinitas.bookora.dto.request.RegisterRequest;
 import fi.unfinitas.bookora.dto.response.LoginResponse;
 import fi.unfinitas.bookora.dto.response.UserPublicInfo;
 import fi.unfinitas.bookora.exception.EmailAlreadyExistsException;
+import fi.unfinitas.bookora.security.JwtDenylist;
 import fi.unfinitas.bookora.security.JwtUtil;
 import fi.unfinitas.bookora.service.AuthenticationService;
 import org.junit.jupiter.api.BeforeEach;
@@ -45,6 +48,15 @@ class AuthControllerTest {
     @MockitoBean
     private JwtUtil jwtUtil;
 
+    @MockitoBean
+    private JwtDenylist jwtDenylist;
+
+    @MockitoBean
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @MockitoBean
+    private QueryStatsFilter queryStatsFilter;
+
     @MockitoBean
     private UserDetailsService userDetailsService;
 
@@ -215,4 +227,17 @@ class AuthControllerTest {
 
         verify(authenticationService, never()).refreshToken(anyString());
     }
+
+    @Test
+    @DisplayName("Should logout with the access token")
+    @WithMockUser
+    void shouldLogout() throws Exception {
+        assertThat(mockMvcTester.perform(post("/auth/logout")
+                        .header("Authorization", "Bearer access-token")))
+                .hasStatusOk()
+                .bodyJson()
+                .hasPathSatisfying("$.status", status -> assertThat(status).isEqualTo("SUCCESS"));
+
+        verify(authenticationService).logout("access-token");
+    }
 }
@@ -0,0 +1,75 @@
+package fi.unfinitas.bookora.controller;
+
+import fi.unfinitas.bookora.config.observability.QueryStatsFilter;
+import fi.unfinitas.bookora.config.security.JwtAuthenticationFilter;
+import fi.unfinitas.bookora.config.web.ConcurrencyLimitFilter;
+import fi.unfinitas.bookora.dto.response.BookingChangesResponse;
+import fi.unfinitas.bookora.exception.GlobalExceptionHandler;
+import fi.unfinitas.bookora.exception.InvalidCursorException;
+import fi.unfinitas.bookora.security.JwtUtil;
+import fi.unfinitas.bookora.service.ChangeFeedService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.assertj.MockMvcTester;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@WebMvcTest({ChangeFeedController.class, GlobalExceptionHandler.class})
+@AutoConfigureMockMvc(addFilters = false)
+class ChangeFeedControllerTest {
+
+    @Autowired
+    private MockMvcTester mockMvcTester;
+
+    @MockitoBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @MockitoBean
+    private JwtUtil jwtUtil;
+
+    @MockitoBean
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @MockitoBean
+    private QueryStatsFilter queryStatsFilter;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    @MockitoBean
+    private ChangeFeedService changeFeedService;
+
+    @Test
+    @DisplayName("Should return page of booking changes")
+    void shouldReturnBookingChanges() {
+        when(changeFeedService.getBookingChanges(eq("abc"), eq(50), any()))
+                .thenReturn(new BookingChangesResponse(List.of(), "abc", false));
+
+        assertThat(mockMvcTester.get().uri("/changes/bookings?cursor=abc&limit=50"))
+                .hasStatusOk()
+                .bodyJson()
+                .hasPathSatisfying("$.data.nextCursor", cursor -> assertThat(cursor).isEqualTo("abc"))
+                .hasPathSatisfying("$.data.hasMore", hasMore -> assertThat(hasMore).isEqualTo(false));
+    }
+
+    @Test
+    @DisplayName("Should return 400 when cursor is malformed")
+    void shouldReturn400WhenCursorIsMalformed() {
+        when(changeFeedService.getBookingChanges(eq("bad"), any(), any()))
+                .thenThrow(new InvalidCursorException("Invalid cursor"));
+
+        assertThat(mockMvcTester.get().uri("/changes/bookings?cursor=bad"))
+                .hasStatus(HttpStatus.BAD_REQUEST);
+    }
+}
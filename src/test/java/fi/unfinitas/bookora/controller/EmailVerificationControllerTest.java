@@ -2,12 +2,15 @@ package fi.unfinitas.bookora.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.config.observability.QueryStatsFilter;
+import fi.unfinitas.bookora.config.web.ConcurrencyLimitFilter;
 import fi.unfinitas.bookora.dto.request.ResendVerificationRequest;
 import fi.unfinitas.bookora.exception.GlobalExceptionHandler;
 import fi.unfinitas.bookora.exception.RateLimitExceededException;
 import fi.unfinitas.bookora.exception.UserNotFoundException;
 import fi.unfinitas.bookora.exception.VerificationTokenExpiredException;
 import fi.unfinitas.bookora.exception.VerificationTokenInvalidException;
+import fi.unfinitas.bookora.security.JwtDenylist;
 import fi.unfinitas.bookora.security.JwtUtil;
 import fi.unfinitas.bookora.service.EmailVerificationService;
 import fi.unfinitas.bookora.service.UserService;
@@ -51,6 +54,15 @@ class EmailVerificationControllerTest {
     @MockitoBean
     private JwtUtil jwtUtil;
 
+    @MockitoBean
+    private JwtDenylist jwtDenylist;
+
+    @MockitoBean
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @MockitoBean
+    private QueryStatsFilter queryStatsFilter;
+
     @MockitoBean
     private UserDetailsService userDetailsService;
 
@@ -0,0 +1,85 @@
+package fi.unfinitas.bookora.controller;
+
+import fi.unfinitas.bookora.config.observability.QueryStatsFilter;
+import fi.unfinitas.bookora.config.security.JwtAuthenticationFilter;
+import fi.unfinitas.bookora.config.web.ConcurrencyLimitFilter;
+import fi.unfinitas.bookora.dto.response.FreeSlotsResponse;
+import fi.unfinitas.bookora.exception.GlobalExceptionHandler;
+import fi.unfinitas.bookora.exception.ServiceOfferingNotFoundException;
+import fi.unfinitas.bookora.security.JwtUtil;
+import fi.unfinitas.bookora.service.ProviderCalendarService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.assertj.MockMvcTester;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@WebMvcTest({FreeSlotController.class, GlobalExceptionHandler.class})
+@AutoConfigureMockMvc(addFilters = false)
+class FreeSlotControllerTest {
+
+    @Autowired
+    private MockMvcTester mockMvcTester;
+
+    @MockitoBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @MockitoBean
+    private JwtUtil jwtUtil;
+
+    @MockitoBean
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @MockitoBean
+    private QueryStatsFilter queryStatsFilter;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    @MockitoBean
+    private ProviderCalendarService providerCalendarService;
+
+    private final LocalDate date = LocalDate.of(2026, 3, 2);
+
+    @Test
+    @DisplayName("Should list the free start times of a service")
+    void shouldListFreeSlots() {
+        when(providerCalendarService.getFreeSlots(2L, date))
+                .thenReturn(new FreeSlotsResponse(2L, date, 30, List.of(LocalTime.of(9, 0), LocalTime.of(9, 30))));
+
+        assertThat(mockMvcTester.get().uri("/guest/services/{serviceId}/free-slots?date=2026-03-02", 2L))
+                .hasStatusOk()
+                .bodyJson()
+                .hasPathSatisfying("$.data.startTimes[1]", startTime -> assertThat(startTime).isEqualTo("09:30:00"));
+    }
+
+    @Test
+    @DisplayName("Should return 400 without a date")
+    void shouldRejectMissingDate() {
+        assertThat(mockMvcTester.get().uri("/guest/services/{serviceId}/free-slots", 2L))
+                .hasStatus(HttpStatus.BAD_REQUEST);
+
+        verifyNoInteractions(providerCalendarService);
+    }
+
+    @Test
+    @DisplayName("Should return 404 for an unknown service")
+    void shouldReturn404ForUnknownService() {
+        when(providerCalendarService.getFreeSlots(9L, date))
+                .thenThrow(new ServiceOfferingNotFoundException("Service offering not found with ID: 9"));
+
+        assertThat(mockMvcTester.get().uri("/guest/services/{serviceId}/free-slots?date=2026-03-02", 9L))
+                .hasStatus(HttpStatus.NOT_FOUND);
+    }
+}
@@ -1,7 +1,9 @@
 package fi.unfinitas.bookora.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import fi.unfinitas.bookora.config.observability.QueryStatsFilter;
 import fi.unfinitas.bookora.config.security.JwtAuthenticationFilter;
+import fi.unfinitas.bookora.config.web.ConcurrencyLimitFilter;
 import fi.unfinitas.bookora.dto.request.CreateGuestBookingRequest;
 import fi.unfinitas.bookora.dto.response.BookingResponse;
 import fi.unfinitas.bookora.dto.response.GuestBookingResponse;
@@ -11,6 +13,7 @@ import fi.unfinitas.bookora.exception.ServiceOfferingNotFoundException;
 import fi.unfinitas.bookora.exception.TokenExpiredException;
 import fi.unfinitas.bookora.security.JwtUtil;
 import fi.unfinitas.bookora.service.BookingService;
+import fi.unfinitas.bookora.service.IdempotencyService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,10 +28,12 @@ import org.springframework.test.web.servlet.assertj.MockMvcTester;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @WebMvcTest(GuestBookingController.class)
@@ -47,20 +52,29 @@ class GuestBookingControllerTest {
     @MockitoBean
     private JwtUtil jwtUtil;
 
+    @MockitoBean
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @MockitoBean
+    private QueryStatsFilter queryStatsFilter;
+
     @MockitoBean
     private UserDetailsService userDetailsService;
 
     @MockitoBean
     private BookingService bookingService;
 
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
     private CreateGuestBookingRequest validRequest;
     private GuestBookingResponse guestBookingResponse;
     private BookingResponse bookingResponse;
-    private UUID testToken;
+    private String testToken;
 
     @BeforeEach
     void setUp() {
-        testToken = UUID.randomUUID();
+        testToken = UUID.randomUUID().toString();
 
         validRequest = CreateGuestBookingRequest.builder()
                 .firstName("John")
@@ -130,6 +144,25 @@ class GuestBookingControllerTest {
         verify(bookingService).createGuestBooking(any(CreateGuestBookingRequest.class));
     }
 
+    @Test
+    @DisplayName("Should route creation through idempotency service when Idempotency-Key is present")
+    void shouldCreateGuestBookingWithIdempotencyKey() throws Exception {
+        when(idempotencyService.createGuestBooking(eq("retry-key"), any(CreateGuestBookingRequest.class), any()))
+                .thenReturn(new IdempotencyService.Result(guestBookingResponse, true));
+
+        assertThat(mockMvcTester.post()
+                        .uri("/bookings/guest")
+                        .header("Idempotency-Key", "retry-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validRequest)))
+                .hasStatus(HttpStatus.CREATED)
+                .hasHeader("Idempotent-Replayed", "true")
+                .bodyJson()
+                .hasPathSatisfying("$.data.customerName", name -> assertThat(name).isEqualTo("John Doe"));
+
+        verify(bookingService, never()).createGuestBooking(any(CreateGuestBookingRequest.class));
+    }
+
     @Test
     @DisplayName("Should return 400 when request is invalid")
     void shouldReturn400WhenRequestIsInvalid() throws Exception {
@@ -180,6 +213,45 @@ class GuestBookingControllerTest {
         verify(bookingService).getBookingByToken(testToken);
     }
 
+    @Test
+    @DisplayName("Should return ETag and private no-cache header with booking")
+    void shouldReturnETagWithBooking() {
+        when(bookingService.getBookingETagByToken(testToken)).thenReturn(Optional.of("\"1.0.0.0\""));
+        when(bookingService.getBookingByToken(testToken)).thenReturn(bookingResponse);
+
+        assertThat(mockMvcTester.get().uri("/bookings/guest/{token}", testToken))
+                .hasStatusOk()
+                .hasHeader("ETag", "\"1.0.0.0\"")
+                .hasHeader("Cache-Control", "no-cache, private");
+    }
+
+    @Test
+    @DisplayName("Should return 304 without loading the booking when ETag matches")
+    void shouldReturn304WhenETagMatches() {
+        when(bookingService.getBookingETagByToken(testToken)).thenReturn(Optional.of("\"1.0.0.0\""));
+
+        assertThat(mockMvcTester.get().uri("/bookings/guest/{token}", testToken)
+                        .header("If-None-Match", "\"1.0.0.0\""))
+                .hasStatus(HttpStatus.NOT_MODIFIED)
+                .hasHeader("ETag", "\"1.0.0.0\"");
+
+        verify(bookingService, never()).getBookingByToken(any());
+    }
+
+    @Test
+    @DisplayName("Should return full booking when ETag does not match")
+    void shouldReturnBookingWhenETagDoesNotMatch() {
+        when(bookingService.getBookingETagByToken(testToken)).thenReturn(Optional.of("\"2.0.0.0\""));
+        when(bookingService.getBookingByToken(testToken)).thenReturn(bookingResponse);
+
+        assertThat(mockMvcTester.get().uri("/bookings/guest/{token}", testToken)
+                        .header("If-None-Match", "\"1.0.0.0\""))
+                .hasStatusOk()
+                .hasHeader("ETag", "\"2.0.0.0\"");
+
+        verify(bookingService).getBookingByToken(testToken);
+    }
+
     @Test
     @DisplayName("Should return 401 when token is expired")
     void shouldReturn401WhenTokenIsExpired()  {
@@ -0,0 +1,101 @@
+package fi.unfinitas.bookora.controller;
+
+import fi.unfinitas.bookora.config.observability.QueryStatsFilter;
+import fi.unfinitas.bookora.config.security.JwtAuthenticationFilter;
+import fi.unfinitas.bookora.config.web.ConcurrencyLimitFilter;
+import fi.unfinitas.bookora.dto.request.UpdateBookingPolicyRequest;
+import fi.unfinitas.bookora.dto.response.BookingPolicyResponse;
+import fi.unfinitas.bookora.exception.GlobalExceptionHandler;
+import fi.unfinitas.bookora.exception.ProviderAccessDeniedException;
+import fi.unfinitas.bookora.security.JwtUtil;
+import fi.unfinitas.bookora.service.BookingPolicyService;
+import fi.unfinitas.bookora.service.ProviderService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.assertj.MockMvcTester;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@WebMvcTest({ProviderBookingPolicyController.class, GlobalExceptionHandler.class})
+@AutoConfigureMockMvc(addFilters = false)
+class ProviderBookingPolicyControllerTest {
+
+    @Autowired
+    private MockMvcTester mockMvcTester;
+
+    @MockitoBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @MockitoBean
+    private JwtUtil jwtUtil;
+
+    @MockitoBean
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @MockitoBean
+    private QueryStatsFilter queryStatsFilter;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    @MockitoBean
+    private ProviderService providerService;
+
+    @MockitoBean
+    private BookingPolicyService bookingPolicyService;
+
+    private final UUID providerId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Should set the policy of a service")
+    void shouldUpdateServicePolicy() {
+        final UpdateBookingPolicyRequest request = new UpdateBookingPolicyRequest(60, 30, 10, 15, null, null);
+        when(bookingPolicyService.updatePolicy(providerId, 2L, request))
+                .thenReturn(new BookingPolicyResponse(2L, 60, 30, 10, 15, null, null, LocalDateTime.now()));
+
+        assertThat(mockMvcTester.put().uri("/providers/{providerId}/services/{serviceId}/booking-policy", providerId, 2L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"minLeadMinutes\":60,\"maxAdvanceDays\":30,\"bufferMinutes\":10,\"startGranularityMinutes\":15}"))
+                .hasStatusOk()
+                .bodyJson()
+                .hasPathSatisfying("$.data.bufferMinutes", buffer -> assertThat(buffer).isEqualTo(10));
+
+        verify(providerService).assertCanAccess(eq(providerId), any());
+    }
+
+    @Test
+    @DisplayName("Should return 400 for a negative limit")
+    void shouldRejectNegativeLimit() {
+        assertThat(mockMvcTester.put().uri("/providers/{providerId}/booking-policy", providerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"dailyCap\":-1}"))
+                .hasStatus(HttpStatus.BAD_REQUEST);
+
+        verifyNoInteractions(bookingPolicyService);
+    }
+
+    @Test
+    @DisplayName("Should return 403 when user does not own the provider")
+    void shouldReturn403WhenAccessDenied() {
+        doThrow(new ProviderAccessDeniedException("You do not have access to this provider"))
+                .when(providerService).assertCanAccess(eq(providerId), any());
+
+        assertThat(mockMvcTester.get().uri("/providers/{providerId}/booking-policies", providerId))
+                .hasStatus(HttpStatus.FORBIDDEN);
+
+        verifyNoInteractions(bookingPolicyService);
+    }
+}
@@ -0,0 +1,86 @@
+package fi.unfinitas.bookora.controller;
+
+import fi.unfinitas.bookora.config.observability.QueryStatsFilter;
+import fi.unfinitas.bookora.config.security.JwtAuthenticationFilter;
+import fi.unfinitas.bookora.config.web.ConcurrencyLimitFilter;
+import fi.unfinitas.bookora.exception.GlobalExceptionHandler;
+import fi.unfinitas.bookora.exception.ProviderAccessDeniedException;
+import fi.unfinitas.bookora.security.JwtUtil;
+import fi.unfinitas.bookora.service.BookingStreamService;
+import fi.unfinitas.bookora.service.ProviderService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.assertj.MockMvcTester;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@WebMvcTest({ProviderBookingStreamController.class, GlobalExceptionHandler.class})
+@AutoConfigureMockMvc(addFilters = false)
+class ProviderBookingStreamControllerTest {
+
+    @Autowired
+    private MockMvcTester mockMvcTester;
+
+    @MockitoBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @MockitoBean
+    private JwtUtil jwtUtil;
+
+    @MockitoBean
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @MockitoBean
+    private QueryStatsFilter queryStatsFilter;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    @MockitoBean
+    private ProviderService providerService;
+
+    @MockitoBean
+    private BookingStreamService bookingStreamService;
+
+    @Test
+    @DisplayName("Should open event stream for accessible provider")
+    void shouldOpenStream() {
+        final UUID providerId = UUID.randomUUID();
+        final SseEmitter emitter = new SseEmitter();
+        emitter.complete();
+        when(bookingStreamService.subscribe(providerId)).thenReturn(emitter);
+
+        assertThat(mockMvcTester.get().uri("/providers/{providerId}/bookings/stream", providerId))
+                .hasStatusOk()
+                .hasContentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM);
+
+        verify(providerService).assertCanAccess(eq(providerId), any());
+        verify(bookingStreamService).subscribe(providerId);
+    }
+
+    @Test
+    @DisplayName("Should return 403 when user does not own the provider")
+    void shouldReturn403WhenAccessDenied() {
+        final UUID providerId = UUID.randomUUID();
+        doThrow(new ProviderAccessDeniedException("You do not have access to this provider"))
+                .when(providerService).assertCanAccess(eq(providerId), any());
+
+        assertThat(mockMvcTester.get().uri("/providers/{providerId}/bookings/stream", providerId))
+                .hasStatus(HttpStatus.FORBIDDEN);
+
+        verify(bookingStreamService, never()).subscribe(any());
+    }
+}
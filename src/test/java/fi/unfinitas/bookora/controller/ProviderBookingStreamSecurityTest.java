@@ -0,0 +1,135 @@
+package fi.unfinitas.bookora.controller;
+
+import fi.unfinitas.bookora.config.SecurityConfig;
+import fi.unfinitas.bookora.config.observability.QueryStatsFilter;
+import fi.unfinitas.bookora.config.web.ConcurrencyLimitFilter;
+import fi.unfinitas.bookora.domain.enums.UserRole;
+import fi.unfinitas.bookora.domain.model.User;
+import fi.unfinitas.bookora.exception.GlobalExceptionHandler;
+import fi.unfinitas.bookora.security.CustomUserDetails;
+import fi.unfinitas.bookora.security.CustomUserDetailsService;
+import fi.unfinitas.bookora.security.JwtDenylist;
+import fi.unfinitas.bookora.security.JwtUtil;
+import fi.unfinitas.bookora.service.BookingStreamService;
+import fi.unfinitas.bookora.service.ProviderService;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.assertj.MockMvcTester;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Runs the booking stream through the real security filter chain, including the ASYNC dispatch that
+ * completes the response, which carries no JWT authentication of its own.
+ */
+@WebMvcTest({ProviderBookingStreamController.class, GlobalExceptionHandler.class})
+@Import(SecurityConfig.class)
+class ProviderBookingStreamSecurityTest {
+
+    private static final String TOKEN = "access-token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MockMvcTester mockMvcTester;
+
+    @MockitoBean
+    private JwtUtil jwtUtil;
+
+    @MockitoBean
+    private JwtDenylist jwtDenylist;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @MockitoBean
+    private QueryStatsFilter queryStatsFilter;
+
+    @MockitoBean
+    private ProviderService providerService;
+
+    @MockitoBean
+    private BookingStreamService bookingStreamService;
+
+    private final UUID providerId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        passThrough(concurrencyLimitFilter);
+        passThrough(queryStatsFilter);
+
+        final User user = User.builder()
+                .id(UUID.randomUUID())
+                .username("provider@example.com")
+                .role(UserRole.PROVIDER)
+                .isEmailVerified(true)
+                .build();
+        when(jwtUtil.parseClaims(TOKEN)).thenReturn(Jwts.claims().subject("provider@example.com").build());
+        when(customUserDetailsService.loadUserByUsername("provider@example.com")).thenReturn(new CustomUserDetails(user));
+    }
+
+    @Test
+    @DisplayName("Should complete the stream on the async dispatch of an authenticated request")
+    void shouldCompleteStreamOnAsyncDispatch() throws Exception {
+        final SseEmitter emitter = new SseEmitter();
+        when(bookingStreamService.subscribe(providerId)).thenReturn(emitter);
+
+        final MvcResult started = mockMvc.perform(get("/providers/{providerId}/bookings/stream", providerId)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)).andReturn();
+        assertThat(started.getRequest().isAsyncStarted()).isTrue();
+        emitter.complete();
+
+        assertThat(mockMvcTester.perform(asyncDispatch(started)))
+                .hasStatusOk()
+                .hasContentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM);
+        verify(providerService).assertCanAccess(eq(providerId), any());
+    }
+
+    @Test
+    @DisplayName("Should reject opening a stream without authentication")
+    void shouldRejectAnonymousStream() {
+        assertThat(mockMvcTester.get().uri("/providers/{providerId}/bookings/stream", providerId))
+                .hasStatus(HttpStatus.FORBIDDEN);
+
+        verifyNoInteractions(bookingStreamService);
+    }
+
+    private static void passThrough(final Filter filter) throws Exception {
+        doAnswer(invocation -> {
+            invocation.<FilterChain>getArgument(2)
+                    .doFilter(invocation.<ServletRequest>getArgument(0), invocation.<ServletResponse>getArgument(1));
+            return null;
+        }).when(filter).doFilter(any(), any(), any());
+    }
+}
@@ -0,0 +1,112 @@
+package fi.unfinitas.bookora.controller;
+
+import fi.unfinitas.bookora.config.observability.QueryStatsFilter;
+import fi.unfinitas.bookora.config.security.JwtAuthenticationFilter;
+import fi.unfinitas.bookora.config.web.ConcurrencyLimitFilter;
+import fi.unfinitas.bookora.dto.response.WebhookEndpointResponse;
+import fi.unfinitas.bookora.exception.GlobalExceptionHandler;
+import fi.unfinitas.bookora.exception.ProviderAccessDeniedException;
+import fi.unfinitas.bookora.exception.WebhookEndpointNotFoundException;
+import fi.unfinitas.bookora.security.JwtUtil;
+import fi.unfinitas.bookora.service.ProviderService;
+import fi.unfinitas.bookora.service.WebhookService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.assertj.MockMvcTester;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@WebMvcTest({ProviderWebhookController.class, GlobalExceptionHandler.class})
+@AutoConfigureMockMvc(addFilters = false)
+class ProviderWebhookControllerTest {
+
+    private static final String URL = "https://partner.example.com/hook";
+
+    @Autowired
+    private MockMvcTester mockMvcTester;
+
+    @MockitoBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @MockitoBean
+    private JwtUtil jwtUtil;
+
+    @MockitoBean
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @MockitoBean
+    private QueryStatsFilter queryStatsFilter;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    @MockitoBean
+    private ProviderService providerService;
+
+    @MockitoBean
+    private WebhookService webhookService;
+
+    private final UUID providerId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Should register endpoint and return its secret")
+    void shouldRegisterEndpoint() {
+        when(webhookService.createEndpoint(providerId, URL))
+                .thenReturn(new WebhookEndpointResponse(1L, URL, true, "secret", LocalDateTime.now()));
+
+        assertThat(mockMvcTester.post().uri("/providers/{providerId}/webhooks", providerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"url\":\"" + URL + "\"}"))
+                .hasStatus(HttpStatus.CREATED)
+                .bodyJson()
+                .hasPathSatisfying("$.data.secret", secret -> assertThat(secret).isEqualTo("secret"));
+
+        verify(providerService).assertCanAccess(eq(providerId), any());
+    }
+
+    @Test
+    @DisplayName("Should return 400 for a non-http URL")
+    void shouldRejectInvalidUrl() {
+        assertThat(mockMvcTester.post().uri("/providers/{providerId}/webhooks", providerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"url\":\"ftp://partner.example.com\"}"))
+                .hasStatus(HttpStatus.BAD_REQUEST);
+
+        verifyNoInteractions(webhookService);
+    }
+
+    @Test
+    @DisplayName("Should return 403 when user does not own the provider")
+    void shouldReturn403WhenAccessDenied() {
+        doThrow(new ProviderAccessDeniedException("You do not have access to this provider"))
+                .when(providerService).assertCanAccess(eq(providerId), any());
+
+        assertThat(mockMvcTester.get().uri("/providers/{providerId}/webhooks", providerId))
+                .hasStatus(HttpStatus.FORBIDDEN);
+
+        verifyNoInteractions(webhookService);
+    }
+
+    @Test
+    @DisplayName("Should return 404 when deleting an unknown endpoint")
+    void shouldReturn404WhenEndpointNotFound() {
+        doThrow(new WebhookEndpointNotFoundException("Webhook endpoint not found with ID: 9"))
+                .when(webhookService).deleteEndpoint(providerId, 9L);
+
+        assertThat(mockMvcTester.delete().uri("/providers/{providerId}/webhooks/{endpointId}", providerId, 9L))
+                .hasStatus(HttpStatus.NOT_FOUND);
+    }
+}
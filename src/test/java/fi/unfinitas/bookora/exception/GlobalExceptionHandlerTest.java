@@ -1,6 +1,7 @@
 package fi.unfinitas.bookora.exception;
 
 import fi.unfinitas.bookora.dto.response.ApiResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.OptimisticLockException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,6 +14,7 @@ import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 
 import java.util.List;
 import java.util.Map;
@@ -23,11 +25,12 @@ import static org.mockito.Mockito.when;
 
 class GlobalExceptionHandlerTest {
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
     private GlobalExceptionHandler globalExceptionHandler;
 
     @BeforeEach
     void setUp() {
-        globalExceptionHandler = new GlobalExceptionHandler();
+        globalExceptionHandler = new GlobalExceptionHandler(meterRegistry);
     }
 
     @Test
@@ -58,7 +61,7 @@ class GlobalExceptionHandlerTest {
     void shouldHandleEmailAlreadyExistsException() {
         final EmailAlreadyExistsException ex = new EmailAlreadyExistsException("Email is already registered");
 
-        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleEmailAlreadyExists(ex);
+        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleBookoraException(ex);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
         assertThat(response.getBody()).isNotNull();
@@ -72,7 +75,7 @@ class GlobalExceptionHandlerTest {
     void shouldHandleUsernameAlreadyExistsException() {
         final UsernameAlreadyExistsException ex = new UsernameAlreadyExistsException("Username is already taken");
 
-        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleUsernameAlreadyExists(ex);
+        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleBookoraException(ex);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
         assertThat(response.getBody()).isNotNull();
@@ -86,7 +89,7 @@ class GlobalExceptionHandlerTest {
     void shouldHandleInvalidCredentialsException() {
         final InvalidCredentialsException ex = new InvalidCredentialsException("Invalid username or password");
 
-        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleInvalidCredentials(ex);
+        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleBookoraException(ex);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
         assertThat(response.getBody()).isNotNull();
@@ -165,12 +168,25 @@ class GlobalExceptionHandlerTest {
         assertThat(response.getBody().getMessage()).contains("missing");
     }
 
+    @Test
+    @DisplayName("Should handle missing request parameter exception")
+    void shouldHandleMissingRequestParameterException() {
+        final MissingServletRequestParameterException ex = new MissingServletRequestParameterException("date", "LocalDate");
+
+        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleMissingRequestParameter(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getStatus()).isEqualTo("FAIL");
+        assertThat(response.getBody().getMessage()).contains("date");
+    }
+
     @Test
     @DisplayName("Should handle booking not found exception")
     void shouldHandleBookingNotFoundException() {
         final BookingNotFoundException ex = new BookingNotFoundException("Booking not found");
 
-        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleBookingNotFound(ex);
+        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleBookoraException(ex);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
         assertThat(response.getBody()).isNotNull();
@@ -183,7 +199,7 @@ class GlobalExceptionHandlerTest {
     void shouldHandleServiceOfferingNotFoundException() {
         final ServiceOfferingNotFoundException ex = new ServiceOfferingNotFoundException("Service offering not found");
 
-        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleServiceOfferingNotFound(ex);
+        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleBookoraException(ex);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
         assertThat(response.getBody()).isNotNull();
@@ -196,7 +212,7 @@ class GlobalExceptionHandlerTest {
     void shouldHandleInvalidBookingTimeException() {
         final InvalidBookingTimeException ex = new InvalidBookingTimeException("Invalid booking time");
 
-        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleInvalidBookingTime(ex);
+        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleBookoraException(ex);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
         assertThat(response.getBody()).isNotNull();
@@ -209,7 +225,7 @@ class GlobalExceptionHandlerTest {
     void shouldHandleTokenExpiredException() {
         final TokenExpiredException ex = new TokenExpiredException("Token has expired");
 
-        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleTokenExpired(ex);
+        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleBookoraException(ex);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
         assertThat(response.getBody()).isNotNull();
@@ -222,7 +238,7 @@ class GlobalExceptionHandlerTest {
     void shouldHandleTokenAlreadyUsedException() {
         final TokenAlreadyUsedException ex = new TokenAlreadyUsedException("Token already used");
 
-        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleTokenAlreadyUsed(ex);
+        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleBookoraException(ex);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
         assertThat(response.getBody()).isNotNull();
@@ -237,7 +253,7 @@ class GlobalExceptionHandlerTest {
                 "Email already registered"
         );
 
-        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleGuestEmailAlreadyRegistered(ex);
+        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleBookoraException(ex);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
         assertThat(response.getBody()).isNotNull();
@@ -250,7 +266,7 @@ class GlobalExceptionHandlerTest {
     void shouldHandleBookingAlreadyConfirmedException() {
         final BookingAlreadyConfirmedException ex = new BookingAlreadyConfirmedException("Booking is already confirmed");
 
-        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleBookingAlreadyConfirmed(ex);
+        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleBookoraException(ex);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
         assertThat(response.getBody()).isNotNull();
@@ -263,7 +279,7 @@ class GlobalExceptionHandlerTest {
     void shouldHandleBookingAlreadyCancelledException() {
         final BookingAlreadyCancelledException ex = new BookingAlreadyCancelledException("Booking is already cancelled");
 
-        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleBookingAlreadyCancelled(ex);
+        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleBookoraException(ex);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
         assertThat(response.getBody()).isNotNull();
@@ -276,7 +292,7 @@ class GlobalExceptionHandlerTest {
     void shouldHandleCannotCancelBookingException() {
         final CannotCancelBookingException ex = new CannotCancelBookingException("Cannot cancel booking within 24 hours");
 
-        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleCannotCancelBooking(ex);
+        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleBookoraException(ex);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
         assertThat(response.getBody()).isNotNull();
@@ -284,6 +300,72 @@ class GlobalExceptionHandlerTest {
         assertThat(response.getBody().getMessage()).isEqualTo("Cannot cancel booking within 24 hours");
     }
 
+    @Test
+    @DisplayName("Should handle invalid idempotency key exception")
+    void shouldHandleInvalidIdempotencyKeyException() {
+        final InvalidIdempotencyKeyException ex = new InvalidIdempotencyKeyException(
+                "Idempotency-Key has already been used with a different request.");
+
+        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleBookoraException(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getStatus()).isEqualTo("FAIL");
+        assertThat(response.getBody().getMessage()).isEqualTo("Idempotency-Key has already been used with a different request.");
+    }
+
+    @Test
+    @DisplayName("Should handle idempotency key conflict exception")
+    void shouldHandleIdempotencyKeyConflictException() {
+        final IdempotencyKeyConflictException ex = new IdempotencyKeyConflictException(
+                "A request with this Idempotency-Key is still being processed. Please retry shortly.");
+
+        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleBookoraException(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getStatus()).isEqualTo("FAIL");
+    }
+
+    @Test
+    @DisplayName("Should handle provider access denied exception")
+    void shouldHandleProviderAccessDeniedException() {
+        final ProviderAccessDeniedException ex = new ProviderAccessDeniedException("You do not have access to this provider");
+
+        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleBookoraException(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getStatus()).isEqualTo("FAIL");
+        assertThat(response.getBody().getMessage()).isEqualTo("You do not have access to this provider");
+    }
+
+    @Test
+    @DisplayName("Should handle invalid cursor exception")
+    void shouldHandleInvalidCursorException() {
+        final InvalidCursorException ex = new InvalidCursorException("Invalid cursor");
+
+        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleBookoraException(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getStatus()).isEqualTo("FAIL");
+        assertThat(response.getBody().getMessage()).isEqualTo("Invalid cursor");
+    }
+
+    @Test
+    @DisplayName("Should handle webhook endpoint not found exception")
+    void shouldHandleWebhookEndpointNotFoundException() {
+        final WebhookEndpointNotFoundException ex = new WebhookEndpointNotFoundException("Webhook endpoint not found with ID: 1");
+
+        final ResponseEntity<ApiResponse<Void>> response = globalExceptionHandler.handleBookoraException(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getStatus()).isEqualTo("FAIL");
+        assertThat(response.getBody().getMessage()).isEqualTo("Webhook endpoint not found with ID: 1");
+    }
+
     @Test
     @DisplayName("Should handle OptimisticLockException")
     void shouldHandleOptimisticLockException() {
@@ -312,4 +394,30 @@ class GlobalExceptionHandlerTest {
         assertThat(response.getBody().getStatus()).isEqualTo("FAIL");
         assertThat(response.getBody().getMessage()).isEqualTo("This record was modified by another user. Please refresh and try again.");
     }
+
+    @Test
+    @DisplayName("Should count business rejections by error code")
+    void shouldCountRejectionsByErrorCode() {
+        globalExceptionHandler.handleBookoraException(new InvalidTokenException("Invalid token"));
+        globalExceptionHandler.handleBookoraException(new InvalidTokenException("Invalid token"));
+        globalExceptionHandler.handleBookoraException(new RateLimitExceededException("Too many requests"));
+
+        assertThat(meterRegistry.get(GlobalExceptionHandler.REJECTIONS_COUNTER).tag("code", "INVALID_TOKEN")
+                .counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(GlobalExceptionHandler.REJECTIONS_COUNTER).tag("code", "RATE_LIMIT_EXCEEDED")
+                .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(GlobalExceptionHandler.REJECTIONS_COUNTER).tag("code", "BOOKING_NOT_FOUND")
+                .counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not capture a stack trace for business rejections")
+    void shouldNotCaptureStackTrace() {
+        final RuntimeException cause = new IllegalStateException("Slot taken");
+        final CustomerBookingConflictException ex = new CustomerBookingConflictException("Conflict", cause);
+
+        assertThat(ex.getStackTrace()).isEmpty();
+        assertThat(ex.getCause()).isSameAs(cause);
+        assertThat(ex.getErrorCode()).isEqualTo(ErrorCode.CUSTOMER_BOOKING_CONFLICT);
+    }
 }
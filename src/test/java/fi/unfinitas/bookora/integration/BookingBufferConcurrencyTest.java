@@ -0,0 +1,138 @@
+package fi.unfinitas.bookora.integration;
+
+import fi.unfinitas.bookora.config.TestContainersConfiguration;
+import fi.unfinitas.bookora.config.TestEmailConfiguration;
+import fi.unfinitas.bookora.domain.model.Provider;
+import fi.unfinitas.bookora.domain.model.ServiceOffering;
+import fi.unfinitas.bookora.dto.request.CreateGuestBookingRequest;
+import fi.unfinitas.bookora.dto.request.UpdateBookingPolicyRequest;
+import fi.unfinitas.bookora.exception.InvalidBookingTimeException;
+import fi.unfinitas.bookora.repository.BookingRepository;
+import fi.unfinitas.bookora.repository.ProviderRepository;
+import fi.unfinitas.bookora.repository.ServiceOfferingRepository;
+import fi.unfinitas.bookora.repository.UserRepository;
+import fi.unfinitas.bookora.service.BookingPolicyService;
+import fi.unfinitas.bookora.service.BookingService;
+import fi.unfinitas.bookora.testutil.TestDataBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent guest bookings of two services of one provider whose buffers differ, each admitted in its own
+ * committed transaction.
+ */
+@SpringBootTest
+@Import({TestContainersConfiguration.class, TestEmailConfiguration.class})
+@ActiveProfiles("test")
+@DisplayName("Booking Buffer Concurrency Tests")
+@Sql(
+        statements = {
+                "TRUNCATE TABLE t_booking_policy CASCADE",
+                "TRUNCATE TABLE t_guest_access_token CASCADE",
+                "TRUNCATE TABLE t_booking CASCADE",
+                "TRUNCATE TABLE t_service CASCADE",
+                "TRUNCATE TABLE t_provider CASCADE",
+                "TRUNCATE TABLE t_user CASCADE"
+        },
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
+)
+class BookingBufferConcurrencyTest {
+
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingPolicyService bookingPolicyService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProviderRepository providerRepository;
+
+    @Autowired
+    private ServiceOfferingRepository serviceOfferingRepository;
+
+    @Test
+    @DisplayName("Should keep the wider buffer between racing bookings of services with different buffers")
+    void shouldKeepWiderBufferUnderRace() throws Exception {
+        final Provider provider = providerRepository.save(TestDataBuilder.provider()
+                .user(userRepository.save(TestDataBuilder.user()
+                        .username("buffer-provider").email("buffer-provider@test.com").build()))
+                .build());
+        final ServiceOffering buffered = serviceOfferingRepository.save(TestDataBuilder.serviceOffering()
+                .provider(provider).build());
+        final ServiceOffering unbuffered = serviceOfferingRepository.save(TestDataBuilder.serviceOffering()
+                .name("Beard trim").provider(provider).build());
+        // 30 minutes for the provider, switched off for one of its services
+        bookingPolicyService.updatePolicy(provider.getId(), null,
+                new UpdateBookingPolicyRequest(null, null, 30, null, null, null));
+        bookingPolicyService.updatePolicy(provider.getId(), unbuffered.getId(),
+                new UpdateBookingPolicyRequest(null, null, 0, null, null, null));
+
+        for (int round = 0; round < ROUNDS; round++) {
+            final LocalDate day = LocalDate.now().plusDays(2 + round);
+            // Ten minutes apart: fine for the unbuffered service, inside the other's 30-minute buffer
+            final CreateGuestBookingRequest first = request(buffered, day.atTime(10, 0), day.atTime(11, 0), "a" + round);
+            final CreateGuestBookingRequest second = request(unbuffered, day.atTime(11, 10), day.atTime(12, 0), "b" + round);
+            final CountDownLatch ready = new CountDownLatch(1);
+
+            final List<Future<Boolean>> results = new ArrayList<>();
+            try (ExecutorService bookers = Executors.newFixedThreadPool(2)) {
+                for (final CreateGuestBookingRequest request : List.of(first, second)) {
+                    results.add(bookers.submit(() -> {
+                        ready.await();
+                        try {
+                            bookingService.createGuestBooking(request);
+                            return true;
+                        } catch (final InvalidBookingTimeException e) {
+                            return false;
+                        }
+                    }));
+                }
+                ready.countDown();
+            }
+
+            int booked = 0;
+            for (final Future<Boolean> result : results) {
+                booked += result.get() ? 1 : 0;
+            }
+            assertThat(booked).as("bookings admitted in round %d", round).isEqualTo(1);
+        }
+        assertThat(bookingRepository.findByProviderId(provider.getId())).hasSize(ROUNDS);
+    }
+
+    private static CreateGuestBookingRequest request(final ServiceOffering service, final LocalDateTime startTime,
+                                                     final LocalDateTime endTime, final String guest) {
+        return CreateGuestBookingRequest.builder()
+                .firstName("Guest")
+                .lastName(guest)
+                .email("guest-" + guest + "@example.com")
+                .phoneNumber("010-1234-5678")
+                .serviceId(service.getId())
+                .startTime(startTime)
+                .endTime(endTime)
+                .build();
+    }
+}
@@ -115,7 +115,7 @@ class GuestBookingIntegrationTest {
                 .get("data")
                 .traverse(objectMapper)
                 .readValueAs(GuestBookingResponse.class);
-        final UUID token = bookingResponse.accessToken();
+        final UUID token = UUID.fromString(bookingResponse.accessToken());
 
         // Verify booking in database
         assertThat(bookingRepository.findAll()).hasSize(1);
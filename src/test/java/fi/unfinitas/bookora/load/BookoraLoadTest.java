@@ -0,0 +1,188 @@
+package fi.unfinitas.bookora.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import fi.unfinitas.bookora.domain.model.Provider;
+import fi.unfinitas.bookora.domain.model.ServiceOffering;
+import fi.unfinitas.bookora.domain.model.User;
+import fi.unfinitas.bookora.repository.ProviderRepository;
+import fi.unfinitas.bookora.repository.ServiceOfferingRepository;
+import fi.unfinitas.bookora.repository.UserRepository;
+import fi.unfinitas.bookora.testutil.SmtpSink;
+import fi.unfinitas.bookora.testutil.TestDataBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test: boots the application on a random port against its own Postgres container
+ * with the Flyway schema (including the booking overlap constraints) and a local SMTP sink, drives the
+ * guest booking and auth mix over HTTP and writes a JSON report (see {@link LoadTestSettings}).
+ * Excluded from the regular build; run with {@code ./mvnw -Pload-test test}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@DisplayName("Bookora Load Test")
+@Slf4j
+class BookoraLoadTest {
+
+    private static final SmtpSink SMTP_SINK = startSmtpSink();
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class LoadTestContainers {
+
+        @Bean
+        @ServiceConnection
+        PostgreSQLContainer<?> postgresContainer() {
+            return new PostgreSQLContainer<>(DockerImageName.parse("postgres:17-alpine"))
+                    .withDatabaseName("bookora_load")
+                    .withUsername("load")
+                    .withPassword("load");
+        }
+    }
+
+    @DynamicPropertySource
+    static void loadTestProperties(final DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.port", SMTP_SINK::port);
+        registry.add("spring.flyway.enabled", () -> true);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("logging.level.fi.unfinitas.bookora", () -> "WARN");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProviderRepository providerRepository;
+
+    @Autowired
+    private ServiceOfferingRepository serviceOfferingRepository;
+
+    @AfterAll
+    static void stopSmtpSink() throws IOException {
+        SMTP_SINK.close();
+    }
+
+    @Test
+    @DisplayName("Should sustain the configured booking and auth mix without server errors")
+    void shouldSustainLoad() throws Exception {
+        final LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        final LoadDriver driver = new LoadDriver(settings, "http://localhost:" + port + "/api", objectMapper,
+                createServices("hot", settings.hotProviders()),
+                createServices("cold", settings.coldProviders()),
+                createUsers(settings.users()));
+
+        log.warn("Warming up for {}s", settings.warmup().toSeconds());
+        driver.run(settings.warmup());
+
+        log.warn("Measuring for {}s with {} clients", settings.duration().toSeconds(), settings.concurrency());
+        final Map<LoadOperation, OperationStats> stats;
+        final LoadReport.Pool pool;
+        final long start = System.nanoTime();
+        try (PoolSampler sampler = new PoolSampler(dataSource.unwrap(HikariDataSource.class))) {
+            sampler.start();
+            stats = driver.run(settings.duration());
+            pool = sampler.result();
+        }
+        final Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        final List<LoadReport.OperationResult> operations = stats.entrySet().stream()
+                .map(entry -> entry.getValue().result(entry.getKey(), elapsed))
+                .filter(result -> result.requests() > 0)
+                .toList();
+        final long requests = operations.stream().mapToLong(LoadReport.OperationResult::requests).sum();
+        final LoadReport report = new LoadReport(settings, elapsed.toMillis() / 1000.0, requests,
+                requests / (elapsed.toMillis() / 1000.0), operations, pool, SMTP_SINK.messages());
+
+        Files.createDirectories(settings.report().toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(settings.report().toFile(), report);
+        log.warn("Load test: {} requests, {} req/s, report written to {}",
+                requests, String.format("%.1f", report.throughput()), settings.report().toAbsolutePath());
+
+        assertThat(requests).isPositive();
+        assertThat(operations).allSatisfy(result -> {
+            assertThat(result.serverErrors()).as("%s server errors", result.operation()).isZero();
+            assertThat(result.failures()).as("%s transport failures", result.operation()).isZero();
+        });
+    }
+
+    private List<Long> createServices(final String kind, final int count) {
+        final List<Long> serviceIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final User owner = userRepository.save(TestDataBuilder.user()
+                    .username("load_" + kind + "_provider_" + i)
+                    .email("load-" + kind + "-provider-" + i + "@load.example.com")
+                    .build());
+            final Provider provider = providerRepository.save(TestDataBuilder.provider()
+                    .user(owner)
+                    .businessName("Load " + kind + " provider " + i)
+                    .build());
+            final ServiceOffering service = serviceOfferingRepository.save(TestDataBuilder.serviceOffering()
+                    .provider(provider)
+                    .build());
+            serviceIds.add(service.getId());
+        }
+        return serviceIds;
+    }
+
+    private List<String> createUsers(final int count) {
+        final String password = passwordEncoder.encode(LoadDriver.PASSWORD);
+        return userRepository.saveAll(IntStream.range(0, count)
+                        .mapToObj(i -> TestDataBuilder.user()
+                                .username("load_user_" + i)
+                                .email("load-user-" + i + "@load.example.com")
+                                .password(password)
+                                .build())
+                        .toList())
+                .stream()
+                .map(User::getUsername)
+                .toList();
+    }
+
+    private static SmtpSink startSmtpSink() {
+        try {
+            return new SmtpSink();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package fi.unfinitas.bookora.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fi.unfinitas.bookora.dto.request.CreateGuestBookingRequest;
+import fi.unfinitas.bookora.dto.request.LoginRequest;
+import fi.unfinitas.bookora.load.OperationStats.Outcome;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Drives the weighted operation mix against a running Bookora instance over HTTP.
+ * Booking tokens and refresh tokens created along the way feed the view, confirm, cancel and refresh
+ * operations; when none is available yet the client creates a booking or logs in instead.
+ */
+final class LoadDriver {
+
+    static final String PASSWORD = "load-test-password";
+    private static final int VIEWABLE_TOKENS = 10_000;
+
+    private final LoadTestSettings settings;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final List<Long> hotServices;
+    private final List<Long> coldServices;
+    private final List<String> usernames;
+    private final LoadOperation[] operations;
+    private final int[] cumulativeWeights;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final LocalDateTime firstSlot = LocalDate.now().plusDays(3).atStartOfDay();
+    private final AtomicLong guestSequence = new AtomicLong();
+    private final Queue<UUID> pendingTokens = new ConcurrentLinkedQueue<>();
+    private final AtomicReferenceArray<UUID> viewableTokens = new AtomicReferenceArray<>(VIEWABLE_TOKENS);
+    private final AtomicLong viewableCount = new AtomicLong();
+    private final Map<String, String> refreshTokens = new ConcurrentHashMap<>();
+
+    LoadDriver(final LoadTestSettings settings, final String baseUrl, final ObjectMapper objectMapper,
+               final List<Long> hotServices, final List<Long> coldServices, final List<String> usernames) {
+        this.settings = settings;
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        this.hotServices = hotServices;
+        this.coldServices = coldServices;
+        this.usernames = usernames;
+
+        final List<Map.Entry<LoadOperation, Integer>> weighted = settings.mix().entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .toList();
+        operations = new LoadOperation[weighted.size()];
+        cumulativeWeights = new int[weighted.size()];
+        int total = 0;
+        for (int i = 0; i < weighted.size(); i++) {
+            total += weighted.get(i).getValue();
+            operations[i] = weighted.get(i).getKey();
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Run the mix with the configured concurrency until the duration has passed.
+     *
+     * @param duration how long to run
+     * @return statistics per operation
+     */
+    Map<LoadOperation, OperationStats> run(final Duration duration) throws InterruptedException {
+        final Map<LoadOperation, OperationStats> stats = new EnumMap<>(LoadOperation.class);
+        for (final LoadOperation operation : LoadOperation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+        final long deadline = System.nanoTime() + duration.toNanos();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < settings.concurrency(); i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        execute(nextOperation(), stats);
+                    }
+                });
+            }
+        }
+        return stats;
+    }
+
+    private LoadOperation nextOperation() {
+        final int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    private void execute(final LoadOperation operation, final Map<LoadOperation, OperationStats> stats) {
+        switch (operation) {
+            case CREATE -> create(stats);
+            case VIEW -> {
+                final UUID token = randomViewableToken();
+                if (token == null) {
+                    create(stats);
+                } else {
+                    send(LoadOperation.VIEW, request("/bookings/guest/" + token).GET().build(), stats);
+                }
+            }
+            case CONFIRM -> {
+                final UUID token = pendingTokens.poll();
+                if (token == null) {
+                    create(stats);
+                } else {
+                    send(LoadOperation.CONFIRM, request("/bookings/guest/" + token + "/confirm")
+                            .POST(HttpRequest.BodyPublishers.noBody()).build(), stats);
+                }
+            }
+            case CANCEL -> {
+                final UUID token = pendingTokens.poll();
+                if (token == null) {
+                    create(stats);
+                } else {
+                    send(LoadOperation.CANCEL, request("/bookings/guest/" + token)
+                            .method("PATCH", HttpRequest.BodyPublishers.noBody()).build(), stats);
+                }
+            }
+            case LOGIN -> login(randomUsername(), stats);
+            case REFRESH -> {
+                final String username = randomUsername();
+                // Taken out so that no two workers present the same token; a reused one revokes the session
+                final String refreshToken = refreshTokens.remove(username);
+                if (refreshToken == null) {
+                    login(username, stats);
+                } else {
+                    final JsonNode data = send(LoadOperation.REFRESH, request("/auth/refresh")
+                            .header("Authorization", "Bearer " + refreshToken)
+                            .POST(HttpRequest.BodyPublishers.noBody()).build(), stats);
+                    if (data != null) {
+                        refreshTokens.put(username, data.path("refreshToken").asText());
+                    }
+                }
+            }
+        }
+    }
+
+    private void create(final Map<LoadOperation, OperationStats> stats) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final boolean hot = !hotServices.isEmpty() && (coldServices.isEmpty() || random.nextDouble() < settings.hotShare());
+        final List<Long> services = hot ? hotServices : coldServices;
+        final LocalDateTime start = firstSlot.plusHours(random.nextInt(hot ? settings.hotSlots() : settings.coldSlots()));
+        final long guest = guestSequence.incrementAndGet();
+
+        final CreateGuestBookingRequest booking = CreateGuestBookingRequest.builder()
+                .firstName("Load")
+                .lastName("Guest " + guest)
+                .email("guest-" + guest + "@load.example.com")
+                .phoneNumber("+358400000000")
+                .serviceId(services.get(random.nextInt(services.size())))
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .build();
+
+        final JsonNode data = send(LoadOperation.CREATE, request("/bookings/guest")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json(booking))).build(), stats);
+        if (data != null) {
+            final UUID token = UUID.fromString(data.path("accessToken").asText());
+            pendingTokens.add(token);
+            viewableTokens.set((int) (viewableCount.getAndIncrement() % VIEWABLE_TOKENS), token);
+        }
+    }
+
+    private void login(final String username, final Map<LoadOperation, OperationStats> stats) {
+        final JsonNode data = send(LoadOperation.LOGIN, request("/auth/login")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json(new LoginRequest(username, PASSWORD)))).build(), stats);
+        if (data != null) {
+            refreshTokens.put(username, data.path("refreshToken").asText());
+        }
+    }
+
+    /**
+     * Send a request and record its latency and outcome.
+     *
+     * @return the {@code data} of a successful response, null otherwise
+     */
+    private JsonNode send(final LoadOperation operation, final HttpRequest request,
+                          final Map<LoadOperation, OperationStats> stats) {
+        final long start = System.nanoTime();
+        try {
+            final HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            final Outcome outcome = classify(operation, response.statusCode());
+            stats.get(operation).record(System.nanoTime() - start, outcome);
+            return outcome == Outcome.OK ? objectMapper.readTree(response.body()).path("data") : null;
+        } catch (final IOException e) {
+            stats.get(operation).record(System.nanoTime() - start, Outcome.FAILURE);
+            return null;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    static Outcome classify(final LoadOperation operation, final int status) {
+        if (status < 400) {
+            return Outcome.OK;
+        }
+        // A taken slot is reported as 400 by booking creation; state races on confirm/cancel as 409
+        if (status == 409 || (operation == LoadOperation.CREATE && status == 400)) {
+            return Outcome.CONFLICT;
+        }
+        if (status == 429 || status == 503) {
+            return Outcome.REJECTED;
+        }
+        return status >= 500 ? Outcome.SERVER_ERROR : Outcome.CLIENT_ERROR;
+    }
+
+    private UUID randomViewableToken() {
+        final long count = Math.min(viewableCount.get(), VIEWABLE_TOKENS);
+        return count == 0 ? null : viewableTokens.get(ThreadLocalRandom.current().nextInt((int) count));
+    }
+
+    private String randomUsername() {
+        return usernames.get(ThreadLocalRandom.current().nextInt(usernames.size()));
+    }
+
+    private HttpRequest.Builder request(final String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private String json(final Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
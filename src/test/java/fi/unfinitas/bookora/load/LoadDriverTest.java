@@ -0,0 +1,28 @@
+package fi.unfinitas.bookora.load;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class LoadDriverTest {
+
+    @Test
+    @DisplayName("Should classify booking conflicts separately from errors")
+    void shouldClassifyOutcomes() {
+        assertThat(LoadDriver.classify(LoadOperation.CREATE, 201)).isEqualTo(OperationStats.Outcome.OK);
+        assertThat(LoadDriver.classify(LoadOperation.CREATE, 400)).isEqualTo(OperationStats.Outcome.CONFLICT);
+        assertThat(LoadDriver.classify(LoadOperation.CONFIRM, 409)).isEqualTo(OperationStats.Outcome.CONFLICT);
+        assertThat(LoadDriver.classify(LoadOperation.VIEW, 400)).isEqualTo(OperationStats.Outcome.CLIENT_ERROR);
+        assertThat(LoadDriver.classify(LoadOperation.VIEW, 503)).isEqualTo(OperationStats.Outcome.REJECTED);
+        assertThat(LoadDriver.classify(LoadOperation.LOGIN, 500)).isEqualTo(OperationStats.Outcome.SERVER_ERROR);
+    }
+
+    @Test
+    @DisplayName("Should parse the operation mix")
+    void shouldParseMix() {
+        assertThat(LoadTestSettings.parseMix("create=3, View=1,refresh=0"))
+                .containsExactly(entry(LoadOperation.CREATE, 3), entry(LoadOperation.VIEW, 1), entry(LoadOperation.REFRESH, 0));
+    }
+}
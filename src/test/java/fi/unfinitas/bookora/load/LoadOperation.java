@@ -0,0 +1,13 @@
+package fi.unfinitas.bookora.load;
+
+/**
+ * Operations the load test drives.
+ */
+enum LoadOperation {
+    CREATE,
+    VIEW,
+    CONFIRM,
+    CANCEL,
+    LOGIN,
+    REFRESH
+}
@@ -0,0 +1,32 @@
+package fi.unfinitas.bookora.load;
+
+import java.util.List;
+
+/**
+ * Machine-readable result of a load test run, written as JSON.
+ *
+ * @param settings           the parameters of the run
+ * @param durationSeconds    measured time
+ * @param requests           requests completed while measuring
+ * @param throughput         requests per second
+ * @param operations         per-operation results
+ * @param pool               database pool usage
+ * @param emailsDelivered    messages received by the SMTP sink during the whole run
+ */
+record LoadReport(LoadTestSettings settings, double durationSeconds, long requests, double throughput,
+                  List<OperationResult> operations, Pool pool, int emailsDelivered) {
+
+    /**
+     * @param conflictRate share of requests rejected because of a booking conflict or state change
+     */
+    record OperationResult(String operation, long requests, double throughput, long ok, long conflicts,
+                           long rejected, long clientErrors, long serverErrors, long failures,
+                           double conflictRate, Latency latencyMillis) {}
+
+    record Latency(double p50, double p95, double p99, double max, double mean) {}
+
+    /**
+     * @param saturation share of samples in which requests were waiting for a connection
+     */
+    record Pool(int maxPoolSize, int maxActive, double meanActive, int maxAwaiting, double saturation) {}
+}
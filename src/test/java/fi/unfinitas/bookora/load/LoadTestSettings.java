@@ -0,0 +1,58 @@
+package fi.unfinitas.bookora.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Load test parameters, read from system properties so they can be passed on the Maven command line,
+ * e.g. {@code -Dload.concurrency=64 -Dload.hot-share=0.9}.
+ *
+ * @param warmup         time run before measuring starts
+ * @param duration       measured time
+ * @param concurrency    number of concurrent clients
+ * @param hotProviders   providers receiving {@code hotShare} of the bookings, on few slots
+ * @param hotSlots       distinct slots per hot provider; fewer means more contention
+ * @param coldProviders  providers sharing the rest of the bookings, on many slots
+ * @param coldSlots      distinct slots per cold provider
+ * @param hotShare       fraction of bookings that go to hot providers
+ * @param users          registered users logging in and refreshing
+ * @param mix            relative weight of each operation
+ * @param report         where the JSON report is written
+ */
+record LoadTestSettings(Duration warmup, Duration duration, int concurrency,
+                        int hotProviders, int hotSlots, int coldProviders, int coldSlots, double hotShare,
+                        int users, Map<LoadOperation, Integer> mix, Path report) {
+
+    static final String DEFAULT_MIX = "create=35,view=35,confirm=10,cancel=5,login=10,refresh=5";
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Duration.ofSeconds(Long.getLong("load.warmup-seconds", 10)),
+                Duration.ofSeconds(Long.getLong("load.duration-seconds", 60)),
+                Integer.getInteger("load.concurrency", 32),
+                Integer.getInteger("load.hot-providers", 2),
+                Integer.getInteger("load.hot-slots", 20),
+                Integer.getInteger("load.cold-providers", 50),
+                Integer.getInteger("load.cold-slots", 2000),
+                Double.parseDouble(System.getProperty("load.hot-share", "0.8")),
+                Integer.getInteger("load.users", 20),
+                parseMix(System.getProperty("load.mix", DEFAULT_MIX)),
+                Path.of(System.getProperty("load.report", "target/load-report.json")));
+    }
+
+    /**
+     * @param mix comma-separated {@code operation=weight} pairs
+     * @return the weights; operations not listed get 0
+     */
+    static Map<LoadOperation, Integer> parseMix(final String mix) {
+        final Map<LoadOperation, Integer> weights = new EnumMap<>(LoadOperation.class);
+        for (final String entry : mix.split(",")) {
+            final String[] parts = entry.trim().split("=");
+            weights.put(LoadOperation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
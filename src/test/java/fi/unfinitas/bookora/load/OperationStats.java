@@ -0,0 +1,66 @@
+package fi.unfinitas.bookora.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and outcome counts of one operation.
+ */
+final class OperationStats {
+
+    enum Outcome {
+        OK,
+        CONFLICT,
+        REJECTED,
+        CLIENT_ERROR,
+        SERVER_ERROR,
+        FAILURE
+    }
+
+    private final Histogram latencyMicros = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+    private final LongAdder[] outcomes = new LongAdder[Outcome.values().length];
+
+    OperationStats() {
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = new LongAdder();
+        }
+    }
+
+    void record(final long elapsedNanos, final Outcome outcome) {
+        latencyMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), latencyMicros.getHighestTrackableValue()));
+        outcomes[outcome.ordinal()].increment();
+    }
+
+    long count(final Outcome outcome) {
+        return outcomes[outcome.ordinal()].sum();
+    }
+
+    LoadReport.OperationResult result(final LoadOperation operation, final Duration elapsed) {
+        final long requests = latencyMicros.getTotalCount();
+        return new LoadReport.OperationResult(
+                operation.name().toLowerCase(),
+                requests,
+                requests / (elapsed.toMillis() / 1000.0),
+                count(Outcome.OK),
+                count(Outcome.CONFLICT),
+                count(Outcome.REJECTED),
+                count(Outcome.CLIENT_ERROR),
+                count(Outcome.SERVER_ERROR),
+                count(Outcome.FAILURE),
+                requests == 0 ? 0 : (double) count(Outcome.CONFLICT) / requests,
+                new LoadReport.Latency(
+                        millis(latencyMicros.getValueAtPercentile(50)),
+                        millis(latencyMicros.getValueAtPercentile(95)),
+                        millis(latencyMicros.getValueAtPercentile(99)),
+                        millis(latencyMicros.getMaxValue()),
+                        latencyMicros.getMean() / 1000.0));
+    }
+
+    private static double millis(final long micros) {
+        return micros / 1000.0;
+    }
+}
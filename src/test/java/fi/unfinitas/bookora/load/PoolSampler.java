@@ -0,0 +1,63 @@
+package fi.unfinitas.bookora.load;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the Hikari pool while measuring to show how close the database pool is to saturation.
+ */
+final class PoolSampler implements AutoCloseable {
+
+    private static final long INTERVAL_MILLIS = 50;
+
+    private final HikariDataSource dataSource;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    private long samples;
+    private long activeSum;
+    private int maxActive;
+    private int maxAwaiting;
+    private long saturatedSamples;
+
+    PoolSampler(final HikariDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    void start() {
+        scheduler.scheduleAtFixedRate(this::sample, 0, INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void sample() {
+        final HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return;
+        }
+        final int active = pool.getActiveConnections();
+        final int awaiting = pool.getThreadsAwaitingConnection();
+        samples++;
+        activeSum += active;
+        maxActive = Math.max(maxActive, active);
+        maxAwaiting = Math.max(maxAwaiting, awaiting);
+        if (awaiting > 0) {
+            saturatedSamples++;
+        }
+    }
+
+    synchronized LoadReport.Pool result() {
+        return new LoadReport.Pool(
+                dataSource.getMaximumPoolSize(),
+                maxActive,
+                samples == 0 ? 0 : (double) activeSum / samples,
+                maxAwaiting,
+                samples == 0 ? 0 : (double) saturatedSamples / samples);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
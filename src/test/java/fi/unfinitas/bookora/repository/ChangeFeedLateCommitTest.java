@@ -0,0 +1,132 @@
+package fi.unfinitas.bookora.repository;
+
+import fi.unfinitas.bookora.config.RepositoryTestConfiguration;
+import fi.unfinitas.bookora.domain.model.Booking;
+import fi.unfinitas.bookora.domain.model.Provider;
+import fi.unfinitas.bookora.domain.model.ServiceOffering;
+import fi.unfinitas.bookora.domain.model.User;
+import fi.unfinitas.bookora.repository.projection.BookingChangeView;
+import fi.unfinitas.bookora.testutil.TestDataBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A booking written by a transaction that commits after a later booking, read through the change feed
+ * against the Flyway schema while the first transaction is still open.
+ */
+@DataJpaTest
+@Import(RepositoryTestConfiguration.class)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Change Feed Late Commit Tests")
+class ChangeFeedLateCommitTest {
+
+    private static final LocalDateTime FEED_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @DynamicPropertySource
+    static void flywaySchema(final DynamicPropertyRegistry registry) {
+        registry.add("spring.flyway.enabled", () -> true);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProviderRepository providerRepository;
+
+    @Autowired
+    private ServiceOfferingRepository serviceOfferingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should not page past a booking whose transaction is still open")
+    void shouldHoldFeedBehindOpenTransaction() throws Exception {
+        final ServiceOffering service = service();
+        final User customer = userRepository.save(TestDataBuilder.user()
+                .username("feed-customer").email("feed-customer@test.com").build());
+        final UUID providerId = service.getProvider().getId();
+        final LocalDateTime day = LocalDateTime.now().plusDays(3).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        final TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        final CountDownLatch written = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final Long lateId;
+        final Long laterId;
+        try (ExecutorService writer = Executors.newSingleThreadExecutor()) {
+            final Future<Long> late = writer.submit(() -> transaction.execute(status -> {
+                final Long id = bookingRepository.save(booking(service, customer, day)).getId();
+                written.countDown();
+                await(release);
+                return id;
+            }));
+            try {
+                written.await();
+
+                // Stamped and committed after the open transaction's row
+                laterId = bookingRepository.save(booking(service, customer, day.plusHours(2))).getId();
+                assertThat(changes(providerId)).isEmpty();
+            } finally {
+                release.countDown();
+            }
+            lateId = late.get();
+        }
+
+        assertThat(changes(providerId)).extracting(BookingChangeView::getId).containsExactly(lateId, laterId);
+    }
+
+    private List<BookingChangeView> changes(final UUID providerId) {
+        return bookingRepository.findProviderChangesAfter(providerId, FEED_START, 0L, 0, 100);
+    }
+
+    private static Booking booking(final ServiceOffering service, final User customer, final LocalDateTime start) {
+        return TestDataBuilder.booking()
+                .customer(customer)
+                .provider(service.getProvider())
+                .serviceOffering(service)
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .build();
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ServiceOffering service() {
+        final User user = userRepository.save(TestDataBuilder.user()
+                .username("feed-provider").email("feed-provider@test.com").build());
+        final Provider provider = providerRepository.save(TestDataBuilder.provider().user(user).build());
+        return serviceOfferingRepository.save(TestDataBuilder.serviceOffering().provider(provider).build());
+    }
+}
@@ -0,0 +1,119 @@
+package fi.unfinitas.bookora.repository;
+
+import fi.unfinitas.bookora.config.RepositoryTestConfiguration;
+import fi.unfinitas.bookora.domain.model.GroupSlot;
+import fi.unfinitas.bookora.domain.model.Provider;
+import fi.unfinitas.bookora.domain.model.ServiceOffering;
+import fi.unfinitas.bookora.domain.model.User;
+import fi.unfinitas.bookora.exception.GroupSessionFullException;
+import fi.unfinitas.bookora.service.SlotInventoryService;
+import fi.unfinitas.bookora.testutil.TestDataBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent bookers of one group slot, each in its own committed transaction against the Flyway schema.
+ */
+@DataJpaTest
+@Import({RepositoryTestConfiguration.class, SlotInventoryService.class})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Group Slot Concurrency Tests")
+class GroupSlotConcurrencyTest {
+
+    private static final int CAPACITY = 20;
+    private static final int SHARDS = 4;
+    private static final int BOOKERS = 60;
+
+    @DynamicPropertySource
+    static void flywaySchema(final DynamicPropertyRegistry registry) {
+        registry.add("spring.flyway.enabled", () -> true);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @Autowired
+    private SlotInventoryService slotInventoryService;
+
+    @Autowired
+    private GroupSlotRepository groupSlotRepository;
+
+    @Autowired
+    private GroupSlotShardRepository groupSlotShardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProviderRepository providerRepository;
+
+    @Autowired
+    private ServiceOfferingRepository serviceOfferingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should sell exactly the capacity of a slot to concurrent bookers")
+    void shouldNotOversellSlot() throws Exception {
+        final ServiceOffering groupSession = groupSession();
+        final LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        final TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        final CountDownLatch ready = new CountDownLatch(1);
+
+        final List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService bookers = Executors.newFixedThreadPool(BOOKERS)) {
+            for (int i = 0; i < BOOKERS; i++) {
+                results.add(bookers.submit(() -> {
+                    ready.await();
+                    try {
+                        transaction.executeWithoutResult(status -> slotInventoryService.takeSeat(
+                                slotInventoryService.findOrCreateSlot(groupSession, start, start.plusHours(1))));
+                        return true;
+                    } catch (final GroupSessionFullException e) {
+                        return false;
+                    }
+                }));
+            }
+            ready.countDown();
+        }
+
+        int booked = 0;
+        for (final Future<Boolean> result : results) {
+            booked += result.get() ? 1 : 0;
+        }
+        final GroupSlot slot = groupSlotRepository.findByServiceIdAndStartTime(groupSession.getId(), start)
+                .orElseThrow();
+        assertThat(booked).isEqualTo(CAPACITY);
+        assertThat(groupSlotShardRepository.sumRemaining(slot.getId())).isZero();
+        assertThat(groupSlotShardRepository.findAvailableShards(slot.getId())).isEmpty();
+    }
+
+    private ServiceOffering groupSession() {
+        final User user = userRepository.save(TestDataBuilder.user()
+                .username("group-provider").email("group-provider@test.com").build());
+        final Provider provider = providerRepository.save(TestDataBuilder.provider().user(user).build());
+        return serviceOfferingRepository.save(TestDataBuilder.serviceOffering()
+                .provider(provider).capacity(CAPACITY).capacityShards(SHARDS).build());
+    }
+}
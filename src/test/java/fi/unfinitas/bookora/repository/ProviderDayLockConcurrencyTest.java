@@ -0,0 +1,121 @@
+package fi.unfinitas.bookora.repository;
+
+import fi.unfinitas.bookora.config.RepositoryTestConfiguration;
+import fi.unfinitas.bookora.domain.model.Provider;
+import fi.unfinitas.bookora.domain.model.ServiceOffering;
+import fi.unfinitas.bookora.domain.model.User;
+import fi.unfinitas.bookora.testutil.TestDataBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent bookers of one provider's day under a daily cap, each counting the day's bookings and inserting
+ * in its own committed transaction against the Flyway schema, the way guest booking admission does.
+ */
+@DataJpaTest
+@Import(RepositoryTestConfiguration.class)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Provider Day Lock Concurrency Tests")
+class ProviderDayLockConcurrencyTest {
+
+    private static final int DAILY_CAP = 5;
+    private static final int BOOKERS = 40;
+
+    @DynamicPropertySource
+    static void flywaySchema(final DynamicPropertyRegistry registry) {
+        registry.add("spring.flyway.enabled", () -> true);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProviderRepository providerRepository;
+
+    @Autowired
+    private ServiceOfferingRepository serviceOfferingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should admit exactly the daily cap to concurrent bookers of one day")
+    void shouldNotExceedDailyCap() throws Exception {
+        final ServiceOffering service = service();
+        final User customer = userRepository.save(TestDataBuilder.user()
+                .username("cap-customer").email("cap-customer@test.com").build());
+        final UUID providerId = service.getProvider().getId();
+        final LocalDate day = LocalDate.now().plusDays(1);
+        final TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        final CountDownLatch ready = new CountDownLatch(1);
+
+        final List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService bookers = Executors.newFixedThreadPool(BOOKERS)) {
+            for (int i = 0; i < BOOKERS; i++) {
+                // Distinct, non-overlapping times, so only the cap can turn a booker away
+                final LocalDateTime start = day.atStartOfDay().plusMinutes(30L * i);
+                results.add(bookers.submit(() -> {
+                    ready.await();
+                    return transaction.execute(status -> {
+                        providerRepository.lockDay(providerId, day);
+                        if (bookingRepository.countActiveBookingsStartingBetween(providerId,
+                                day.atStartOfDay(), day.plusDays(1).atStartOfDay()) >= DAILY_CAP) {
+                            return false;
+                        }
+                        bookingRepository.save(TestDataBuilder.booking()
+                                .customer(customer)
+                                .provider(service.getProvider())
+                                .serviceOffering(service)
+                                .startTime(start)
+                                .endTime(start.plusMinutes(20))
+                                .build());
+                        return true;
+                    });
+                }));
+            }
+            ready.countDown();
+        }
+
+        int booked = 0;
+        for (final Future<Boolean> result : results) {
+            booked += result.get() ? 1 : 0;
+        }
+        assertThat(booked).isEqualTo(DAILY_CAP);
+        assertThat(bookingRepository.countActiveBookingsStartingBetween(providerId,
+                day.atStartOfDay(), day.plusDays(1).atStartOfDay())).isEqualTo(DAILY_CAP);
+    }
+
+    private ServiceOffering service() {
+        final User user = userRepository.save(TestDataBuilder.user()
+                .username("cap-provider").email("cap-provider@test.com").build());
+        final Provider provider = providerRepository.save(TestDataBuilder.provider().user(user).build());
+        return serviceOfferingRepository.save(TestDataBuilder.serviceOffering().provider(provider).build());
+    }
+}
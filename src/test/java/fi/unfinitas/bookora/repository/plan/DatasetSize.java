@@ -0,0 +1,31 @@
+package fi.unfinitas.bookora.repository.plan;
+
+/**
+ * Size of the synthetic dataset, read from system properties so it can be passed on the Maven command line,
+ * e.g. {@code -Dplan.bookings=5000000}.
+ *
+ * @param users               users, the first {@code providers} of which own a provider
+ * @param providers           providers
+ * @param servicesPerProvider services offered by each provider
+ * @param bookings            bookings, skewed towards a few busy providers
+ */
+record DatasetSize(int users, int providers, int servicesPerProvider, int bookings) {
+
+    DatasetSize {
+        if (providers < 1 || servicesPerProvider < 1 || bookings < 1) {
+            throw new IllegalArgumentException("Providers, services per provider and bookings must be positive");
+        }
+        // Customers are assigned so that providers booked at the same hour never share one
+        if (users < 2 * providers) {
+            throw new IllegalArgumentException("Users must be at least twice the number of providers");
+        }
+    }
+
+    static DatasetSize fromSystemProperties() {
+        return new DatasetSize(
+                Integer.getInteger("plan.users", 1_000_000),
+                Integer.getInteger("plan.providers", 10_000),
+                Integer.getInteger("plan.services-per-provider", 5),
+                Integer.getInteger("plan.bookings", 2_000_000));
+    }
+}
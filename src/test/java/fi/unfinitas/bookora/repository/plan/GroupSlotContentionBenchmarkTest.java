@@ -0,0 +1,157 @@
+package fi.unfinitas.bookora.repository.plan;
+
+import fi.unfinitas.bookora.config.RepositoryTestConfiguration;
+import fi.unfinitas.bookora.domain.model.Provider;
+import fi.unfinitas.bookora.domain.model.ServiceOffering;
+import fi.unfinitas.bookora.domain.model.User;
+import fi.unfinitas.bookora.repository.ProviderRepository;
+import fi.unfinitas.bookora.repository.ServiceOfferingRepository;
+import fi.unfinitas.bookora.repository.UserRepository;
+import fi.unfinitas.bookora.service.SlotInventoryService;
+import fi.unfinitas.bookora.testutil.TestDataBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Books {@code slots.bookers} seats (default 1000) of one group slot concurrently, once with a single seat
+ * counter and once with {@code slots.shards} counters (default 16), over a pool of {@code slots.pool-size}
+ * connections. Each booker holds its counter lock for {@code slots.hold-ms} after taking the seat, standing in
+ * for the booking insert and commit. Logs throughput and p50/p99 latency. Excluded from the regular build; run
+ * with {@code ./mvnw -Pslot-benchmark test}.
+ */
+@Tag("slot-benchmark")
+@DataJpaTest
+@Import({RepositoryTestConfiguration.class, SlotInventoryService.class})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Group Slot Contention Benchmark")
+@Slf4j
+class GroupSlotContentionBenchmarkTest {
+
+    private static final int BOOKERS = Integer.getInteger("slots.bookers", 1_000);
+    private static final int SHARDS = Integer.getInteger("slots.shards", 16);
+    private static final int POOL_SIZE = Integer.getInteger("slots.pool-size", 50);
+    private static final long HOLD_MS = Long.getLong("slots.hold-ms", 2);
+
+    /**
+     * @param bookingsPerSecond seats taken per second over the run
+     * @param p50Millis         median booker latency, including the wait for a connection
+     * @param p99Millis         99th percentile booker latency
+     */
+    private record SlotResult(int shards, double bookingsPerSecond, double p50Millis, double p99Millis) {
+    }
+
+    @DynamicPropertySource
+    static void benchmarkProperties(final DynamicPropertyRegistry registry) {
+        registry.add("spring.flyway.enabled", () -> true);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> POOL_SIZE);
+    }
+
+    @Autowired
+    private SlotInventoryService slotInventoryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProviderRepository providerRepository;
+
+    @Autowired
+    private ServiceOfferingRepository serviceOfferingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should book a contended slot faster with sharded seat counters")
+    void shouldBookFasterWithShardedCounters() throws Exception {
+        final Provider provider = provider();
+        final SlotResult single = book(provider, 1);
+        final SlotResult sharded = book(provider, SHARDS);
+
+        for (final SlotResult result : new SlotResult[]{single, sharded}) {
+            log.info("{} shard(s): {} bookings/s, p50 {} ms, p99 {} ms over {} bookers", result.shards(),
+                    Math.round(result.bookingsPerSecond()), Math.round(result.p50Millis()),
+                    Math.round(result.p99Millis()), BOOKERS);
+        }
+        assertThat(sharded.bookingsPerSecond()).isGreaterThan(single.bookingsPerSecond());
+    }
+
+    private SlotResult book(final Provider provider, final int shards) throws Exception {
+        final ServiceOffering groupSession = serviceOfferingRepository.save(TestDataBuilder.serviceOffering()
+                .name("Group session x" + shards).provider(provider).capacity(BOOKERS).capacityShards(shards).build());
+        final LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        final TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        // Create the slot up front so the run measures seat contention only
+        transaction.executeWithoutResult(status ->
+                slotInventoryService.findOrCreateSlot(groupSession, start, start.plusHours(1)));
+
+        final CountDownLatch ready = new CountDownLatch(1);
+        final List<Future<Long>> latencies = new ArrayList<>(BOOKERS);
+        final long started;
+        try (ExecutorService bookers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < BOOKERS; i++) {
+                latencies.add(bookers.submit(() -> {
+                    ready.await();
+                    final long bookerStarted = System.nanoTime();
+                    transaction.executeWithoutResult(status -> {
+                        slotInventoryService.takeSeat(
+                                slotInventoryService.findOrCreateSlot(groupSession, start, start.plusHours(1)));
+                        hold();
+                    });
+                    return System.nanoTime() - bookerStarted;
+                }));
+            }
+            started = System.nanoTime();
+            ready.countDown();
+        }
+        final double bookingsPerSecond = BOOKERS * 1e9 / (System.nanoTime() - started);
+
+        final long[] sorted = new long[BOOKERS];
+        for (int i = 0; i < BOOKERS; i++) {
+            sorted[i] = latencies.get(i).get();
+        }
+        Arrays.sort(sorted);
+        return new SlotResult(shards, bookingsPerSecond, sorted[BOOKERS / 2] / 1e6,
+                sorted[(int) Math.ceil(BOOKERS * 0.99) - 1] / 1e6);
+    }
+
+    private static void hold() {
+        try {
+            Thread.sleep(HOLD_MS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Provider provider() {
+        final User user = userRepository.save(TestDataBuilder.user()
+                .username("slot-benchmark").email("slot-benchmark@test.com").build());
+        return providerRepository.save(TestDataBuilder.provider().user(user).build());
+    }
+}
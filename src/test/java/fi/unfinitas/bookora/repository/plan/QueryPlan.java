@@ -0,0 +1,125 @@
+package fi.unfinitas.bookora.repository.plan;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * The executed plan of a statement, from {@code EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON)}.
+ *
+ * @param sql             the explained SQL
+ * @param root            the root plan node
+ * @param executionMillis the execution time reported by {@code EXPLAIN ANALYZE}
+ */
+record QueryPlan(String sql, JsonNode root, double executionMillis) {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Set<String> INDEX_NODES = Set.of("Index Scan", "Index Only Scan", "Bitmap Index Scan");
+
+    /**
+     * Execute a captured statement under {@code EXPLAIN ANALYZE}. Data-modifying statements really run,
+     * so call this inside a transaction that is rolled back.
+     *
+     * @param connection the connection
+     * @param statement  the statement and its parameters
+     * @return the plan
+     */
+    static QueryPlan explain(final Connection connection, final StatementCapture.CapturedStatement statement)
+            throws SQLException {
+        try (PreparedStatement explain = connection.prepareStatement(
+                "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + statement.sql())) {
+            statement.bind(explain);
+            try (ResultSet resultSet = explain.executeQuery()) {
+                resultSet.next();
+                return parse(statement.sql(), resultSet.getString(1));
+            }
+        }
+    }
+
+    static QueryPlan parse(final String sql, final String json) {
+        try {
+            final JsonNode explained = OBJECT_MAPPER.readTree(json).get(0);
+            return new QueryPlan(sql, explained.get("Plan"), explained.path("Execution Time").asDouble());
+        } catch (final JsonProcessingException e) {
+            throw new IllegalArgumentException("Not an EXPLAIN JSON document", e);
+        }
+    }
+
+    /**
+     * @return tables read by a sequential scan anywhere in the plan
+     */
+    Set<String> sequentialScans() {
+        final Set<String> tables = new LinkedHashSet<>();
+        forEachNode(node -> {
+            if ("Seq Scan".equals(node.path("Node Type").asText())) {
+                tables.add(node.path("Relation Name").asText());
+            }
+        });
+        return tables;
+    }
+
+    /**
+     * @return indexes scanned anywhere in the plan
+     */
+    Set<String> indexes() {
+        final Set<String> indexes = new LinkedHashSet<>();
+        forEachNode(node -> {
+            if (INDEX_NODES.contains(node.path("Node Type").asText())) {
+                indexes.add(node.path("Index Name").asText());
+            }
+        });
+        return indexes;
+    }
+
+    /**
+     * @return shared buffers hit or read by the whole plan; the root node includes its children
+     */
+    long sharedBlocks() {
+        return root.path("Shared Hit Blocks").asLong() + root.path("Shared Read Blocks").asLong();
+    }
+
+    /**
+     * @return one line per plan node, indented by depth
+     */
+    String describe() {
+        final List<String> lines = new ArrayList<>();
+        describe(root, 0, lines);
+        return String.join("\n", lines);
+    }
+
+    private void forEachNode(final Consumer<JsonNode> consumer) {
+        final List<JsonNode> pending = new ArrayList<>(List.of(root));
+        while (!pending.isEmpty()) {
+            final JsonNode node = pending.removeLast();
+            consumer.accept(node);
+            node.path("Plans").forEach(pending::add);
+        }
+    }
+
+    private static void describe(final JsonNode node, final int depth, final List<String> lines) {
+        final StringBuilder line = new StringBuilder("  ".repeat(depth)).append(node.path("Node Type").asText());
+        if (node.has("Index Name")) {
+            line.append(" using ").append(node.get("Index Name").asText());
+        }
+        if (node.has("Relation Name")) {
+            line.append(" on ").append(node.get("Relation Name").asText());
+        }
+        line.append(" (rows=").append(node.path("Actual Rows").asLong())
+                .append(" loops=").append(node.path("Actual Loops").asLong())
+                .append(" shared hit=").append(node.path("Shared Hit Blocks").asLong())
+                .append(" read=").append(node.path("Shared Read Blocks").asLong())
+                .append(')');
+        lines.add(line.toString());
+        node.path("Plans").forEach(child -> describe(child, depth + 1, lines));
+    }
+}
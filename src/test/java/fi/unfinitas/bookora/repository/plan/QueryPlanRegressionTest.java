@@ -0,0 +1,244 @@
+package fi.unfinitas.bookora.repository.plan;
+
+import fi.unfinitas.bookora.repository.BookingRepository;
+import fi.unfinitas.bookora.repository.EmailVerificationTokenRepository;
+import fi.unfinitas.bookora.repository.GuestAccessTokenRepository;
+import fi.unfinitas.bookora.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query plan regression suite: loads a production-sized synthetic dataset (see {@link DatasetSize}) into a
+ * Postgres container with the Flyway schema, runs every query of the booking, guest token, user and email
+ * verification token repositories, and replays each executed statement under
+ * {@code EXPLAIN (ANALYZE, BUFFERS)}. A statement fails when it sequentially scans one of the large tables,
+ * misses its expected index or touches more shared buffers than its budget, so a migration that drops or
+ * changes an index fails the build. Excluded from the regular build; run with {@code ./mvnw -Pquery-plan test}.
+ */
+@Tag("query-plan")
+@DataJpaTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Query Plan Regression Tests")
+@Slf4j
+class QueryPlanRegressionTest {
+
+    private static final List<Class<?>> REPOSITORIES = List.of(BookingRepository.class,
+            GuestAccessTokenRepository.class, UserRepository.class, EmailVerificationTokenRepository.class);
+
+    private static final Set<String> USER_EMAIL_INDEXES = Set.of("uq_user_email_active", "idx_user_email");
+    private static final Set<String> USER_USERNAME_INDEXES = Set.of("uq_user_username_active", "idx_user_username");
+    private static final Set<String> BOOKING_PROVIDER_INDEXES = Set.of("idx_booking_provider_id",
+            "idx_booking_provider_id_start_time", "idx_booking_provider_updated_at_id", "no_overlapping_bookings");
+    private static final Set<String> BOOKING_CUSTOMER_INDEXES = Set.of("idx_booking_customer_id",
+            "no_overlapping_customer_bookings");
+    private static final Set<String> GUEST_TOKEN_INDEXES = Set.of("uq_guest_access_token_token_active",
+            "idx_guest_access_token_token", "idx_guest_access_token_validation");
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class QueryPlanTestConfiguration {
+
+        @Bean
+        @ServiceConnection
+        PostgreSQLContainer<?> postgresContainer() {
+            return new PostgreSQLContainer<>(DockerImageName.parse("postgres:17-alpine"))
+                    .withDatabaseName("bookora_plan")
+                    .withUsername("plan")
+                    .withPassword("plan");
+        }
+
+        @Bean
+        static BeanPostProcessor statementCapturingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+                    return bean instanceof DataSource dataSource ? StatementCapture.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @DynamicPropertySource
+    static void queryPlanProperties(final DynamicPropertyRegistry registry) {
+        registry.add("spring.flyway.enabled", () -> true);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    /**
+     * One repository query and what its plan may cost.
+     *
+     * @param query           {@code Repository.method}
+     * @param indexes         at least one of these must be scanned
+     * @param maxSharedBlocks budget of shared buffers per executed statement
+     * @param call            invokes the query with realistic arguments
+     */
+    private record PlanCase(String query, Set<String> indexes, long maxSharedBlocks, Runnable call) {}
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private GuestAccessTokenRepository guestAccessTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmailVerificationTokenRepository emailVerificationTokenRepository;
+
+    private SyntheticDataset dataset;
+
+    @BeforeAll
+    void loadDataset() throws Exception {
+        dataset = new SyntheticDataset(DatasetSize.fromSystemProperties(), LocalDateTime.now());
+        dataset.load(dataSource);
+    }
+
+    @Test
+    @DisplayName("Should have a plan case for every repository query")
+    void shouldCoverEveryRepositoryQuery() {
+        final Set<String> queries = REPOSITORIES.stream()
+                .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods())
+                        .filter(method -> !method.isDefault() && !Modifier.isStatic(method.getModifiers()))
+                        .map(Method::getName)
+                        .map(name -> repository.getSimpleName() + "." + name))
+                .collect(Collectors.toSet());
+
+        assertThat(cases().stream().map(PlanCase::query)).containsExactlyInAnyOrderElementsOf(queries);
+    }
+
+    @Test
+    @DisplayName("Should use the expected indexes within the buffer budgets at production scale")
+    void shouldUseIndexesWithinBufferBudgets() throws Exception {
+        final SoftAssertions softly = new SoftAssertions();
+        final Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            for (final PlanCase planCase : cases()) {
+                final List<StatementCapture.CapturedStatement> statements = StatementCapture.capture(planCase.call());
+                softly.assertThat(statements).as("%s executed statements", planCase.query()).isNotEmpty();
+
+                final Set<String> indexes = new HashSet<>();
+                for (final StatementCapture.CapturedStatement statement : statements) {
+                    final QueryPlan plan = QueryPlan.explain(connection, statement);
+                    indexes.addAll(plan.indexes());
+                    log.info("{}: {} shared blocks, {} ms\n{}\n{}", planCase.query(), plan.sharedBlocks(),
+                            plan.executionMillis(), statement.sql(), plan.describe());
+
+                    softly.assertThat(plan.sequentialScans())
+                            .as("%s sequential scans of large tables in\n%s", planCase.query(), plan.describe())
+                            .doesNotContainAnyElementsOf(SyntheticDataset.TABLES);
+                    softly.assertThat(plan.sharedBlocks())
+                            .as("%s shared blocks in\n%s", planCase.query(), plan.describe())
+                            .isLessThanOrEqualTo(planCase.maxSharedBlocks());
+                }
+                softly.assertThat(indexes).as("%s indexes", planCase.query()).containsAnyElementsOf(planCase.indexes());
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+        softly.assertAll();
+    }
+
+    private List<PlanCase> cases() {
+        final SyntheticDataset.BookingRow booking = dataset.upcomingGuestBooking();
+        final UUID customerId = dataset.userId(booking.customer());
+        final UUID providerId = dataset.providerId(booking.provider());
+        final LocalDateTime start = dataset.start(booking);
+        final LocalDateTime end = dataset.end(booking);
+        final UUID guestToken = dataset.guestToken(booking.id());
+        final LocalDateTime feedPosition = dataset.base().plusDays(90);
+        final int user = dataset.registeredUser(true);
+        final int unverifiedUser = dataset.registeredUser(false);
+
+        return List.of(
+                new PlanCase("BookingRepository.findByCustomerId", BOOKING_CUSTOMER_INDEXES, 64,
+                        () -> bookingRepository.findByCustomerId(customerId)),
+                new PlanCase("BookingRepository.findByProviderId", BOOKING_PROVIDER_INDEXES, 1000,
+                        () -> bookingRepository.findByProviderId(providerId)),
+                new PlanCase("BookingRepository.existsOverlappingBooking", BOOKING_PROVIDER_INDEXES, 500,
+                        () -> bookingRepository.existsOverlappingBooking(providerId, start, end)),
+                new PlanCase("BookingRepository.countActiveBookingsStartingBetween", BOOKING_PROVIDER_INDEXES, 500,
+                        () -> bookingRepository.countActiveBookingsStartingBetween(providerId,
+                                start.toLocalDate().atStartOfDay(), start.toLocalDate().plusDays(1).atStartOfDay())),
+                new PlanCase("BookingRepository.findActiveBookingTimes", BOOKING_PROVIDER_INDEXES, 1000,
+                        () -> bookingRepository.findActiveBookingTimes(providerId, start, end)),
+                new PlanCase("BookingRepository.existsOverlappingBookingOutsideSlot", BOOKING_PROVIDER_INDEXES, 500,
+                        () -> bookingRepository.existsOverlappingBookingOutsideSlot(providerId, start, end, 1L)),
+                new PlanCase("BookingRepository.existsCustomerOverlappingBooking", BOOKING_CUSTOMER_INDEXES, 64,
+                        () -> bookingRepository.existsCustomerOverlappingBooking(customerId, start, end)),
+                new PlanCase("BookingRepository.findChangesAfter", Set.of("idx_booking_updated_at_id"), 400,
+                        () -> bookingRepository.findChangesAfter(feedPosition, 0, 5, 100)),
+                new PlanCase("BookingRepository.findProviderChangesAfter",
+                        Set.of("idx_booking_provider_updated_at_id"), 400,
+                        () -> bookingRepository.findProviderChangesAfter(providerId, dataset.base(), 0, 5, 100)),
+                new PlanCase("GuestAccessTokenRepository.findByToken", GUEST_TOKEN_INDEXES, 32,
+                        () -> guestAccessTokenRepository.findByToken(guestToken)),
+                new PlanCase("GuestAccessTokenRepository.findByBookingId",
+                        Set.of("uq_guest_access_token_booking_id_active"), 32,
+                        () -> guestAccessTokenRepository.findByBookingId(booking.id())),
+                new PlanCase("GuestAccessTokenRepository.findVersionByToken", GUEST_TOKEN_INDEXES, 48,
+                        () -> guestAccessTokenRepository.findVersionByToken(guestToken)),
+                new PlanCase("GuestAccessTokenRepository.findVersionByBookingId",
+                        Set.of("uq_guest_access_token_booking_id_active"), 48,
+                        () -> guestAccessTokenRepository.findVersionByBookingId(booking.id())),
+                new PlanCase("UserRepository.findByEmail", USER_EMAIL_INDEXES, 16,
+                        () -> userRepository.findByEmail(dataset.email(user))),
+                new PlanCase("UserRepository.findByUsername", USER_USERNAME_INDEXES, 16,
+                        () -> userRepository.findByUsername(dataset.username(user))),
+                new PlanCase("UserRepository.existsByEmail", USER_EMAIL_INDEXES, 16,
+                        () -> userRepository.existsByEmail(dataset.email(user))),
+                new PlanCase("UserRepository.existsByUsername", USER_USERNAME_INDEXES, 16,
+                        () -> userRepository.existsByUsername(dataset.username(user))),
+                new PlanCase("EmailVerificationTokenRepository.findByToken",
+                        Set.of("t_email_verification_token_token_key"), 16,
+                        () -> emailVerificationTokenRepository.findByToken(dataset.verificationToken(user))),
+                new PlanCase("EmailVerificationTokenRepository.findByUserIdAndUsedAtIsNull",
+                        Set.of("idx_email_verification_token_user_id"), 16,
+                        () -> emailVerificationTokenRepository.findByUserIdAndUsedAtIsNull(
+                                dataset.userId(unverifiedUser))),
+                new PlanCase("EmailVerificationTokenRepository.deleteByUserId",
+                        Set.of("idx_email_verification_token_user_id"), 32,
+                        () -> {
+                            emailVerificationTokenRepository.deleteByUserId(dataset.userId(unverifiedUser));
+                            entityManager.flush();
+                        }));
+    }
+}
@@ -0,0 +1,88 @@
+package fi.unfinitas.bookora.repository.plan;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class QueryPlanTest {
+
+    private static final String PLAN = """
+            [{"Plan": {"Node Type": "Nested Loop", "Shared Hit Blocks": 9, "Shared Read Blocks": 3,
+                       "Actual Rows": 1, "Actual Loops": 1,
+              "Plans": [
+                {"Node Type": "Index Scan", "Index Name": "idx_guest_access_token_token",
+                 "Relation Name": "t_guest_access_token", "Shared Hit Blocks": 4, "Shared Read Blocks": 0},
+                {"Node Type": "Bitmap Heap Scan", "Relation Name": "t_booking",
+                 "Plans": [{"Node Type": "Bitmap Index Scan", "Index Name": "t_booking_pkey"}]},
+                {"Node Type": "Seq Scan", "Relation Name": "t_service"}
+              ]},
+              "Planning Time": 0.2, "Execution Time": 1.5}]
+            """;
+
+    @Test
+    @DisplayName("Should extract scans, indexes and buffers from an EXPLAIN JSON plan")
+    void shouldParsePlan() {
+        final QueryPlan plan = QueryPlan.parse("SELECT 1", PLAN);
+
+        assertThat(plan.sequentialScans()).containsExactly("t_service");
+        assertThat(plan.indexes()).containsExactlyInAnyOrder("idx_guest_access_token_token", "t_booking_pkey");
+        assertThat(plan.sharedBlocks()).isEqualTo(12);
+        assertThat(plan.executionMillis()).isEqualTo(1.5);
+        assertThat(plan.describe()).contains("  Index Scan using idx_guest_access_token_token on t_guest_access_token");
+    }
+
+    @Test
+    @DisplayName("Should capture statements with their parameters and replay them")
+    void shouldCaptureAndReplayStatements() throws Exception {
+        final DataSource target = mock(DataSource.class);
+        final Connection connection = mock(Connection.class);
+        final PreparedStatement statement = mock(PreparedStatement.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement("SELECT * FROM t_booking WHERE id = ? AND status = ?")).thenReturn(statement);
+        final DataSource dataSource = StatementCapture.wrap(target);
+
+        final List<StatementCapture.CapturedStatement> captured = StatementCapture.capture(() -> {
+            try (Connection c = dataSource.getConnection();
+                 PreparedStatement ps = c.prepareStatement("SELECT * FROM t_booking WHERE id = ? AND status = ?")) {
+                ps.setString(2, "PENDING");
+                ps.setLong(1, 42L);
+                ps.executeQuery();
+            } catch (final Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(captured).singleElement()
+                .extracting(StatementCapture.CapturedStatement::sql)
+                .isEqualTo("SELECT * FROM t_booking WHERE id = ? AND status = ?");
+        verify(statement).executeQuery();
+
+        final PreparedStatement replay = mock(PreparedStatement.class);
+        captured.getFirst().bind(replay);
+        verify(replay).setLong(1, 42L);
+        verify(replay).setString(2, "PENDING");
+    }
+
+    @Test
+    @DisplayName("Should not capture statements outside a capture")
+    void shouldPassThroughOutsideCapture() throws Exception {
+        final DataSource target = mock(DataSource.class);
+        final Connection connection = mock(Connection.class);
+        final PreparedStatement statement = mock(PreparedStatement.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement("SELECT 1")).thenReturn(statement);
+
+        final PreparedStatement ps = StatementCapture.wrap(target).getConnection().prepareStatement("SELECT 1");
+        ps.executeQuery();
+
+        verify(statement).executeQuery();
+        assertThat(StatementCapture.capture(() -> { })).isEmpty();
+    }
+}
@@ -0,0 +1,124 @@
+package fi.unfinitas.bookora.repository.plan;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Records the SQL and bind parameters of the prepared statements a piece of code executes, so they can be
+ * replayed under {@code EXPLAIN}. Works on a {@link DataSource} wrapped with {@link #wrap(DataSource)}
+ * and only records on the thread inside {@link #capture(Runnable)}; everything else passes straight through.
+ */
+final class StatementCapture {
+
+    private static final ThreadLocal<List<CapturedStatement>> CAPTURED = new ThreadLocal<>();
+    private static final Set<String> EXECUTE_METHODS =
+            Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "addBatch");
+
+    private StatementCapture() {
+    }
+
+    /**
+     * A bind parameter, kept as the setter call that bound it.
+     */
+    record Binding(Method setter, Object[] args) {}
+
+    /**
+     * An executed statement.
+     *
+     * @param sql      the SQL with {@code ?} placeholders
+     * @param bindings the setter calls, in parameter order
+     */
+    record CapturedStatement(String sql, List<Binding> bindings) {
+
+        /**
+         * Bind the captured parameters to another statement with the same placeholders.
+         *
+         * @param statement the statement to bind
+         */
+        void bind(final PreparedStatement statement) throws SQLException {
+            for (final Binding binding : bindings) {
+                invoke(binding.setter(), statement, binding.args());
+            }
+        }
+    }
+
+    /**
+     * Run an action and return the statements it executed on this thread.
+     *
+     * @param action the action
+     * @return the executed statements in order
+     */
+    static List<CapturedStatement> capture(final Runnable action) {
+        CAPTURED.set(new ArrayList<>());
+        try {
+            action.run();
+            return List.copyOf(CAPTURED.get());
+        } finally {
+            CAPTURED.remove();
+        }
+    }
+
+    static DataSource wrap(final DataSource dataSource) {
+        return proxy(DataSource.class, (proxy, method, args) -> {
+            final Object result = invoke(method, dataSource, args);
+            return result instanceof Connection connection ? wrapConnection(connection) : result;
+        });
+    }
+
+    private static Connection wrapConnection(final Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            final Object result = invoke(method, connection, args);
+            if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                return wrapStatement(statement, (String) args[0]);
+            }
+            return result;
+        });
+    }
+
+    private static PreparedStatement wrapStatement(final PreparedStatement statement, final String sql) {
+        final Map<Integer, Binding> bindings = new TreeMap<>();
+        return proxy(PreparedStatement.class, (proxy, method, args) -> {
+            final String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bindings.put(index, new Binding(method, args.clone()));
+            } else if (name.equals("clearParameters")) {
+                bindings.clear();
+            } else if (EXECUTE_METHODS.contains(name) && args == null && CAPTURED.get() != null) {
+                CAPTURED.get().add(new CapturedStatement(sql, List.copyOf(bindings.values())));
+            }
+            return invoke(method, statement, args);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(final Class<T> type, final InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StatementCapture.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(final Method method, final Object target, final Object[] args) throws SQLException {
+        try {
+            return method.invoke(target, args);
+        } catch (final InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (final IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
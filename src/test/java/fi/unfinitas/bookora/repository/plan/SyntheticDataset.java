@@ -0,0 +1,416 @@
+package fi.unfinitas.bookora.repository.plan;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Synthetic production-sized dataset, bulk-loaded through {@code COPY ... FROM STDIN}.
+ * Every key is derived from a row number, so tests find rows without keeping them in memory.
+ * Provider {@code p} receives a {@code sqrt((p+1)/P) - sqrt(p/P)} share of the bookings, so a few providers
+ * are busy and most are quiet. Bookings start on whole hours, last at most an hour, and a customer is chosen
+ * per (hour, provider) so that neither provider nor customer bookings overlap and the exclusion constraints hold.
+ * About a third of the customers are guests with a guest access token per booking; every registered user
+ * has an email verification token.
+ */
+@Slf4j
+final class SyntheticDataset {
+
+    static final String PASSWORD_HASH = "$2a$10$" + "x".repeat(53);
+    static final List<String> TABLES = List.of("t_user", "t_provider", "t_service", "t_booking",
+            "t_guest_access_token", "t_email_verification_token");
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final long PAST_HOURS = 180 * 24;
+    private static final long WINDOW_HOURS = PAST_HOURS + 60 * 24;
+    private static final int FLUSH_CHARS = 1 << 20;
+    private static final long USER_SALT = 0x5EED_0001L;
+    private static final long PROVIDER_SALT = 0x5EED_0002L;
+    private static final long BOOKING_SALT = 0x5EED_0003L;
+    private static final long GUEST_TOKEN_SALT = 0x5EED_0004L;
+    private static final long VERIFICATION_TOKEN_SALT = 0x5EED_0005L;
+
+    private final DatasetSize size;
+    private final LocalDateTime now;
+    private final LocalDateTime base;
+    private final int[] slots;
+
+    /**
+     * A generated booking.
+     *
+     * @param id       booking ID
+     * @param provider provider number
+     * @param service  service number within the provider
+     * @param hour     start hour counted from the start of the dataset
+     * @param customer user number of the customer
+     */
+    record BookingRow(long id, int provider, int service, long hour, int customer) {}
+
+    SyntheticDataset(final DatasetSize size, final LocalDateTime now) {
+        this.size = size;
+        this.now = now.truncatedTo(ChronoUnit.HOURS);
+        this.base = this.now.minusHours(PAST_HOURS);
+        this.slots = new int[size.providers()];
+    }
+
+    DatasetSize size() {
+        return size;
+    }
+
+    LocalDateTime now() {
+        return now;
+    }
+
+    LocalDateTime base() {
+        return base;
+    }
+
+    UUID userId(final int user) {
+        return uuid(USER_SALT, user);
+    }
+
+    String username(final int user) {
+        return "user" + user;
+    }
+
+    String email(final int user) {
+        return "user" + user + "@synthetic.example.com";
+    }
+
+    boolean isGuest(final int user) {
+        return user >= size.providers() && user % 3 == 0;
+    }
+
+    boolean isDeleted(final int user) {
+        return user >= size.providers() && user % 50 == 49;
+    }
+
+    boolean isVerified(final int user) {
+        return !isGuest(user) && user % 10 != 0;
+    }
+
+    UUID providerId(final int provider) {
+        return uuid(PROVIDER_SALT, provider);
+    }
+
+    long serviceId(final int provider, final int service) {
+        return (long) provider * size.servicesPerProvider() + service + 1;
+    }
+
+    UUID guestToken(final long bookingId) {
+        return uuid(GUEST_TOKEN_SALT, bookingId);
+    }
+
+    UUID verificationToken(final int user) {
+        return uuid(VERIFICATION_TOKEN_SALT, user);
+    }
+
+    LocalDateTime start(final BookingRow booking) {
+        return base.plusHours(booking.hour());
+    }
+
+    LocalDateTime end(final BookingRow booking) {
+        return start(booking).plusMinutes(30 + 15 * (booking.service() % 3));
+    }
+
+    boolean isDeleted(final BookingRow booking) {
+        return booking.id() % 100 == 0;
+    }
+
+    String status(final BookingRow booking) {
+        if (booking.id() % 10 == 1) {
+            return "CANCELLED";
+        }
+        if (start(booking).isBefore(now)) {
+            return "COMPLETED";
+        }
+        return booking.id() % 3 == 0 ? "PENDING" : "CONFIRMED";
+    }
+
+    /**
+     * @return the provider queried by the tests: the median provider, with a typical number of bookings
+     */
+    int typicalProvider() {
+        return size.providers() / 2;
+    }
+
+    /**
+     * @param verified whether the user has verified their email
+     * @return an active registered customer
+     */
+    int registeredUser(final boolean verified) {
+        for (int user = size.users() / 2; user < size.users(); user++) {
+            if (!isGuest(user) && !isDeleted(user) && isVerified(user) == verified) {
+                return user;
+            }
+        }
+        throw new IllegalStateException("No registered user found");
+    }
+
+    /**
+     * @return an upcoming, active guest booking of the {@link #typicalProvider()}
+     */
+    BookingRow upcomingGuestBooking() {
+        final BookingRow[] found = new BookingRow[1];
+        forEachBooking(booking -> {
+            if (found[0] == null
+                    && booking.provider() == typicalProvider()
+                    && isGuest(booking.customer())
+                    && !isDeleted(booking)
+                    && start(booking).isAfter(now)
+                    && !"CANCELLED".equals(status(booking))) {
+                found[0] = booking;
+            }
+        });
+        if (found[0] == null) {
+            throw new IllegalStateException("Dataset too small: no upcoming guest booking for the typical provider");
+        }
+        return found[0];
+    }
+
+    /**
+     * Generate all bookings in ID order. Deterministic, so repeated calls yield the same bookings.
+     *
+     * @param consumer receives each booking
+     */
+    void forEachBooking(final Consumer<BookingRow> consumer) {
+        Arrays.fill(slots, 0);
+        final int providers = size.providers();
+        final long customers = size.users() - providers;
+        for (long id = 1; id <= size.bookings(); id++) {
+            final double u = unit(mix(BOOKING_SALT ^ id));
+            final int provider = Math.min((int) (providers * u * u), providers - 1);
+            final long step = stepHours(provider);
+            // Distinct slots of a provider get distinct hours, and the offset keeps them apart per step
+            final long hour = slots[provider]++ * step + provider % step;
+            // Same hour and different provider always maps to a different customer
+            final int customer = providers + (int) Math.floorMod(hour * providers + provider, customers);
+            consumer.accept(new BookingRow(id, provider, (int) (id % size.servicesPerProvider()), hour, customer));
+        }
+    }
+
+    /**
+     * Spread each provider's expected bookings over the dataset window; busy providers are booked back to back.
+     */
+    long stepHours(final int provider) {
+        final double providers = size.providers();
+        final double share = Math.sqrt((provider + 1) / providers) - Math.sqrt(provider / providers);
+        final double expected = Math.max(size.bookings() * share, 1);
+        return Math.max(1, (long) (WINDOW_HOURS / expected));
+    }
+
+    /**
+     * Load the dataset into an empty schema, then vacuum and analyze so plans see realistic statistics.
+     *
+     * @param dataSource the target database
+     */
+    void load(final DataSource dataSource) throws SQLException {
+        final long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            final CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            copyUsers(copyManager);
+            copyProviders(copyManager);
+            copyServices(copyManager);
+            copyBookings(copyManager);
+            copyGuestTokens(copyManager);
+            copyVerificationTokens(copyManager);
+
+            try (Statement statement = connection.createStatement()) {
+                for (final String table : List.of("t_service", "t_booking", "t_guest_access_token",
+                        "t_email_verification_token")) {
+                    statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), "
+                            + "(SELECT COALESCE(max(id), 1) FROM " + table + "))");
+                }
+                for (final String table : TABLES) {
+                    statement.execute("VACUUM ANALYZE " + table);
+                }
+            }
+        }
+        log.warn("Loaded synthetic dataset {} in {}s", size, (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    private void copyUsers(final CopyManager copyManager) throws SQLException {
+        try (CopyWriter writer = new CopyWriter(copyManager, "t_user", "id, username, first_name, last_name, email, "
+                + "password, role, is_guest, created_at, updated_at, deleted_at, deleted_by, is_email_verified")) {
+            for (int user = 0; user < size.users(); user++) {
+                final LocalDateTime created = base.minusDays(user % 365);
+                final boolean deleted = isDeleted(user);
+                writer.row(userId(user), username(user), "First" + user % 1000, "Last" + user % 997, email(user),
+                        isGuest(user) ? null : PASSWORD_HASH,
+                        user < size.providers() ? "PROVIDER" : "USER",
+                        isGuest(user), created, created,
+                        deleted ? created.plusDays(30) : null, deleted ? "synthetic" : null,
+                        isVerified(user));
+            }
+        }
+    }
+
+    private void copyProviders(final CopyManager copyManager) throws SQLException {
+        try (CopyWriter writer = new CopyWriter(copyManager, "t_provider",
+                "id, user_id, business_name, is_verified, created_at, updated_at")) {
+            for (int provider = 0; provider < size.providers(); provider++) {
+                final LocalDateTime created = base.minusDays(provider % 365);
+                writer.row(providerId(provider), userId(provider), "Provider " + provider, provider % 2 == 0,
+                        created, created);
+            }
+        }
+    }
+
+    private void copyServices(final CopyManager copyManager) throws SQLException {
+        try (CopyWriter writer = new CopyWriter(copyManager, "t_service",
+                "id, provider_id, name, duration_minutes, price, is_active, created_at, updated_at, version")) {
+            for (int provider = 0; provider < size.providers(); provider++) {
+                for (int service = 0; service < size.servicesPerProvider(); service++) {
+                    writer.row(serviceId(provider, service), providerId(provider), "Service " + service,
+                            30 + 15 * (service % 3), 25 + service + ".00", true, base, base, 0);
+                }
+            }
+        }
+    }
+
+    private void copyBookings(final CopyManager copyManager) throws SQLException {
+        try (CopyWriter writer = new CopyWriter(copyManager, "t_booking", "id, customer_id, provider_id, service_id, "
+                + "start_time, end_time, status, created_at, updated_at, deleted_at, deleted_by, version")) {
+            forEachBooking(booking -> {
+                final LocalDateTime start = start(booking);
+                final LocalDateTime created = start.minusDays(1 + booking.id() % 14);
+                final String status = status(booking);
+                final LocalDateTime updated = "COMPLETED".equals(status)
+                        ? start.plusHours(2)
+                        : created.plusMinutes(booking.id() % 720);
+                final boolean deleted = isDeleted(booking);
+                writer.row(booking.id(), userId(booking.customer()), providerId(booking.provider()),
+                        serviceId(booking.provider(), booking.service()), start, end(booking), status,
+                        created, updated, deleted ? updated : null, deleted ? "synthetic" : null,
+                        "PENDING".equals(status) ? 0 : 1);
+            });
+        }
+    }
+
+    private void copyGuestTokens(final CopyManager copyManager) throws SQLException {
+        final long[] id = {0};
+        try (CopyWriter writer = new CopyWriter(copyManager, "t_guest_access_token", "id, booking_id, token, "
+                + "expires_at, confirmed_at, created_at, updated_at, deleted_at, deleted_by, version")) {
+            forEachBooking(booking -> {
+                if (!isGuest(booking.customer())) {
+                    return;
+                }
+                final LocalDateTime created = start(booking).minusDays(1 + booking.id() % 14);
+                final String status = status(booking);
+                final boolean confirmed = "CONFIRMED".equals(status) || "COMPLETED".equals(status);
+                final boolean deleted = isDeleted(booking);
+                writer.row(++id[0], booking.id(), guestToken(booking.id()), end(booking).plusDays(1),
+                        confirmed ? created.plusHours(1) : null, created, created,
+                        deleted ? created : null, deleted ? "synthetic" : null, 0);
+            });
+        }
+    }
+
+    private void copyVerificationTokens(final CopyManager copyManager) throws SQLException {
+        long id = 0;
+        try (CopyWriter writer = new CopyWriter(copyManager, "t_email_verification_token",
+                "id, user_id, token, expires_at, used_at, created_at, updated_at")) {
+            for (int user = 0; user < size.users(); user++) {
+                if (isGuest(user)) {
+                    continue;
+                }
+                final LocalDateTime created = base.minusDays(user % 365);
+                writer.row(++id, userId(user), verificationToken(user), created.plusDays(7),
+                        isVerified(user) ? created.plusHours(1) : null, created, created);
+            }
+        }
+    }
+
+    private static UUID uuid(final long salt, final long n) {
+        final long mostSigBits = mix(salt ^ n);
+        final long leastSigBits = mix(salt * 31 + n);
+        // Random-looking version 4 UUIDs; mix() is a bijection, so they are unique per salt
+        return new UUID((mostSigBits & 0xFFFFFFFFFFFF0FFFL) | 0x4000L,
+                (leastSigBits & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static double unit(final long random) {
+        return (random >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Streams CSV rows into one {@code COPY} in chunks. Values must not contain commas, quotes or newlines.
+     */
+    private static final class CopyWriter implements AutoCloseable {
+
+        private final String table;
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(FLUSH_CHARS + 1024);
+        private final long started = System.nanoTime();
+
+        private CopyWriter(final CopyManager copyManager, final String table, final String columns)
+                throws SQLException {
+            this.table = table;
+            this.copyIn = copyManager.copyIn("COPY " + table + " (" + columns + ") FROM STDIN (FORMAT csv)");
+        }
+
+        private void row(final Object... values) {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append(',');
+                }
+                // An unquoted empty value is NULL in CSV format
+                if (values[i] instanceof LocalDateTime timestamp) {
+                    buffer.append(TIMESTAMP.format(timestamp));
+                } else if (values[i] != null) {
+                    buffer.append(values[i]);
+                }
+            }
+            buffer.append('\n');
+            if (buffer.length() >= FLUSH_CHARS) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            final byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            buffer.setLength(0);
+            try {
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+            } catch (final SQLException e) {
+                throw new IllegalStateException("COPY into " + table + " failed", e);
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (!copyIn.isActive()) {
+                return;
+            }
+            try {
+                flush();
+                final long rows = copyIn.endCopy();
+                log.warn("Copied {} rows into {} in {} ms", rows, table, (System.nanoTime() - started) / 1_000_000);
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package fi.unfinitas.bookora.repository.plan;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SyntheticDatasetTest {
+
+    private final SyntheticDataset dataset =
+            new SyntheticDataset(new DatasetSize(2_000, 100, 3, 20_000), LocalDateTime.of(2026, 1, 15, 10, 30));
+
+    @Test
+    @DisplayName("Should never book a provider or a customer twice in the same hour")
+    void shouldRespectExclusionConstraints() {
+        final Set<String> providerHours = new HashSet<>();
+        final Set<String> customerHours = new HashSet<>();
+        final int[] count = {0};
+
+        dataset.forEachBooking(booking -> {
+            count[0]++;
+            assertThat(providerHours.add(booking.provider() + "@" + booking.hour())).isTrue();
+            assertThat(customerHours.add(booking.customer() + "@" + booking.hour())).isTrue();
+            assertThat(booking.customer()).isBetween(100, 1_999);
+            assertThat(dataset.end(booking)).isAfter(dataset.start(booking))
+                    .isBeforeOrEqualTo(dataset.start(booking).plusHours(1));
+        });
+
+        assertThat(count[0]).isEqualTo(20_000);
+    }
+
+    @Test
+    @DisplayName("Should skew bookings towards low provider numbers")
+    void shouldSkewProviders() {
+        final int[] perProvider = new int[100];
+        dataset.forEachBooking(booking -> perProvider[booking.provider()]++);
+
+        assertThat(perProvider[0]).isGreaterThan(10 * perProvider[50]);
+        assertThat(perProvider[dataset.typicalProvider()]).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should generate the same bookings on every pass")
+    void shouldBeDeterministic() {
+        final StringBuilder first = new StringBuilder();
+        final StringBuilder second = new StringBuilder();
+
+        dataset.forEachBooking(first::append);
+        dataset.forEachBooking(second::append);
+
+        assertThat(first.toString()).isEqualTo(second.toString());
+    }
+
+    @Test
+    @DisplayName("Should derive distinct keys per row")
+    void shouldDeriveDistinctKeys() {
+        final Set<UUID> ids = new HashSet<>();
+        IntStream.range(0, 2_000).forEach(user -> {
+            ids.add(dataset.userId(user));
+            ids.add(dataset.verificationToken(user));
+        });
+        IntStream.range(0, 100).forEach(provider -> ids.add(dataset.providerId(provider)));
+
+        assertThat(ids).hasSize(4_100);
+        assertThat(dataset.userId(7).version()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should find sample rows for the plan cases")
+    void shouldFindSamples() {
+        final SyntheticDataset.BookingRow booking = dataset.upcomingGuestBooking();
+        assertThat(booking.provider()).isEqualTo(dataset.typicalProvider());
+        assertThat(dataset.isGuest(booking.customer())).isTrue();
+        assertThat(dataset.start(booking)).isAfter(dataset.now());
+
+        final int unverified = dataset.registeredUser(false);
+        assertThat(dataset.isGuest(unverified) || dataset.isDeleted(unverified) || dataset.isVerified(unverified))
+                .isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject sizes that cannot satisfy the exclusion constraints")
+    void shouldRejectTooFewUsers() {
+        assertThatThrownBy(() -> new DatasetSize(100, 60, 1, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,120 @@
+package fi.unfinitas.bookora.repository.plan;
+
+import fi.unfinitas.bookora.util.UuidV7;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares random version 4 and time-ordered version 7 UUID primary keys: inserts {@code keys.rows} rows
+ * (default 10M) in JDBC batches of {@code keys.batch-size}, as Hibernate does, into a Postgres container whose
+ * {@code shared_buffers} are smaller than the final index. Logs insert throughput per tenth of the rows, and
+ * the size and leaf density of the primary key index. Excluded from the regular build; run with
+ * {@code ./mvnw -Pkey-benchmark test}.
+ */
+@Tag("key-benchmark")
+@DisplayName("UUID Key Insert Benchmark")
+@Slf4j
+class UuidKeyInsertBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("keys.rows", 10_000_000);
+    private static final int BATCH_SIZE = Integer.getInteger("keys.batch-size", 1_000);
+    private static final int SEGMENTS = 10;
+
+    /**
+     * @param rowsPerSecond            over all rows
+     * @param lastSegmentRowsPerSecond over the last tenth, once the index no longer fits in shared buffers
+     * @param indexBytes               size of the primary key index
+     * @param leafDensity              average fill of its leaf pages, in percent
+     */
+    private record KeyResult(String table, double rowsPerSecond, double lastSegmentRowsPerSecond, long indexBytes,
+                             double leafDensity) {
+    }
+
+    @Test
+    @DisplayName("Should keep a smaller primary key index with time-ordered keys")
+    void shouldKeepSmallerIndexWithTimeOrderedKeys() throws SQLException {
+        try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:17-alpine"))
+                .withUrlParam("reWriteBatchedInserts", "true")
+                .withCommand("postgres", "-c", "shared_buffers=128MB", "-c", "synchronous_commit=off")) {
+            postgres.start();
+            try (Connection connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(),
+                    postgres.getPassword())) {
+                execute(connection, "CREATE EXTENSION pgstattuple");
+
+                final KeyResult random = insert(connection, "t_key_v4", UUID::randomUUID);
+                final KeyResult timeOrdered = insert(connection, "t_key_v7", UuidV7::generate);
+
+                for (final KeyResult result : new KeyResult[]{random, timeOrdered}) {
+                    log.info("{}: {} rows/s overall, {} rows/s over the last {}%, index {} MB at {}% leaf density",
+                            result.table(), Math.round(result.rowsPerSecond()),
+                            Math.round(result.lastSegmentRowsPerSecond()), 100 / SEGMENTS,
+                            result.indexBytes() >> 20, Math.round(result.leafDensity()));
+                }
+                assertThat(timeOrdered.indexBytes()).isLessThan(random.indexBytes());
+                assertThat(timeOrdered.leafDensity()).isGreaterThan(random.leafDensity());
+            }
+        }
+    }
+
+    private static KeyResult insert(final Connection connection, final String table, final Supplier<UUID> keys)
+            throws SQLException {
+        execute(connection, "CREATE TABLE " + table
+                + " (id uuid PRIMARY KEY, created_at timestamp NOT NULL DEFAULT now())");
+        connection.setAutoCommit(false);
+        final int segmentRows = Math.max(1, ROWS / SEGMENTS);
+        final long started = System.nanoTime();
+        long segmentStarted = started;
+        double lastSegmentRowsPerSecond = 0;
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table + " (id) VALUES (?)")) {
+            for (int row = 1; row <= ROWS; row++) {
+                insert.setObject(1, keys.get());
+                insert.addBatch();
+                if (row % BATCH_SIZE == 0 || row == ROWS) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+                if (row % segmentRows == 0) {
+                    final long now = System.nanoTime();
+                    lastSegmentRowsPerSecond = segmentRows * 1e9 / (now - segmentStarted);
+                    log.debug("{}: {} rows, {} rows/s", table, row, Math.round(lastSegmentRowsPerSecond));
+                    segmentStarted = now;
+                }
+            }
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        final double rowsPerSecond = ROWS * 1e9 / (System.nanoTime() - started);
+
+        try (PreparedStatement index = connection.prepareStatement(
+                "SELECT pg_relation_size(?::regclass), avg_leaf_density FROM pgstatindex(?)")) {
+            index.setString(1, table + "_pkey");
+            index.setString(2, table + "_pkey");
+            try (ResultSet resultSet = index.executeQuery()) {
+                resultSet.next();
+                return new KeyResult(table, rowsPerSecond, lastSegmentRowsPerSecond, resultSet.getLong(1),
+                        resultSet.getDouble(2));
+            }
+        }
+    }
+
+    private static void execute(final Connection connection, final String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package fi.unfinitas.bookora.security;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BookoraProperties.PasswordHashing properties = new BookoraProperties.PasswordHashing();
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        properties.setStrength(4);
+        properties.setWorkers(1);
+        properties.setQueueCapacity(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should hash and verify passwords on the worker pool")
+    void shouldEncodeAndMatch() {
+        encoder = new BoundedPasswordEncoder(properties, meterRegistry);
+
+        final String hash = encoder.encode("Password123!");
+
+        assertThat(hash).startsWith("$2a$04$");
+        assertThat(encoder.matches("Password123!", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+        assertThat(meterRegistry.get(BoundedPasswordEncoder.HASHING_TIMER).tag("operation", "encode").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get(BoundedPasswordEncoder.HASHING_TIMER).tag("operation", "matches").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should report hashes with a lower cost factor for upgrade")
+    void shouldUpgradeWeakerHashes() {
+        properties.setStrength(6);
+        encoder = new BoundedPasswordEncoder(properties, meterRegistry);
+
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("Password123!"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("Password123!"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject at once when every worker is busy and the queue is full")
+    void shouldRejectWhenSaturated() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+        encoder = new BoundedPasswordEncoder(blocking, properties, meterRegistry);
+
+        final CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("a", "hash"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        final CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("b", "hash"));
+        while (meterRegistry.get(BoundedPasswordEncoder.QUEUE_GAUGE).gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> encoder.matches("c", "hash")).isInstanceOf(RateLimitExceededException.class);
+        assertThat(meterRegistry.get(BoundedPasswordEncoder.REJECTED_COUNTER).counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
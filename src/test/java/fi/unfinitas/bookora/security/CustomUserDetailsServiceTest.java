@@ -1,5 +1,6 @@
 package fi.unfinitas.bookora.security;
 
+import fi.unfinitas.bookora.config.BookoraProperties;
 import fi.unfinitas.bookora.domain.enums.UserRole;
 import fi.unfinitas.bookora.domain.model.User;
 import fi.unfinitas.bookora.repository.UserRepository;
@@ -10,14 +11,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -138,4 +146,45 @@ class CustomUserDetailsServiceTest {
                 .isInstanceOf(UsernameNotFoundException.class)
                 .hasMessageContaining("User not found with username:");
     }
+
+    @Test
+    @DisplayName("Should rehash a password with an outdated cost factor on successful login")
+    void shouldRehashOutdatedPasswordOnLogin() {
+        final BookoraProperties.PasswordHashing properties = new BookoraProperties.PasswordHashing();
+        properties.setStrength(5);
+        final BoundedPasswordEncoder passwordEncoder = new BoundedPasswordEncoder(properties, new SimpleMeterRegistry());
+        final DaoAuthenticationProvider provider = new DaoAuthenticationProvider(customUserDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsPasswordService(customUserDetailsService);
+        testUser.setPassword(new BCryptPasswordEncoder(4).encode("Password123!"));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken("testuser", "Password123!"));
+
+        verify(userRepository).save(testUser);
+        assertThat(testUser.getPassword()).startsWith("$2a$05$");
+        assertThat(passwordEncoder.matches("Password123!", testUser.getPassword())).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(testUser.getPassword())).isFalse();
+        passwordEncoder.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should keep a password hashed with the current cost factor")
+    void shouldNotRehashCurrentPassword() {
+        final BookoraProperties.PasswordHashing properties = new BookoraProperties.PasswordHashing();
+        properties.setStrength(4);
+        final BoundedPasswordEncoder passwordEncoder = new BoundedPasswordEncoder(properties, new SimpleMeterRegistry());
+        final DaoAuthenticationProvider provider = new DaoAuthenticationProvider(customUserDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsPasswordService(customUserDetailsService);
+        testUser.setPassword(passwordEncoder.encode("Password123!"));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken("testuser", "Password123!"));
+
+        verify(userRepository, never()).save(any());
+        passwordEncoder.shutdown();
+    }
 }
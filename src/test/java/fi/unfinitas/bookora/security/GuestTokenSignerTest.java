@@ -0,0 +1,131 @@
+package fi.unfinitas.bookora.security;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.exception.InvalidTokenException;
+import fi.unfinitas.bookora.exception.TokenExpiredException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class GuestTokenSignerTest {
+
+    private static final String KEY_1 = Base64.getEncoder().encodeToString("k1-0123456789abcdef0123456789abcdef".getBytes());
+    private static final String KEY_2 = Base64.getEncoder().encodeToString("k2-0123456789abcdef0123456789abcdef".getBytes());
+
+    private BookoraProperties bookoraProperties;
+    private GuestTokenSigner signer;
+    private LocalDateTime expiresAt;
+
+    @BeforeEach
+    void setUp() {
+        bookoraProperties = new BookoraProperties();
+        signing().setEnabled(true);
+        signing().setActiveKeyId("k1");
+        signing().getKeys().put("k1", KEY_1);
+        signer = new GuestTokenSigner(bookoraProperties);
+        expiresAt = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    private BookoraProperties.Guest.Token.Signing signing() {
+        return bookoraProperties.getGuest().getToken().getSigning();
+    }
+
+    @Test
+    @DisplayName("Should verify a signed token and return its claims")
+    void shouldRoundTrip() {
+        final String token = signer.sign(42L, expiresAt);
+
+        assertThat(signer.verify(token)).isEqualTo(new GuestTokenSigner.Claims(42L, expiresAt));
+    }
+
+    @Test
+    @DisplayName("Should never produce a token with the length of a UUID")
+    void shouldNotLookLikeUuid() {
+        assertThat(signer.sign(Long.MAX_VALUE, expiresAt))
+                .doesNotContain("=")
+                .hasSizeGreaterThan(UUID.randomUUID().toString().length());
+    }
+
+    @Test
+    @DisplayName("Should reject a token with any byte changed")
+    void shouldRejectTamperedToken() {
+        final byte[] bytes = Base64.getUrlDecoder().decode(signer.sign(42L, expiresAt));
+
+        for (int i = 0; i < bytes.length; i++) {
+            final byte[] tampered = bytes.clone();
+            tampered[i] ^= 1;
+            final String token = Base64.getUrlEncoder().withoutPadding().encodeToString(tampered);
+
+            assertThatThrownBy(() -> signer.verify(token))
+                    .as("byte %d", i)
+                    .isInstanceOf(InvalidTokenException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject garbage and UUID tokens")
+    void shouldRejectMalformedToken() {
+        assertThatThrownBy(() -> signer.verify("not a token!")).isInstanceOf(InvalidTokenException.class);
+        assertThatThrownBy(() -> signer.verify("")).isInstanceOf(InvalidTokenException.class);
+        assertThatThrownBy(() -> signer.verify(UUID.randomUUID().toString())).isInstanceOf(InvalidTokenException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject an expired token")
+    void shouldRejectExpiredToken() {
+        final String token = signer.sign(42L, LocalDateTime.now().minusMinutes(1));
+
+        assertThatThrownBy(() -> signer.verify(token)).isInstanceOf(TokenExpiredException.class);
+    }
+
+    @Test
+    @DisplayName("Should keep verifying tokens of a retired key after rotation")
+    void shouldVerifyAfterRotation() {
+        final String oldToken = signer.sign(42L, expiresAt);
+
+        signing().getKeys().put("k2", KEY_2);
+        signing().setActiveKeyId("k2");
+        final GuestTokenSigner rotated = new GuestTokenSigner(bookoraProperties);
+        final String newToken = rotated.sign(43L, expiresAt);
+
+        assertThat(rotated.verify(oldToken).bookingId()).isEqualTo(42L);
+        assertThat(rotated.verify(newToken).bookingId()).isEqualTo(43L);
+        assertThatThrownBy(() -> signer.verify(newToken)).isInstanceOf(InvalidTokenException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject tokens of a removed key")
+    void shouldRejectRemovedKey() {
+        final String token = signer.sign(42L, expiresAt);
+
+        signing().getKeys().clear();
+        signing().getKeys().put("k2", KEY_2);
+        signing().setActiveKeyId("k2");
+
+        assertThatThrownBy(() -> new GuestTokenSigner(bookoraProperties).verify(token))
+                .isInstanceOf(InvalidTokenException.class);
+    }
+
+    @Test
+    @DisplayName("Should fail at startup when enabled without the active key")
+    void shouldRequireActiveKey() {
+        signing().setActiveKeyId("missing");
+
+        assertThatThrownBy(() -> new GuestTokenSigner(bookoraProperties)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Should fail at startup on a short key")
+    void shouldRejectShortKey() {
+        signing().getKeys().put("k1", Base64.getEncoder().encodeToString("short".getBytes()));
+
+        assertThatThrownBy(() -> new GuestTokenSigner(bookoraProperties)).isInstanceOf(IllegalStateException.class);
+    }
+}
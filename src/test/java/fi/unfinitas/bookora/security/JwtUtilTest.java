@@ -1,5 +1,6 @@
 package fi.unfinitas.bookora.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +13,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Date;
 import java.util.Set;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -184,4 +186,22 @@ class JwtUtilTest {
 
         assertThat(token1).isNotEqualTo(token2);
     }
+
+    @Test
+    @DisplayName("Should carry token id, type and session in the claims")
+    void shouldCarryRevocationClaims() {
+        final UUID sessionId = UUID.randomUUID();
+        final UUID refreshTokenId = UUID.randomUUID();
+
+        final Claims access = jwtUtil.parseClaims(jwtUtil.generateAccessToken(userDetails, sessionId));
+        final Claims refresh = jwtUtil.parseClaims(jwtUtil.generateRefreshToken(userDetails, sessionId, refreshTokenId));
+
+        assertThat(JwtUtil.tokenId(access)).isNotNull().isNotEqualTo(refreshTokenId);
+        assertThat(JwtUtil.sessionId(access)).isEqualTo(sessionId);
+        assertThat(JwtUtil.isRefreshToken(access)).isFalse();
+        assertThat(JwtUtil.tokenId(refresh)).isEqualTo(refreshTokenId);
+        assertThat(JwtUtil.sessionId(refresh)).isEqualTo(sessionId);
+        assertThat(JwtUtil.isRefreshToken(refresh)).isTrue();
+        assertThat(JwtUtil.sessionId(jwtUtil.parseClaims(jwtUtil.generateAccessToken(userDetails)))).isNull();
+    }
 }
@@ -20,6 +20,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -39,6 +40,7 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.lenient;
 import static org.springframework.security.core.userdetails.User.builder;
@@ -79,6 +81,9 @@ class AuthenticationServiceTest {
     @Mock
     private BookoraProperties.Verification.Token tokenConfig;
 
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
     @InjectMocks
     private AuthenticationServiceImpl authenticationService;
 
@@ -188,8 +193,9 @@ class AuthenticationServiceTest {
         when(authentication.getPrincipal()).thenReturn(userDetails);
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
-        when(jwtUtil.generateAccessToken(userDetails)).thenReturn("access-token");
-        when(jwtUtil.generateRefreshToken(userDetails)).thenReturn("refresh-token");
+        when(jwtUtil.generateAccessToken(eq(userDetails), any(UUID.class))).thenReturn("access-token");
+        when(tokenRevocationService.issueRefreshToken(eq(userDetails), eq(testUser.getId()), any(UUID.class)))
+                .thenReturn("refresh-token");
         when(jwtUtil.getAccessTokenExpiration()).thenReturn(86400000L);
 
         final LoginResponse result = authenticationService.login(loginRequest);
@@ -202,8 +208,9 @@ class AuthenticationServiceTest {
         assertThat(result.expiresIn()).isEqualTo(86400000L);
 
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(jwtUtil).generateAccessToken(userDetails);
-        verify(jwtUtil).generateRefreshToken(userDetails);
+        final ArgumentCaptor<UUID> sessionId = ArgumentCaptor.forClass(UUID.class);
+        verify(jwtUtil).generateAccessToken(eq(userDetails), sessionId.capture());
+        verify(tokenRevocationService).issueRefreshToken(userDetails, testUser.getId(), sessionId.getValue());
     }
 
     @Test
@@ -217,7 +224,7 @@ class AuthenticationServiceTest {
                 .hasMessageContaining("Invalid username or password");
 
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(jwtUtil, never()).generateAccessToken(any());
+        verify(jwtUtil, never()).generateAccessToken(any(), any());
     }
 
     @Test
@@ -227,8 +234,11 @@ class AuthenticationServiceTest {
         when(jwtUtil.extractUsername(refreshToken)).thenReturn("testuser");
         when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
         when(jwtUtil.validateToken(refreshToken, userDetails)).thenReturn(true);
-        when(jwtUtil.generateAccessToken(userDetails)).thenReturn("new-access-token");
-        when(jwtUtil.generateRefreshToken(userDetails)).thenReturn("new-refresh-token");
+        final UUID sessionId = UUID.randomUUID();
+        when(tokenRevocationService.rotate(refreshToken)).thenReturn(sessionId);
+        when(jwtUtil.generateAccessToken(userDetails, sessionId)).thenReturn("new-access-token");
+        when(tokenRevocationService.issueRefreshToken(userDetails, testUser.getId(), sessionId))
+                .thenReturn("new-refresh-token");
         when(jwtUtil.getAccessTokenExpiration()).thenReturn(86400000L);
 
         final LoginResponse result = authenticationService.refreshToken(refreshToken);
@@ -241,8 +251,32 @@ class AuthenticationServiceTest {
 
         verify(jwtUtil).extractUsername(refreshToken);
         verify(jwtUtil).validateToken(refreshToken, userDetails);
-        verify(jwtUtil).generateAccessToken(userDetails);
-        verify(jwtUtil).generateRefreshToken(userDetails);
+        verify(tokenRevocationService).rotate(refreshToken);
+    }
+
+    @Test
+    @DisplayName("Should not issue tokens when the refresh token was already used")
+    void shouldNotIssueTokensWhenRefreshTokenReused() {
+        final String refreshToken = "used-refresh-token";
+        when(jwtUtil.extractUsername(refreshToken)).thenReturn("testuser");
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
+        when(jwtUtil.validateToken(refreshToken, userDetails)).thenReturn(true);
+        when(tokenRevocationService.rotate(refreshToken))
+                .thenThrow(new InvalidCredentialsException("Invalid refresh token"));
+
+        assertThatThrownBy(() -> authenticationService.refreshToken(refreshToken))
+                .isInstanceOf(InvalidCredentialsException.class);
+
+        verify(jwtUtil, never()).generateAccessToken(any(), any());
+        verify(tokenRevocationService, never()).issueRefreshToken(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should revoke the session on logout")
+    void shouldRevokeSessionOnLogout() {
+        authenticationService.logout("access-token");
+
+        verify(tokenRevocationService).logout("access-token");
     }
 
     @Test
@@ -258,7 +292,7 @@ class AuthenticationServiceTest {
                 .hasMessageContaining("Invalid refresh token");
 
         verify(jwtUtil).validateToken(refreshToken, userDetails);
-        verify(jwtUtil, never()).generateAccessToken(any());
+        verify(jwtUtil, never()).generateAccessToken(any(), any());
     }
 
     @Test
@@ -274,7 +308,7 @@ class AuthenticationServiceTest {
                 .hasMessageContaining("User not found");
 
         verify(userDetailsService).loadUserByUsername("nonexistent");
-        verify(jwtUtil, never()).generateAccessToken(any());
+        verify(jwtUtil, never()).generateAccessToken(any(), any());
     }
 
     @Test
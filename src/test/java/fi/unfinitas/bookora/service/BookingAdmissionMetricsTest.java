@@ -0,0 +1,118 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.service.BookingAdmissionMetrics.Admission;
+import fi.unfinitas.bookora.service.BookingAdmissionMetrics.Outcome;
+import fi.unfinitas.bookora.service.BookingAdmissionMetrics.Phase;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookingAdmissionMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BookingAdmissionMetrics admissionMetrics;
+    private final Map<String, Boolean> distributions = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        final BookoraProperties bookoraProperties = new BookoraProperties();
+        bookoraProperties.getMetrics().setMaxProviderTags(2);
+        meterRegistry = new SimpleMeterRegistry();
+        meterRegistry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(final Meter.Id id, final DistributionStatisticConfig config) {
+                distributions.merge(id.getName(), Boolean.TRUE.equals(config.isPercentileHistogram()), Boolean::logicalOr);
+                return config;
+            }
+        });
+        admissionMetrics = new BookingAdmissionMetrics(meterRegistry, bookoraProperties);
+    }
+
+    @Test
+    @DisplayName("Should tag phases before the provider is known as unknown")
+    void shouldTagPhasesByProvider() {
+        final UUID providerId = UUID.randomUUID();
+        final Admission admission = admissionMetrics.begin();
+
+        admission.time(Phase.VALIDATION, () -> { });
+        admission.provider(providerId);
+        final String result = admission.time(Phase.INSERT, () -> "saved");
+
+        assertThat(result).isEqualTo("saved");
+        assertThat(meterRegistry.get(BookingAdmissionMetrics.PHASE_TIMER)
+                .tags("phase", "validation", "provider", "unknown").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(BookingAdmissionMetrics.PHASE_TIMER)
+                .tags("phase", "insert", "provider", providerId.toString()).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep latency histograms per phase only, without the provider tag")
+    void shouldPublishHistogramPerPhaseOnly() {
+        final Admission admission = admissionMetrics.begin();
+        admission.provider(UUID.randomUUID());
+
+        admission.time(Phase.INSERT, () -> { });
+
+        final Timer histogram = meterRegistry.get(BookingAdmissionMetrics.PHASE_HISTOGRAM).tag("phase", "insert").timer();
+        assertThat(histogram.getId().getTag("provider")).isNull();
+        assertThat(histogram.count()).isEqualTo(1);
+        assertThat(meterRegistry.get(BookingAdmissionMetrics.PHASE_HISTOGRAM).timers()).hasSize(Phase.values().length);
+        assertThat(distributions).containsEntry(BookingAdmissionMetrics.PHASE_HISTOGRAM, true)
+                .containsEntry(BookingAdmissionMetrics.PHASE_TIMER, false);
+        assertThat(meterRegistry.get(BookingAdmissionMetrics.PHASE_TIMER).tag("phase", "insert").timer()
+                .takeSnapshot().percentileValues()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should record phase duration when the phase throws")
+    void shouldTimeFailingPhase() {
+        final Admission admission = admissionMetrics.begin();
+
+        assertThatThrownBy(() -> admission.time(Phase.SERVICE_LOOKUP, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get(BookingAdmissionMetrics.PHASE_TIMER)
+                .tag("phase", "service_lookup").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should count only the first outcome of an attempt")
+    void shouldCountFirstOutcomeOnly() {
+        final Admission admission = admissionMetrics.begin();
+
+        admission.complete(Outcome.RACE_CONFLICT);
+        admission.complete(Outcome.ERROR);
+
+        assertThat(meterRegistry.get(BookingAdmissionMetrics.OUTCOME_COUNTER)
+                .tag("outcome", "race_conflict").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.find(BookingAdmissionMetrics.OUTCOME_COUNTER)
+                .tag("outcome", "error").counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should fold providers beyond the tag limit into other")
+    void shouldBoundProviderCardinality() {
+        final UUID first = UUID.randomUUID();
+        final UUID second = UUID.randomUUID();
+
+        assertThat(admissionMetrics.providerTag(first)).isEqualTo(first.toString());
+        assertThat(admissionMetrics.providerTag(second)).isEqualTo(second.toString());
+        assertThat(admissionMetrics.providerTag(UUID.randomUUID())).isEqualTo(BookingAdmissionMetrics.OTHER_PROVIDER);
+        assertThat(admissionMetrics.providerTag(first)).isEqualTo(first.toString());
+        assertThat(admissionMetrics.providerTag(null)).isEqualTo(BookingAdmissionMetrics.UNKNOWN_PROVIDER);
+    }
+}
@@ -0,0 +1,160 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.domain.model.BookingPolicy;
+import fi.unfinitas.bookora.domain.model.Provider;
+import fi.unfinitas.bookora.domain.model.ServiceOffering;
+import fi.unfinitas.bookora.dto.request.UpdateBookingPolicyRequest;
+import fi.unfinitas.bookora.exception.ServiceOfferingNotFoundException;
+import fi.unfinitas.bookora.repository.BookingPolicyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingPolicyServiceTest {
+
+    @Mock
+    private BookingPolicyRepository bookingPolicyRepository;
+
+    @Mock
+    private ServiceOfferingService serviceOfferingService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID providerId = UUID.randomUUID();
+
+    private BookingPolicyService service;
+
+    @BeforeEach
+    void setUp() {
+        final BookoraProperties properties = new BookoraProperties();
+        properties.getBookingPolicy().setMinLeadMinutes(30);
+        service = new BookingPolicyService(bookingPolicyRepository, serviceOfferingService, properties,
+                transactionManager, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should use the defaults for providers without a policy")
+    void shouldUseDefaultsWithoutPolicy() {
+        service.afterSingletonsInstantiated();
+
+        final BookingRules rules = service.rulesFor(providerId, 1L);
+
+        assertThat(rules.minLeadTime()).isEqualTo(Duration.ofMinutes(30));
+        assertThat(rules.maxAdvance()).isZero();
+        assertThat(rules.hasDailyCap()).isFalse();
+        assertThat(rules.cancellationWindow()).isEqualTo(Duration.ofHours(24));
+    }
+
+    @Test
+    @DisplayName("Should compile service policies on top of the provider's policy")
+    void shouldInheritProviderPolicy() {
+        final BookingPolicy servicePolicy = policy(2L, 0, null);
+        servicePolicy.setBufferMinutes(10);
+        when(bookingPolicyRepository.findAll()).thenReturn(List.of(policy(null, 120, 5), servicePolicy));
+        service.afterSingletonsInstantiated();
+
+        final BookingRules provider = service.rulesFor(providerId, 1L);
+        final BookingRules serviceRules = service.rulesFor(providerId, 2L);
+
+        assertThat(provider.minLeadTime()).isEqualTo(Duration.ofMinutes(120));
+        assertThat(provider.dailyCap()).isEqualTo(5);
+        assertThat(provider.buffer()).isZero();
+        assertThat(serviceRules.minLeadTime()).isZero();
+        assertThat(serviceRules.dailyCap()).isEqualTo(5);
+        assertThat(serviceRules.buffer()).isEqualTo(Duration.ofMinutes(10));
+        assertThat(meterRegistry.get(BookingPolicyService.CACHED_PROVIDERS_GAUGE).gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should report the widest buffer of any of the provider's services")
+    void shouldReportWidestBuffer() {
+        final BookingPolicy buffered = policy(2L, null, null);
+        buffered.setBufferMinutes(15);
+        final BookingPolicy unbuffered = policy(3L, null, null);
+        unbuffered.setBufferMinutes(0);
+        when(bookingPolicyRepository.findAll()).thenReturn(List.of(policy(null, null, 0), buffered, unbuffered));
+        service.afterSingletonsInstantiated();
+
+        assertThat(service.rulesFor(providerId, 3L).buffer()).isZero();
+        assertThat(service.widestBuffer(providerId)).isEqualTo(Duration.ofMinutes(15));
+        assertThat(service.limitsAdmission(providerId)).isTrue();
+        assertThat(service.widestBuffer(UUID.randomUUID())).isZero();
+        assertThat(service.limitsAdmission(UUID.randomUUID())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should apply an updated policy on this node at once")
+    void shouldRecompileAfterUpdate() {
+        service.afterSingletonsInstantiated();
+        final BookingPolicy updated = policy(null, 60, 3);
+        when(bookingPolicyRepository.findByProviderIdAndServiceId(providerId, null)).thenReturn(Optional.empty());
+        when(bookingPolicyRepository.save(any(BookingPolicy.class))).thenReturn(updated);
+        when(bookingPolicyRepository.findByProviderIdIn(Set.of(providerId))).thenReturn(List.of(updated));
+
+        service.updatePolicy(providerId, null, new UpdateBookingPolicyRequest(60, null, null, null, 3, null));
+
+        verify(bookingPolicyRepository).save(argThat(policy ->
+                policy.getProviderId().equals(providerId) && policy.getDailyCap() == 3));
+        assertThat(service.rulesFor(providerId, 1L).minLeadTime()).isEqualTo(Duration.ofMinutes(60));
+    }
+
+    @Test
+    @DisplayName("Should reject a policy for another provider's service")
+    void shouldRejectForeignService() {
+        when(serviceOfferingService.getServiceOfferingById(2L)).thenReturn(ServiceOffering.builder()
+                .id(2L).provider(Provider.builder().id(UUID.randomUUID()).build()).build());
+
+        assertThatThrownBy(() -> service.updatePolicy(providerId, 2L,
+                new UpdateBookingPolicyRequest(null, null, null, null, null, null)))
+                .isInstanceOf(ServiceOfferingNotFoundException.class);
+
+        verify(bookingPolicyRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should recompile providers whose policies changed on another node")
+    void shouldPickUpChangesFromOtherNodes() {
+        service.afterSingletonsInstantiated();
+        final BookingPolicy changed = policy(null, 240, 0);
+        when(bookingPolicyRepository.findByUpdatedAtGreaterThanEqual(any())).thenReturn(List.of(changed));
+        when(bookingPolicyRepository.findByProviderIdIn(Set.of(providerId))).thenReturn(List.of(changed));
+
+        service.pollChanges();
+
+        assertThat(service.rulesFor(providerId, 1L).minLeadTime()).isEqualTo(Duration.ofMinutes(240));
+        assertThat(service.rulesFor(UUID.randomUUID(), 1L).minLeadTime()).isEqualTo(Duration.ofMinutes(30));
+    }
+
+    private BookingPolicy policy(final Long serviceId, final Integer minLeadMinutes, final Integer dailyCap) {
+        final BookingPolicy policy = BookingPolicy.builder()
+                .providerId(providerId)
+                .serviceId(serviceId)
+                .minLeadMinutes(minLeadMinutes)
+                .dailyCap(dailyCap)
+                .build();
+        policy.setUpdatedAt(LocalDateTime.now());
+        return policy;
+    }
+}
@@ -0,0 +1,66 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.exception.InvalidBookingTimeException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookingRulesTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2026, 3, 2, 9, 0);
+
+    @Test
+    @DisplayName("Should require the minimum lead time")
+    void shouldRequireLeadTime() {
+        final BookingRules rules = rules(Duration.ofHours(2), Duration.ZERO, 0);
+
+        assertThatThrownBy(() -> rules.checkStartTime(now.plusMinutes(90), now))
+                .isInstanceOf(InvalidBookingTimeException.class)
+                .hasMessageContaining("120 minutes");
+        assertThatCode(() -> rules.checkStartTime(now.plusHours(2), now)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Should limit how far ahead bookings start, unless the limit is zero")
+    void shouldLimitAdvance() {
+        assertThatThrownBy(() -> rules(Duration.ZERO, Duration.ofDays(30), 0).checkStartTime(now.plusDays(31), now))
+                .isInstanceOf(InvalidBookingTimeException.class)
+                .hasMessageContaining("30 days");
+        assertThatCode(() -> rules(Duration.ZERO, Duration.ZERO, 0).checkStartTime(now.plusYears(2), now))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Should only accept starts on the granularity boundary")
+    void shouldEnforceGranularity() {
+        final BookingRules rules = rules(Duration.ZERO, Duration.ZERO, 15);
+
+        assertThatCode(() -> rules.checkStartTime(now.plusDays(1).withMinute(45), now)).doesNotThrowAnyException();
+        assertThatThrownBy(() -> rules.checkStartTime(now.plusDays(1).withMinute(50), now))
+                .isInstanceOf(InvalidBookingTimeException.class)
+                .hasMessageContaining("15-minute");
+        assertThatThrownBy(() -> rules.checkStartTime(now.plusDays(1).withSecond(30), now))
+                .isInstanceOf(InvalidBookingTimeException.class);
+    }
+
+    @Test
+    @DisplayName("Should report the starts checkStartTime accepts")
+    void shouldAllowStartsThatPassTheChecks() {
+        final BookingRules rules = rules(Duration.ofHours(2), Duration.ofDays(30), 15);
+
+        assertThat(rules.allowsStart(now.plusHours(3), now)).isTrue();
+        assertThat(rules.allowsStart(now.plusHours(1), now)).isFalse();
+        assertThat(rules.allowsStart(now.plusDays(31), now)).isFalse();
+        assertThat(rules.allowsStart(now.plusHours(3).withMinute(10), now)).isFalse();
+    }
+
+    private static BookingRules rules(final Duration minLeadTime, final Duration maxAdvance, final int granularity) {
+        return new BookingRules(minLeadTime, maxAdvance, Duration.ZERO, granularity, 0, Duration.ofHours(24));
+    }
+}
@@ -12,6 +12,7 @@ import fi.unfinitas.bookora.exception.CannotCancelBookingException;
 import fi.unfinitas.bookora.mapper.BookingMapper;
 import fi.unfinitas.bookora.repository.BookingRepository;
 import fi.unfinitas.bookora.service.impl.BookingServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,10 +20,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -56,6 +59,17 @@ class BookingServiceEmailIntegrationTest {
     @Mock
     private BookoraProperties bookoraProperties;
 
+    @Mock
+    private SlotInventoryService slotInventoryService;
+
+    @Mock
+    private BookingPolicyService bookingPolicyService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private BookingAdmissionMetrics admissionMetrics = new BookingAdmissionMetrics(meterRegistry, new BookoraProperties());
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -136,19 +150,17 @@ class BookingServiceEmailIntegrationTest {
             "PENDING",
             "Test booking",
             LocalDateTime.now(),
-            token.getToken(),
+            token.getToken().toString(),
             endTime
         );
 
         // Stub BookoraProperties for event publishing and booking configuration (lenient to avoid UnnecessaryStubbingException)
         lenient().when(bookoraProperties.getFrontendUrl()).thenReturn("http://localhost:3000");
 
-        // Mock nested properties for booking cancellation window
-        final BookoraProperties.Guest guestProperties = mock(BookoraProperties.Guest.class);
-        final BookoraProperties.Guest.Booking bookingProperties = mock(BookoraProperties.Guest.Booking.class);
-        lenient().when(bookoraProperties.getGuest()).thenReturn(guestProperties);
-        lenient().when(guestProperties.getBooking()).thenReturn(bookingProperties);
-        lenient().when(bookingProperties.getCancellationWindowHours()).thenReturn(24);
+        // No policy limits apart from the default 24-hour cancellation window
+        lenient().when(bookingPolicyService.rulesFor(any(), any())).thenReturn(
+                new BookingRules(Duration.ZERO, Duration.ZERO, Duration.ZERO, 0, 0, Duration.ofHours(24)));
+        lenient().when(bookingPolicyService.widestBuffer(any())).thenReturn(Duration.ZERO);
     }
 
     @Test
@@ -161,7 +173,8 @@ class BookingServiceEmailIntegrationTest {
             .thenReturn(guestUser);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
         when(guestAccessTokenService.generateToken(any(Booking.class))).thenReturn(token);
-        when(bookingMapper.toGuestResponse(any(Booking.class), any(GuestAccessToken.class)))
+        when(guestAccessTokenService.accessToken(token)).thenReturn(token.getToken().toString());
+        when(bookingMapper.toGuestResponse(any(Booking.class), any(GuestAccessToken.class), anyString()))
             .thenReturn(guestBookingResponse);
 
         // WHEN: createGuestBooking is called
@@ -189,10 +202,11 @@ class BookingServiceEmailIntegrationTest {
             .thenReturn(guestUser);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
         when(guestAccessTokenService.generateToken(any(Booking.class))).thenReturn(token);
-        when(bookingMapper.toGuestResponse(any(Booking.class), any(GuestAccessToken.class)))
+        when(guestAccessTokenService.accessToken(token)).thenReturn(token.getToken().toString());
+        when(bookingMapper.toGuestResponse(any(Booking.class), any(GuestAccessToken.class), anyString()))
             .thenReturn(guestBookingResponse);
 
-        doThrow(new RuntimeException("Event publishing failed"))
+        lenient().doThrow(new RuntimeException("Event publishing failed"))
             .when(eventPublisher).publishEvent(any(SendMailEvent.class));
 
         // WHEN: createGuestBooking is called
@@ -229,12 +243,12 @@ class BookingServiceEmailIntegrationTest {
             LocalDateTime.now()
         );
 
-        when(guestAccessTokenService.validateToken(any(UUID.class))).thenReturn(token);
+        when(guestAccessTokenService.validateToken(anyString())).thenReturn(token);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
         when(bookingMapper.toResponse(any(Booking.class))).thenReturn(bookingResponse);
 
         // WHEN: cancelBookingByToken is called
-        bookingService.cancelBookingByToken(token.getToken());
+        bookingService.cancelBookingByToken(token.getToken().toString());
 
         // THEN: SendMailEvent is published with BOOKING_CANCELLED template
         final ArgumentCaptor<SendMailEvent> eventCaptor = ArgumentCaptor.forClass(SendMailEvent.class);
@@ -269,15 +283,15 @@ class BookingServiceEmailIntegrationTest {
             LocalDateTime.now()
         );
 
-        when(guestAccessTokenService.validateToken(any(UUID.class))).thenReturn(token);
+        when(guestAccessTokenService.validateToken(anyString())).thenReturn(token);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
         when(bookingMapper.toResponse(any(Booking.class))).thenReturn(bookingResponse);
 
-        doThrow(new RuntimeException("Event publishing failed"))
+        lenient().doThrow(new RuntimeException("Event publishing failed"))
             .when(eventPublisher).publishEvent(any(SendMailEvent.class));
 
         // WHEN: cancelBookingByToken is called
-        final BookingResponse result = bookingService.cancelBookingByToken(token.getToken());
+        final BookingResponse result = bookingService.cancelBookingByToken(token.getToken().toString());
 
         // THEN: Booking is still cancelled
         assertThat(result).isNotNull();
@@ -295,11 +309,11 @@ class BookingServiceEmailIntegrationTest {
         booking.setStatus(BookingStatus.CANCELLED);
         token.setBooking(booking);
 
-        when(guestAccessTokenService.validateToken(any(UUID.class))).thenReturn(token);
+        when(guestAccessTokenService.validateToken(anyString())).thenReturn(token);
 
         // WHEN: cancelBookingByToken is called
         // THEN: Throws CannotCancelBookingException
-        assertThatThrownBy(() -> bookingService.cancelBookingByToken(token.getToken()))
+        assertThatThrownBy(() -> bookingService.cancelBookingByToken(token.getToken().toString()))
             .isInstanceOf(CannotCancelBookingException.class);
 
         // AND: No event is published
@@ -316,7 +330,8 @@ class BookingServiceEmailIntegrationTest {
             .thenReturn(guestUser);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
         when(guestAccessTokenService.generateToken(any(Booking.class))).thenReturn(token);
-        when(bookingMapper.toGuestResponse(any(Booking.class), any(GuestAccessToken.class)))
+        when(guestAccessTokenService.accessToken(token)).thenReturn(token.getToken().toString());
+        when(bookingMapper.toGuestResponse(any(Booking.class), any(GuestAccessToken.class), anyString()))
             .thenReturn(guestBookingResponse);
 
         // WHEN: createGuestBooking is called
@@ -2,6 +2,7 @@ package fi.unfinitas.bookora.service;
 
 import fi.unfinitas.bookora.config.BookoraProperties;
 import fi.unfinitas.bookora.domain.enums.BookingStatus;
+import fi.unfinitas.bookora.domain.event.BookingChangedEvent;
 import fi.unfinitas.bookora.domain.model.*;
 import fi.unfinitas.bookora.dto.request.CreateGuestBookingRequest;
 import fi.unfinitas.bookora.dto.response.BookingResponse;
@@ -9,18 +10,30 @@ import fi.unfinitas.bookora.dto.response.GuestBookingResponse;
 import fi.unfinitas.bookora.exception.*;
 import fi.unfinitas.bookora.mapper.BookingMapper;
 import fi.unfinitas.bookora.repository.BookingRepository;
+import fi.unfinitas.bookora.repository.ProviderRepository;
+import fi.unfinitas.bookora.repository.projection.BookingTimeRange;
+import fi.unfinitas.bookora.repository.projection.GuestBookingVersion;
 import fi.unfinitas.bookora.service.impl.BookingServiceImpl;
 import jakarta.persistence.OptimisticLockException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -53,6 +66,20 @@ class BookingServiceTest {
     @Mock
     private BookoraProperties bookoraProperties;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private BookingAdmissionMetrics admissionMetrics = new BookingAdmissionMetrics(meterRegistry, new BookoraProperties());
+
+    @Mock
+    private SlotInventoryService slotInventoryService;
+
+    @Mock
+    private BookingPolicyService bookingPolicyService;
+
+    @Mock
+    private ProviderRepository providerRepository;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -108,12 +135,9 @@ class BookingServiceTest {
         // Stub BookoraProperties for event publishing and booking configuration (lenient to avoid UnnecessaryStubbingException)
         lenient().when(bookoraProperties.getFrontendUrl()).thenReturn("http://localhost:3000");
 
-        // Mock nested properties for booking cancellation window
-        final BookoraProperties.Guest guestProperties = mock(BookoraProperties.Guest.class);
-        final BookoraProperties.Guest.Booking bookingProperties = mock(BookoraProperties.Guest.Booking.class);
-        lenient().when(bookoraProperties.getGuest()).thenReturn(guestProperties);
-        lenient().when(guestProperties.getBooking()).thenReturn(bookingProperties);
-        lenient().when(bookingProperties.getCancellationWindowHours()).thenReturn(24);
+        // No policy limits apart from the default 24-hour cancellation window
+        lenient().when(bookingPolicyService.rulesFor(any(), any())).thenReturn(rules(Duration.ZERO, Duration.ZERO, 0));
+        lenient().when(bookingPolicyService.widestBuffer(any())).thenReturn(Duration.ZERO);
     }
 
     @Test
@@ -125,7 +149,8 @@ class BookingServiceTest {
         when(bookingRepository.existsCustomerOverlappingBooking(any(), any(), any())).thenReturn(false);
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
         when(tokenService.generateToken(any(Booking.class))).thenReturn(testToken);
-        when(bookingMapper.toGuestResponse(any(Booking.class), any(GuestAccessToken.class)))
+        when(tokenService.accessToken(testToken)).thenReturn(testToken.getToken().toString());
+        when(bookingMapper.toGuestResponse(any(Booking.class), any(GuestAccessToken.class), anyString()))
                 .thenReturn(mock(GuestBookingResponse.class));
 
         final GuestBookingResponse result = bookingService.createGuestBooking(validRequest);
@@ -142,6 +167,8 @@ class BookingServiceTest {
         verify(bookingRepository).existsCustomerOverlappingBooking(any(), any(), any());
         verify(bookingRepository).save(any(Booking.class));
         verify(tokenService).generateToken(any(Booking.class));
+        assertThat(outcomeCount("success")).isEqualTo(1.0);
+        assertThat(meterRegistry.find("bookora.booking.admission.phase").timers()).hasSize(9);
     }
 
     @Test
@@ -175,6 +202,7 @@ class BookingServiceTest {
                 .hasMessageContaining("past");
 
         verify(serviceOfferingService, never()).getServiceOfferingById(any());
+        assertThat(outcomeCount("invalid_time")).isEqualTo(1.0);
     }
 
     @Test
@@ -228,6 +256,8 @@ class BookingServiceTest {
 
         verify(bookingRepository).existsOverlappingBooking(any(), any(), any());
         verify(bookingRepository, never()).save(any());
+        assertThat(outcomeCount("provider_conflict")).isEqualTo(1.0);
+        assertThat(outcomeCount("error")).isZero();
     }
 
     @Test
@@ -246,57 +276,315 @@ class BookingServiceTest {
         verify(guestUserService).findOrCreateGuestUser(any(), any(), any(), any());
         verify(bookingRepository).existsCustomerOverlappingBooking(any(), any(), any());
         verify(bookingRepository, never()).save(any());
+        assertThat(outcomeCount("customer_conflict")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should report a provider exclusion constraint race as a booking conflict")
+    void shouldReportProviderOverlapRace() {
+        when(serviceOfferingService.getServiceOfferingById(1L)).thenReturn(testServiceOffering);
+        when(bookingRepository.existsOverlappingBooking(any(), any(), any())).thenReturn(false);
+        when(guestUserService.findOrCreateGuestUser(any(), any(), any(), any())).thenReturn(guestUser);
+        when(bookingRepository.existsCustomerOverlappingBooking(any(), any(), any())).thenReturn(false);
+        when(bookingRepository.save(any(Booking.class)))
+                .thenThrow(exclusionViolation("no_overlapping_bookings", "no_overlapping_bookings"));
+
+        assertThatThrownBy(() -> bookingService.createGuestBooking(validRequest))
+                .isInstanceOf(InvalidBookingTimeException.class)
+                .hasMessageContaining("just booked by another user");
+
+        assertThat(outcomeCount("race_conflict")).isEqualTo(1.0);
+        assertThat(outcomeCount("error")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should report a customer exclusion constraint race from the server message")
+    void shouldReportCustomerOverlapRace() {
+        when(serviceOfferingService.getServiceOfferingById(1L)).thenReturn(testServiceOffering);
+        when(bookingRepository.existsOverlappingBooking(any(), any(), any())).thenReturn(false);
+        when(guestUserService.findOrCreateGuestUser(any(), any(), any(), any())).thenReturn(guestUser);
+        when(bookingRepository.existsCustomerOverlappingBooking(any(), any(), any())).thenReturn(false);
+        when(bookingRepository.save(any(Booking.class)))
+                .thenThrow(exclusionViolation("no_overlapping_customer_bookings", null));
+
+        assertThatThrownBy(() -> bookingService.createGuestBooking(validRequest))
+                .isInstanceOf(CustomerBookingConflictException.class)
+                .hasMessageContaining("already have a booking during this time");
+
+        assertThat(outcomeCount("race_conflict")).isEqualTo(1.0);
+        assertThat(outcomeCount("error")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should book a seat of a group session")
+    void shouldBookGroupSessionSeat() {
+        final ServiceOffering groupSession = groupSession();
+        final GroupSlot slot = GroupSlot.builder().id(5L).shards(4).build();
+        when(serviceOfferingService.getServiceOfferingById(1L)).thenReturn(groupSession);
+        when(slotInventoryService.findOrCreateSlot(groupSession, validRequest.getStartTime(), validRequest.getEndTime()))
+                .thenReturn(slot);
+        when(bookingRepository.existsOverlappingBookingOutsideSlot(any(), any(), any(), eq(5L))).thenReturn(false);
+        when(guestUserService.findOrCreateGuestUser(any(), any(), any(), any())).thenReturn(guestUser);
+        when(bookingRepository.existsCustomerOverlappingBooking(any(), any(), any())).thenReturn(false);
+        when(slotInventoryService.takeSeat(slot)).thenReturn(new SlotInventoryService.Seat(5L, 2));
+        when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
+        when(tokenService.generateToken(any(Booking.class))).thenReturn(testToken);
+        when(tokenService.accessToken(testToken)).thenReturn(testToken.getToken().toString());
+        when(bookingMapper.toGuestResponse(any(Booking.class), any(GuestAccessToken.class), anyString()))
+                .thenReturn(mock(GuestBookingResponse.class));
+
+        bookingService.createGuestBooking(validRequest);
+
+        final ArgumentCaptor<Booking> saved = ArgumentCaptor.forClass(Booking.class);
+        verify(bookingRepository).save(saved.capture());
+        assertThat(saved.getValue().getGroupSlotId()).isEqualTo(5L);
+        assertThat(saved.getValue().getGroupSlotShard()).isEqualTo(2);
+        verify(bookingRepository, never()).existsOverlappingBooking(any(), any(), any());
+        assertThat(outcomeCount("success")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should reject a booking when the group session is full")
+    void shouldRejectBookingWhenGroupSessionFull() {
+        final ServiceOffering groupSession = groupSession();
+        final GroupSlot slot = GroupSlot.builder().id(5L).shards(1).build();
+        when(serviceOfferingService.getServiceOfferingById(1L)).thenReturn(groupSession);
+        when(slotInventoryService.findOrCreateSlot(any(), any(), any())).thenReturn(slot);
+        when(guestUserService.findOrCreateGuestUser(any(), any(), any(), any())).thenReturn(guestUser);
+        when(slotInventoryService.takeSeat(slot)).thenThrow(new GroupSessionFullException("full"));
+
+        assertThatThrownBy(() -> bookingService.createGuestBooking(validRequest))
+                .isInstanceOf(GroupSessionFullException.class);
+
+        verify(bookingRepository, never()).save(any());
+        assertThat(outcomeCount("group_session_full")).isEqualTo(1.0);
+        assertThat(outcomeCount("error")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject a booking that breaks the provider's policy before any query")
+    void shouldRejectBookingBreakingPolicy() {
+        when(serviceOfferingService.getServiceOfferingById(1L)).thenReturn(testServiceOffering);
+        when(bookingPolicyService.rulesFor(testProvider.getId(), 1L))
+                .thenReturn(rules(Duration.ofDays(2), Duration.ZERO, 0));
+
+        assertThatThrownBy(() -> bookingService.createGuestBooking(validRequest))
+                .isInstanceOf(InvalidBookingTimeException.class)
+                .hasMessageContaining("at least 2880 minutes in advance");
+
+        verifyNoInteractions(bookingRepository, guestUserService);
+        assertThat(outcomeCount("invalid_time")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should keep the provider's buffer free around the booking")
+    void shouldCheckOverlapWithBuffer() {
+        when(serviceOfferingService.getServiceOfferingById(1L)).thenReturn(testServiceOffering);
+        when(bookingPolicyService.rulesFor(testProvider.getId(), 1L))
+                .thenReturn(rules(Duration.ZERO, Duration.ofMinutes(15), 0));
+        when(bookingRepository.existsOverlappingBooking(any(), any(), any())).thenReturn(true);
+
+        assertThatThrownBy(() -> bookingService.createGuestBooking(validRequest))
+                .isInstanceOf(InvalidBookingTimeException.class);
+
+        verify(bookingRepository).existsOverlappingBooking(testProvider.getId(),
+                validRequest.getStartTime().minusMinutes(15), validRequest.getEndTime().plusMinutes(15));
+        final InOrder inOrder = inOrder(providerRepository, bookingRepository);
+        inOrder.verify(providerRepository).lockDay(testProvider.getId(), validRequest.getStartTime().toLocalDate());
+        inOrder.verify(bookingRepository).existsOverlappingBooking(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should keep clear of a neighbour's wider buffer when the booked service has none")
+    void shouldKeepNeighbourBuffer() {
+        when(serviceOfferingService.getServiceOfferingById(1L)).thenReturn(testServiceOffering);
+        when(bookingPolicyService.widestBuffer(testProvider.getId())).thenReturn(Duration.ofMinutes(15));
+        when(bookingPolicyService.limitsAdmission(testProvider.getId())).thenReturn(true);
+        when(bookingPolicyService.rulesFor(testProvider.getId(), 9L))
+                .thenReturn(rules(Duration.ZERO, Duration.ofMinutes(15), 0));
+        when(bookingRepository.existsOverlappingBooking(any(), any(), any())).thenReturn(false);
+        // Ends ten minutes before the new booking, inside the 15-minute buffer of its own service
+        final LocalDateTime neighbourEnd = validRequest.getStartTime().minusMinutes(10);
+        when(bookingRepository.findActiveBookingTimes(testProvider.getId(),
+                validRequest.getStartTime().minusMinutes(15), validRequest.getEndTime().plusMinutes(15)))
+                .thenReturn(List.of(timeRange(neighbourEnd.minusHours(1), neighbourEnd, 9L)));
+
+        assertThatThrownBy(() -> bookingService.createGuestBooking(validRequest))
+                .isInstanceOf(InvalidBookingTimeException.class);
+
+        verify(providerRepository).lockDay(testProvider.getId(), validRequest.getStartTime().toLocalDate());
+        verify(bookingRepository, never()).save(any());
+        assertThat(outcomeCount("provider_conflict")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should accept a booking next to a neighbour whose service has no buffer")
+    void shouldAllowNeighbourWithoutBuffer() {
+        when(serviceOfferingService.getServiceOfferingById(1L)).thenReturn(testServiceOffering);
+        when(bookingPolicyService.widestBuffer(testProvider.getId())).thenReturn(Duration.ofMinutes(15));
+        when(bookingPolicyService.limitsAdmission(testProvider.getId())).thenReturn(true);
+        when(bookingRepository.existsOverlappingBooking(any(), any(), any())).thenReturn(false);
+        final LocalDateTime neighbourEnd = validRequest.getStartTime().minusMinutes(10);
+        when(bookingRepository.findActiveBookingTimes(any(), any(), any()))
+                .thenReturn(List.of(timeRange(neighbourEnd.minusHours(1), neighbourEnd, 1L)));
+        when(guestUserService.findOrCreateGuestUser(any(), any(), any(), any())).thenReturn(guestUser);
+        when(bookingRepository.existsCustomerOverlappingBooking(any(), any(), any())).thenReturn(true);
+
+        // Passes the provider checks and stops at the customer check
+        assertThatThrownBy(() -> bookingService.createGuestBooking(validRequest))
+                .isInstanceOf(CustomerBookingConflictException.class);
+    }
+
+    @Test
+    @DisplayName("Should lock every day the buffered booking touches")
+    void shouldLockEveryBufferedDay() {
+        final LocalDateTime midnight = validRequest.getStartTime().toLocalDate().plusDays(1).atStartOfDay();
+        validRequest.setStartTime(midnight.minusHours(1));
+        validRequest.setEndTime(midnight);
+        when(serviceOfferingService.getServiceOfferingById(1L)).thenReturn(testServiceOffering);
+        when(bookingPolicyService.rulesFor(testProvider.getId(), 1L))
+                .thenReturn(rules(Duration.ZERO, Duration.ofMinutes(15), 0));
+        when(bookingRepository.existsOverlappingBooking(any(), any(), any())).thenReturn(true);
+
+        assertThatThrownBy(() -> bookingService.createGuestBooking(validRequest))
+                .isInstanceOf(InvalidBookingTimeException.class);
+
+        final InOrder inOrder = inOrder(providerRepository);
+        inOrder.verify(providerRepository).lockDay(testProvider.getId(), midnight.toLocalDate().minusDays(1));
+        inOrder.verify(providerRepository).lockDay(testProvider.getId(), midnight.toLocalDate());
+        verifyNoMoreInteractions(providerRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject a booking when the provider's daily cap is reached")
+    void shouldRejectBookingWhenDailyCapReached() {
+        when(serviceOfferingService.getServiceOfferingById(1L)).thenReturn(testServiceOffering);
+        when(bookingPolicyService.rulesFor(testProvider.getId(), 1L)).thenReturn(rules(Duration.ZERO, Duration.ZERO, 3));
+        when(bookingRepository.existsOverlappingBooking(any(), any(), any())).thenReturn(false);
+        final LocalDateTime day = validRequest.getStartTime().toLocalDate().atStartOfDay();
+        when(bookingRepository.countActiveBookingsStartingBetween(testProvider.getId(), day, day.plusDays(1)))
+                .thenReturn(3L);
+
+        assertThatThrownBy(() -> bookingService.createGuestBooking(validRequest))
+                .isInstanceOf(DailyBookingCapReachedException.class);
+
+        verify(bookingRepository, never()).save(any());
+        verify(providerRepository).lockDay(testProvider.getId(), day.toLocalDate());
+        verifyNoInteractions(guestUserService);
+        assertThat(outcomeCount("daily_cap_reached")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should not count the day's bookings without a daily cap")
+    void shouldSkipDailyCountWithoutCap() {
+        when(serviceOfferingService.getServiceOfferingById(1L)).thenReturn(testServiceOffering);
+        when(bookingRepository.existsOverlappingBooking(any(), any(), any())).thenReturn(false);
+        when(guestUserService.findOrCreateGuestUser(any(), any(), any(), any())).thenReturn(guestUser);
+        when(bookingRepository.existsCustomerOverlappingBooking(any(), any(), any())).thenReturn(true);
+
+        assertThatThrownBy(() -> bookingService.createGuestBooking(validRequest))
+                .isInstanceOf(CustomerBookingConflictException.class);
+
+        verify(bookingRepository, never()).countActiveBookingsStartingBetween(any(), any(), any());
+        verifyNoInteractions(providerRepository);
     }
 
     @Test
     @DisplayName("Should get booking by token successfully")
     void shouldGetBookingByTokenSuccessfully() {
-        final UUID token = UUID.randomUUID();
-        testToken.setBooking(testBooking);
-        when(tokenService.validateToken(token)).thenReturn(testToken);
+        final String token = UUID.randomUUID().toString();
+        when(tokenService.findViewableBooking(token)).thenReturn(testBooking);
         when(bookingMapper.toResponse(testBooking)).thenReturn(mock(BookingResponse.class));
 
         final BookingResponse result = bookingService.getBookingByToken(token);
 
         assertThat(result).isNotNull();
-        verify(tokenService).validateToken(token);
+        verify(tokenService).findViewableBooking(token);
         verify(bookingMapper).toResponse(testBooking);
     }
 
     @Test
     @DisplayName("Should throw InvalidTokenException when token is not found")
     void shouldThrowInvalidTokenExceptionWhenTokenNotFound() {
-        final UUID token = UUID.randomUUID();
-        when(tokenService.validateToken(token))
+        final String token = UUID.randomUUID().toString();
+        when(tokenService.findViewableBooking(token))
                 .thenThrow(new InvalidTokenException("Token not found"));
 
         assertThatThrownBy(() -> bookingService.getBookingByToken(token))
                 .isInstanceOf(InvalidTokenException.class)
                 .hasMessageContaining("Token not found");
 
-        verify(tokenService).validateToken(token);
+        verify(tokenService).findViewableBooking(token);
         verify(bookingMapper, never()).toResponse(any());
     }
 
     @Test
     @DisplayName("Should throw TokenExpiredException when token is expired")
     void shouldThrowTokenExpiredExceptionWhenTokenExpired() {
-        final UUID token = UUID.randomUUID();
-        when(tokenService.validateToken(token))
+        final String token = UUID.randomUUID().toString();
+        when(tokenService.findViewableBooking(token))
                 .thenThrow(new TokenExpiredException("Token expired"));
 
         assertThatThrownBy(() -> bookingService.getBookingByToken(token))
                 .isInstanceOf(TokenExpiredException.class)
                 .hasMessageContaining("Token expired");
 
-        verify(tokenService).validateToken(token);
+        verify(tokenService).findViewableBooking(token);
         verify(bookingMapper, never()).toResponse(any());
     }
 
+    @Test
+    @DisplayName("Should derive ETag from booking version state without loading the booking")
+    void shouldDeriveETagFromVersionState() {
+        final String token = UUID.randomUUID().toString();
+        final GuestBookingVersion version = mock(GuestBookingVersion.class);
+        when(version.getBookingVersion()).thenReturn(3L);
+        when(version.getServiceVersion()).thenReturn(1L);
+        when(tokenService.findViewableBookingVersion(token)).thenReturn(Optional.of(version));
+
+        final Optional<String> etag = bookingService.getBookingETagByToken(token);
+
+        assertThat(etag).contains("\"3.1.0.0\"");
+        verify(tokenService, never()).findViewableBooking(any());
+        verify(bookingMapper, never()).toResponse(any());
+    }
+
+    @Test
+    @DisplayName("Should change ETag when the booking is confirmed")
+    void shouldChangeETagWhenConfirmed() {
+        final String token = UUID.randomUUID().toString();
+        final GuestBookingVersion pending = mock(GuestBookingVersion.class);
+        when(pending.getBookingVersion()).thenReturn(0L);
+        when(pending.getServiceVersion()).thenReturn(0L);
+        final GuestBookingVersion confirmed = mock(GuestBookingVersion.class);
+        when(confirmed.getBookingVersion()).thenReturn(0L);
+        when(confirmed.getServiceVersion()).thenReturn(0L);
+        when(confirmed.getConfirmedAt()).thenReturn(LocalDateTime.now());
+        when(tokenService.findViewableBookingVersion(token))
+                .thenReturn(Optional.of(pending))
+                .thenReturn(Optional.of(confirmed));
+
+        final Optional<String> before = bookingService.getBookingETagByToken(token);
+        final Optional<String> after = bookingService.getBookingETagByToken(token);
+
+        assertThat(before).isPresent();
+        assertThat(after).isPresent();
+        assertThat(after.get()).isNotEqualTo(before.get());
+    }
+
+    @Test
+    @DisplayName("Should return empty ETag when token is not viewable")
+    void shouldReturnEmptyETagWhenTokenNotViewable() {
+        final String token = UUID.randomUUID().toString();
+        when(tokenService.findViewableBookingVersion(token)).thenReturn(Optional.empty());
+
+        assertThat(bookingService.getBookingETagByToken(token)).isEmpty();
+    }
+
     @Test
     @DisplayName("Should cancel booking successfully")
     void shouldCancelBookingSuccessfully() {
-        final UUID token = UUID.randomUUID();
+        final String token = UUID.randomUUID().toString();
         testBooking.setStartTime(LocalDateTime.now().plusDays(2));
         testToken.setBooking(testBooking);
         when(tokenService.validateToken(token)).thenReturn(testToken);
@@ -309,12 +597,30 @@ class BookingServiceTest {
         assertThat(testBooking.getStatus()).isEqualTo(BookingStatus.CANCELLED);
         verify(tokenService).validateToken(token);
         verify(bookingRepository).save(testBooking);
+        verify(slotInventoryService).releaseSeat(testBooking);
+    }
+
+    @Test
+    @DisplayName("Should apply the cancellation window of the service's policy")
+    void shouldApplyPolicyCancellationWindow() {
+        final String token = UUID.randomUUID().toString();
+        testBooking.setStartTime(LocalDateTime.now().plusDays(2));
+        testToken.setBooking(testBooking);
+        when(tokenService.validateToken(token)).thenReturn(testToken);
+        when(bookingPolicyService.rulesFor(testProvider.getId(), 1L)).thenReturn(
+                new BookingRules(Duration.ZERO, Duration.ZERO, Duration.ZERO, 0, 0, Duration.ofHours(72)));
+
+        assertThatThrownBy(() -> bookingService.cancelBookingByToken(token))
+                .isInstanceOf(CannotCancelBookingException.class)
+                .hasMessageContaining("within 72 hours");
+
+        verify(bookingRepository, never()).save(any());
     }
 
     @Test
     @DisplayName("Should confirm booking successfully and mark token as confirmed")
     void shouldConfirmBookingSuccessfully() {
-        final UUID token = UUID.randomUUID();
+        final String token = UUID.randomUUID().toString();
         testBooking.setStatus(BookingStatus.PENDING);
         testBooking.setStartTime(LocalDateTime.now().plusDays(1));
         testToken.setBooking(testBooking);
@@ -330,10 +636,29 @@ class BookingServiceTest {
         verify(tokenService).validateTokenForConfirm(token);
     }
 
+    @Test
+    @DisplayName("Should publish BookingChangedEvent when booking is confirmed")
+    void shouldPublishBookingChangedEventWhenConfirmed() {
+        final String token = UUID.randomUUID().toString();
+        testBooking.setStartTime(LocalDateTime.now().plusDays(1));
+        testToken.setBooking(testBooking);
+
+        when(tokenService.validateTokenForConfirm(token)).thenReturn(testToken);
+        when(bookingMapper.toResponse(any(Booking.class))).thenReturn(mock(BookingResponse.class));
+
+        bookingService.confirmBookingByToken(token);
+
+        final ArgumentCaptor<BookingChangedEvent> captor = ArgumentCaptor.forClass(BookingChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertThat(captor.getValue().type()).isEqualTo(BookingChangedEvent.Type.CONFIRMED);
+        assertThat(captor.getValue().providerId()).isEqualTo(testProvider.getId());
+        assertThat(captor.getValue().status()).isEqualTo(BookingStatus.CONFIRMED);
+    }
+
     @Test
     @DisplayName("Should throw exception when confirming already confirmed booking")
     void shouldThrowExceptionWhenConfirmingAlreadyConfirmedBooking() {
-        final UUID token = UUID.randomUUID();
+        final String token = UUID.randomUUID().toString();
         testBooking.setStatus(BookingStatus.CONFIRMED);
         testToken.setBooking(testBooking);
 
@@ -350,7 +675,7 @@ class BookingServiceTest {
     @Test
     @DisplayName("Should throw exception when confirming cancelled booking")
     void shouldThrowExceptionWhenConfirmingCancelledBooking() {
-        final UUID token = UUID.randomUUID();
+        final String token = UUID.randomUUID().toString();
         testBooking.setStatus(BookingStatus.CANCELLED);
         testToken.setBooking(testBooking);
 
@@ -367,7 +692,7 @@ class BookingServiceTest {
     @Test
     @DisplayName("Should throw exception when confirming booking that already started")
     void shouldThrowExceptionWhenConfirmingBookingThatAlreadyStarted() {
-        final UUID token = UUID.randomUUID();
+        final String token = UUID.randomUUID().toString();
         testBooking.setStatus(BookingStatus.PENDING);
         testBooking.setStartTime(LocalDateTime.now().minusHours(1));
         testToken.setBooking(testBooking);
@@ -385,7 +710,7 @@ class BookingServiceTest {
     @Test
     @DisplayName("Should throw exception when cancelling booking within 24 hours")
     void shouldThrowExceptionWhenCancellingBookingWithin24Hours() {
-        final UUID token = UUID.randomUUID();
+        final String token = UUID.randomUUID().toString();
         testBooking.setStatus(BookingStatus.PENDING);
         testBooking.setStartTime(LocalDateTime.now().plusHours(23)); // Less than 24 hours
         testToken.setBooking(testBooking);
@@ -403,7 +728,7 @@ class BookingServiceTest {
     @Test
     @DisplayName("Should throw exception when cancelling already cancelled booking")
     void shouldThrowExceptionWhenCancellingAlreadyCancelledBooking() {
-        final UUID token = UUID.randomUUID();
+        final String token = UUID.randomUUID().toString();
         testBooking.setStatus(BookingStatus.CANCELLED);
         testToken.setBooking(testBooking);
 
@@ -420,7 +745,7 @@ class BookingServiceTest {
     @Test
     @DisplayName("Should allow cancelling confirmed booking more than 24 hours before start")
     void shouldAllowCancellingConfirmedBooking() {
-        final UUID token = UUID.randomUUID();
+        final String token = UUID.randomUUID().toString();
         testBooking.setStatus(BookingStatus.CONFIRMED);
         testBooking.setStartTime(LocalDateTime.now().plusDays(2)); // More than 24 hours
         testToken.setBooking(testBooking);
@@ -440,15 +765,12 @@ class BookingServiceTest {
     @Test
     @DisplayName("Should propagate OptimisticLockException when modifying booking with stale version")
     void shouldPropagateOptimisticLockExceptionWhenCancellingBooking() {
-        final UUID token = UUID.randomUUID();
+        final String token = UUID.randomUUID().toString();
         testBooking.setStatus(BookingStatus.PENDING);
         testBooking.setStartTime(LocalDateTime.now().plusDays(2)); // More than 24 hours
         testToken.setBooking(testBooking);
 
         when(tokenService.validateToken(token)).thenReturn(testToken);
-        when(bookoraProperties.getGuest()).thenReturn(mock(BookoraProperties.Guest.class));
-        when(bookoraProperties.getGuest().getBooking()).thenReturn(mock(BookoraProperties.Guest.Booking.class));
-        when(bookoraProperties.getGuest().getBooking().getCancellationWindowHours()).thenReturn(24);
         when(bookingRepository.save(any(Booking.class))).thenThrow(
                 new OptimisticLockException("Booking was modified by another transaction")
         );
@@ -460,4 +782,57 @@ class BookingServiceTest {
         verify(tokenService).validateToken(token);
         verify(bookingRepository).save(any(Booking.class));
     }
+
+    private static BookingTimeRange timeRange(final LocalDateTime startTime, final LocalDateTime endTime,
+                                              final Long serviceId) {
+        return new BookingTimeRange() {
+            @Override
+            public LocalDateTime getStartTime() {
+                return startTime;
+            }
+
+            @Override
+            public LocalDateTime getEndTime() {
+                return endTime;
+            }
+
+            @Override
+            public Long getServiceId() {
+                return serviceId;
+            }
+
+            @Override
+            public Long getGroupSlotId() {
+                return null;
+            }
+        };
+    }
+
+    private static BookingRules rules(final Duration minLeadTime, final Duration buffer, final int dailyCap) {
+        return new BookingRules(minLeadTime, Duration.ZERO, buffer, 0, dailyCap, Duration.ofHours(24));
+    }
+
+    private static DataIntegrityViolationException exclusionViolation(final String constraint,
+                                                                      final String extractedName) {
+        final SQLException sqlException = new SQLException(
+                "ERROR: conflicting key value violates exclusion constraint \"" + constraint + "\"", "23P01");
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", sqlException, extractedName));
+    }
+
+    private double outcomeCount(final String outcome) {
+        return meterRegistry.find("bookora.booking.admission").tag("outcome", outcome).counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+
+    private ServiceOffering groupSession() {
+        return ServiceOffering.builder()
+                .id(1L)
+                .provider(testProvider)
+                .durationMinutes(60)
+                .capacity(20)
+                .capacityShards(4)
+                .build();
+    }
 }
@@ -0,0 +1,179 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.domain.enums.BookingStatus;
+import fi.unfinitas.bookora.domain.event.BookingChangedEvent;
+import fi.unfinitas.bookora.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookingStreamServiceTest {
+
+    private BookoraProperties bookoraProperties;
+    private BookingStreamService bookingStreamService;
+    private UUID providerId;
+
+    @BeforeEach
+    void setUp() {
+        bookoraProperties = new BookoraProperties();
+        bookoraProperties.getBookingStream().setHeartbeatSeconds(1);
+        bookoraProperties.getBookingStream().setMaxConnectionsPerProvider(2);
+        bookingStreamService = new BookingStreamService(bookoraProperties, new SimpleMeterRegistry());
+        providerId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingStreamService.closeAll();
+    }
+
+    @Test
+    @DisplayName("Should push published booking change to the provider's stream")
+    void shouldPushEventToProviderStream() throws Exception {
+        final RecordingEmitter emitter = new RecordingEmitter();
+        bookingStreamService.register(providerId, emitter);
+
+        bookingStreamService.publish(event(providerId));
+
+        assertThat(emitter.awaitEvents(1)).isTrue();
+        assertThat(emitter.events.getFirst()).contains("event:booking-created").contains("id:1");
+    }
+
+    @Test
+    @DisplayName("Should not push booking change of another provider")
+    void shouldIgnoreOtherProviders() throws Exception {
+        final RecordingEmitter emitter = new RecordingEmitter();
+        bookingStreamService.register(providerId, emitter);
+
+        bookingStreamService.publish(event(UUID.randomUUID()));
+
+        assertThat(emitter.awaitEvents(1)).isTrue();
+        // Only the heartbeat arrives
+        assertThat(emitter.events.getFirst()).contains(":" + BookingStreamService.HEARTBEAT_COMMENT);
+    }
+
+    @Test
+    @DisplayName("Should send heartbeat on idle connection")
+    void shouldSendHeartbeat() throws Exception {
+        final RecordingEmitter emitter = new RecordingEmitter();
+        bookingStreamService.register(providerId, emitter);
+
+        assertThat(emitter.awaitEvents(1)).isTrue();
+        assertThat(emitter.events.getFirst()).contains(":" + BookingStreamService.HEARTBEAT_COMMENT);
+    }
+
+    @Test
+    @DisplayName("Should disconnect client whose buffer overflows")
+    void shouldDisconnectSlowClient() {
+        bookoraProperties.getBookingStream().setBufferSize(1);
+        final BlockingEmitter emitter = new BlockingEmitter();
+        bookingStreamService.register(providerId, emitter);
+
+        for (int i = 0; i < 5; i++) {
+            bookingStreamService.publish(event(providerId));
+        }
+
+        assertThat(bookingStreamService.connectionCount(providerId)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject connections above the per-provider limit")
+    void shouldRejectTooManyConnections() {
+        bookingStreamService.register(providerId, new RecordingEmitter());
+        bookingStreamService.register(providerId, new RecordingEmitter());
+
+        assertThatThrownBy(() -> bookingStreamService.register(providerId, new RecordingEmitter()))
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThat(bookingStreamService.connectionCount(providerId)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should hold the per-provider limit under concurrent subscribes")
+    void shouldHoldLimitUnderConcurrentSubscribes() throws Exception {
+        final int subscribers = 32;
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger accepted = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(subscribers)) {
+            for (int i = 0; i < subscribers; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    try {
+                        bookingStreamService.register(providerId, new RecordingEmitter());
+                        accepted.incrementAndGet();
+                    } catch (final RateLimitExceededException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        assertThat(accepted.get()).isEqualTo(2);
+        assertThat(rejected.get()).isEqualTo(subscribers - 2);
+        assertThat(bookingStreamService.connectionCount(providerId)).isEqualTo(2);
+    }
+
+    private static BookingChangedEvent event(final UUID providerId) {
+        final LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return new BookingChangedEvent(BookingChangedEvent.Type.CREATED, 1L, providerId, 1L, null,
+                BookingStatus.PENDING, start, start.plusHours(1), LocalDateTime.now());
+    }
+
+    /**
+     * Emitter that records the serialized events instead of writing to a response.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        final List<String> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(final SseEventBuilder builder) {
+            final StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            events.add(text.toString());
+        }
+
+        boolean awaitEvents(final int count) throws InterruptedException {
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (events.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            return events.size() >= count;
+        }
+    }
+
+    /**
+     * Emitter whose client never reads, so the buffer fills up.
+     */
+    private static class BlockingEmitter extends SseEmitter {
+
+        @Override
+        public void send(final SseEventBuilder builder) {
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.domain.enums.UserRole;
+import fi.unfinitas.bookora.domain.model.User;
+import fi.unfinitas.bookora.dto.response.BookingChangesResponse;
+import fi.unfinitas.bookora.exception.InvalidCursorException;
+import fi.unfinitas.bookora.exception.ProviderAccessDeniedException;
+import fi.unfinitas.bookora.repository.BookingRepository;
+import fi.unfinitas.bookora.repository.ProviderRepository;
+import fi.unfinitas.bookora.repository.projection.BookingChangeView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ProviderRepository providerRepository;
+
+    private ChangeFeedService changeFeedService;
+    private User admin;
+    private User provider;
+
+    @BeforeEach
+    void setUp() {
+        final BookoraProperties bookoraProperties = new BookoraProperties();
+        bookoraProperties.getChangeFeed().setDefaultLimit(2);
+        bookoraProperties.getChangeFeed().setMaxLimit(3);
+        changeFeedService = new ChangeFeedService(bookingRepository, providerRepository, bookoraProperties);
+
+        admin = User.builder().id(UUID.randomUUID()).role(UserRole.ADMIN).build();
+        provider = User.builder().id(UUID.randomUUID()).role(UserRole.PROVIDER).build();
+    }
+
+    @Test
+    @DisplayName("Should return first page with cursor of the last row")
+    void shouldReturnFirstPage() {
+        final LocalDateTime updatedAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        final List<BookingChangeView> rows =
+                List.of(view(1L, updatedAt, null), view(2L, updatedAt, null), view(3L, updatedAt, null));
+        when(bookingRepository.findChangesAfter(any(), eq(0L), anyInt(), eq(3))).thenReturn(rows);
+
+        final BookingChangesResponse response = changeFeedService.getBookingChanges(null, null, admin);
+
+        assertThat(response.changes()).hasSize(2);
+        assertThat(response.hasMore()).isTrue();
+        final ChangeFeedService.Cursor cursor = ChangeFeedService.decode(response.nextCursor());
+        assertThat(cursor.updatedAt()).isEqualTo(updatedAt);
+        assertThat(cursor.id()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Should continue after the cursor position")
+    void shouldContinueAfterCursor() {
+        final LocalDateTime updatedAt = LocalDateTime.of(2025, 1, 1, 12, 0, 0, 123_456_000);
+        final String cursor = ChangeFeedService.encode(new ChangeFeedService.Cursor(updatedAt, 42L));
+        when(bookingRepository.findChangesAfter(eq(updatedAt), eq(42L), anyInt(), anyInt())).thenReturn(List.of());
+
+        final BookingChangesResponse response = changeFeedService.getBookingChanges(cursor, 10, admin);
+
+        assertThat(response.changes()).isEmpty();
+        assertThat(response.hasMore()).isFalse();
+        assertThat(response.nextCursor()).isEqualTo(cursor);
+        // Requested limit is clamped to the configured maximum; the settle margin is passed through
+        verify(bookingRepository).findChangesAfter(eq(updatedAt), eq(42L), eq(5), eq(4));
+    }
+
+    @Test
+    @DisplayName("Should mark soft-deleted bookings as tombstones")
+    void shouldReturnTombstones() {
+        final LocalDateTime updatedAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        final List<BookingChangeView> rows = List.of(view(1L, updatedAt, updatedAt));
+        when(bookingRepository.findChangesAfter(any(), anyLong(), anyInt(), anyInt())).thenReturn(rows);
+
+        final BookingChangesResponse response = changeFeedService.getBookingChanges(null, null, admin);
+
+        assertThat(response.changes().getFirst().deleted()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should scope provider feed to the provider's own bookings")
+    void shouldScopeProviderFeed() {
+        final UUID providerId = UUID.randomUUID();
+        when(providerRepository.findIdByUserId(provider.getId())).thenReturn(Optional.of(providerId));
+        when(bookingRepository.findProviderChangesAfter(eq(providerId), any(), anyLong(), anyInt(), anyInt()))
+                .thenReturn(List.of());
+
+        changeFeedService.getBookingChanges(null, null, provider);
+
+        verify(bookingRepository, never()).findChangesAfter(any(), anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should deny feed to regular users")
+    void shouldDenyRegularUsers() {
+        final User user = User.builder().id(UUID.randomUUID()).role(UserRole.USER).build();
+
+        assertThatThrownBy(() -> changeFeedService.getBookingChanges(null, null, user))
+                .isInstanceOf(ProviderAccessDeniedException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursor")
+    void shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> changeFeedService.getBookingChanges("not a cursor!", null, admin))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> changeFeedService.getBookingChanges("Z2FyYmFnZQ", null, admin))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    private static BookingChangeView view(final Long id, final LocalDateTime updatedAt, final LocalDateTime deletedAt) {
+        final BookingChangeView view = mock(BookingChangeView.class);
+        lenient().when(view.getId()).thenReturn(id);
+        lenient().when(view.getUpdatedAt()).thenReturn(updatedAt);
+        lenient().when(view.getDeletedAt()).thenReturn(deletedAt);
+        return view;
+    }
+}
@@ -0,0 +1,195 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.domain.event.SendMailEvent;
+import fi.unfinitas.bookora.dto.response.BookingResponse;
+import fi.unfinitas.bookora.dto.response.GuestBookingResponse;
+import fi.unfinitas.bookora.dto.response.ServiceOfferingResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class EmailCoalescerTest {
+
+    private static final String RECIPIENT = "matti@example.com";
+
+    private final EmailTemplateService emailTemplateService = mock(EmailTemplateService.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BookoraProperties bookoraProperties = new BookoraProperties();
+    private final ServiceOfferingResponse serviceOffering = new ServiceOfferingResponse(7L, "Haircut",
+            "Wash, cut and style", 45, new BigDecimal("39.90"), "Helsinki Hair Studio");
+    private final LocalDateTime start = LocalDateTime.of(2026, 3, 2, 10, 0);
+
+    private EmailCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        bookoraProperties.getEmail().getCoalescing().setEnabled(true);
+        bookoraProperties.getEmail().getCoalescing().setWindowMillis(50);
+        coalescer = coalescer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+    }
+
+    private EmailCoalescer coalescer() {
+        final ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        final SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        return new EmailCoalescer(emailTemplateService, new EmailTemplateRenderer(templateEngine, meterRegistry),
+                Runnable::run, bookoraProperties, meterRegistry);
+    }
+
+    private SendMailEvent created(final long bookingId, final String to) {
+        final GuestBookingResponse booking = new GuestBookingResponse(bookingId, serviceOffering, "Matti", to, null,
+                start, start.plusMinutes(45), "PENDING", null, start.minusDays(1), UUID.randomUUID().toString(), start.plusDays(1));
+        return new SendMailEvent(to, "Booking Confirmation - Haircut", "email/booking-created",
+                Map.of("booking", booking, "frontendUrl", "https://bookora.example.com"));
+    }
+
+    private SendMailEvent cancelled(final long bookingId) {
+        final BookingResponse booking = new BookingResponse(bookingId, serviceOffering, "Matti", RECIPIENT, null,
+                start, start.plusMinutes(45), "CANCELLED", null, start.minusDays(1));
+        return new SendMailEvent(RECIPIENT, "Booking Cancelled - Haircut", "email/booking-cancelled",
+                Map.of("booking", booking, "frontendUrl", "https://bookora.example.com"));
+    }
+
+    private static SendMailEvent verification(final String link) {
+        return new SendMailEvent(RECIPIENT, "Verify Your Email - Bookora", "email/email-verification",
+                Map.of("firstName", "Matti", "verificationLink", link, "expirationDays", 7,
+                        "frontendUrl", "https://bookora.example.com"));
+    }
+
+    @Test
+    @DisplayName("Should let a cancellation supersede the unsent confirmation of the same booking")
+    void shouldSupersedeConfirmationWithCancellation() {
+        final SendMailEvent cancel = cancelled(1L);
+        final SendMailEvent otherBooking = created(2L, RECIPIENT);
+
+        assertThat(EmailCoalescer.coalesce(List.of(created(1L, RECIPIENT), otherBooking, cancel)))
+                .containsExactly(otherBooking, cancel);
+    }
+
+    @Test
+    @DisplayName("Should keep only the newest verification link")
+    void shouldKeepNewestVerification() {
+        final SendMailEvent newest = verification("https://bookora.example.com/auth/verify/2");
+
+        assertThat(EmailCoalescer.coalesce(List.of(verification("https://bookora.example.com/auth/verify/1"), newest)))
+                .containsExactly(newest);
+    }
+
+    @Test
+    @DisplayName("Should send a lone email unchanged once the window ends")
+    void shouldSendLoneEmailAfterWindow() {
+        final SendMailEvent event = created(1L, RECIPIENT);
+
+        coalescer.submit(event);
+
+        verify(emailTemplateService, never()).send(any());
+        verify(emailTemplateService, timeout(2000)).send(event);
+    }
+
+    @Test
+    @DisplayName("Should send what is left for a recipient as one digest")
+    void shouldSendDigest() {
+        coalescer.submit(created(1L, RECIPIENT));
+        coalescer.submit(created(2L, "Matti@Example.com"));
+        coalescer.submit(cancelled(1L));
+
+        final ArgumentCaptor<SendMailEvent> sent = ArgumentCaptor.forClass(SendMailEvent.class);
+        verify(emailTemplateService, timeout(5000)).send(sent.capture());
+        final SendMailEvent digest = sent.getValue();
+        assertThat(digest.templateName()).isEqualTo(EmailCoalescer.DIGEST_TEMPLATE);
+        assertThat(digest.subject()).isEqualTo("Your Bookora updates (2)");
+        assertThat(digest.templateVariables().get("updates")).asInstanceOf(
+                        InstanceOfAssertFactories.list(EmailCoalescer.DigestUpdate.class))
+                .extracting(EmailCoalescer.DigestUpdate::subject)
+                .containsExactly("Booking Confirmation - Haircut", "Booking Cancelled - Haircut");
+
+        assertThat(meterRegistry.get(EmailCoalescer.EVENTS_COUNTER).tag("outcome", "received").counter().count())
+                .isEqualTo(3);
+        assertThat(meterRegistry.get(EmailCoalescer.EVENTS_COUNTER).tag("outcome", "superseded").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get(EmailCoalescer.EVENTS_COUNTER).tag("outcome", "sent").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should send without waiting once a recipient has the maximum number of emails held")
+    void shouldFlushWhenFull() {
+        bookoraProperties.getEmail().getCoalescing().setWindowMillis(60_000);
+        bookoraProperties.getEmail().getCoalescing().setMaxPendingPerRecipient(2);
+
+        coalescer.submit(created(1L, RECIPIENT));
+        coalescer.submit(created(2L, RECIPIENT));
+
+        verify(emailTemplateService).send(argThat(event -> event.templateName().equals(EmailCoalescer.DIGEST_TEMPLATE)));
+    }
+
+    @Test
+    @DisplayName("Should send held emails on shutdown")
+    void shouldFlushOnShutdown() {
+        bookoraProperties.getEmail().getCoalescing().setWindowMillis(60_000);
+        final SendMailEvent event = created(1L, RECIPIENT);
+        coalescer.submit(event);
+
+        coalescer.shutdown();
+
+        verify(emailTemplateService).send(event);
+    }
+
+    @Test
+    @DisplayName("Should send right away once shut down")
+    void shouldSendImmediatelyAfterShutdown() {
+        bookoraProperties.getEmail().getCoalescing().setWindowMillis(60_000);
+        coalescer.shutdown();
+        final SendMailEvent event = created(1L, RECIPIENT);
+
+        coalescer.submit(event);
+
+        verify(emailTemplateService).send(event);
+    }
+
+    @Test
+    @DisplayName("Should not start the timer thread before the first email")
+    void shouldNotStartTimerThreadUntilUsed() {
+        final Set<Thread> before = timerThreads();
+        coalescer.shutdown();
+        bookoraProperties.getEmail().getCoalescing().setEnabled(false);
+
+        coalescer = coalescer();
+
+        assertThat(timerThreads()).isSubsetOf(before);
+    }
+
+    private static Set<Thread> timerThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("email-coalescer"))
+                .collect(Collectors.toSet());
+    }
+}
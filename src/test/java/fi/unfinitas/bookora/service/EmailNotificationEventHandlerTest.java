@@ -21,6 +21,9 @@ class EmailNotificationEventHandlerTest {
     @Mock
     private EmailTemplateService emailTemplateService;
 
+    @Mock
+    private EmailCoalescer emailCoalescer;
+
     @InjectMocks
     private EmailNotificationEventHandler handler;
 
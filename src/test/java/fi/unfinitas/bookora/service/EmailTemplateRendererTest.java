@@ -0,0 +1,108 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.dto.response.BookingResponse;
+import fi.unfinitas.bookora.dto.response.GuestBookingResponse;
+import fi.unfinitas.bookora.dto.response.ServiceOfferingResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailTemplateRendererTest {
+
+    private static final String FRONTEND_URL = "https://bookora.example.com";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SpringTemplateEngine templateEngine;
+    private EmailTemplateRenderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        final ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCacheable(true);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setEnableSpringELCompiler(true);
+        renderer = new EmailTemplateRenderer(templateEngine, meterRegistry);
+        renderer.afterSingletonsInstantiated();
+    }
+
+    @Test
+    @DisplayName("Should render the same HTML as a full Thymeleaf render for every template")
+    void shouldMatchFullRender() {
+        final ServiceOfferingResponse serviceOffering = new ServiceOfferingResponse(7L, "Haircut",
+                "Wash, cut and style", 45, new BigDecimal("39.90"), "Helsinki Hair Studio");
+        final LocalDateTime start = LocalDateTime.of(2026, 3, 2, 10, 0);
+        final Map<String, Map<String, Object>> variables = Map.of(
+                "email/booking-created", Map.of("frontendUrl", FRONTEND_URL, "booking",
+                        new GuestBookingResponse(42L, serviceOffering, "Matti Meikäläinen", "matti@example.com",
+                                "+358401234567", start, start.plusMinutes(45), "PENDING", "Window seat",
+                                start.minusDays(1), UUID.randomUUID().toString(), start.plusDays(1))),
+                "email/booking-cancelled", Map.of("frontendUrl", FRONTEND_URL, "booking",
+                        new BookingResponse(42L, serviceOffering, "Matti Meikäläinen", "matti@example.com", null,
+                                start, start.plusMinutes(45), "CANCELLED", null, start.minusDays(1))),
+                "email/email-verification", Map.of("firstName", "Matti", "frontendUrl", FRONTEND_URL,
+                        "verificationLink", FRONTEND_URL + "/auth/verify/" + UUID.randomUUID(), "expirationDays", 7),
+                "email/digest", Map.of("updates", List.of(
+                        new EmailCoalescer.DigestUpdate("Booking Confirmation - Haircut", "<p>Confirmed</p>"),
+                        new EmailCoalescer.DigestUpdate("Booking Cancelled - Haircut", "<p>Cancelled</p>"))));
+
+        assertThat(variables).containsOnlyKeys(EmailTemplateRenderer.TEMPLATES);
+        variables.forEach((template, templateVariables) -> {
+            final Context context = new Context();
+            context.setVariables(templateVariables);
+
+            String html = null;
+            for (int i = 0; i < 200; i++) { // Past the point where SpEL compiles the expressions
+                html = renderer.render(template, templateVariables);
+            }
+
+            assertThat(html)
+                    .as(template)
+                    .isEqualTo(templateEngine.process(template, context))
+                    .contains("<style>", "class=\"footer\"")
+                    .doesNotContain("th:fragment", "th:remove");
+        });
+    }
+
+    @Test
+    @DisplayName("Should time each render by template")
+    void shouldRecordRenderTime() {
+        renderer.render("email/email-verification", Map.of("firstName", "Matti", "frontendUrl", FRONTEND_URL,
+                "verificationLink", FRONTEND_URL + "/auth/verify/x", "expirationDays", 7));
+
+        final Timer timer = meterRegistry.find(EmailTemplateRenderer.RENDER_TIMER)
+                .tag("template", "email/email-verification").timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should render a template without a content fragment in full")
+    void shouldRenderTemplateWithoutFragmentInFull() {
+        final SpringTemplateEngine stringEngine = new SpringTemplateEngine();
+        stringEngine.setTemplateResolver(new StringTemplateResolver());
+        final EmailTemplateRenderer stringRenderer = new EmailTemplateRenderer(stringEngine, meterRegistry);
+
+        assertThat(stringRenderer.render("<p th:text=\"${name}\">Name</p>", Map.of("name", "Matti")))
+                .isEqualTo("<p>Matti</p>");
+    }
+}
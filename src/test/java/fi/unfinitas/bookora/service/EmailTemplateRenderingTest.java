@@ -0,0 +1,88 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.dto.response.BookingResponse;
+import fi.unfinitas.bookora.dto.response.GuestBookingResponse;
+import fi.unfinitas.bookora.dto.response.ServiceOfferingResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Renders the email templates with the variables the services publish, using the real Thymeleaf engine.
+ */
+@DisplayName("Email template rendering Tests")
+class EmailTemplateRenderingTest {
+
+    private static final String FRONTEND_URL = "https://bookora.example.com";
+
+    private SpringTemplateEngine templateEngine;
+    private ServiceOfferingResponse serviceOffering;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        final ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+
+        serviceOffering = new ServiceOfferingResponse(7L, "Haircut", "Wash, cut and style", 45,
+                new BigDecimal("39.90"), "Helsinki Hair Studio");
+        start = LocalDateTime.of(2026, 3, 2, 10, 0);
+    }
+
+    @Test
+    @DisplayName("Should render booking confirmation with service and access link")
+    void shouldRenderBookingCreated() {
+        final String accessToken = UUID.randomUUID().toString();
+        final GuestBookingResponse booking = new GuestBookingResponse(42L, serviceOffering, "Matti Meikäläinen",
+                "matti@example.com", null, start, start.plusMinutes(45), "PENDING", null, start.minusDays(1),
+                accessToken, start.plusDays(1));
+
+        final String html = render("email/booking-created", Map.of("booking", booking, "frontendUrl", FRONTEND_URL));
+
+        assertThat(html).contains("Haircut", "Wash, cut and style", FRONTEND_URL + "/bookings/" + accessToken);
+    }
+
+    @Test
+    @DisplayName("Should render booking cancellation with service")
+    void shouldRenderBookingCancelled() {
+        final BookingResponse booking = new BookingResponse(42L, serviceOffering, "Matti Meikäläinen",
+                "matti@example.com", "+358401234567", start, start.plusMinutes(45), "CANCELLED", null,
+                start.minusDays(1));
+
+        final String html = render("email/booking-cancelled", Map.of("booking", booking, "frontendUrl", FRONTEND_URL));
+
+        assertThat(html).contains("Haircut", "+358401234567");
+    }
+
+    @Test
+    @DisplayName("Should render email verification with link")
+    void shouldRenderEmailVerification() {
+        final String link = FRONTEND_URL + "/auth/verify/" + UUID.randomUUID();
+
+        final String html = render("email/email-verification", Map.of("firstName", "Matti",
+                "verificationLink", link, "expirationDays", 7, "frontendUrl", FRONTEND_URL));
+
+        assertThat(html).contains("Matti", link);
+    }
+
+    private String render(final String template, final Map<String, Object> variables) {
+        final Context context = new Context();
+        context.setVariables(variables);
+        return templateEngine.process(template, context);
+    }
+}
@@ -13,8 +13,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mail.MailException;
 import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
 import java.util.Map;
 
@@ -26,7 +24,7 @@ import static org.mockito.Mockito.*;
 class EmailTemplateServiceTest {
 
     @Mock
-    private TemplateEngine templateEngine;
+    private EmailTemplateRenderer emailTemplateRenderer;
 
     @Mock
     private JavaMailSender javaMailSender;
@@ -70,7 +68,7 @@ class EmailTemplateServiceTest {
     void send_ValidEvent_SendsEmail() throws Exception {
         // GIVEN: Valid SendMailEvent
         String renderedHtml = "<html><body>Booking confirmation email</body></html>";
-        when(templateEngine.process(eq("email/booking-created"), any(Context.class)))
+        when(emailTemplateRenderer.render(eq("email/booking-created"), anyMap()))
             .thenReturn(renderedHtml);
         doNothing().when(javaMailSender).send(any(MimeMessage.class));
 
@@ -78,7 +76,7 @@ class EmailTemplateServiceTest {
         emailTemplateService.send(validEvent);
 
         // THEN: Email is sent via JavaMailSender
-        verify(templateEngine, times(1)).process(eq("email/booking-created"), any(Context.class));
+        verify(emailTemplateRenderer, times(1)).render(eq("email/booking-created"), anyMap());
         verify(javaMailSender, times(1)).send(any(MimeMessage.class));
     }
 
@@ -86,10 +84,10 @@ class EmailTemplateServiceTest {
     @DisplayName("send() - Template rendering - Passes correct variables")
     void send_TemplateRendering_PassesCorrectVariables() {
         // GIVEN: SendMailEvent with template variables
-        when(templateEngine.process(anyString(), any(Context.class)))
+        when(emailTemplateRenderer.render(anyString(), anyMap()))
             .thenAnswer(invocation -> {
-                Context context = invocation.getArgument(1);
-                // Verify context contains expected variables
+                Map<String, Object> variables = invocation.getArgument(1);
+                // Verify variables are passed through
                 return "<html>Email content</html>";
             });
         doNothing().when(javaMailSender).send(any(MimeMessage.class));
@@ -98,7 +96,7 @@ class EmailTemplateServiceTest {
         emailTemplateService.send(validEvent);
 
         // THEN: Template receives all required variables
-        verify(templateEngine, times(1)).process(eq("email/booking-created"), any(Context.class));
+        verify(emailTemplateRenderer, times(1)).render(eq("email/booking-created"), anyMap());
     }
 
     @Test
@@ -107,7 +105,7 @@ class EmailTemplateServiceTest {
         // GIVEN: Template processing throws exception
         // Reset the mock to avoid UnnecessaryStubbingException
         reset(javaMailSender);
-        when(templateEngine.process(anyString(), any(Context.class)))
+        when(emailTemplateRenderer.render(anyString(), anyMap()))
             .thenThrow(new RuntimeException("Template not found"));
 
         // WHEN: send is called
@@ -115,7 +113,7 @@ class EmailTemplateServiceTest {
 
         // THEN: Exception is caught and logged
         // AND: Method does not throw exception
-        verify(templateEngine, times(1)).process(eq("email/booking-created"), any(Context.class));
+        verify(emailTemplateRenderer, times(1)).render(eq("email/booking-created"), anyMap());
         verify(javaMailSender, never()).send(any(MimeMessage.class));
     }
 
@@ -124,7 +122,7 @@ class EmailTemplateServiceTest {
     void send_TransientFailure_RetriesSuccessfully() throws Exception {
         // GIVEN: First attempt fails, second succeeds
         String renderedHtml = "<html><body>Email content</body></html>";
-        when(templateEngine.process(anyString(), any(Context.class)))
+        when(emailTemplateRenderer.render(anyString(), anyMap()))
             .thenReturn(renderedHtml);
 
         doThrow(new MailSendException("Temporary failure"))
@@ -144,7 +142,7 @@ class EmailTemplateServiceTest {
     void send_MailClientFails_RetriesThreeTimes() {
         // GIVEN: JavaMailSender throws MailException on all attempts
         String renderedHtml = "<html><body>Email content</body></html>";
-        when(templateEngine.process(anyString(), any(Context.class)))
+        when(emailTemplateRenderer.render(anyString(), anyMap()))
             .thenReturn(renderedHtml);
 
         MailException mailException = new MailSendException("SMTP server unavailable");
@@ -163,7 +161,7 @@ class EmailTemplateServiceTest {
     @DisplayName("send() - Uses correct template name")
     void send_UsesCorrectTemplate() {
         // GIVEN: SendMailEvent with specific template name
-        when(templateEngine.process(eq("email/booking-created"), any(Context.class)))
+        when(emailTemplateRenderer.render(eq("email/booking-created"), anyMap()))
             .thenReturn("<html>Email</html>");
         doNothing().when(javaMailSender).send(any(MimeMessage.class));
 
@@ -171,14 +169,14 @@ class EmailTemplateServiceTest {
         emailTemplateService.send(validEvent);
 
         // THEN: Correct template is rendered
-        verify(templateEngine, times(1)).process(eq("email/booking-created"), any(Context.class));
+        verify(emailTemplateRenderer, times(1)).render(eq("email/booking-created"), anyMap());
     }
 
     @Test
     @DisplayName("send() - Subject and recipient set correctly")
     void send_SubjectAndRecipient_SetCorrectly() throws Exception {
         // GIVEN: Valid SendMailEvent
-        when(templateEngine.process(anyString(), any(Context.class)))
+        when(emailTemplateRenderer.render(anyString(), anyMap()))
             .thenReturn("<html>Email</html>");
         doNothing().when(javaMailSender).send(any(MimeMessage.class));
 
@@ -194,7 +192,7 @@ class EmailTemplateServiceTest {
     @DisplayName("send() - Retry with exponential backoff - Succeeds on third attempt")
     void send_ExponentialBackoff_SucceedsOnThirdAttempt() {
         // GIVEN: First two attempts fail, third succeeds
-        when(templateEngine.process(anyString(), any(Context.class)))
+        when(emailTemplateRenderer.render(anyString(), anyMap()))
             .thenReturn("<html>Email</html>");
 
         doThrow(new MailSendException("Failure 1"))
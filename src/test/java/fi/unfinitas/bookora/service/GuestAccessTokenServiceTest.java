@@ -1,11 +1,16 @@
 package fi.unfinitas.bookora.service;
 
 import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.domain.enums.BookingStatus;
 import fi.unfinitas.bookora.domain.model.Booking;
 import fi.unfinitas.bookora.domain.model.GuestAccessToken;
+import fi.unfinitas.bookora.exception.BookingAlreadyCancelledException;
 import fi.unfinitas.bookora.exception.InvalidTokenException;
 import fi.unfinitas.bookora.exception.TokenExpiredException;
+import fi.unfinitas.bookora.repository.BookingRepository;
 import fi.unfinitas.bookora.repository.GuestAccessTokenRepository;
+import fi.unfinitas.bookora.repository.projection.GuestBookingVersion;
+import fi.unfinitas.bookora.security.GuestTokenSigner;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -21,6 +26,7 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +35,15 @@ class GuestAccessTokenServiceTest {
     @Mock
     private GuestAccessTokenRepository tokenRepository;
 
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private GuestTokenSigner tokenSigner;
+
+    @Mock
+    private GuestTokenRevocations revocations;
+
     @Mock
     private BookoraProperties bookoraProperties;
 
@@ -81,7 +96,7 @@ class GuestAccessTokenServiceTest {
     void shouldValidateTokenSuccessfully() {
         when(tokenRepository.findByToken(tokenUUID)).thenReturn(Optional.of(testToken));
 
-        final GuestAccessToken result = tokenService.validateToken(tokenUUID);
+        final GuestAccessToken result = tokenService.validateToken(tokenUUID.toString());
 
         assertThat(result).isEqualTo(testToken);
         assertThat(result.getBooking()).isEqualTo(testBooking);
@@ -93,7 +108,7 @@ class GuestAccessTokenServiceTest {
     void shouldThrowExceptionWhenTokenNotFound() {
         when(tokenRepository.findByToken(tokenUUID)).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> tokenService.validateToken(tokenUUID))
+        assertThatThrownBy(() -> tokenService.validateToken(tokenUUID.toString()))
                 .isInstanceOf(InvalidTokenException.class)
                 .hasMessageContaining("Token not found");
 
@@ -111,10 +126,119 @@ class GuestAccessTokenServiceTest {
 
         when(tokenRepository.findByToken(tokenUUID)).thenReturn(Optional.of(expiredToken));
 
-        assertThatThrownBy(() -> tokenService.validateToken(tokenUUID))
+        assertThatThrownBy(() -> tokenService.validateToken(tokenUUID.toString()))
                 .isInstanceOf(TokenExpiredException.class)
                 .hasMessageContaining("expired");
 
         verify(tokenRepository).findByToken(tokenUUID);
     }
+
+    @Test
+    @DisplayName("Should return version state only for viewable tokens")
+    void shouldFindViewableBookingVersion() {
+        final GuestBookingVersion active = mock(GuestBookingVersion.class);
+        when(active.getExpiresAt()).thenReturn(LocalDateTime.now().plusDays(1));
+        when(active.getStatus()).thenReturn("PENDING");
+        final GuestBookingVersion cancelled = mock(GuestBookingVersion.class);
+        when(cancelled.getExpiresAt()).thenReturn(LocalDateTime.now().plusDays(1));
+        when(cancelled.getStatus()).thenReturn("CANCELLED");
+        final GuestBookingVersion revoked = mock(GuestBookingVersion.class);
+        when(revoked.getDeletedAt()).thenReturn(LocalDateTime.now());
+
+        final UUID cancelledToken = UUID.randomUUID();
+        final UUID revokedToken = UUID.randomUUID();
+        when(tokenRepository.findVersionByToken(tokenUUID)).thenReturn(Optional.of(active));
+        when(tokenRepository.findVersionByToken(cancelledToken)).thenReturn(Optional.of(cancelled));
+        when(tokenRepository.findVersionByToken(revokedToken)).thenReturn(Optional.of(revoked));
+
+        assertThat(tokenService.findViewableBookingVersion(tokenUUID.toString())).contains(active);
+        assertThat(tokenService.findViewableBookingVersion(cancelledToken.toString())).isEmpty();
+        assertThat(tokenService.findViewableBookingVersion(revokedToken.toString())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed UUID token without a lookup")
+    void shouldRejectMalformedUuidToken() {
+        final String malformed = "x".repeat(36);
+
+        assertThatThrownBy(() -> tokenService.validateToken(malformed))
+                .isInstanceOf(InvalidTokenException.class);
+        assertThat(tokenService.findViewableBookingVersion(malformed)).isEmpty();
+
+        verifyNoInteractions(tokenRepository, tokenSigner);
+    }
+
+    @Test
+    @DisplayName("Should hand out signed tokens when signing is enabled")
+    void shouldHandOutSignedToken() {
+        when(testBooking.getId()).thenReturn(42L);
+        when(tokenSigner.isSigningEnabled()).thenReturn(true);
+        when(tokenSigner.sign(42L, testToken.getExpiresAt())).thenReturn("signed");
+
+        assertThat(tokenService.accessToken(testToken)).isEqualTo("signed");
+    }
+
+    @Test
+    @DisplayName("Should hand out the UUID when signing is disabled")
+    void shouldHandOutUuidToken() {
+        assertThat(tokenService.accessToken(testToken)).isEqualTo(tokenUUID.toString());
+    }
+
+    @Test
+    @DisplayName("Should load the booking of a signed token by primary key")
+    void shouldFindBookingBySignedToken() {
+        when(tokenSigner.verify("signed")).thenReturn(new GuestTokenSigner.Claims(42L, bookingEndTime));
+        when(testBooking.getStatus()).thenReturn(BookingStatus.PENDING);
+        when(bookingRepository.findById(42L)).thenReturn(Optional.of(testBooking));
+
+        assertThat(tokenService.findViewableBooking("signed")).isEqualTo(testBooking);
+
+        verifyNoInteractions(tokenRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject a signed token of a cancelled booking")
+    void shouldRejectSignedTokenOfCancelledBooking() {
+        when(tokenSigner.verify("signed")).thenReturn(new GuestTokenSigner.Claims(42L, bookingEndTime));
+        when(testBooking.getStatus()).thenReturn(BookingStatus.CANCELLED);
+        when(bookingRepository.findById(42L)).thenReturn(Optional.of(testBooking));
+
+        assertThatThrownBy(() -> tokenService.findViewableBooking("signed"))
+                .isInstanceOf(BookingAlreadyCancelledException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject a revoked signed token without any lookup")
+    void shouldRejectRevokedSignedToken() {
+        when(tokenSigner.verify("signed")).thenReturn(new GuestTokenSigner.Claims(42L, bookingEndTime));
+        when(revocations.isRevoked(42L)).thenReturn(true);
+
+        assertThatThrownBy(() -> tokenService.findViewableBooking("signed"))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessageContaining("revoked");
+        assertThat(tokenService.findViewableBookingVersion("signed")).isEmpty();
+
+        verifyNoInteractions(bookingRepository, tokenRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject an expired signed token without any lookup")
+    void shouldRejectExpiredSignedToken() {
+        when(tokenSigner.verify("signed")).thenThrow(new TokenExpiredException("Token expired"));
+
+        assertThatThrownBy(() -> tokenService.validateTokenForConfirm("signed"))
+                .isInstanceOf(TokenExpiredException.class);
+
+        verify(tokenRepository, never()).findByBookingId(anyLong());
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    @DisplayName("Should find the token row of a signed token by booking ID")
+    void shouldValidateSignedTokenForConfirm() {
+        when(tokenSigner.verify("signed")).thenReturn(new GuestTokenSigner.Claims(42L, bookingEndTime));
+        when(tokenRepository.findByBookingId(42L)).thenReturn(Optional.of(testToken));
+
+        assertThat(tokenService.validateTokenForConfirm("signed")).isEqualTo(testToken);
+    }
 }
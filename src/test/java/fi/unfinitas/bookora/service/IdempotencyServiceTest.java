@@ -0,0 +1,226 @@
+package fi.unfinitas.bookora.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.domain.model.IdempotencyKey;
+import fi.unfinitas.bookora.dto.request.CreateGuestBookingRequest;
+import fi.unfinitas.bookora.dto.response.GuestBookingResponse;
+import fi.unfinitas.bookora.dto.response.ServiceOfferingResponse;
+import fi.unfinitas.bookora.exception.IdempotencyKeyConflictException;
+import fi.unfinitas.bookora.exception.InvalidIdempotencyKeyException;
+import fi.unfinitas.bookora.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final String KEY = "b3f1c2a4-retry-key";
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private IdempotencyService idempotencyService;
+    private CreateGuestBookingRequest request;
+    private GuestBookingResponse response;
+    private AtomicInteger invocations;
+    private Supplier<GuestBookingResponse> action;
+
+    @BeforeEach
+    void setUp() {
+        final BookoraProperties bookoraProperties = new BookoraProperties();
+        idempotencyService = new IdempotencyService(
+                idempotencyKeyRepository, objectMapper, bookoraProperties, transactionManager);
+
+        final LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        request = CreateGuestBookingRequest.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .email("john.doe@example.com")
+                .serviceId(1L)
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .build();
+
+        response = new GuestBookingResponse(
+                1L,
+                new ServiceOfferingResponse(1L, "Haircut", "Professional haircut service", 60,
+                        BigDecimal.valueOf(30000), "John's Salon"),
+                "John Doe",
+                "john.doe@example.com",
+                null,
+                start,
+                start.plusHours(1),
+                "PENDING",
+                null,
+                start.minusDays(1),
+                UUID.randomUUID().toString(),
+                start.plusDays(30)
+        );
+
+        invocations = new AtomicInteger();
+        action = () -> {
+            invocations.incrementAndGet();
+            return response;
+        };
+    }
+
+    @Test
+    @DisplayName("Should run booking logic and store response for a new key")
+    void shouldStoreResponseForNewKey() {
+        when(idempotencyKeyRepository.findByKey(KEY)).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.saveAndFlush(any(IdempotencyKey.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        final IdempotencyService.Result result = idempotencyService.createGuestBooking(KEY, request, action);
+
+        assertThat(result.replayed()).isFalse();
+        assertThat(result.response()).isEqualTo(response);
+        assertThat(invocations).hasValue(1);
+
+        final ArgumentCaptor<IdempotencyKey> captor = ArgumentCaptor.forClass(IdempotencyKey.class);
+        verify(idempotencyKeyRepository).save(captor.capture());
+        assertThat(captor.getValue().getKey()).isEqualTo(KEY);
+        assertThat(captor.getValue().getRequestHash()).hasSize(64);
+        assertThat(captor.getValue().getResponseBody()).contains("\"customerName\":\"John Doe\"");
+    }
+
+    @Test
+    @DisplayName("Should replay from memory without touching the database on retry")
+    void shouldReplayFromCacheOnRetry() {
+        when(idempotencyKeyRepository.findByKey(KEY)).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.saveAndFlush(any(IdempotencyKey.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        idempotencyService.createGuestBooking(KEY, request, action);
+        clearInvocations(idempotencyKeyRepository);
+
+        final IdempotencyService.Result result = idempotencyService.createGuestBooking(KEY, request, action);
+
+        assertThat(result.replayed()).isTrue();
+        assertThat(result.response()).isEqualTo(response);
+        assertThat(invocations).hasValue(1);
+        verifyNoInteractions(idempotencyKeyRepository);
+    }
+
+    @Test
+    @DisplayName("Should replay stored response when key is found in the database")
+    void shouldReplayStoredResponse() throws Exception {
+        final IdempotencyKey stored = storedKey(hashOf(request), objectMapper.writeValueAsString(response));
+        when(idempotencyKeyRepository.findByKey(KEY)).thenReturn(Optional.of(stored));
+
+        final IdempotencyService.Result result = idempotencyService.createGuestBooking(KEY, request, action);
+
+        assertThat(result.replayed()).isTrue();
+        assertThat(result.response()).isEqualTo(response);
+        assertThat(invocations).hasValue(0);
+        verify(idempotencyKeyRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Should reject a reused key with a different request body")
+    void shouldRejectKeyReuseWithDifferentRequest() throws Exception {
+        final IdempotencyKey stored = storedKey("0".repeat(64), objectMapper.writeValueAsString(response));
+        when(idempotencyKeyRepository.findByKey(KEY)).thenReturn(Optional.of(stored));
+
+        assertThatThrownBy(() -> idempotencyService.createGuestBooking(KEY, request, action))
+                .isInstanceOf(InvalidIdempotencyKeyException.class);
+
+        assertThat(invocations).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Should replay response committed by a concurrent request with the same key")
+    void shouldReplayAfterConcurrentInsert() throws Exception {
+        final IdempotencyKey stored = storedKey(hashOf(request), objectMapper.writeValueAsString(response));
+        when(idempotencyKeyRepository.findByKey(KEY))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(stored));
+        when(idempotencyKeyRepository.saveAndFlush(any(IdempotencyKey.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key",
+                        new SQLException("duplicate key value violates unique constraint \"uq_idempotency_key_key\"")));
+
+        final IdempotencyService.Result result = idempotencyService.createGuestBooking(KEY, request, action);
+
+        assertThat(result.replayed()).isTrue();
+        assertThat(result.response()).isEqualTo(response);
+        assertThat(invocations).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Should report conflict when the stored request has not finished")
+    void shouldReportConflictWhenResponseMissing() throws Exception {
+        final IdempotencyKey stored = storedKey(hashOf(request), null);
+        when(idempotencyKeyRepository.findByKey(KEY)).thenReturn(Optional.of(stored));
+
+        assertThatThrownBy(() -> idempotencyService.createGuestBooking(KEY, request, action))
+                .isInstanceOf(IdempotencyKeyConflictException.class);
+    }
+
+    @Test
+    @DisplayName("Should not store key when booking logic fails")
+    void shouldPropagateBookingFailure() {
+        when(idempotencyKeyRepository.findByKey(KEY)).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.saveAndFlush(any(IdempotencyKey.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThatThrownBy(() -> idempotencyService.createGuestBooking(KEY, request, () -> {
+            throw new IllegalStateException("slot taken");
+        })).isInstanceOf(IllegalStateException.class);
+
+        verify(idempotencyKeyRepository, never()).save(any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("Should reject keys longer than 255 characters")
+    void shouldRejectOversizedKey() {
+        assertThatThrownBy(() -> idempotencyService.createGuestBooking("k".repeat(256), request, action))
+                .isInstanceOf(InvalidIdempotencyKeyException.class);
+
+        verifyNoInteractions(idempotencyKeyRepository);
+    }
+
+    private IdempotencyKey storedKey(final String requestHash, final String responseBody) {
+        return IdempotencyKey.builder()
+                .key(KEY)
+                .requestHash(requestHash)
+                .responseBody(responseBody)
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+    }
+
+    private String hashOf(final CreateGuestBookingRequest request) throws Exception {
+        final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+    }
+}
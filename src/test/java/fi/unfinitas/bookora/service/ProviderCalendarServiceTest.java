@@ -0,0 +1,236 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.domain.enums.BookingStatus;
+import fi.unfinitas.bookora.domain.event.BookingChangedEvent;
+import fi.unfinitas.bookora.domain.model.Availability;
+import fi.unfinitas.bookora.domain.model.GroupSlot;
+import fi.unfinitas.bookora.domain.model.Provider;
+import fi.unfinitas.bookora.domain.model.ServiceOffering;
+import fi.unfinitas.bookora.dto.response.FreeSlotsResponse;
+import fi.unfinitas.bookora.repository.AvailabilityRepository;
+import fi.unfinitas.bookora.repository.BookingRepository;
+import fi.unfinitas.bookora.repository.projection.BookingTimeRange;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProviderCalendarServiceTest {
+
+    @Mock
+    private AvailabilityRepository availabilityRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ServiceOfferingService serviceOfferingService;
+
+    @Mock
+    private BookingPolicyService bookingPolicyService;
+
+    @Mock
+    private SlotInventoryService slotInventoryService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID providerId = UUID.randomUUID();
+    private final LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+    private BookoraProperties properties;
+    private ProviderCalendarService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BookoraProperties();
+        properties.getCalendar().setGranularityMinutes(15);
+        service = new ProviderCalendarService(availabilityRepository, bookingRepository, serviceOfferingService,
+                bookingPolicyService, slotInventoryService, properties, transactionManager, meterRegistry);
+        lenient().when(availabilityRepository.findByProviderIdAndDays(eq(providerId), any(), any()))
+                .thenReturn(List.of(availability(tomorrow, LocalTime.of(9, 0), LocalTime.of(10, 0))));
+    }
+
+    @Test
+    @DisplayName("Should build the calendar once and serve later reads from memory")
+    void shouldCacheCalendar() {
+        when(bookingRepository.findActiveBookingTimes(eq(providerId), any(), any()))
+                .thenReturn(List.of(range(tomorrow.atTime(9, 0), tomorrow.atTime(9, 30))));
+
+        final List<LocalTime> first = service.freeStarts(providerId, tomorrow, 30, 0);
+        final List<LocalTime> second = service.freeStarts(providerId, tomorrow, 30, 0);
+
+        assertThat(first).containsExactly(LocalTime.of(9, 30));
+        assertThat(second).isEqualTo(first);
+        verify(availabilityRepository, times(1)).findByProviderIdAndDays(providerId, LocalDate.now(), LocalDate.now().plusDays(7));
+        verify(bookingRepository, times(1)).findActiveBookingTimes(eq(providerId), any(), any());
+        assertThat(meterRegistry.get(ProviderCalendarService.CACHED_PROVIDERS_GAUGE).gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should mark created bookings and free cancelled aligned ones without a query")
+    void shouldApplyBookingChanges() {
+        service.calendarFor(providerId);
+
+        service.apply(event(BookingChangedEvent.Type.CREATED, null, tomorrow.atTime(9, 0), tomorrow.atTime(9, 30)));
+        assertThat(service.freeStarts(providerId, tomorrow, 30, 0)).containsExactly(LocalTime.of(9, 30));
+
+        service.apply(event(BookingChangedEvent.Type.CANCELLED, null, tomorrow.atTime(9, 0), tomorrow.atTime(9, 30)));
+        assertThat(service.freeStarts(providerId, tomorrow, 30, 0)).hasSize(3);
+
+        verify(bookingRepository, times(1)).findActiveBookingTimes(eq(providerId), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should drop the calendar when a cancellation cannot be applied exactly")
+    void shouldEvictOnUnalignedOrGroupCancellation() {
+        service.calendarFor(providerId);
+
+        service.apply(event(BookingChangedEvent.Type.CANCELLED, 4L, tomorrow.atTime(9, 0), tomorrow.atTime(9, 30)));
+        assertThat(meterRegistry.get(ProviderCalendarService.CACHED_PROVIDERS_GAUGE).gauge().value()).isZero();
+
+        service.calendarFor(providerId);
+        service.apply(event(BookingChangedEvent.Type.CANCELLED, null, tomorrow.atTime(9, 0), tomorrow.atTime(9, 20)));
+        assertThat(meterRegistry.get(ProviderCalendarService.CACHED_PROVIDERS_GAUGE).gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not cache calendars beyond the provider limit")
+    void shouldBoundCachedProviders() {
+        properties.getCalendar().setMaxProviders(0);
+
+        service.calendarFor(providerId);
+        service.calendarFor(providerId);
+
+        verify(bookingRepository, times(2)).findActiveBookingTimes(eq(providerId), any(), any());
+        assertThat(meterRegistry.get(ProviderCalendarService.CACHED_PROVIDERS_GAUGE).gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should build a one-off calendar for days outside the cached window")
+    void shouldLoadDaysOutsideWindow() {
+        final LocalDate later = LocalDate.now().plusDays(30);
+
+        service.freeStarts(providerId, later, 30, 0);
+
+        verify(availabilityRepository).findByProviderIdAndDays(providerId, later, later.plusDays(1));
+    }
+
+    @Test
+    @DisplayName("Should list free slots of a service filtered by its booking rules")
+    void shouldListFreeSlotsOfService() {
+        when(serviceOfferingService.getServiceOfferingById(2L)).thenReturn(ServiceOffering.builder()
+                .id(2L).durationMinutes(30).provider(Provider.builder().id(providerId).build()).build());
+        when(bookingPolicyService.rulesFor(providerId, 2L)).thenReturn(new BookingRules(
+                Duration.ZERO, Duration.ZERO, Duration.ofMinutes(15), 30, 0, Duration.ofHours(24)));
+        when(bookingRepository.findActiveBookingTimes(eq(providerId), any(), any()))
+                .thenReturn(List.of(range(tomorrow.atTime(10, 0), tomorrow.atTime(10, 30))));
+
+        final FreeSlotsResponse response = service.getFreeSlots(2L, tomorrow);
+
+        // 09:15 is off the 30-minute grid; 09:30 would end inside the buffer before the 10:00 booking
+        assertThat(response.startTimes()).containsExactly(LocalTime.of(9, 0));
+        assertThat(response.durationMinutes()).isEqualTo(30);
+        verifyNoInteractions(slotInventoryService);
+    }
+
+    @Test
+    @DisplayName("Should keep listing a partly booked group slot while it has seats left")
+    void shouldListPartlyBookedGroupSlot() {
+        when(serviceOfferingService.getServiceOfferingById(3L)).thenReturn(ServiceOffering.builder()
+                .id(3L).durationMinutes(30).capacity(10).provider(Provider.builder().id(providerId).build()).build());
+        when(bookingPolicyService.rulesFor(providerId, 3L)).thenReturn(new BookingRules(
+                Duration.ZERO, Duration.ZERO, Duration.ZERO, 30, 0, Duration.ofHours(24)));
+        // Two sold seats of the 09:00 slot
+        when(bookingRepository.findActiveBookingTimes(eq(providerId), any(), any())).thenReturn(List.of(
+                range(tomorrow.atTime(9, 0), tomorrow.atTime(9, 30)),
+                range(tomorrow.atTime(9, 0), tomorrow.atTime(9, 30))));
+        final GroupSlot slot = GroupSlot.builder().id(5L).serviceId(3L).startTime(tomorrow.atTime(9, 0))
+                .endTime(tomorrow.atTime(9, 30)).capacity(10).shards(1).build();
+        when(slotInventoryService.findSlotsWithSeatsLeft(3L, tomorrow)).thenReturn(List.of(slot));
+        when(bookingRepository.existsOverlappingBookingOutsideSlot(providerId, slot.getStartTime(), slot.getEndTime(), 5L))
+                .thenReturn(false);
+
+        final FreeSlotsResponse response = service.getFreeSlots(3L, tomorrow);
+
+        assertThat(response.startTimes()).containsExactly(LocalTime.of(9, 0), LocalTime.of(9, 30));
+    }
+
+    @Test
+    @DisplayName("Should not list a group slot that another booking overlaps")
+    void shouldSkipGroupSlotOverlappedOutsideIt() {
+        when(serviceOfferingService.getServiceOfferingById(3L)).thenReturn(ServiceOffering.builder()
+                .id(3L).durationMinutes(30).capacity(10).provider(Provider.builder().id(providerId).build()).build());
+        when(bookingPolicyService.rulesFor(providerId, 3L)).thenReturn(new BookingRules(
+                Duration.ZERO, Duration.ZERO, Duration.ZERO, 30, 0, Duration.ofHours(24)));
+        when(bookingRepository.findActiveBookingTimes(eq(providerId), any(), any())).thenReturn(List.of(
+                range(tomorrow.atTime(9, 0), tomorrow.atTime(10, 0))));
+        when(slotInventoryService.findSlotsWithSeatsLeft(3L, tomorrow)).thenReturn(List.of(GroupSlot.builder()
+                .id(5L).serviceId(3L).startTime(tomorrow.atTime(9, 0)).endTime(tomorrow.atTime(9, 30))
+                .capacity(10).shards(1).build()));
+        when(bookingRepository.existsOverlappingBookingOutsideSlot(eq(providerId), any(), any(), eq(5L)))
+                .thenReturn(true);
+
+        assertThat(service.getFreeSlots(3L, tomorrow).startTimes()).isEmpty();
+    }
+
+    private Availability availability(final LocalDate date, final LocalTime startTime, final LocalTime endTime) {
+        return Availability.builder()
+                .availabilityDate(date)
+                .startTime(startTime)
+                .endTime(endTime)
+                .isAvailable(true)
+                .build();
+    }
+
+    private BookingChangedEvent event(final BookingChangedEvent.Type type, final Long groupSlotId,
+                                      final LocalDateTime startTime, final LocalDateTime endTime) {
+        return new BookingChangedEvent(type, 1L, providerId, 2L, groupSlotId,
+                type == BookingChangedEvent.Type.CANCELLED ? BookingStatus.CANCELLED : BookingStatus.PENDING,
+                startTime, endTime, LocalDateTime.now());
+    }
+
+    private static BookingTimeRange range(final LocalDateTime startTime, final LocalDateTime endTime) {
+        return new BookingTimeRange() {
+            @Override
+            public LocalDateTime getStartTime() {
+                return startTime;
+            }
+
+            @Override
+            public LocalDateTime getEndTime() {
+                return endTime;
+            }
+
+            @Override
+            public Long getServiceId() {
+                return 2L;
+            }
+
+            @Override
+            public Long getGroupSlotId() {
+                return null;
+            }
+        };
+    }
+}
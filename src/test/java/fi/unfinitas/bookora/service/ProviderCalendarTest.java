@@ -0,0 +1,114 @@
+package fi.unfinitas.bookora.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProviderCalendarTest {
+
+    private final LocalDate day = LocalDate.of(2026, 3, 2);
+
+    @Test
+    @DisplayName("Should list the starts inside availability where the booking fits")
+    void shouldListStartsInsideAvailability() {
+        final ProviderCalendar calendar = ProviderCalendar.builder(day, 1, 15)
+                .availability(day, LocalTime.of(9, 0), LocalTime.of(10, 0), true)
+                .build();
+
+        assertThat(calendar.freeStarts(day, 30, 0))
+                .containsExactly(LocalTime.of(9, 0), LocalTime.of(9, 15), LocalTime.of(9, 30));
+        assertThat(calendar.freeStarts(day, 90, 0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should round open windows inwards and closed windows outwards")
+    void shouldRoundWindowsToWholeSlots() {
+        final ProviderCalendar calendar = ProviderCalendar.builder(day, 1, 15)
+                .availability(day, LocalTime.of(9, 5), LocalTime.of(11, 0), true)
+                .availability(day, LocalTime.of(10, 10), LocalTime.of(10, 20), false)
+                .build();
+
+        assertThat(calendar.freeStarts(day, 15, 0))
+                .containsExactly(LocalTime.of(9, 15), LocalTime.of(9, 30), LocalTime.of(9, 45),
+                        LocalTime.of(10, 30), LocalTime.of(10, 45));
+    }
+
+    @Test
+    @DisplayName("Should keep the buffer free around existing bookings")
+    void shouldKeepBufferAroundBookings() {
+        final ProviderCalendar calendar = ProviderCalendar.builder(day, 1, 15)
+                .availability(day, LocalTime.of(9, 0), LocalTime.of(12, 0), true)
+                .booking(day.atTime(10, 0), day.atTime(10, 30))
+                .build();
+
+        assertThat(calendar.freeStarts(day, 30, 0))
+                .contains(LocalTime.of(9, 30), LocalTime.of(10, 30))
+                .doesNotContain(LocalTime.of(9, 45), LocalTime.of(10, 15));
+        assertThat(calendar.freeStarts(day, 30, 15))
+                .contains(LocalTime.of(9, 15), LocalTime.of(10, 45))
+                .doesNotContain(LocalTime.of(9, 30), LocalTime.of(10, 30));
+    }
+
+    @Test
+    @DisplayName("Should find runs crossing word and day boundaries")
+    void shouldFindRunsAcrossWords() {
+        final LocalDate nextDay = day.plusDays(1);
+        final ProviderCalendar calendar = ProviderCalendar.builder(day, 3, 5)
+                .availability(nextDay, LocalTime.of(5, 0), LocalTime.of(6, 0), true)
+                .build();
+
+        // Slot 64 of the second day starts at 05:20, so a run from 05:00 spans two words
+        assertThat(calendar.freeStarts(nextDay, 60, 0)).containsExactly(LocalTime.of(5, 0));
+        assertThat(calendar.freeStarts(day, 60, 0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should add and remove bookings on copies")
+    void shouldAddAndRemoveBookings() {
+        final ProviderCalendar calendar = ProviderCalendar.builder(day, 1, 15)
+                .availability(day, LocalTime.of(9, 0), LocalTime.of(10, 0), true)
+                .build();
+
+        final ProviderCalendar booked = calendar.withBooking(day.atTime(9, 0), day.atTime(9, 50));
+        final ProviderCalendar freed = booked.withoutBooking(day.atTime(9, 0), day.atTime(9, 50));
+
+        assertThat(booked.freeStarts(day, 15, 0)).isEmpty();
+        assertThat(calendar.freeStarts(day, 15, 0)).hasSize(4);
+        assertThat(freed.freeStarts(day, 15, 0)).hasSize(4);
+    }
+
+    @Test
+    @DisplayName("Should report coverage and slot alignment")
+    void shouldReportCoverageAndAlignment() {
+        final ProviderCalendar calendar = ProviderCalendar.builder(day, 7, 15).build();
+
+        assertThat(calendar.covers(day.plusDays(6))).isTrue();
+        assertThat(calendar.covers(day.plusDays(7))).isFalse();
+        assertThat(calendar.covers(day.minusDays(1))).isFalse();
+        assertThat(calendar.isAligned(LocalDateTime.of(day.plusDays(2), LocalTime.of(13, 45)))).isTrue();
+        assertThat(calendar.isAligned(LocalDateTime.of(day.plusDays(2), LocalTime.of(13, 50)))).isFalse();
+        assertThatThrownBy(() -> calendar.freeStarts(day.plusDays(7), 30, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject a granularity that does not divide a day")
+    void shouldRejectUnevenGranularity() {
+        assertThatThrownBy(() -> ProviderCalendar.builder(day, 1, 7))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should shift bits across words")
+    void shouldShiftAcrossWords() {
+        final long[] shifted = ProviderCalendar.shiftUp(new long[]{1L << 63, 0L}, 2);
+
+        assertThat(shifted).containsExactly(0L, 2L);
+    }
+}
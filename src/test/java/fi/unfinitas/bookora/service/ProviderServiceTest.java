@@ -0,0 +1,76 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.domain.enums.UserRole;
+import fi.unfinitas.bookora.domain.model.User;
+import fi.unfinitas.bookora.exception.ProviderAccessDeniedException;
+import fi.unfinitas.bookora.repository.ProviderRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProviderServiceTest {
+
+    @Mock
+    private ProviderRepository providerRepository;
+
+    @InjectMocks
+    private ProviderService providerService;
+
+    private final UUID providerId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Should allow provider to access own provider")
+    void shouldAllowOwner() {
+        final User user = user(UserRole.PROVIDER);
+        when(providerRepository.existsByIdAndUserId(providerId, user.getId())).thenReturn(true);
+
+        assertThatCode(() -> providerService.assertCanAccess(providerId, user)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Should deny provider access to another provider")
+    void shouldDenyOtherProvider() {
+        final User user = user(UserRole.PROVIDER);
+        when(providerRepository.existsByIdAndUserId(providerId, user.getId())).thenReturn(false);
+
+        assertThatThrownBy(() -> providerService.assertCanAccess(providerId, user))
+                .isInstanceOf(ProviderAccessDeniedException.class);
+    }
+
+    @Test
+    @DisplayName("Should allow admin without ownership lookup")
+    void shouldAllowAdmin() {
+        assertThatCode(() -> providerService.assertCanAccess(providerId, user(UserRole.ADMIN)))
+                .doesNotThrowAnyException();
+
+        verify(providerRepository, never()).existsByIdAndUserId(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should deny regular users and anonymous requests")
+    void shouldDenyUserAndAnonymous() {
+        assertThatThrownBy(() -> providerService.assertCanAccess(providerId, user(UserRole.USER)))
+                .isInstanceOf(ProviderAccessDeniedException.class);
+        assertThatThrownBy(() -> providerService.assertCanAccess(providerId, null))
+                .isInstanceOf(ProviderAccessDeniedException.class);
+    }
+
+    private static User user(final UserRole role) {
+        return User.builder()
+                .id(UUID.randomUUID())
+                .username("user")
+                .role(role)
+                .build();
+    }
+}
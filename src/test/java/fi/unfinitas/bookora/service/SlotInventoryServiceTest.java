@@ -0,0 +1,109 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.domain.model.Booking;
+import fi.unfinitas.bookora.domain.model.GroupSlot;
+import fi.unfinitas.bookora.domain.model.ServiceOffering;
+import fi.unfinitas.bookora.exception.GroupSessionFullException;
+import fi.unfinitas.bookora.exception.InvalidBookingTimeException;
+import fi.unfinitas.bookora.repository.GroupSlotRepository;
+import fi.unfinitas.bookora.repository.GroupSlotShardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotInventoryServiceTest {
+
+    @Mock
+    private GroupSlotRepository groupSlotRepository;
+
+    @Mock
+    private GroupSlotShardRepository groupSlotShardRepository;
+
+    private SlotInventoryService slotInventoryService;
+    private ServiceOffering groupSession;
+    private GroupSlot slot;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        slotInventoryService = new SlotInventoryService(groupSlotRepository, groupSlotShardRepository);
+        groupSession = ServiceOffering.builder().id(1L).durationMinutes(60).capacity(20).capacityShards(4).build();
+        start = LocalDateTime.now().plusDays(1).withNano(0);
+        slot = GroupSlot.builder().id(5L).serviceId(1L).startTime(start).endTime(start.plusHours(1))
+                .capacity(20).shards(4).build();
+    }
+
+    @Test
+    @DisplayName("Should create the slot with its shards on the first booking")
+    void shouldCreateSlotOnFirstBooking() {
+        when(groupSlotRepository.findByServiceIdAndStartTime(1L, start))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(slot));
+
+        assertThat(slotInventoryService.findOrCreateSlot(groupSession, start, start.plusHours(1))).isSameAs(slot);
+
+        verify(groupSlotRepository).createIfAbsent(1L, start, start.plusHours(1), 20, 4);
+    }
+
+    @Test
+    @DisplayName("Should reject a booking that does not last the session's duration")
+    void shouldRejectDifferentDuration() {
+        assertThatThrownBy(() -> slotInventoryService.findOrCreateSlot(groupSession, start, start.plusMinutes(30)))
+                .isInstanceOf(InvalidBookingTimeException.class);
+
+        verifyNoInteractions(groupSlotRepository);
+    }
+
+    @Test
+    @DisplayName("Should take a seat from an unlocked shard without waiting")
+    void shouldTakeSeatFromUnlockedShard() {
+        when(groupSlotShardRepository.lockAvailableShard(eq(5L), anyInt(), eq(4))).thenReturn(Optional.of(3));
+        when(groupSlotShardRepository.takeSeat(5L, 3)).thenReturn(1);
+
+        assertThat(slotInventoryService.takeSeat(slot)).isEqualTo(new SlotInventoryService.Seat(5L, 3));
+
+        verify(groupSlotShardRepository, never()).findAvailableShards(any());
+    }
+
+    @Test
+    @DisplayName("Should wait for a locked shard when no unlocked shard has seats left")
+    void shouldWaitForLockedShard() {
+        when(groupSlotShardRepository.lockAvailableShard(eq(5L), anyInt(), eq(4))).thenReturn(Optional.empty());
+        when(groupSlotShardRepository.findAvailableShards(5L)).thenReturn(List.of(0, 2));
+        when(groupSlotShardRepository.takeSeat(5L, 0)).thenReturn(0);
+        when(groupSlotShardRepository.takeSeat(5L, 2)).thenReturn(1);
+
+        assertThat(slotInventoryService.takeSeat(slot)).isEqualTo(new SlotInventoryService.Seat(5L, 2));
+    }
+
+    @Test
+    @DisplayName("Should reject the booking when no shard has seats left")
+    void shouldRejectWhenFull() {
+        when(groupSlotShardRepository.lockAvailableShard(eq(5L), anyInt(), eq(4))).thenReturn(Optional.empty());
+        when(groupSlotShardRepository.findAvailableShards(5L)).thenReturn(List.of());
+
+        assertThatThrownBy(() -> slotInventoryService.takeSeat(slot)).isInstanceOf(GroupSessionFullException.class);
+    }
+
+    @Test
+    @DisplayName("Should return the seat to its shard and ignore one-to-one bookings")
+    void shouldReleaseSeat() {
+        slotInventoryService.releaseSeat(Booking.builder().groupSlotId(5L).groupSlotShard(2).build());
+        slotInventoryService.releaseSeat(Booking.builder().build());
+
+        verify(groupSlotShardRepository).releaseSeat(5L, 2);
+        verifyNoMoreInteractions(groupSlotShardRepository);
+    }
+}
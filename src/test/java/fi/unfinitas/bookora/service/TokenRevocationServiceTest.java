@@ -0,0 +1,199 @@
+package fi.unfinitas.bookora.service;
+
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.domain.model.RefreshToken;
+import fi.unfinitas.bookora.domain.model.RevokedToken;
+import fi.unfinitas.bookora.exception.InvalidCredentialsException;
+import fi.unfinitas.bookora.repository.RefreshTokenRepository;
+import fi.unfinitas.bookora.repository.RevokedTokenRepository;
+import fi.unfinitas.bookora.security.JwtDenylist;
+import fi.unfinitas.bookora.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtDenylist denylist = new JwtDenylist(meterRegistry);
+    private final UUID userId = UUID.randomUUID();
+
+    private JwtUtil jwtUtil;
+    private UserDetails userDetails;
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "ThisIsAVerySecureSecretKeyForJWTTesting123456789");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 604800000L);
+        jwtUtil.init();
+
+        userDetails = User.builder()
+                .username("testuser")
+                .password("Password123!")
+                .authorities(Set.of(new SimpleGrantedAuthority("ROLE_USER")))
+                .build();
+
+        service = new TokenRevocationService(refreshTokenRepository, revokedTokenRepository, jwtUtil, denylist,
+                new BookoraProperties(), transactionManager, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should store an issued refresh token under its jti")
+    void shouldStoreIssuedRefreshToken() {
+        final UUID sessionId = UUID.randomUUID();
+
+        final String token = service.issueRefreshToken(userDetails, userId, sessionId);
+
+        final ArgumentCaptor<RefreshToken> stored = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(stored.capture());
+        final Claims claims = jwtUtil.parseClaims(token);
+        assertThat(stored.getValue().getJti()).isEqualTo(JwtUtil.tokenId(claims));
+        assertThat(stored.getValue().getSessionId()).isEqualTo(sessionId);
+        assertThat(stored.getValue().getUserId()).isEqualTo(userId);
+        assertThat(JwtUtil.isRefreshToken(claims)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should rotate an unused refresh token within its session")
+    void shouldRotateUnusedToken() {
+        final UUID sessionId = UUID.randomUUID();
+        final UUID tokenId = UUID.randomUUID();
+        when(refreshTokenRepository.markUsed(eq(tokenId), any())).thenReturn(1);
+
+        assertThat(service.rotate(jwtUtil.generateRefreshToken(userDetails, sessionId, tokenId))).isEqualTo(sessionId);
+
+        verifyNoInteractions(revokedTokenRepository);
+    }
+
+    @Test
+    @DisplayName("Should revoke the whole session when a used refresh token is presented again")
+    void shouldRevokeSessionOnReuse() {
+        final UUID sessionId = UUID.randomUUID();
+        final UUID tokenId = UUID.randomUUID();
+        when(refreshTokenRepository.markUsed(eq(tokenId), any())).thenReturn(0);
+        when(refreshTokenRepository.findByJti(tokenId)).thenReturn(Optional.of(RefreshToken.builder()
+                .jti(tokenId).sessionId(sessionId).usedAt(LocalDateTime.now().minusMinutes(5)).build()));
+
+        assertThatThrownBy(() -> service.rotate(jwtUtil.generateRefreshToken(userDetails, sessionId, tokenId)))
+                .isInstanceOf(InvalidCredentialsException.class);
+
+        verify(refreshTokenRepository).revokeSession(eq(sessionId), any());
+        verify(revokedTokenRepository).insertIfAbsent(eq(sessionId), any());
+        assertThat(denylist.isRevoked(null, sessionId)).isTrue();
+        assertThat(meterRegistry.get(TokenRevocationService.REUSE_COUNTER).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject access tokens and refresh tokens issued without a session")
+    void shouldRejectNonRotatableTokens() {
+        assertThatThrownBy(() -> service.rotate(jwtUtil.generateAccessToken(userDetails, UUID.randomUUID())))
+                .isInstanceOf(InvalidCredentialsException.class);
+        assertThatThrownBy(() -> service.rotate(jwtUtil.generateRefreshToken(userDetails)))
+                .isInstanceOf(InvalidCredentialsException.class);
+        assertThatThrownBy(() -> service.rotate("not.a.jwt"))
+                .isInstanceOf(InvalidCredentialsException.class);
+
+        verifyNoInteractions(refreshTokenRepository);
+    }
+
+    @Test
+    @DisplayName("Should revoke the access token and its session on logout")
+    void shouldRevokeOnLogout() {
+        final UUID sessionId = UUID.randomUUID();
+        final String accessToken = jwtUtil.generateAccessToken(userDetails, sessionId);
+        final UUID tokenId = JwtUtil.tokenId(jwtUtil.parseClaims(accessToken));
+
+        service.logout(accessToken);
+
+        verify(revokedTokenRepository).insertIfAbsent(eq(tokenId), any());
+        verify(revokedTokenRepository).insertIfAbsent(eq(sessionId), any());
+        verify(refreshTokenRepository).revokeSession(eq(sessionId), any());
+        assertThat(denylist.isRevoked(tokenId, null)).isTrue();
+        assertThat(denylist.isRevoked(UUID.randomUUID(), sessionId)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should load all revocations first and then poll only recent ones")
+    void shouldPollIncrementally() {
+        final LocalDateTime createdAt = LocalDateTime.now().minusMinutes(10);
+        final RevokedToken loaded = revocation(createdAt);
+        final RevokedToken polled = revocation(createdAt.plusMinutes(5));
+        when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(List.of(loaded));
+        when(revokedTokenRepository.findByCreatedAtGreaterThanEqualAndExpiresAtAfter(
+                eq(createdAt.minusSeconds(60)), any())).thenReturn(List.of(loaded, polled));
+
+        service.afterSingletonsInstantiated();
+        service.pollRevocations();
+
+        assertThat(denylist.isRevoked(loaded.getTokenId(), null)).isTrue();
+        assertThat(denylist.isRevoked(polled.getTokenId(), null)).isTrue();
+        verify(revokedTokenRepository).findByExpiresAtAfter(any());
+
+        service.pollRevocations();
+
+        verify(revokedTokenRepository).findByCreatedAtGreaterThanEqualAndExpiresAtAfter(
+                eq(polled.getCreatedAt().minusSeconds(60)), any());
+    }
+
+    @Test
+    @DisplayName("Should drop expired entries from the denylist")
+    void shouldPurgeExpired() {
+        final UUID expired = UUID.randomUUID();
+        final UUID live = UUID.randomUUID();
+        denylist.add(expired, LocalDateTime.now().minusMinutes(1));
+        denylist.add(live, LocalDateTime.now().plusMinutes(1));
+
+        service.purgeExpired();
+
+        assertThat(denylist.isRevoked(expired, null)).isFalse();
+        assertThat(denylist.isRevoked(live, null)).isTrue();
+        verify(revokedTokenRepository).deleteExpired(any());
+        verify(refreshTokenRepository).deleteExpired(any());
+    }
+
+    private static RevokedToken revocation(final LocalDateTime createdAt) {
+        final RevokedToken revocation = RevokedToken.builder()
+                .tokenId(UUID.randomUUID())
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .build();
+        revocation.setCreatedAt(createdAt);
+        return revocation;
+    }
+}
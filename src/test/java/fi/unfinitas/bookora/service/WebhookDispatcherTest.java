@@ -0,0 +1,274 @@
+package fi.unfinitas.bookora.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.domain.enums.WebhookDeliveryStatus;
+import fi.unfinitas.bookora.domain.model.WebhookDelivery;
+import fi.unfinitas.bookora.exception.WebhookDeliveryException;
+import fi.unfinitas.bookora.repository.WebhookDeliveryRepository;
+import fi.unfinitas.bookora.repository.projection.DueWebhookDelivery;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookDispatcherTest {
+
+    private static final String URL = "https://partner.example.com/hook";
+
+    @Mock
+    private WebhookDeliveryRepository webhookDeliveryRepository;
+
+    @Mock
+    private WebhookSender webhookSender;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<Long, WebhookDelivery> rows = new ConcurrentHashMap<>();
+
+    private BookoraProperties bookoraProperties;
+    private WebhookDispatcher webhookDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        bookoraProperties = new BookoraProperties();
+        bookoraProperties.getWebhook().setBatchSize(2);
+        bookoraProperties.getWebhook().setMaxAttempts(3);
+
+        final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(Map.of(
+                WebhookDispatcher.CIRCUIT_BREAKER_CONFIG, CircuitBreakerConfig.custom()
+                        .slidingWindowSize(2)
+                        .minimumNumberOfCalls(2)
+                        .failureRateThreshold(50)
+                        .waitDurationInOpenState(Duration.ofMinutes(1))
+                        .build()));
+
+        webhookDispatcher = new WebhookDispatcher(webhookDeliveryRepository, webhookSender, circuitBreakerRegistry,
+                objectMapper, bookoraProperties, transactionManager, meterRegistry);
+
+        lenient().when(webhookDeliveryRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            final Iterable<Long> ids = invocation.getArgument(0);
+            final List<WebhookDelivery> found = new ArrayList<>();
+            ids.forEach(id -> found.add(rows.get(id)));
+            return found;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        webhookDispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should lease claimed deliveries and mark them delivered")
+    void shouldDeliverAndMarkDelivered() throws Exception {
+        claim(due(1L, 10L, 0), due(2L, 10L, 0));
+
+        webhookDispatcher.dispatch();
+
+        verify(webhookDeliveryRepository).lease(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+
+        final ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(webhookSender).send(eq(URL), eq("secret-10"), body.capture());
+        final JsonNode deliveries = objectMapper.readTree(body.getValue()).get("deliveries");
+        assertThat(deliveries).hasSize(2);
+        assertThat(deliveries.get(0).get("id").asLong()).isEqualTo(1L);
+        assertThat(deliveries.get(0).get("type").asText()).isEqualTo("booking.created");
+        assertThat(deliveries.get(0).get("data").get("bookingId").asLong()).isEqualTo(1L);
+
+        assertThat(rows.get(1L).getStatus()).isEqualTo(WebhookDeliveryStatus.DELIVERED);
+        assertThat(rows.get(1L).getDeliveredAt()).isNotNull();
+        assertThat(rows.get(2L).getAttempts()).isEqualTo(1);
+        assertThat(meterRegistry.get("bookora.webhook.deliveries").tag("outcome", "delivered").counter().count())
+                .isEqualTo(2.0);
+        assertThat(meterRegistry.get("bookora.webhook.delivery.lag").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should batch deliveries per endpoint up to the batch size")
+    void shouldBatchPerEndpoint() {
+        claim(due(1L, 10L, 0), due(2L, 20L, 0), due(3L, 10L, 0), due(4L, 10L, 0));
+
+        webhookDispatcher.dispatch();
+
+        verify(webhookSender, times(2)).send(eq(URL), eq("secret-10"), anyString());
+        verify(webhookSender).send(eq(URL), eq("secret-20"), anyString());
+    }
+
+    @Test
+    @DisplayName("Should schedule retry with exponential backoff on failure")
+    void shouldRetryWithBackoff() {
+        claim(due(1L, 10L, 1));
+        doThrow(new WebhookDeliveryException("Endpoint responded with HTTP 500"))
+                .when(webhookSender).send(anyString(), anyString(), anyString());
+
+        final LocalDateTime before = LocalDateTime.now();
+        webhookDispatcher.dispatch();
+
+        final WebhookDelivery row = rows.get(1L);
+        assertThat(row.getStatus()).isEqualTo(WebhookDeliveryStatus.PENDING);
+        assertThat(row.getAttempts()).isEqualTo(2);
+        assertThat(row.getLastError()).contains("HTTP 500");
+        // Second attempt failed: 10s doubled once
+        assertThat(row.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(20));
+        assertThat(row.getNextAttemptAt()).isBefore(before.plusSeconds(30));
+    }
+
+    @Test
+    @DisplayName("Should give up after the maximum number of attempts")
+    void shouldFailAfterMaxAttempts() {
+        claim(due(1L, 10L, 2));
+        doThrow(new WebhookDeliveryException("timeout"))
+                .when(webhookSender).send(anyString(), anyString(), anyString());
+
+        webhookDispatcher.dispatch();
+
+        assertThat(rows.get(1L).getStatus()).isEqualTo(WebhookDeliveryStatus.FAILED);
+        assertThat(meterRegistry.get("bookora.webhook.deliveries").tag("outcome", "failed").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should stop calling an endpoint once its circuit is open")
+    void shouldShortCircuitFailingEndpoint() {
+        bookoraProperties.getWebhook().setBatchSize(1);
+        claim(due(1L, 10L, 0), due(2L, 10L, 0));
+        doThrow(new WebhookDeliveryException("Endpoint responded with HTTP 503"))
+                .when(webhookSender).send(anyString(), anyString(), anyString());
+        webhookDispatcher.dispatch();
+
+        claim(due(3L, 10L, 0));
+        webhookDispatcher.dispatch();
+
+        verify(webhookSender, times(2)).send(anyString(), anyString(), anyString());
+        assertThat(rows.get(3L).getAttempts()).isZero();
+        assertThat(rows.get(3L).getNextAttemptAt()).isAfter(LocalDateTime.now());
+        assertThat(meterRegistry.get("bookora.webhook.deliveries").tag("outcome", "short_circuited").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should drop deliveries of deleted endpoints without sending")
+    void shouldDropDeliveriesOfInactiveEndpoint() {
+        final DueWebhookDelivery delivery = due(1L, 10L, 0);
+        when(delivery.getEndpointActive()).thenReturn(false);
+        claim(delivery);
+
+        webhookDispatcher.dispatch();
+
+        verifyNoInteractions(webhookSender);
+        assertThat(rows.get(1L).getStatus()).isEqualTo(WebhookDeliveryStatus.FAILED);
+    }
+
+    @Test
+    @DisplayName("Should leave batches that could outlast the lease unsent")
+    void shouldNotSendPastLease() {
+        bookoraProperties.getWebhook().setLeaseSeconds(1);
+        bookoraProperties.getWebhook().setRequestTimeoutMillis(2000);
+        webhookDispatcher.shutdown();
+        webhookDispatcher = new WebhookDispatcher(webhookDeliveryRepository, webhookSender,
+                CircuitBreakerRegistry.ofDefaults(), objectMapper, bookoraProperties, transactionManager, meterRegistry);
+        claim(due(1L, 10L, 0));
+
+        webhookDispatcher.dispatch();
+
+        verifyNoInteractions(webhookSender);
+        assertThat(rows.get(1L).getAttempts()).isZero();
+        assertThat(meterRegistry.get("bookora.webhook.deliveries").tag("outcome", "lease_expired").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should send on its own thread and skip polls while one is still sending")
+    void shouldPollWithoutBlockingScheduler() throws Exception {
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        claim(due(1L, 10L, 0));
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await();
+            return null;
+        }).when(webhookSender).send(anyString(), anyString(), anyString());
+
+        webhookDispatcher.poll();
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+        webhookDispatcher.poll();
+        release.countDown();
+
+        verify(webhookDeliveryRepository, timeout(5000)).lease(any(), any());
+        verify(webhookDeliveryRepository, times(1)).lockDue(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should do nothing when no deliveries are due")
+    void shouldDoNothingWhenIdle() {
+        when(webhookDeliveryRepository.lockDue(any(), anyInt())).thenReturn(List.of());
+
+        webhookDispatcher.dispatch();
+
+        verify(webhookDeliveryRepository, never()).lease(any(), any());
+        verifyNoInteractions(webhookSender);
+    }
+
+    @Test
+    @DisplayName("Should double backoff per attempt up to the maximum")
+    void shouldComputeBackoff() {
+        assertThat(WebhookDispatcher.backoff(1, 10, 3600)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(WebhookDispatcher.backoff(3, 10, 3600)).isEqualTo(Duration.ofSeconds(40));
+        assertThat(WebhookDispatcher.backoff(20, 10, 3600)).isEqualTo(Duration.ofSeconds(3600));
+        assertThat(WebhookDispatcher.backoff(100, 10, 3600)).isEqualTo(Duration.ofSeconds(3600));
+    }
+
+    private void claim(final DueWebhookDelivery... deliveries) {
+        when(webhookDeliveryRepository.lockDue(any(), anyInt())).thenReturn(List.of(deliveries));
+    }
+
+    private DueWebhookDelivery due(final Long id, final Long endpointId, final int attempts) {
+        rows.put(id, WebhookDelivery.builder()
+                .id(id)
+                .eventType("booking.created")
+                .payload("{\"bookingId\":" + id + "}")
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+
+        final DueWebhookDelivery delivery = mock(DueWebhookDelivery.class);
+        lenient().when(delivery.getId()).thenReturn(id);
+        lenient().when(delivery.getEndpointId()).thenReturn(endpointId);
+        lenient().when(delivery.getUrl()).thenReturn(URL);
+        lenient().when(delivery.getSecret()).thenReturn("secret-" + endpointId);
+        lenient().when(delivery.getEndpointActive()).thenReturn(true);
+        lenient().when(delivery.getEventType()).thenReturn("booking.created");
+        lenient().when(delivery.getPayload()).thenReturn("{\"bookingId\":" + id + "}");
+        lenient().when(delivery.getAttempts()).thenReturn(attempts);
+        lenient().when(delivery.getCreatedAt()).thenReturn(LocalDateTime.now().minusSeconds(1));
+        return delivery;
+    }
+}
@@ -0,0 +1,151 @@
+package fi.unfinitas.bookora.service;
+
+import com.sun.net.httpserver.HttpServer;
+import fi.unfinitas.bookora.config.BookoraProperties;
+import fi.unfinitas.bookora.exception.WebhookDeliveryException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WebhookSenderTest {
+
+    private static final String SECRET = "test-secret";
+    private static final String BODY = "{\"deliveries\":[{\"id\":1,\"type\":\"booking.created\"}]}";
+
+    private HttpServer server;
+    private final AtomicInteger responseStatus = new AtomicInteger(204);
+    private final AtomicReference<String> receivedBody = new AtomicReference<>();
+    private final AtomicReference<String> receivedSignature = new AtomicReference<>();
+    private final AtomicReference<String> receivedHost = new AtomicReference<>();
+
+    private WebhookSender webhookSender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/hook", exchange -> {
+            receivedBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            receivedSignature.set(exchange.getRequestHeaders().getFirst(WebhookSender.SIGNATURE_HEADER));
+            receivedHost.set(exchange.getRequestHeaders().getFirst("Host"));
+            exchange.sendResponseHeaders(responseStatus.get(), -1);
+            exchange.close();
+        });
+        server.start();
+
+        // The test server listens on loopback, which the real validator refuses
+        final WebhookUrlValidator validator = mock(WebhookUrlValidator.class);
+        when(validator.resolve(anyString())).thenReturn(InetAddress.getLoopbackAddress());
+        webhookSender = new WebhookSender(new BookoraProperties(), validator);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should POST body with verifiable HMAC signature")
+    void shouldSendSignedRequest() {
+        webhookSender.send(url(), SECRET, BODY);
+
+        assertThat(receivedBody.get()).isEqualTo(BODY);
+        assertThat(receivedSignature.get()).matches("t=\\d+,v1=[0-9a-f]{64}");
+
+        final String[] parts = receivedSignature.get().split(",");
+        final long timestamp = Long.parseLong(parts[0].substring(2));
+        assertThat(parts[1].substring(3)).isEqualTo(WebhookSender.sign(SECRET, timestamp, BODY));
+    }
+
+    @Test
+    @DisplayName("Should produce different signatures for different secrets and timestamps")
+    void shouldBindSignatureToSecretAndTimestamp() {
+        final String signature = WebhookSender.sign(SECRET, 1000L, BODY);
+
+        assertThat(WebhookSender.sign("other-secret", 1000L, BODY)).isNotEqualTo(signature);
+        assertThat(WebhookSender.sign(SECRET, 1001L, BODY)).isNotEqualTo(signature);
+        assertThat(WebhookSender.sign(SECRET, 1000L, BODY)).isEqualTo(signature);
+    }
+
+    @Test
+    @DisplayName("Should throw when endpoint responds with non-2xx status")
+    void shouldThrowOnErrorStatus() {
+        responseStatus.set(503);
+
+        assertThatThrownBy(() -> webhookSender.send(url(), SECRET, BODY))
+                .isInstanceOf(WebhookDeliveryException.class)
+                .hasMessageContaining("503");
+    }
+
+    @Test
+    @DisplayName("Should throw when endpoint is unreachable")
+    void shouldThrowWhenUnreachable() {
+        final String unreachable = url();
+        server.stop(0);
+
+        assertThatThrownBy(() -> webhookSender.send(unreachable, SECRET, BODY))
+                .isInstanceOf(WebhookDeliveryException.class);
+    }
+
+    @Test
+    @DisplayName("Should refuse to send to a local address")
+    void shouldRefuseLocalAddress() {
+        final WebhookSender guarded = new WebhookSender(new BookoraProperties(),
+                new WebhookUrlValidator(new BookoraProperties()));
+
+        assertThatThrownBy(() -> guarded.send(url().replace("http:", "https:"), SECRET, BODY))
+                .isInstanceOf(WebhookDeliveryException.class)
+                .hasMessageContaining("Refused");
+        assertThat(receivedBody.get()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should connect to the checked address and keep the URL's host in the Host header")
+    void shouldConnectToCheckedAddress() {
+        // Not resolvable, so the request only arrives if the sender skips a lookup of its own
+        final String url = "http://webhooks.invalid:" + server.getAddress().getPort() + "/hook";
+
+        webhookSender.send(url, SECRET, BODY);
+
+        assertThat(receivedBody.get()).isEqualTo(BODY);
+        assertThat(receivedHost.get()).isEqualTo("webhooks.invalid:" + server.getAddress().getPort());
+    }
+
+    @Test
+    @DisplayName("Should not follow a DNS answer that changes to loopback after the check")
+    void shouldNotFollowRebinding() throws IOException {
+        final AtomicInteger lookups = new AtomicInteger();
+        // A public documentation address first, then the test server's loopback address
+        final InetAddress checked = InetAddress.getByName("192.0.2.1");
+        final WebhookUrlValidator.HostLookup rebinding = host -> new InetAddress[]{
+                lookups.getAndIncrement() == 0 ? checked : InetAddress.getLoopbackAddress()};
+        final BookoraProperties properties = new BookoraProperties();
+        properties.getWebhook().setRequireHttps(false);
+        properties.getWebhook().setConnectTimeoutMillis(200);
+        final WebhookSender guarded = new WebhookSender(properties, new WebhookUrlValidator(properties, rebinding));
+
+        assertThatThrownBy(() -> guarded.send("http://rebind.example:" + server.getAddress().getPort() + "/hook",
+                SECRET, BODY))
+                .isInstanceOf(WebhookDeliveryException.class)
+                .hasMessageContaining("Request failed");
+        assertThat(lookups.get()).isEqualTo(1);
+        assertThat(receivedBody.get()).isNull();
+    }
+
+    private String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/hook";
+    }
+}
@@ -0,0 +1,144 @@
+package fi.unfinitas.bookora.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fi.unfinitas.bookora.domain.enums.BookingStatus;
+import fi.unfinitas.bookora.domain.enums.WebhookDeliveryStatus;
+import fi.unfinitas.bookora.domain.event.BookingChangedEvent;
+import fi.unfinitas.bookora.domain.model.Provider;
+import fi.unfinitas.bookora.domain.model.WebhookDelivery;
+import fi.unfinitas.bookora.domain.model.WebhookEndpoint;
+import fi.unfinitas.bookora.dto.response.WebhookEndpointResponse;
+import fi.unfinitas.bookora.exception.InvalidWebhookUrlException;
+import fi.unfinitas.bookora.exception.WebhookEndpointNotFoundException;
+import fi.unfinitas.bookora.repository.ProviderRepository;
+import fi.unfinitas.bookora.repository.WebhookDeliveryRepository;
+import fi.unfinitas.bookora.repository.WebhookEndpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookServiceTest {
+
+    @Mock
+    private WebhookEndpointRepository webhookEndpointRepository;
+
+    @Mock
+    private WebhookDeliveryRepository webhookDeliveryRepository;
+
+    @Mock
+    private ProviderRepository providerRepository;
+
+    @Mock
+    private WebhookUrlValidator webhookUrlValidator;
+
+    private WebhookService webhookService;
+    private final UUID providerId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        webhookService = new WebhookService(webhookEndpointRepository, webhookDeliveryRepository,
+                providerRepository, webhookUrlValidator, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    @DisplayName("Should register endpoint with a random secret")
+    void shouldRegisterEndpointWithSecret() {
+        when(providerRepository.getReferenceById(providerId)).thenReturn(Provider.builder().id(providerId).build());
+        when(webhookEndpointRepository.save(any(WebhookEndpoint.class))).thenAnswer(invocation -> {
+            final WebhookEndpoint endpoint = invocation.getArgument(0);
+            endpoint.setId(1L);
+            return endpoint;
+        });
+
+        final WebhookEndpointResponse first = webhookService.createEndpoint(providerId, "https://partner.example.com/hook");
+        final WebhookEndpointResponse second = webhookService.createEndpoint(providerId, "https://partner.example.com/hook");
+
+        assertThat(first.secret()).hasSize(64).isNotEqualTo(second.secret());
+        assertThat(first.active()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not register a refused URL")
+    void shouldNotRegisterRefusedUrl() {
+        doThrow(new InvalidWebhookUrlException("Webhook URL must not point at a local or private address"))
+                .when(webhookUrlValidator).validate("https://169.254.169.254/latest");
+
+        assertThatThrownBy(() -> webhookService.createEndpoint(providerId, "https://169.254.169.254/latest"))
+                .isInstanceOf(InvalidWebhookUrlException.class);
+        verifyNoInteractions(webhookEndpointRepository);
+    }
+
+    @Test
+    @DisplayName("Should list endpoints without secrets")
+    void shouldListEndpointsWithoutSecrets() {
+        when(webhookEndpointRepository.findByProviderIdOrderByIdAsc(providerId)).thenReturn(List.of(
+                WebhookEndpoint.builder().id(1L).url("https://partner.example.com/hook").secret("s").build()));
+
+        final List<WebhookEndpointResponse> endpoints = webhookService.getEndpoints(providerId);
+
+        assertThat(endpoints).hasSize(1);
+        assertThat(endpoints.getFirst().secret()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should throw when deleting an endpoint of another provider")
+    void shouldThrowWhenEndpointNotFound() {
+        when(webhookEndpointRepository.findByIdAndProviderId(1L, providerId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> webhookService.deleteEndpoint(providerId, 1L))
+                .isInstanceOf(WebhookEndpointNotFoundException.class);
+        verify(webhookEndpointRepository, never()).delete(any());
+    }
+
+    @Test
+    @DisplayName("Should queue one pending delivery per active endpoint")
+    @SuppressWarnings("unchecked")
+    void shouldQueueDeliveryPerEndpoint() {
+        final WebhookEndpoint first = WebhookEndpoint.builder().id(1L).build();
+        final WebhookEndpoint second = WebhookEndpoint.builder().id(2L).build();
+        when(webhookEndpointRepository.findByProviderIdAndActiveTrue(providerId)).thenReturn(List.of(first, second));
+
+        webhookService.enqueue(event());
+
+        final ArgumentCaptor<List<WebhookDelivery>> captor = ArgumentCaptor.forClass(List.class);
+        verify(webhookDeliveryRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).hasSize(2);
+        assertThat(captor.getValue()).allSatisfy(delivery -> {
+            assertThat(delivery.getEventType()).isEqualTo("booking.confirmed");
+            assertThat(delivery.getStatus()).isEqualTo(WebhookDeliveryStatus.PENDING);
+            assertThat(delivery.getPayload()).contains("\"bookingId\":42");
+            assertThat(delivery.getNextAttemptAt()).isNotNull();
+        });
+    }
+
+    @Test
+    @DisplayName("Should not write to the outbox when provider has no endpoints")
+    void shouldSkipProvidersWithoutEndpoints() {
+        when(webhookEndpointRepository.findByProviderIdAndActiveTrue(providerId)).thenReturn(List.of());
+
+        webhookService.enqueue(event());
+
+        verifyNoInteractions(webhookDeliveryRepository);
+    }
+
+    private BookingChangedEvent event() {
+        final LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return new BookingChangedEvent(BookingChangedEvent.Type.CONFIRMED, 42L, providerId, 1L, null,
+                BookingStatus.CONFIRMED, start, start.plusHours(1), LocalDateTime.now());
+    }
+}
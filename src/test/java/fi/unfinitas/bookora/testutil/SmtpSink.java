@@ -0,0 +1,151 @@
+package fi.unfinitas.bookora.testutil;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal SMTP server on a loopback port that accepts and discards every message, so the real
+ * mail path (MIME building, SMTP conversation) is exercised without an external mail server.
+ */
+public final class SmtpSink implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final Duration greetingDelay;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger messages = new AtomicInteger();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger noops = new AtomicInteger();
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+
+    public SmtpSink() throws IOException {
+        this(Duration.ZERO);
+    }
+
+    /**
+     * @param greetingDelay delay before the greeting of each new connection, standing in for the TCP and TLS
+     *                      handshakes of a remote mail server
+     */
+    public SmtpSink(final Duration greetingDelay) throws IOException {
+        this.greetingDelay = greetingDelay;
+        serverSocket = new ServerSocket(0, 200, InetAddress.getLoopbackAddress());
+        executor.submit(this::accept);
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * @return number of messages received so far
+     */
+    public int messages() {
+        return messages.get();
+    }
+
+    /**
+     * @return number of connections accepted so far
+     */
+    public int connections() {
+        return connections.get();
+    }
+
+    /**
+     * @return number of NOOP commands received so far
+     */
+    public int noops() {
+        return noops.get();
+    }
+
+    /**
+     * Close every open client connection without a goodbye, like a server dropping idle clients.
+     */
+    public void dropConnections() throws IOException {
+        for (final Socket socket : open) {
+            socket.close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                final Socket socket = serverSocket.accept();
+                executor.submit(() -> converse(socket));
+            } catch (final IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void converse(final Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)) {
+            open.add(socket);
+            connections.incrementAndGet();
+            if (greetingDelay.isPositive()) {
+                Thread.sleep(greetingDelay);
+            }
+            reply(out, "220 localhost SMTP sink");
+            boolean inData = false;
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (inData) {
+                    if (line.equals(".")) {
+                        inData = false;
+                        messages.incrementAndGet();
+                        reply(out, "250 OK");
+                    }
+                    continue;
+                }
+                final String command = line.length() < 4 ? line : line.substring(0, 4).toUpperCase(Locale.ROOT);
+                switch (command) {
+                    case "EHLO", "HELO" -> reply(out, "250 localhost");
+                    case "DATA" -> {
+                        inData = true;
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    }
+                    case "NOOP" -> {
+                        noops.incrementAndGet();
+                        reply(out, "250 OK");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "250 OK");
+                }
+            }
+        } catch (final IOException ignored) {
+            // Client went away
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            open.remove(socket);
+        }
+    }
+
+    private static void reply(final Writer out, final String line) throws IOException {
+        out.write(line + "\r\n");
+        out.flush();
+    }
+}
@@ -0,0 +1,44 @@
+package fi.unfinitas.bookora.testutil;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SmtpSinkTest {
+
+    private SmtpSink smtpSink;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtpSink = new SmtpSink();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        smtpSink.close();
+    }
+
+    @Test
+    @DisplayName("Should accept messages sent through JavaMail")
+    void shouldAcceptMessages() {
+        final JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpSink.port());
+
+        final SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("noreply@bookora.test");
+        message.setTo("guest@example.com");
+        message.setSubject("Booking Confirmation");
+        message.setText("Line one\n.\nLine after a lone dot");
+        mailSender.send(message, message);
+
+        assertThat(smtpSink.messages()).isEqualTo(2);
+    }
+}
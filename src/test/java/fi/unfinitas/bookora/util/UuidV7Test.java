@@ -0,0 +1,65 @@
+package fi.unfinitas.bookora.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UuidV7Test {
+
+    @Test
+    @DisplayName("Should set version 7 and the RFC 9562 variant")
+    void shouldSetVersionAndVariant() {
+        final UUID uuid = UuidV7.generate();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should embed the current time in milliseconds")
+    void shouldEmbedCurrentTime() {
+        final long before = System.currentTimeMillis();
+        final UUID uuid = UuidV7.generate();
+        final long after = System.currentTimeMillis();
+
+        assertThat(UuidV7.timestamp(uuid)).isBetween(before, after + 1);
+    }
+
+    @Test
+    @DisplayName("Should generate strictly increasing keys, also within one millisecond")
+    void shouldGenerateIncreasingKeys() {
+        final List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            uuids.add(UuidV7.generate());
+        }
+
+        // Postgres compares uuid bytes unsigned, which matches the string order
+        assertThat(uuids.stream().map(UUID::toString).toList()).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Should generate unique keys across threads")
+    void shouldGenerateUniqueKeysAcrossThreads() {
+        final Set<UUID> uuids = ConcurrentHashMap.newKeySet();
+
+        IntStream.range(0, 200_000).parallel().forEach(i -> uuids.add(UuidV7.generate()));
+
+        assertThat(uuids).hasSize(200_000);
+    }
+
+    @Test
+    @DisplayName("Should reject reading the time of a random UUID")
+    void shouldRejectRandomUuid() {
+        assertThatThrownBy(() -> UuidV7.timestamp(UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}